@@ -0,0 +1,10 @@
+package com.example.eventplanner.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async work runs on Spring Boot's applicationTaskExecutor
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
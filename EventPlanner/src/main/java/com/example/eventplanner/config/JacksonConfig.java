@@ -0,0 +1,18 @@
+package com.example.eventplanner.config;
+
+import com.example.eventplanner.dto.common.FieldSet;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+    // DTOs with a fields filter serialize in full unless a response narrows them with FieldSet.apply
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(FieldSet.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
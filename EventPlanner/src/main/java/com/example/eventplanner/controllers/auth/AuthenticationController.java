@@ -65,6 +65,15 @@ public class  AuthenticationController {
         return ResponseEntity.ok(authService.fastRegister(email));
     }
 
+    @PostMapping("/set-password")
+    public ResponseEntity<String> setPassword(@RequestBody SetPasswordRequestDTO request) {
+        try {
+            return ResponseEntity.ok(authService.setPassword(request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @PutMapping("/deactivate/{id}")
     public ResponseEntity<Boolean> deactivate(
             @PathVariable int id
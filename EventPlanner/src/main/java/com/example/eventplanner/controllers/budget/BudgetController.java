@@ -2,6 +2,7 @@ package com.example.eventplanner.controllers.budget;
 
 import com.example.eventplanner.dto.budget.BudgetDTO;
 import com.example.eventplanner.dto.budget.CreateBudgetRequestDTO;
+import com.example.eventplanner.dto.budget.OrganizerBudgetRollupDTO;
 import com.example.eventplanner.dto.budget.UpdateBudgetRequestDTO;
 import com.example.eventplanner.services.budget.BudgetService;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,12 @@ public class BudgetController {
         return ResponseEntity.ok(budget);
     }
 
+    @GetMapping("/organizer/{organizerId}/rollup")
+    public ResponseEntity<OrganizerBudgetRollupDTO> getOrganizerRollup(@PathVariable(name = "organizerId") int organizerId) {
+        OrganizerBudgetRollupDTO rollup = budgetService.getOrganizerRollup(organizerId);
+        return ResponseEntity.ok(rollup);
+    }
+
     @PostMapping("/create/{budgetId}")
     public ResponseEntity<BudgetDTO> createBudgetItem(@PathVariable(name = "budgetId") int budgetId,
                                                       @RequestBody CreateBudgetRequestDTO createBudgetRequestDTO) {
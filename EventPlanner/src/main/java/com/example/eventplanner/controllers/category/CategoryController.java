@@ -3,8 +3,11 @@ package com.example.eventplanner.controllers.category;
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
 import com.example.eventplanner.dto.category.CategoryRequestDTO;
 import com.example.eventplanner.exceptions.CategoryException;
+import com.example.eventplanner.services.catalog.CatalogSnapshot;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
 import com.example.eventplanner.services.category.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.parameters.P;
@@ -20,11 +23,13 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     @GetMapping("/get/approved")
-    public ResponseEntity<List<CategoryOverviewDTO>> getAllApprovedCategories() {
-        List<CategoryOverviewDTO> approvedCategories = categoryService.getAllApprovedCategories();
-        return ResponseEntity.ok(approvedCategories);
+    public ResponseEntity<byte[]> getAllApprovedCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot.respond(snapshot.approvedCategoriesJson(), ifNoneMatch);
     }
 
     @GetMapping("/get/pending")
@@ -67,8 +72,7 @@ public class CategoryController {
     @PutMapping("/replace/{categoryId}/{replacedCategoryId}")
     public ResponseEntity<?> replaceCategory(@PathVariable(name = "categoryId") int categoryId, @PathVariable(name = "replacedCategoryId") int replacedCategoryId) {
         try {
-            categoryService.replaceCategory(categoryId, replacedCategoryId);
-            return ResponseEntity.ok().build();
+            return ResponseEntity.ok(categoryService.replaceCategory(categoryId, replacedCategoryId));
         }catch(CategoryException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("message", e.getMessage());
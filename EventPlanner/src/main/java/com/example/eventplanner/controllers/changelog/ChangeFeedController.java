@@ -0,0 +1,23 @@
+package com.example.eventplanner.controllers.changelog;
+
+import com.example.eventplanner.dto.changelog.ChangeFeedDTO;
+import com.example.eventplanner.services.changelog.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+    private final ChangeFeedService changeFeedService;
+
+    // Changes to the user's events, merchandise, reviews and notifications after the given cursor
+    @GetMapping
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam int userId,
+                                                    @RequestParam(defaultValue = "0") long after,
+                                                    @RequestParam(defaultValue = "" + ChangeFeedService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(userId, after, limit));
+    }
+}
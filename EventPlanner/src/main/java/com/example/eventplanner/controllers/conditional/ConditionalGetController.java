@@ -0,0 +1,23 @@
+package com.example.eventplanner.controllers.conditional;
+
+import com.example.eventplanner.dto.conditional.ConditionalGetStatsDTO;
+import com.example.eventplanner.services.conditional.ConditionalGetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/conditional-get")
+@RequiredArgsConstructor
+public class ConditionalGetController {
+    private final ConditionalGetService conditionalGetService;
+
+    // Share of detail reads answered with 304, per resource
+    @GetMapping("/stats")
+    public ResponseEntity<List<ConditionalGetStatsDTO>> getStats() {
+        return ResponseEntity.ok(conditionalGetService.getStats());
+    }
+}
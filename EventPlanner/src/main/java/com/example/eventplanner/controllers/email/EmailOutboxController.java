@@ -0,0 +1,20 @@
+package com.example.eventplanner.controllers.email;
+
+import com.example.eventplanner.dto.email.EmailOutboxStatsDTO;
+import com.example.eventplanner.services.email.EmailOutboxWorker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/email")
+@RequiredArgsConstructor
+public class EmailOutboxController {
+    private final EmailOutboxWorker emailOutboxWorker;
+
+    @GetMapping("/outbox-stats")
+    public ResponseEntity<EmailOutboxStatsDTO> getOutboxStats() {
+        return ResponseEntity.ok(emailOutboxWorker.getStats());
+    }
+}
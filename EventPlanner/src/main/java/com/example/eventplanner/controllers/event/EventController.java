@@ -1,18 +1,26 @@
 package com.example.eventplanner.controllers.event;
 
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.event.*;
 import com.example.eventplanner.dto.filter.EventFiltersDTO;
 import com.example.eventplanner.services.JwtService;
+import com.example.eventplanner.services.conditional.ConditionalGetService;
+import com.example.eventplanner.services.event.BulkInviteService;
+import com.example.eventplanner.services.event.EventExportService;
 import com.example.eventplanner.services.event.EventService;
 import com.example.eventplanner.services.user.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,6 +33,9 @@ public class EventController {
     private final EventService eventService;
     private final UserService userService;
     private final JwtService jwtService;
+    private final BulkInviteService bulkInviteService;
+    private final EventExportService eventExportService;
+    private final ConditionalGetService conditionalGetService;
     @GetMapping("/top")
     public ResponseEntity<Page<EventOverviewDTO>> getTopEvents(
             @RequestParam int userId,
@@ -61,22 +72,60 @@ public class EventController {
         return ResponseEntity.ok(eventService.getEventReport(id));
     }
 
+    // Participants, reviews or budget lines of any size, written out row by row as csv or ndjson
+    @GetMapping("/{id}/export/{section}")
+    public ResponseEntity<StreamingResponseBody> exportEvent(
+            @PathVariable int id,
+            @PathVariable String section,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        EventExportService.Section exportSection = EventExportService.Section.from(section);
+        EventExportService.Format exportFormat = EventExportService.Format.from(format);
+        eventExportService.checkEvent(id, jwtService.extractBearerUsername(authorization));
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"event-" + id + "-"
+                        + exportSection.getPath() + "." + exportFormat.getExtension() + "\"")
+                .body(out -> eventExportService.export(id, exportSection, exportFormat, out));
+    }
+
+    // With slice=true the response has no totals, the count comes from /search/count
     @GetMapping("/search")
-    public ResponseEntity<Page<EventOverviewDTO>> filterEvents(
+    public ResponseEntity<Slice<EventOverviewDTO>> filterEvents(
             @RequestParam int userId,
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean slice,
             @PageableDefault(size = 10) Pageable pageable) {
         EventFiltersDTO eventFiltersDTO=new EventFiltersDTO(startDate,endDate,type,city);
+        if (slice) {
+            return ResponseEntity.ok(eventService.searchSlice(userId, eventFiltersDTO, search, pageable));
+        }
         return ResponseEntity.ok(eventService.search(userId,eventFiltersDTO,search,pageable));
     }
 
+    @GetMapping("/search/count")
+    public ResponseEntity<Long> countEvents(
+            @RequestParam int userId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String search) {
+        EventFiltersDTO eventFiltersDTO = new EventFiltersDTO(startDate, endDate, type, city);
+        return ResponseEntity.ok(eventService.countSearch(userId, eventFiltersDTO, search));
+    }
+
     @GetMapping("/{id}/agenda")
-    public ResponseEntity<List<ActivityOverviewDTO>> getAgenda(@PathVariable int id) {
-        return ResponseEntity.ok(eventService.getAgenda(id));
+    public ResponseEntity<List<ActivityOverviewDTO>> getAgenda(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGetService.respond(ConditionalGetService.Resource.EVENT_AGENDA,
+                conditionalGetService.agendaETag(id), ifNoneMatch, () -> eventService.getAgenda(id));
     }
 
     @GetMapping("/activities/{id}")
@@ -84,14 +133,26 @@ public class EventController {
         return ResponseEntity.ok(eventService.getActivity(id));
     }
 
+    // fields=title,date trims the event to those fields, see FieldSet
     @GetMapping("/{id}")
-    public ResponseEntity<CreatedEventOverviewDTO> getById(@PathVariable int id) {
-        return ResponseEntity.ok(eventService.getById(id));
+    public ResponseEntity<MappingJacksonValue> getById(@PathVariable int id,
+                                                       @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields);
+        return ResponseEntity.ok(fieldSet.apply(eventService.getById(id, fieldSet)));
+    }
+
+    // Details of up to 100 events in request order, missing or blocked ones are left out
+    @GetMapping("/batch")
+    public ResponseEntity<List<EventDetailsDTO>> getDetailsByIds(@RequestParam List<Integer> ids, @RequestParam int userId) {
+        return ResponseEntity.ok(eventService.getDetailsByIds(userId, ids));
     }
 
     @GetMapping("/{id}/details")
-    public ResponseEntity<EventDetailsDTO> getDetails(@PathVariable int id,@RequestParam int userId) {
-        return ResponseEntity.ok(eventService.getDetails(userId,id));
+    public ResponseEntity<EventDetailsDTO> getDetails(
+            @PathVariable int id, @RequestParam int userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGetService.respond(ConditionalGetService.Resource.EVENT_DETAILS,
+                conditionalGetService.eventDetailsETag(id, userId), ifNoneMatch, () -> eventService.getDetails(userId, id));
     }
 
     @PostMapping
@@ -147,6 +208,21 @@ public class EventController {
         return ResponseEntity.ok(jwtService.inviteToEvent(eventId,email));
     }
 
+    @PostMapping("/{eventId}/invite/bulk")
+    public ResponseEntity<BulkInviteJobDTO> inviteAllToEvent(
+            @PathVariable int eventId,
+            @RequestBody BulkInviteRequestDTO request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        String username = jwtService.extractBearerUsername(authorization);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkInviteService.invite(eventId, username, request.getEmails()));
+    }
+
+    @GetMapping("/invite/jobs/{jobId}")
+    public ResponseEntity<BulkInviteJobDTO> getInviteJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkInviteService.getJob(jobId));
+    }
+
     @PostMapping("/{eventId}/add-to-favorites/{userId}")
     public ResponseEntity<Boolean> favorizeEvent(
             @PathVariable int eventId,
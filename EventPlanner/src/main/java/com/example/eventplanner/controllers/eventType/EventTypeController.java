@@ -4,6 +4,8 @@ import com.example.eventplanner.dto.eventType.CreateEventTypeDTO;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.eventType.UpdateEventTypeDTO;
 import com.example.eventplanner.dto.filter.EventFiltersDTO;
+import com.example.eventplanner.services.catalog.CatalogSnapshot;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
 import com.example.eventplanner.services.eventType.EventTypeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,6 +13,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EventTypeController {
     private final EventTypeService eventTypeService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     @GetMapping("/all")
     public ResponseEntity<Page<EventTypeOverviewDTO>> getAllEventTypes(
@@ -32,13 +36,17 @@ public class EventTypeController {
     }
 
     @GetMapping("/all-wp")
-    public ResponseEntity<List<EventTypeOverviewDTO>> getAllEventTypesWithoutPagination() {
-        return ResponseEntity.ok(eventTypeService.getAll());
+    public ResponseEntity<byte[]> getAllEventTypesWithoutPagination(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot.respond(snapshot.eventTypesJson(), ifNoneMatch);
     }
 
     @GetMapping("/all-active-wp")
-    public ResponseEntity<List<EventTypeOverviewDTO>> getAllActiveEventTypesWithoutPagination() {
-        return ResponseEntity.ok(eventTypeService.getAllActive());
+    public ResponseEntity<byte[]> getAllActiveEventTypesWithoutPagination(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot.respond(snapshot.activeEventTypesJson(), ifNoneMatch);
     }
 
     @GetMapping("/{id}")
@@ -1,10 +1,15 @@
 package com.example.eventplanner.controllers.merchandise;
 
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
-import com.example.eventplanner.dto.category.GetAllCategoriesDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.event.EventOverviewDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseDetailDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
+import com.example.eventplanner.dto.merchandise.plan.BudgetPlanDTO;
+import com.example.eventplanner.services.catalog.CatalogSnapshot;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import com.example.eventplanner.services.conditional.ConditionalGetService;
+import com.example.eventplanner.services.merchandise.BudgetPlannerService;
 import com.example.eventplanner.services.merchandise.MerchandiseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -12,7 +17,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
@@ -24,6 +31,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MerchandiseController {
     private final MerchandiseService merchandiseService;
+    private final BudgetPlannerService budgetPlannerService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ConditionalGetService conditionalGetService;
 
     @GetMapping("/top")
     public ResponseEntity<List<MerchandiseOverviewDTO>> getTopMerchandise(@RequestParam int userId) {
@@ -36,15 +46,37 @@ public class MerchandiseController {
         return ResponseEntity.ok(merchandiseService.getMerchandiseByCategory(categoryId, maxPrice));
     }
 
+    @GetMapping("/plan/{eventId}")
+    public ResponseEntity<BudgetPlanDTO> planForEvent(@PathVariable(name = "eventId") int eventId) {
+        return ResponseEntity.ok(budgetPlannerService.planForEvent(eventId));
+    }
+
     @GetMapping("/categories")
-    public ResponseEntity<GetAllCategoriesDTO> getAllMerchandise() {
-        return ResponseEntity.ok(merchandiseService.getAllCategories());
+    public ResponseEntity<byte[]> getAllMerchandise(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return snapshot.respond(snapshot.allCategoriesJson(), ifNoneMatch);
+    }
+
+    // Details of up to 100 items in request order, missing or blocked ones are left out
+    @GetMapping("/batch")
+    public ResponseEntity<MappingJacksonValue> getMerchandiseByIds(@RequestParam List<Integer> ids,
+                                                                   @RequestParam int userId,
+                                                                   @RequestParam(required = false) String fields) {
+        FieldSet fieldSet = FieldSet.of(fields);
+        return ResponseEntity.ok(fieldSet.apply(merchandiseService.getMerchandiseByIds(userId, ids, fieldSet)));
     }
 
+    // fields=title,price trims the details to those fields, see FieldSet. Answers 304 to a current If-None-Match
     @GetMapping("/{id}")
-    public ResponseEntity<MerchandiseDetailDTO> getMerchandiseById(@PathVariable int id,@RequestParam int userId) {
-        MerchandiseDetailDTO merchandiseDetail = this.merchandiseService.getMerchandiseById(userId,id);
-        return ResponseEntity.ok(merchandiseDetail);
+    public ResponseEntity<MappingJacksonValue> getMerchandiseById(
+            @PathVariable int id, @RequestParam int userId,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSet fieldSet = FieldSet.of(fields);
+        return conditionalGetService.respond(ConditionalGetService.Resource.MERCHANDISE_DETAILS,
+                conditionalGetService.merchandiseDetailsETag(id, userId, fieldSet), ifNoneMatch,
+                () -> fieldSet.apply(this.merchandiseService.getMerchandiseById(userId, id, fieldSet)));
     }
 
     @GetMapping("/{userId}/favorite")
@@ -2,15 +2,17 @@ package com.example.eventplanner.controllers.merchandise;
 
 
 import com.example.eventplanner.dto.category.GetAllByCategoriesDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.filter.ProductFiltersDTO;
-import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseRequestDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseResponseDTO;
 
 import com.example.eventplanner.dto.merchandise.service.ServiceOverviewDTO;
+import com.example.eventplanner.exceptions.BudgetException;
+import com.example.eventplanner.services.budget.OptimisticRetryExecutor;
 import com.example.eventplanner.services.merchandise.ProductService;
+import com.example.eventplanner.services.streaming.JsonArrayStreamer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 
@@ -19,8 +21,12 @@ import com.example.eventplanner.dto.merchandise.product.create.CreateProductRequ
 import com.example.eventplanner.dto.merchandise.product.create.CreateProductResponseDTO;
 import com.example.eventplanner.dto.merchandise.product.update.UpdateProductRequestDTO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -31,10 +37,15 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ProductController {
     private final ProductService productService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
+    // Unpaged, so the array is written out as the rows are read instead of being built first
     @GetMapping()
-    public ResponseEntity<List<MerchandiseOverviewDTO>> getAll() {
-        return ResponseEntity.ok(productService.getAll());
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.body(productService::streamAll));
     }
 
     @GetMapping("/sp/{id}")
@@ -53,12 +64,16 @@ public class ProductController {
     }
 
     @PostMapping("/get-by-categories")
-    public ResponseEntity<List<MerchandiseOverviewDTO>> GetAllByCategories(@RequestBody GetAllByCategoriesDTO dto) {
-        return ResponseEntity.ok(productService.getAllByCategories(dto.getCategories()));
+    public ResponseEntity<StreamingResponseBody> GetAllByCategories(@RequestBody GetAllByCategoriesDTO dto) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.body(() -> productService.streamAllByCategories(dto.getCategories())));
     }
 
+    // With slice=true the response has no totals, the count comes from /search/count
+    // fields=title,price trims the overviews to those fields, see FieldSet
     @GetMapping("/search")
-    public ResponseEntity<Page<MerchandiseOverviewDTO>> filterProducts(
+    public ResponseEntity<MappingJacksonValue> filterProducts(
             @RequestParam int userId,
             @RequestParam(required = false) Double priceMin,
             @RequestParam(required = false) Double priceMax,
@@ -67,11 +82,31 @@ public class ProductController {
             @RequestParam(required = false) Integer durationMax,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields,
             @PageableDefault(size = 10) Pageable pageable) {
 
         ProductFiltersDTO productFiltersDTO=new ProductFiltersDTO(priceMin,priceMax,category,durationMin,durationMax,city);
 
-        return ResponseEntity.ok(productService.search(userId,productFiltersDTO,search,pageable));
+        FieldSet fieldSet = FieldSet.of(fields);
+        if (slice) {
+            return ResponseEntity.ok(fieldSet.apply(productService.searchSlice(userId, productFiltersDTO, search, pageable, fieldSet)));
+        }
+        return ResponseEntity.ok(fieldSet.apply(productService.search(userId, productFiltersDTO, search, pageable, fieldSet)));
+    }
+
+    @GetMapping("/search/count")
+    public ResponseEntity<Long> countProducts(
+            @RequestParam int userId,
+            @RequestParam(required = false) Double priceMin,
+            @RequestParam(required = false) Double priceMax,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer durationMin,
+            @RequestParam(required = false) Integer durationMax,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String search) {
+        ProductFiltersDTO productFiltersDTO = new ProductFiltersDTO(priceMin, priceMax, category, durationMin, durationMax, city);
+        return ResponseEntity.ok(productService.countSearch(userId, productFiltersDTO, search));
     }
 
     @PutMapping("/{id}")
@@ -97,8 +132,15 @@ public class ProductController {
     @PostMapping("/buy/{productId}")
     public ResponseEntity<Object> buyProduct(@PathVariable(value = "productId") int productId, @RequestBody int eventId) {
         try {
-            productService.buyProduct(productId, eventId);
-        }catch(Exception e) {
+            optimisticRetryExecutor.execute(() -> productService.buyProduct(productId, eventId));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Product was modified concurrently, please try again"));
+        } catch (BudgetException e) {
+            // Retries ran out on the budget, the purchase itself was fine
+            HttpStatus status = e.getErrorType() == BudgetException.ErrorType.CONCURRENT_MODIFICATION
+                    ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
         }
         return ResponseEntity.ok(Map.of("message", "Product bought"));
@@ -1,21 +1,25 @@
 package com.example.eventplanner.controllers.merchandise;
 
 import com.example.eventplanner.dto.category.GetAllByCategoriesDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.filter.ServiceFiltersDTO;
-import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
 import com.example.eventplanner.dto.merchandise.service.*;
 import com.example.eventplanner.dto.merchandise.service.create.CreateServiceRequestDTO;
 import com.example.eventplanner.dto.merchandise.service.create.CreateServiceResponseDTO;
 import com.example.eventplanner.dto.merchandise.service.update.UpdateServiceRequestDTO;
+import com.example.eventplanner.services.budget.OptimisticRetryExecutor;
 import com.example.eventplanner.services.merchandise.ServiceService;
+import com.example.eventplanner.services.streaming.JsonArrayStreamer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,13 +29,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ServiceController {
     private final ServiceService serviceService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
 
     @PostMapping("/{serviceId}/reserve")
     public ResponseEntity<ReservationResponseDTO> reserveService(
             @PathVariable int serviceId,
             @Valid @RequestBody ReservationRequestDTO request) {
-        ReservationResponseDTO response = serviceService.reserveService(serviceId, request);
+        ReservationResponseDTO response = optimisticRetryExecutor.execute(() -> serviceService.reserveService(serviceId, request));
         return ResponseEntity.ok(response);
     }
 
@@ -47,14 +53,19 @@ public class ServiceController {
         return ResponseEntity.ok(timeslots);
     }
 
+    // Unpaged, so the array is written out as the rows are read instead of being built first
     @GetMapping()
-    public ResponseEntity<List<ServiceOverviewDTO>> GetAll() {
-        return ResponseEntity.ok(serviceService.getAll());
+    public ResponseEntity<StreamingResponseBody> GetAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.body(serviceService::streamAll));
     }
 
     @PostMapping("/get-by-categories")
-    public ResponseEntity<List<ServiceOverviewDTO>> GetAllByCategories(@RequestBody GetAllByCategoriesDTO dto) {
-        return ResponseEntity.ok(serviceService.getAllByCategories(dto.getCategories()));
+    public ResponseEntity<StreamingResponseBody> GetAllByCategories(@RequestBody GetAllByCategoriesDTO dto) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.body(() -> serviceService.streamAllByCategories(dto.getCategories())));
     }
 
     @GetMapping("sp/{id}")
@@ -100,8 +111,10 @@ public class ServiceController {
         return ResponseEntity.noContent().build();
     }
 
+    // With slice=true the response has no totals, the count comes from /search/count
+    // fields=title,price trims the overviews to those fields, see FieldSet
     @GetMapping("/search")
-    public ResponseEntity<Page<MerchandiseOverviewDTO>> filterServices(
+    public ResponseEntity<MappingJacksonValue> filterServices(
             @RequestParam int userId,
             @RequestParam(required = false) Double priceMin,
             @RequestParam(required = false) Double priceMax,
@@ -110,11 +123,31 @@ public class ServiceController {
             @RequestParam(required = false) Integer durationMax,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(required = false) String fields,
             @PageableDefault(size = 10) Pageable pageable) {
 
         ServiceFiltersDTO serviceFiltersDTO=new ServiceFiltersDTO(priceMin,priceMax,category,durationMin,durationMax,city);
 
-        return ResponseEntity.ok(serviceService.search(userId,serviceFiltersDTO,search,pageable));
+        FieldSet fieldSet = FieldSet.of(fields);
+        if (slice) {
+            return ResponseEntity.ok(fieldSet.apply(serviceService.searchSlice(userId, serviceFiltersDTO, search, pageable, fieldSet)));
+        }
+        return ResponseEntity.ok(fieldSet.apply(serviceService.search(userId, serviceFiltersDTO, search, pageable, fieldSet)));
+    }
+
+    @GetMapping("/search/count")
+    public ResponseEntity<Long> countServices(
+            @RequestParam int userId,
+            @RequestParam(required = false) Double priceMin,
+            @RequestParam(required = false) Double priceMax,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer durationMin,
+            @RequestParam(required = false) Integer durationMax,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String search) {
+        ServiceFiltersDTO serviceFiltersDTO = new ServiceFiltersDTO(priceMin, priceMax, category, durationMin, durationMax, city);
+        return ResponseEntity.ok(serviceService.countSearch(userId, serviceFiltersDTO, search));
     }
 
 }
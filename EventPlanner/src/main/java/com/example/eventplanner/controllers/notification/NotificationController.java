@@ -2,9 +2,12 @@ package com.example.eventplanner.controllers.notification;
 
 import com.example.eventplanner.dto.notification.NotificationDTO;
 import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.notification.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -14,6 +17,14 @@ import java.util.List;
 @CrossOrigin
 public class NotificationController {
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
+
+    // Live notifications as server-sent events, a reconnect with Last-Event-ID is sent what it missed
+    @GetMapping(path = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable int userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationStreamService.subscribe(userId, lastEventId);
+    }
 
     @GetMapping("/unread/{userId}")
     public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@PathVariable int userId) {
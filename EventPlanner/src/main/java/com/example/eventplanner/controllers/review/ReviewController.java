@@ -3,6 +3,7 @@ package com.example.eventplanner.controllers.review;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseRequestDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseResponseDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewOverviewDTO;
+import com.example.eventplanner.dto.review.PendingReviewPageDTO;
 import com.example.eventplanner.dto.review.ReviewDTO;
 import com.example.eventplanner.dto.review.ReviewUpdateResponseDTO;
 import com.example.eventplanner.model.common.ReviewType;
@@ -11,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @CrossOrigin
 @RestController
@@ -32,8 +32,9 @@ public class ReviewController {
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<ReviewOverviewDTO>> getAllPendingReviews() {
-        List<ReviewOverviewDTO> pendingReviews = reviewService.getAllPendingReviews();
+    public ResponseEntity<PendingReviewPageDTO> getPendingReviews(@RequestParam(defaultValue = "0") int after,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        PendingReviewPageDTO pendingReviews = reviewService.getPendingReviews(after, Math.max(1, Math.min(size, 100)));
         return ResponseEntity.ok(pendingReviews);
     }
 
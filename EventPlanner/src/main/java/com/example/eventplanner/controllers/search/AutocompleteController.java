@@ -0,0 +1,24 @@
+package com.example.eventplanner.controllers.search;
+
+import com.example.eventplanner.dto.search.AutocompleteSuggestionDTO;
+import com.example.eventplanner.services.search.AutocompleteIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class AutocompleteController {
+    private final AutocompleteIndex autocompleteIndex;
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestionDTO>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteIndex.complete(prefix, limit));
+    }
+}
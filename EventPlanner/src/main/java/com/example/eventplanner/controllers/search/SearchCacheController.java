@@ -0,0 +1,20 @@
+package com.example.eventplanner.controllers.search;
+
+import com.example.eventplanner.dto.search.SearchCacheStatsDTO;
+import com.example.eventplanner.services.search.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class SearchCacheController {
+    private final SearchResultCache searchResultCache;
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<SearchCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(searchResultCache.getStats());
+    }
+}
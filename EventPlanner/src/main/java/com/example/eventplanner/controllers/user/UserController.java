@@ -6,9 +6,11 @@ import com.example.eventplanner.dto.event.FollowEventResponseDTO;
 import com.example.eventplanner.dto.merchandise.FavoriteResponseDTO;
 import com.example.eventplanner.dto.user.*;
 import com.example.eventplanner.dto.user.update.*;
+import com.example.eventplanner.services.conditional.ConditionalGetService;
 import com.example.eventplanner.services.event.EventService;
 import com.example.eventplanner.services.user.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,20 +23,30 @@ import java.util.List;
 public class UserController {
     private final UserService userService;
     private final EventService eventService;
+    private final ConditionalGetService conditionalGetService;
 
     @GetMapping("/{id}")
     public ResponseEntity<GetAuByIdResponseDTO> getAuById(@PathVariable(value = "id") int id) {
         return ResponseEntity.ok(userService.getAuById(id));
     }
 
+    // Chat lists load all their users in one call, up to 100 ids
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserOverviewDTO>> getUsersByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @GetMapping("/admin/{id}")
     public ResponseEntity<GetEoByIdResponseDTO> getAdminById(@PathVariable(value = "id") int id) {
         return ResponseEntity.ok(userService.getAdminById(id));
     }
 
     @GetMapping("/sp/{id}")
-    public ResponseEntity<GetSpByIdResponseDTO> getSpById(@PathVariable(value = "id") int id) {
-        return ResponseEntity.ok(userService.getSpById(id));
+    public ResponseEntity<GetSpByIdResponseDTO> getSpById(
+            @PathVariable(value = "id") int id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGetService.respond(ConditionalGetService.Resource.SERVICE_PROVIDER,
+                conditionalGetService.serviceProviderETag(id), ifNoneMatch, () -> userService.getSpById(id));
     }
 
     @GetMapping("/eo/{id}")
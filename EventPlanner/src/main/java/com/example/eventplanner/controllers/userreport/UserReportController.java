@@ -4,11 +4,12 @@ import com.example.eventplanner.dto.user.*;
 
 import com.example.eventplanner.services.userreport.UserReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @CrossOrigin
 @RestController
 @RequestMapping("/api/v1/user-reports")
@@ -24,8 +25,13 @@ public class UserReportController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserReportOverviewDTO>> getPendingReports(){
-        return ResponseEntity.ok(userReportService.getAllPendingReports());
+    public ResponseEntity<Page<UserReportOverviewDTO>> getPendingReports(@PageableDefault(size = 10) Pageable pageable){
+        return ResponseEntity.ok(userReportService.getPendingReports(pageable));
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<UserReportCountsDTO> getReportCounts() {
+        return ResponseEntity.ok(userReportService.getReportCounts());
     }
 
     /**
@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.budget;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BudgetRollupDTO {
+    private String month;
+    private BudgetItemCategoryDTO category;
+    private double plannedAmount;
+    private double spentAmount;
+    private long itemCount;
+}
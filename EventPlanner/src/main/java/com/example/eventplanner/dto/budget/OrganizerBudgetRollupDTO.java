@@ -0,0 +1,16 @@
+package com.example.eventplanner.dto.budget;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class OrganizerBudgetRollupDTO {
+    private int organizerId;
+    private double plannedAmount;
+    private double spentAmount;
+    private long itemCount;
+    private List<BudgetRollupDTO> rollups;
+}
@@ -0,0 +1,13 @@
+package com.example.eventplanner.dto.category;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CategoryReplaceResultDTO {
+    private int categoryId;
+    private int replacedCategoryId;
+    private int updatedMerchandise;
+    private int notifiedProviders;
+}
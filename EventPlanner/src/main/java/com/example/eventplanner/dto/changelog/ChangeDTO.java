@@ -0,0 +1,16 @@
+package com.example.eventplanner.dto.changelog;
+
+import com.example.eventplanner.model.common.ChangeLogEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO {
+    private long sequence;
+    private ChangeLogEntry.EntityType entityType;
+    private int entityId;
+    private ChangeLogEntry.Operation operation;
+}
@@ -0,0 +1,19 @@
+package com.example.eventplanner.dto.changelog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedDTO {
+    private List<ChangeDTO> changes;
+    // Pass back as "after" on the next sync, also when there were no changes
+    private long nextCursor;
+    private boolean hasMore;
+    // The cursor is older than the retained log, refetch the lists and continue from nextCursor
+    private boolean resyncRequired;
+}
@@ -0,0 +1,69 @@
+package com.example.eventplanner.dto.common;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client asked for with fields=title,price. They trim the DTOs annotated with
+ * {@code @JsonFilter(FieldSet.FILTER)}, and services use them to skip loading associations nobody will see. Without
+ * the parameter every field is included, the id always is. Unknown names are ignored.
+ */
+public final class FieldSet {
+    public static final String FILTER = "fields";
+    public static final FieldSet ALL = new FieldSet(null);
+
+    // null for every field
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSet of(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return ALL;
+        }
+        Set<String> names = new HashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                names.add(field.trim());
+            }
+        }
+        return new FieldSet(Collections.unmodifiableSet(names));
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+
+    public boolean includesAny(String... fields) {
+        for (String field : fields) {
+            if (includes(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Stable text for ETags and cache keys, empty for every field
+    public String key() {
+        return names == null ? "" : names.stream().sorted().collect(Collectors.joining("."));
+    }
+
+    // Response body serialized with only the requested fields
+    public MappingJacksonValue apply(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, names == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        return value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.eventplanner.dto.conditional;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalGetStatsDTO {
+    private String resource;
+    private long requests;
+    private long notModified;
+    private double notModifiedRatio;
+}
@@ -0,0 +1,20 @@
+package com.example.eventplanner.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxStatsDTO {
+    private long pending;
+    private long failed;
+    private long oldestPendingAgeMillis;
+    private long sent;
+    private long failedAttempts;
+    private long batches;
+    private double averageSendMillis;
+    private long maxBatchSendMillis;
+    private double averageDeliveryMillis;
+}
@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BudgetLineExportDTO {
+    private int id;
+    private String category;
+    private String merchandise;
+    private double maxAmount;
+    private double amountSpent;
+}
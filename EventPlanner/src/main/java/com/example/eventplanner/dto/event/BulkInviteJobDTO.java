@@ -0,0 +1,24 @@
+package com.example.eventplanner.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInviteJobDTO {
+    private String jobId;
+    private int eventId;
+    private String status;
+    private int total;
+    private int processed;
+    private int existingUsers;
+    // Blank, malformed or repeated addresses left out of the job
+    private int skipped;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkInviteRequestDTO {
+    private List<String> emails;
+}
@@ -1,10 +1,12 @@
 package com.example.eventplanner.dto.event;
 
 import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.merchandise.product.GetProductByIdResponseDTO;
 import com.example.eventplanner.dto.merchandise.service.GetServiceByIdResponseDTO;
 import com.example.eventplanner.model.user.EventOrganizer;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +16,7 @@ import java.util.Date;
 import java.util.List;
 
 
+@JsonFilter(FieldSet.FILTER)
 @Data
 @NoArgsConstructor
 public class CreatedEventOverviewDTO {
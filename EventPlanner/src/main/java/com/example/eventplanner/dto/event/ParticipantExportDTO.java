@@ -0,0 +1,15 @@
+package com.example.eventplanner.dto.event;
+
+import com.example.eventplanner.model.auth.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ParticipantExportDTO {
+    private int id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Role role;
+}
@@ -0,0 +1,16 @@
+package com.example.eventplanner.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ReviewExportDTO {
+    private int id;
+    private int rating;
+    private String comment;
+    private String reviewer;
+    private LocalDateTime createdAt;
+}
@@ -2,12 +2,15 @@ package com.example.eventplanner.dto.merchandise;
 
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
 import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.merchandise.review.DetailsReviewOverviewDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 
 import java.util.List;
 
+@JsonFilter(FieldSet.FILTER)
 @Data
 public class MerchandiseDetailDTO {
     private int id;
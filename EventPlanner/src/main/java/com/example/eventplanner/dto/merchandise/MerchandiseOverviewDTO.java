@@ -1,6 +1,8 @@
 package com.example.eventplanner.dto.merchandise;
 
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.model.common.Address;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,6 +10,7 @@ import java.util.Date;
 import java.util.List;
 
 
+@JsonFilter(FieldSet.FILTER)
 @Data
 @NoArgsConstructor
 public class MerchandiseOverviewDTO {
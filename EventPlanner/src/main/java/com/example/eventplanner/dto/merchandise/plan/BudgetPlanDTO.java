@@ -0,0 +1,17 @@
+package com.example.eventplanner.dto.merchandise.plan;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BudgetPlanDTO {
+    private int eventId;
+    private double totalPrice;
+    private double totalRating;
+    // False when the search ran out of time and the best plan found so far is returned
+    private boolean optimal;
+    private List<BudgetPlanItemDTO> items;
+}
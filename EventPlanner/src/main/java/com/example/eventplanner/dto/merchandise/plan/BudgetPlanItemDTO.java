@@ -0,0 +1,18 @@
+package com.example.eventplanner.dto.merchandise.plan;
+
+import com.example.eventplanner.dto.budget.BudgetItemCategoryDTO;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class BudgetPlanItemDTO {
+    private int budgetItemId;
+    private BudgetItemCategoryDTO category;
+    private double remainingAmount;
+    private int merchandiseId;
+    private String title;
+    private String type;
+    private double price;
+    private double rating;
+}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class NotificationDTO {
     private int id;
+    private Long sequence;
 
     private String content;
     private boolean read;
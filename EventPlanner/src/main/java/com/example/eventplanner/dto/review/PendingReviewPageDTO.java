@@ -0,0 +1,17 @@
+package com.example.eventplanner.dto.review;
+
+import com.example.eventplanner.dto.merchandise.review.ReviewOverviewDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingReviewPageDTO {
+    private List<ReviewOverviewDTO> reviews;
+    // Pass back as "after" to get the next page, null on the last page
+    private Integer nextCursor;
+}
@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDTO {
+    private String text;
+    private String kind;
+    private int weight;
+}
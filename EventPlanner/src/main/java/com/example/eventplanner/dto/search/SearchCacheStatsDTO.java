@@ -0,0 +1,17 @@
+package com.example.eventplanner.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCacheStatsDTO {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private long eventGeneration;
+    private long merchandiseGeneration;
+}
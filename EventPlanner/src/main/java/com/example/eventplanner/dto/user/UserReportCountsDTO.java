@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReportCountsDTO {
+    private long pending;
+    private long approved;
+    private long denied;
+}
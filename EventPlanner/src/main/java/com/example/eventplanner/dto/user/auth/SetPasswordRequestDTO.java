@@ -0,0 +1,14 @@
+package com.example.eventplanner.dto.user.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SetPasswordRequestDTO {
+    private String token;
+    private String newPassword1;
+    private String newPassword2;
+}
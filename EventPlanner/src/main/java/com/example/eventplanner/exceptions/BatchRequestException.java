@@ -0,0 +1,7 @@
+package com.example.eventplanner.exceptions;
+
+public class BatchRequestException extends RuntimeException {
+    public BatchRequestException(String message) {
+        super(message);
+    }
+}
@@ -7,7 +7,8 @@ public class BudgetException extends RuntimeException {
       MERCHANDISE_EXISTS,
       BUDGET_ITEM_NOT_FOUND,
       CATEGORY_NOT_FOUND,
-      PRICE_ILLEGAL_VALUE
+      PRICE_ILLEGAL_VALUE,
+      CONCURRENT_MODIFICATION
   }
 
   private ErrorType errorType;
@@ -9,7 +9,12 @@ public class EventException extends RuntimeException {
         INVALID_DATE,
         EVENT_TYPE_NOT_FOUND,
         ACTIVITY_NOT_FOUND,
-        INVALID_ACTIVITY_TIME
+        INVALID_ACTIVITY_TIME,
+        INVITE_JOB_NOT_FOUND,
+        INVALID_INVITE_LIST,
+        INVALID_EXPORT,
+        NOT_EVENT_ORGANIZER,
+        TOO_MANY_INVITE_JOBS
     }
 
     public EventException(String message, EventException.ErrorType errorType) {
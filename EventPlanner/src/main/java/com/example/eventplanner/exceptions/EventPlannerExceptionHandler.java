@@ -44,6 +44,11 @@ public class EventPlannerExceptionHandler {
         return new ResponseEntity<>(new ErrorResponseDto(ex.getMessage(), "blocked user"), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(BatchRequestException.class)
+    public ResponseEntity<ErrorResponseDto> handleBatchRequest(BatchRequestException ex) {
+        return new ResponseEntity<>(new ErrorResponseDto(ex.getMessage(), "TOO_MANY_IDS"), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleBlockedMerchandise(EntityNotFoundException ex) {
 
@@ -91,12 +96,21 @@ public class EventPlannerExceptionHandler {
             case ORGANIZER_NOT_FOUND:
             case EVENT_TYPE_NOT_FOUND:
             case ACTIVITY_NOT_FOUND:
+            case INVITE_JOB_NOT_FOUND:
                 status = HttpStatus.NOT_FOUND;
                 break;
             case INVALID_ACTIVITY_TIME:
             case INVALID_DATE:
+            case INVALID_INVITE_LIST:
+            case INVALID_EXPORT:
                 status = HttpStatus.BAD_REQUEST;
                 break;
+            case NOT_EVENT_ORGANIZER:
+                status = HttpStatus.FORBIDDEN;
+                break;
+            case TOO_MANY_INVITE_JOBS:
+                status = HttpStatus.TOO_MANY_REQUESTS;
+                break;
             default:
                 status = HttpStatus.INTERNAL_SERVER_ERROR;
         }
@@ -146,6 +160,7 @@ public class EventPlannerExceptionHandler {
                 status = HttpStatus.NOT_FOUND;
                 break;
             case MERCHANDISE_EXISTS:
+            case CONCURRENT_MODIFICATION:
                 status = HttpStatus.CONFLICT;
                 break;
             case PRICE_ILLEGAL_VALUE:
@@ -0,0 +1,50 @@
+package com.example.eventplanner.model.common;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One committed create, update or delete of a synced entity, or an entity added to or removed from one user's
+// favorites or followed events. Clients page through them by sequence
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_created_at", columnList = "created_at"),
+        @Index(name = "idx_change_log_user_id", columnList = "user_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+    public enum EntityType { EVENT, MERCHANDISE, REVIEW, NOTIFICATION, FAVORITE_EVENT, FOLLOWED_EVENT, FAVORITE_MERCHANDISE }
+
+    public enum Operation { CREATED, UPDATED, DELETED }
+
+    // Increasing in the order the entries are written, which is not the order they commit in
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    // Increasing in the order the entries commit, the sync cursor. Null until ChangeLogSequencer has seen the commit
+    @Column(unique = true)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 24)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private int entityId;
+
+    // Owner of the list for the favorite and followed entries, which only that user sees
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Operation operation;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
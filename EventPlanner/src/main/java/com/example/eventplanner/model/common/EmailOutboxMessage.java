@@ -0,0 +1,53 @@
+package com.example.eventplanner.model.common;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+// A mail written with the business change that caused it, sent once that change is committed
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxMessage {
+    public enum Status { PENDING, SENT, FAILED }
+
+    @Id
+    @SequenceGenerator(name = "email_outbox_gen", sequenceName = "email_outbox_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_gen")
+    private long id;
+
+    // Claims by concurrent workers conflict on this
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
+    private String sender;
+    private String recipient;
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private int attempts;
+
+    // Claimed messages are pushed past their lease, so a crashed worker's claim runs out by itself
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -13,9 +13,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence instead of identity so notification fan-out can batch the inserts
+    @SequenceGenerator(name = "notification_gen", sequenceName = "notification_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_gen")
     private int id;
 
+    // Increasing in the order notifications commit, the stream cursor. Ids are allocated in blocks per instance and
+    // at persist time, so they are not. Null until NotificationSequencer has seen the commit
+    @Column(unique = true)
+    private Long sequence;
+
     private String content;
     private boolean read;
     private LocalDateTime date;
@@ -10,6 +10,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_review_reviewer_target",
+                columnNames = {"reviewerId", "targetType", "targetId"}),
+        indexes = {
+                @Index(name = "idx_review_status_deleted_id", columnList = "status, deleted, id"),
+                @Index(name = "idx_review_target", columnList = "targetType, targetId")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,4 +33,9 @@ public class Review {
     @JoinColumn(name = "reviewerId")
     private User reviewer;
 
+    // What the review is about, stored directly so listing reviews needs no reverse lookup through the join tables
+    @Enumerated(EnumType.STRING)
+    private ReviewTargetType targetType;
+    private Integer targetId;
+
 }
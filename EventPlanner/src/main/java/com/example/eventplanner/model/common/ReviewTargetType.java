@@ -0,0 +1,7 @@
+package com.example.eventplanner.model.common;
+
+public enum ReviewTargetType {
+    EVENT,
+    PRODUCT,
+    SERVICE
+}
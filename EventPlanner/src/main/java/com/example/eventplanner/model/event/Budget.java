@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -16,6 +17,10 @@ public class Budget {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int budgetId;
 
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     @OneToMany
     @JoinTable(
             inverseJoinColumns = @JoinColumn(name = "budget_item_id")
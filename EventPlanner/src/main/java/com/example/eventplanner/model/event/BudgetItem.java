@@ -5,15 +5,29 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_budget_item_budget_merchandise",
+        columnNames = {"budget_id", "merchandise_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class BudgetItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence instead of identity so saveAll can batch the inserts
+    @SequenceGenerator(name = "budget_item_gen", sequenceName = "budget_item_seq", initialValue = 1000, allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_item_gen")
     private int id;
+
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
+    // Owning budget, kept alongside the join table so a merchandise can be bought only once per budget
+    @Column(name = "budget_id")
+    private Integer budgetId;
+
     private double maxAmount;
     private double amountSpent;
 
@@ -0,0 +1,32 @@
+package com.example.eventplanner.model.event;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_budget_rollup_organizer_period_category",
+        columnNames = {"organizer_id", "period", "category_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "organizer_id")
+    private int organizerId;
+
+    // Event month as yyyyMM, 0 for events without a date
+    private int period;
+
+    @ManyToOne
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    private double plannedAmount;
+    private double spentAmount;
+    private long itemCount;
+}
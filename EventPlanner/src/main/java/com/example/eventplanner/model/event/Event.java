@@ -9,10 +9,17 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.time.LocalDateTime;
 import java.util.List;
 @Entity
+@NamedEntityGraph(name = "Event.overview", attributeNodes = {
+        @NamedAttributeNode("type"), @NamedAttributeNode("organizer")
+})
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +28,11 @@ public class Event {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
+    // Bumped on every change to what the details and agenda show, conditional reads use it as their ETag
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     private String title;
     private String description;
     private int maxParticipants;
@@ -41,13 +53,16 @@ public class Event {
     @ManyToOne
     private EventType type;
 
+    // Pending reviews are not shown, approving one bumps the version instead
     @OneToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             inverseJoinColumns = @JoinColumn(name = "review_id")
     )
     private List<Review> reviews;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "events_merchandise",
             joinColumns = @JoinColumn(name = "event_id"),
@@ -60,6 +75,7 @@ public class Event {
     private Budget budget;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     private List<User> participants;
 
     @ManyToOne
@@ -9,26 +9,34 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.List;
 
 @Entity
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE) // All subclasses stored in one table
+// Detail page: category and approved reviews with their reviewers in one query, the other collections are batch fetched
+@NamedEntityGraph(name = "Merchandise.details",
+        attributeNodes = {@NamedAttributeNode("category"), @NamedAttributeNode(value = "reviews", subgraph = "reviews")},
+        subgraphs = @NamedSubgraph(name = "reviews", attributeNodes = @NamedAttributeNode("reviewer")))
 @DiscriminatorColumn(name = "merchandise_type", discriminatorType = DiscriminatorType.STRING)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class  Merchandise {
     @Id
-    @TableGenerator(
-            name = "merchandise",
-            table = "id_generator",
-            pkColumnName = "sequence_name",
-            valueColumnName = "next_val"
-    )
-    @GeneratedValue(strategy = GenerationType.TABLE,generator = "merchandise")
+    // Pooled: each node reserves blocks of 50 ids, seed merchandise stays below the initial value
+    @SequenceGenerator(name = "merchandise", sequenceName = "merchandise_seq", initialValue = 200, allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "merchandise")
     private int id;
 
+    // Bumped on every change to the details, conditional reads use it as their ETag
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     private String title;
     private String description;
     private String specificity;
@@ -47,12 +55,16 @@ public class  Merchandise {
 
     @ManyToMany
     @JoinTable(inverseJoinColumns = @JoinColumn(name = "photo_id"))
+    @BatchSize(size = 50)
     private List<MerchandisePhoto> photos;
 
+    // Pending reviews are not shown, approving one bumps the version instead
     @OneToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             inverseJoinColumns = @JoinColumn(name = "review_id")
     )
+    @BatchSize(size = 50)
     private List<Review> reviews;
 
     @ManyToMany(mappedBy = "merchandise")
@@ -71,6 +83,7 @@ public class  Merchandise {
             joinColumns = @JoinColumn(name = "merchandise_id"),
             inverseJoinColumns = @JoinColumn(name = "eventtype_id")
     )
+    @BatchSize(size = 50)
     private List<EventType> eventTypes;
 
     @Transient
@@ -2,11 +2,14 @@ package com.example.eventplanner.model.merchandise;
 
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
 @DiscriminatorValue("Product")
+@NamedEntityGraph(name = "Product.overview", attributeNodes = @NamedAttributeNode("category"))
 public class Product extends Merchandise {
 }
@@ -0,0 +1,37 @@
+package com.example.eventplanner.model.merchandise;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per merchandise bought or reserved for an event, so review eligibility is an index probe
+@Entity
+@Table(name = "purchase_ledger",
+        uniqueConstraints = @UniqueConstraint(name = "uk_purchase_ledger_event_merchandise",
+                columnNames = {"event_id", "merchandise_id"}),
+        indexes = {
+                @Index(name = "idx_purchase_ledger_organizer_merchandise", columnList = "organizer_id, merchandise_id"),
+                @Index(name = "idx_purchase_ledger_merchandise_event", columnList = "merchandise_id, event_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "event_id", nullable = false)
+    private int eventId;
+
+    @Column(name = "organizer_id")
+    private Integer organizerId;
+
+    @Column(name = "merchandise_id", nullable = false)
+    private int merchandiseId;
+
+    private LocalDateTime purchasedAt;
+}
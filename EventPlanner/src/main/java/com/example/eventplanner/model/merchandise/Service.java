@@ -4,17 +4,23 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 
 import java.util.List;
 
 @Entity
 @DiscriminatorValue("Service")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = "Service.overview", attributeNodes = @NamedAttributeNode("category")),
+        @NamedEntityGraph(name = "Service.calendar", attributeNodes = @NamedAttributeNode("timeslots"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Service extends Merchandise {
     @OneToMany
     @JoinTable(inverseJoinColumns = @JoinColumn(name = "timeslot_id"))
+    @BatchSize(size = 50)
     List<Timeslot> timeslots;
 }
@@ -7,6 +7,7 @@ import jakarta.persistence.OneToMany;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.List;
 
@@ -17,6 +18,7 @@ import java.util.List;
 @DiscriminatorValue("EventOrganizer")
 public class EventOrganizer extends User {
     @OneToMany
+    @OptimisticLock(excluded = true)
     private List<Event> organizingEvents;
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.List;
 
@@ -22,5 +23,6 @@ public class ServiceProvider extends User {
     private List<BusinessPhoto> photos;
 
     @OneToMany
+    @OptimisticLock(excluded = true)
     private List<Merchandise> merchandise;
 }
\ No newline at end of file
@@ -6,6 +6,9 @@ import com.example.eventplanner.model.event.Event;
 import com.example.eventplanner.model.merchandise.Merchandise;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,20 +19,23 @@ import java.util.List;
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE) // All subclasses stored in one table
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING)
 @Table(name = "\"user\"")
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     @Id
-    @TableGenerator(
-            name = "user_gen",
-            table = "id_generator",
-            pkColumnName = "sequence_name",
-            valueColumnName = "next_val"
-    )
-    @GeneratedValue(strategy = GenerationType.TABLE,generator = "user_gen")
+    // Pooled: each node reserves blocks of 50 ids, seed users stay below the initial value
+    @SequenceGenerator(name = "user_gen", sequenceName = "user_seq", initialValue = 300, allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_gen")
     private int id;
 
+    // Bumped on profile and block list changes, conditional reads use it as their ETag. The lists below it that
+    // grow on their own (notifications, favorites, attended and followed events) are left out of it
+    @Version
+    @ColumnDefault("0")
+    private int version;
+
     private String name;
     private String surname;
     private String phoneNumber;
@@ -54,28 +60,36 @@ public class User {
             inverseJoinColumns = @JoinColumn(name = "blocked_user_id"))
     private List<User> blockedUsers;
 
+    // Indexed so appending a notification is one insert instead of rewriting the whole join table
     @OneToMany
+    @OptimisticLock(excluded = true)
+    @OrderColumn(name = "notification_order")
+    @BatchSize(size = 50)
     private List<Notification> notifications;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(name = "user_attended_events",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "event_id"))
     private List<Event> attendedEvents;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(name = "user_favorite_events",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "event_id"))
     private List<Event> favoriteEvents;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(name = "user_followed_events",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "event_id"))
     private List<Event> followedEvents;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(name= "user_favorite_merchandises",
             joinColumns =  @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "merchandise_id"))
@@ -6,6 +6,7 @@ import lombok.Data;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_user_report_status_id", columnList = "status, id"))
 @Data
 public class UserReport {
     @Id
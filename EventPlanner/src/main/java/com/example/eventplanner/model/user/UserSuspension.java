@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_user_suspension_end_time", columnList = "endTime"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
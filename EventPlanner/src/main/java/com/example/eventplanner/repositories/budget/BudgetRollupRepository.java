@@ -0,0 +1,36 @@
+package com.example.eventplanner.repositories.budget;
+
+import com.example.eventplanner.model.event.BudgetRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BudgetRollupRepository extends JpaRepository<BudgetRollup, Integer> {
+    @Query("SELECT r FROM BudgetRollup r JOIN FETCH r.category c " +
+            "WHERE r.organizerId = :organizerId ORDER BY r.period, c.id")
+    List<BudgetRollup> findByOrganizerId(@Param("organizerId") int organizerId);
+
+    @Modifying
+    @Query("UPDATE BudgetRollup r SET r.plannedAmount = r.plannedAmount + :planned, " +
+            "r.spentAmount = r.spentAmount + :spent, r.itemCount = r.itemCount + :items " +
+            "WHERE r.organizerId = :organizerId AND r.period = :period AND r.category.id = :categoryId")
+    int increment(@Param("organizerId") int organizerId,
+                  @Param("period") int period,
+                  @Param("categoryId") int categoryId,
+                  @Param("planned") double planned,
+                  @Param("spent") double spent,
+                  @Param("items") long items);
+
+    // organizerId, categoryId, year, month, planned, spent, item count for every organizer/category/month,
+    // items without a category are not rolled up
+    @Query("SELECT o.id, bi.category.id, extract(year from e.date), extract(month from e.date), " +
+            "SUM(bi.maxAmount), SUM(bi.amountSpent), COUNT(bi) " +
+            "FROM Event e JOIN e.organizer o JOIN e.budget b JOIN b.budgetItems bi WHERE bi.category IS NOT NULL " +
+            "GROUP BY o.id, bi.category.id, extract(year from e.date), extract(month from e.date)")
+    List<Object[]> aggregateBudgetItems();
+}
@@ -0,0 +1,72 @@
+package com.example.eventplanner.repositories.changelog;
+
+import com.example.eventplanner.dto.changelog.ChangeDTO;
+import com.example.eventplanner.model.common.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    String ENTITY_TYPE = "com.example.eventplanner.model.common.ChangeLogEntry$EntityType";
+
+    // Changes after the cursor up to latest to what the user sees in their lists: events they organize, favorite or follow,
+    // their merchandise and favorites, their notifications and reviews they wrote or received, and the changes to
+    // their favorite and followed lists themselves
+    @Query("SELECT new com.example.eventplanner.dto.changelog.ChangeDTO(c.sequence, c.entityType, c.entityId, c.operation) " +
+            "FROM ChangeLogEntry c WHERE c.sequence > :after AND c.sequence <= :latest AND (c.userId = :userId " +
+            "OR (c.entityType = " + ENTITY_TYPE + ".EVENT AND (" +
+            "c.entityId IN (SELECT oe.id FROM Event oe WHERE oe.organizer.id = :userId) " +
+            "OR c.entityId IN (SELECT fe.id FROM User fu JOIN fu.favoriteEvents fe WHERE fu.id = :userId) " +
+            "OR c.entityId IN (SELECT le.id FROM User lu JOIN lu.followedEvents le WHERE lu.id = :userId))) " +
+            "OR (c.entityType = " + ENTITY_TYPE + ".MERCHANDISE AND (" +
+            "c.entityId IN (SELECT pm.id FROM ServiceProvider sp JOIN sp.merchandise pm WHERE sp.id = :userId) " +
+            "OR c.entityId IN (SELECT fm.id FROM User mu JOIN mu.favoriteMerchandises fm WHERE mu.id = :userId))) " +
+            "OR (c.entityType = " + ENTITY_TYPE + ".NOTIFICATION AND " +
+            "c.entityId IN (SELECT n.id FROM User nu JOIN nu.notifications n WHERE nu.id = :userId)) " +
+            "OR (c.entityType = " + ENTITY_TYPE + ".REVIEW AND c.entityId IN (SELECT r.id FROM Review r WHERE r.reviewer.id = :userId " +
+            "OR (r.targetType = com.example.eventplanner.model.common.ReviewTargetType.EVENT " +
+            "AND r.targetId IN (SELECT re.id FROM Event re WHERE re.organizer.id = :userId)) " +
+            "OR (r.targetType <> com.example.eventplanner.model.common.ReviewTargetType.EVENT " +
+            "AND r.targetId IN (SELECT rm.id FROM ServiceProvider rp JOIN rp.merchandise rm WHERE rp.id = :userId))))" +
+            ") ORDER BY c.sequence")
+    List<ChangeDTO> findFeed(@Param("userId") int userId,
+                             @Param("after") long after,
+                             @Param("latest") long latest,
+                             Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM ChangeLogEntry c")
+    long findLatestSequence();
+
+    @Query("SELECT MIN(c.sequence) FROM ChangeLogEntry c")
+    Long findOldestSequence();
+
+    @Query("SELECT MIN(c.id) FROM ChangeLogEntry c WHERE c.sequence IS NULL")
+    Long findFirstUnsequencedId();
+
+    // Numbers the committed entries from firstId on after base, keeping their relative order. Entries of
+    // transactions still in flight are invisible here and get numbered by a later call
+    @Modifying
+    @Query("UPDATE ChangeLogEntry c SET c.sequence = :base + c.id - :firstId + 1 WHERE c.sequence IS NULL AND c.id >= :firstId")
+    int assignSequences(@Param("base") long base, @Param("firstId") long firstId);
+
+    // Bulk updates skip the entity listeners, this records the merchandise they are about to change
+    @Modifying
+    @Query("INSERT INTO ChangeLogEntry (entityType, entityId, operation, createdAt) " +
+            "SELECT " + ENTITY_TYPE + ".MERCHANDISE, m.id, " +
+            "com.example.eventplanner.model.common.ChangeLogEntry$Operation.UPDATED, :now " +
+            "FROM Merchandise m WHERE m.category.id = :categoryId")
+    int insertMerchandiseOfCategory(@Param("categoryId") int categoryId, @Param("now") LocalDateTime now);
+
+    // The newest entry always stays, so a cursor older than the oldest one left is known to have missed changes
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.createdAt < :before " +
+            "AND c.sequence < (SELECT MAX(newest.sequence) FROM ChangeLogEntry newest)")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
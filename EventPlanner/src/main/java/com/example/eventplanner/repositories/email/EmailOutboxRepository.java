@@ -0,0 +1,38 @@
+package com.example.eventplanner.repositories.email;
+
+import com.example.eventplanner.model.common.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    // Oldest first, so a backlog drains in the order it was written
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status = com.example.eventplanner.model.common.EmailOutboxMessage$Status.PENDING " +
+            "AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<EmailOutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // The body is dropped once delivered, the outbox is not an archive of what was mailed
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.example.eventplanner.model.common.EmailOutboxMessage$Status.SENT, " +
+            "m.sentAt = :sentAt, m.attempts = m.attempts + 1, m.lastError = NULL, m.body = NULL, m.version = m.version + 1 " +
+            "WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status <> com.example.eventplanner.model.common.EmailOutboxMessage$Status.PENDING " +
+            "AND m.createdAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(EmailOutboxMessage.Status status);
+
+    @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status = com.example.eventplanner.model.common.EmailOutboxMessage$Status.PENDING")
+    LocalDateTime findOldestPendingCreatedAt();
+}
@@ -0,0 +1,31 @@
+package com.example.eventplanner.repositories.event;
+
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Overview list reads that select only the columns the event cards show, without loading the event entities.
+ */
+public interface EventOverviewQueries {
+    record Row(int id, String title, String description, LocalDateTime date, Address address, String type,
+               boolean isPublic, Integer organizerId) {
+    }
+
+    Page<Row> findOverviews(Specification<Event> spec, Pageable pageable);
+
+    // Reads one row past the page to tell whether a next page exists, without counting the matches
+    Slice<Row> findOverviewSlice(Specification<Event> spec, Pageable pageable);
+
+    long countOverviews(Specification<Event> spec);
+
+    // Rows in the order of the given ids
+    List<Row> findOverviewsByIds(Collection<Integer> ids);
+}
@@ -0,0 +1,93 @@
+package com.example.eventplanner.repositories.event;
+
+import com.example.eventplanner.model.event.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Transactional(readOnly = true)
+public class EventOverviewQueriesImpl implements EventOverviewQueries {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Row> findOverviews(Specification<Event> spec, Pageable pageable) {
+        TypedQuery<Row> query = entityManager.createQuery(overviewQuery(spec, pageable));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> countOverviews(spec));
+    }
+
+    @Override
+    public Slice<Row> findOverviewSlice(Specification<Event> spec, Pageable pageable) {
+        TypedQuery<Row> query = entityManager.createQuery(overviewQuery(spec, pageable));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Row> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<Row> findOverviewsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<Event> byIds = (root, query, cb) -> root.get("id").in(ids);
+        Map<Integer, Row> rows = entityManager.createQuery(overviewQuery(byIds, Pageable.unpaged())).getResultList()
+                .stream()
+                .collect(Collectors.toMap(Row::id, Function.identity()));
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    private CriteriaQuery<Row> overviewQuery(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Row> query = cb.createQuery(Row.class);
+        Root<Event> root = query.from(Event.class);
+        Join<Event, ?> type = root.join("type", JoinType.LEFT);
+        Join<Event, ?> organizer = root.join("organizer", JoinType.LEFT);
+        query.select(cb.construct(Row.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("date"), root.get("address"),
+                type.get("title"), root.get("isPublic"), organizer.get("id")));
+        applySpecification(spec, root, query, cb);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        return query;
+    }
+
+    @Override
+    public long countOverviews(Specification<Event> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Event> spec, Root<Event> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
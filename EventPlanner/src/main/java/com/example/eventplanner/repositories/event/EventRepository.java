@@ -1,14 +1,95 @@
 package com.example.eventplanner.repositories.event;
+import com.example.eventplanner.dto.event.BudgetLineExportDTO;
+import com.example.eventplanner.dto.event.ParticipantExportDTO;
+import com.example.eventplanner.dto.event.ReviewExportDTO;
 import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.eventplanner.model.event.Event;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Integer>, JpaSpecificationExecutor<Event>,
+        EventOverviewQueries {
+    @Override
+    @EntityGraph("Event.overview")
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph("Event.overview")
+    Page<Event> findAll(Pageable pageable);
+
+    @EntityGraph("Event.overview")
     Page<Event> findByOrganizerId(int organizerId, Pageable pageable);
     Event findByReviewsContaining(Review review);
+    Optional<Event> findByBudget_BudgetId(int budgetId);
+
+    @EntityGraph(attributePaths = {"type", "organizer", "reviews", "reviews.reviewer"})
+    @Query("SELECT e FROM Event e WHERE e.id IN :ids")
+    List<Event> findDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // eventId, title, city of every public event
+    @Query("SELECT e.id, e.title, e.address.city FROM Event e WHERE e.isPublic = true")
+    List<Object[]> findAutocompleteTerms();
+
+    @Query("SELECT o.username FROM Event e JOIN e.organizer o WHERE e.id = :id")
+    Optional<String> findOrganizerUsername(@Param("id") int id);
+
+    // event version, organizer version, the ETag source of the detail and agenda reads
+    @Query("SELECT e.version, o.version FROM Event e LEFT JOIN e.organizer o WHERE e.id = :id")
+    List<Object[]> findVersions(@Param("id") int id);
+
+    // For changes that do not touch the row itself, like a review being approved or an activity edited
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1 WHERE e.id = :id")
+    int incrementVersion(@Param("id") int id);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1 " +
+            "WHERE e.id IN (SELECT owner.id FROM Event owner JOIN owner.activities a WHERE a.id = :activityId)")
+    int incrementVersionByActivity(@Param("activityId") int activityId);
+
+    // eventId, title for a batch of reviewed events
+    @Query("SELECT e.id, e.title FROM Event e WHERE e.id IN :ids")
+    List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Export streams are forward-only DTO rows, nothing ends up in the persistence context.
+    // They have to be consumed inside a transaction and closed.
+    String EXPORT_FETCH_SIZE = "500";
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.example.eventplanner.dto.event.ParticipantExportDTO(p.id, p.username, p.name, p.surname, p.role) " +
+            "FROM Event e JOIN e.participants p WHERE e.id = :eventId ORDER BY p.id")
+    Stream<ParticipantExportDTO> streamParticipants(@Param("eventId") int eventId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.example.eventplanner.dto.event.ReviewExportDTO(r.id, r.rating, r.comment, u.username, r.createdAt) " +
+            "FROM Event e JOIN e.reviews r LEFT JOIN r.reviewer u " +
+            "WHERE e.id = :eventId AND r.status = :status ORDER BY r.id")
+    Stream<ReviewExportDTO> streamReviews(@Param("eventId") int eventId, @Param("status") ReviewStatus status);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.example.eventplanner.dto.event.BudgetLineExportDTO(bi.id, c.title, m.title, bi.maxAmount, bi.amountSpent) " +
+            "FROM Event e JOIN e.budget b JOIN b.budgetItems bi LEFT JOIN bi.category c LEFT JOIN bi.merchandise m " +
+            "WHERE e.id = :eventId ORDER BY bi.id")
+    Stream<BudgetLineExportDTO> streamBudgetLines(@Param("eventId") int eventId);
 }
@@ -11,4 +11,7 @@ import java.util.List;
 public interface EventTypeRepository extends JpaRepository<EventType, Integer> {
     @Query("SELECT et FROM EventType et JOIN et.categories c WHERE c.id = :categoryId")
     List<EventType> findEventTypesByCategoryId(@Param("categoryId") int categoryId);
+
+    @Query("SELECT DISTINCT et FROM EventType et LEFT JOIN FETCH et.categories")
+    List<EventType> findAllWithCategories();
 }
@@ -0,0 +1,41 @@
+package com.example.eventplanner.repositories.merchandise;
+
+import com.example.eventplanner.dto.common.FieldSet;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Overview list reads that select only the columns the overview cards show, the average rating and the first photo,
+ * without loading the merchandise entities. Given a {@link FieldSet}, the rating and photo subqueries are left out
+ * unless asked for.
+ */
+public interface MerchandiseOverviewQueries {
+    record Row(int id, String title, String description, Address address, double price,
+               Integer categoryId, String categoryTitle, String categoryDescription, Boolean categoryPending,
+               Double rating, Integer photoId, String photo, Integer providerId) {
+    }
+
+    <M extends Merchandise> Page<Row> findOverviews(Class<M> type, Specification<M> spec, Pageable pageable, FieldSet fields);
+
+    <M extends Merchandise> List<Row> findOverviews(Class<M> type, Specification<M> spec, Sort sort);
+
+    // Forward-only cursor over the rows, read it inside a transaction and close it
+    <M extends Merchandise> Stream<Row> streamOverviews(Class<M> type, Specification<M> spec, Sort sort);
+
+    // Reads one row past the page to tell whether a next page exists, without counting the matches
+    <M extends Merchandise> Slice<Row> findOverviewSlice(Class<M> type, Specification<M> spec, Pageable pageable, FieldSet fields);
+
+    <M extends Merchandise> long countOverviews(Class<M> type, Specification<M> spec);
+
+    // Rows in the order of the given ids
+    <M extends Merchandise> List<Row> findOverviewsByIds(Class<M> type, Collection<Integer> ids, FieldSet fields);
+}
@@ -0,0 +1,148 @@
+package com.example.eventplanner.repositories.merchandise;
+
+import com.example.eventplanner.dto.common.FieldSet;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import com.example.eventplanner.model.merchandise.MerchandisePhoto;
+import com.example.eventplanner.model.user.ServiceProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class MerchandiseOverviewQueriesImpl implements MerchandiseOverviewQueries {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <M extends Merchandise> Page<Row> findOverviews(Class<M> type, Specification<M> spec, Pageable pageable,
+                                                           FieldSet fields) {
+        TypedQuery<Row> query = entityManager.createQuery(overviewQuery(type, spec, pageable.getSort(), fields));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> countOverviews(type, spec));
+    }
+
+    @Override
+    public <M extends Merchandise> Slice<Row> findOverviewSlice(Class<M> type, Specification<M> spec, Pageable pageable,
+                                                                FieldSet fields) {
+        TypedQuery<Row> query = entityManager.createQuery(overviewQuery(type, spec, pageable.getSort(), fields));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Row> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public <M extends Merchandise> List<Row> findOverviews(Class<M> type, Specification<M> spec, Sort sort) {
+        return entityManager.createQuery(overviewQuery(type, spec, sort, FieldSet.ALL)).getResultList();
+    }
+
+    @Override
+    public <M extends Merchandise> Stream<Row> streamOverviews(Class<M> type, Specification<M> spec, Sort sort) {
+        return entityManager.createQuery(overviewQuery(type, spec, sort, FieldSet.ALL))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public <M extends Merchandise> List<Row> findOverviewsByIds(Class<M> type, Collection<Integer> ids, FieldSet fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<M> byIds = (root, query, cb) -> root.get("id").in(ids);
+        Map<Integer, Row> rows = entityManager.createQuery(overviewQuery(type, byIds, Sort.unsorted(), fields)).getResultList()
+                .stream()
+                .collect(Collectors.toMap(Row::id, Function.identity()));
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    private <M extends Merchandise> CriteriaQuery<Row> overviewQuery(Class<M> type, Specification<M> spec, Sort sort,
+                                                                     FieldSet fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Row> query = cb.createQuery(Row.class);
+        Root<M> root = query.from(type);
+        Join<M, ?> category = root.join("category", JoinType.LEFT);
+
+        // Columns nobody asked for are selected as nulls, which the constructor expression still needs
+        Expression<Double> rating = cb.nullLiteral(Double.class);
+        if (fields.includes("rating")) {
+            Subquery<Double> average = query.subquery(Double.class);
+            Join<M, ?> reviews = average.correlate(root).join("reviews");
+            rating = average.select(cb.avg(reviews.get("rating")));
+        }
+
+        // The first photo is the one with the lowest id, the same one the entity list starts with
+        Expression<Integer> photoId = cb.nullLiteral(Integer.class);
+        Expression<String> photo = cb.nullLiteral(String.class);
+        if (fields.includes("photos")) {
+            photoId = firstPhotoId(query.subquery(Integer.class), root, cb);
+            Subquery<String> firstPhoto = query.subquery(String.class);
+            Root<MerchandisePhoto> photoRoot = firstPhoto.from(MerchandisePhoto.class);
+            photo = firstPhoto.select(photoRoot.get("photo"))
+                    .where(cb.equal(photoRoot.get("id"), firstPhotoId(firstPhoto.subquery(Integer.class), root, cb)));
+        }
+
+        Subquery<Integer> provider = query.subquery(Integer.class);
+        Root<ServiceProvider> providerRoot = provider.from(ServiceProvider.class);
+        Join<ServiceProvider, Merchandise> merchandise = providerRoot.join("merchandise");
+        provider.select(cb.min(providerRoot.get("id"))).where(cb.equal(merchandise, root));
+
+        query.select(cb.construct(Row.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("address"), root.get("price"),
+                category.get("id"), category.get("title"), category.get("description"), category.get("pending"),
+                rating, photoId, photo, provider));
+        applySpecification(spec, root, query, cb);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    private <M extends Merchandise> Subquery<Integer> firstPhotoId(Subquery<Integer> subquery, Root<M> root, CriteriaBuilder cb) {
+        Join<M, MerchandisePhoto> photos = subquery.correlate(root).join("photos");
+        return subquery.select(cb.min(photos.get("id")));
+    }
+
+    @Override
+    public <M extends Merchandise> long countOverviews(Class<M> type, Specification<M> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<M> root = query.from(type);
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <M extends Merchandise> void applySpecification(Specification<M> spec, Root<M> root, CriteriaQuery<?> query,
+                                                            CriteriaBuilder cb) {
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -1,18 +1,79 @@
 package com.example.eventplanner.repositories.merchandise;
 
+import com.example.eventplanner.model.event.Category;
 import com.example.eventplanner.model.merchandise.Merchandise;
 import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.merchandise.MerchandiseState;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MerchandiseRepository extends JpaRepository<Merchandise, Integer> {
     @Query("SELECT m FROM Merchandise m WHERE m.category.id = :categoryId")
     List<Merchandise> findMerchandiseByCategory(@Param("categoryId") int categoryId);
+
+    @EntityGraph("Merchandise.details")
+    @Query("SELECT m FROM Merchandise m WHERE m.id = :id")
+    Optional<Merchandise> findDetailsById(@Param("id") int id);
+
+    @EntityGraph("Merchandise.details")
+    @Query("SELECT m FROM Merchandise m WHERE m.id IN :ids")
+    List<Merchandise> findDetailsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Merchandise m SET m.state = :state, m.available = true, m.version = m.version + 1 " +
+            "WHERE m.category.id = :categoryId AND m.state = :currentState")
+    int updateStateByCategory(@Param("categoryId") int categoryId,
+                              @Param("currentState") MerchandiseState currentState,
+                              @Param("state") MerchandiseState state);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Merchandise m SET m.category = :category, m.state = :state, m.available = true, " +
+            "m.version = m.version + 1 " +
+            "WHERE m.category.id = :replacedCategoryId")
+    int moveToCategory(@Param("replacedCategoryId") int replacedCategoryId,
+                       @Param("category") Category category,
+                       @Param("state") MerchandiseState state);
+    @Query("SELECT m FROM Merchandise m WHERE m.category.id = :categoryId " +
+            "AND m.available = true AND m.deleted = false AND m.visible = true " +
+            "AND (m.price - m.price * m.discount / 100) < :maxPrice")
+    List<Merchandise> findAvailableByCategoryBelowPrice(@Param("categoryId") int categoryId,
+                                                        @Param("maxPrice") double maxPrice);
+
+    // merchandiseId, categoryId, title, type, discounted price and average rating of everything that can be planned.
+    // Only the approved reviews the details page shows count, unmoderated ones cannot move a plan
+    @Query("SELECT m.id, m.category.id, m.title, TYPE(m), (m.price - m.price * m.discount / 100), " +
+            "(SELECT COALESCE(AVG(r.rating), 0) FROM Merchandise rm JOIN rm.reviews r WHERE rm.id = m.id " +
+            "AND r.status = com.example.eventplanner.model.merchandise.ReviewStatus.APPROVED AND r.deleted = false) " +
+            "FROM Merchandise m WHERE m.category.id IN :categoryIds " +
+            "AND m.available = true AND m.deleted = false AND m.visible = true")
+    List<Object[]> findPlanningCandidates(@Param("categoryIds") Collection<Integer> categoryIds);
+
+    // merchandiseId, type, title, city of everything listed
+    @Query("SELECT m.id, TYPE(m), m.title, m.address.city FROM Merchandise m WHERE m.visible = true AND m.deleted = false")
+    List<Object[]> findAutocompleteTerms();
+
+    // ETag source of the detail reads
+    @Query("SELECT m.version FROM Merchandise m WHERE m.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
+
+    // For changes that do not touch the row itself, like a review being approved
+    @Modifying
+    @Query("UPDATE Merchandise m SET m.version = m.version + 1 WHERE m.id = :id")
+    int incrementVersion(@Param("id") int id);
+
+    // merchandiseId, title for a batch of reviewed merchandise
+    @Query("SELECT m.id, m.title FROM Merchandise m WHERE m.id IN :ids")
+    List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Integer> ids);
+
     Merchandise findByReviewsContaining(Review review); // To find merchandise containing the review
 
     @Query("SELECT CASE WHEN COUNT(m) > 0 THEN TRUE ELSE FALSE END " +
@@ -2,6 +2,10 @@ package com.example.eventplanner.repositories.merchandise;
 
 import com.example.eventplanner.model.merchandise.Product;
 import com.example.eventplanner.model.merchandise.Service;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -9,7 +13,13 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product>,
+        MerchandiseOverviewQueries {
+    @Override
+    @EntityGraph("Product.overview")
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    @EntityGraph("Product.overview")
     @Query("SELECT p FROM Product p WHERE p.category.id IN :categoryIds AND p.available = true AND p.deleted = false")
     List<Product> findAllByCategories(@Param("categoryIds") List<Integer> categoryIds);
 }
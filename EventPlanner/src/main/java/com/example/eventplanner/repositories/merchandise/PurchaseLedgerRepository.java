@@ -0,0 +1,20 @@
+package com.example.eventplanner.repositories.merchandise;
+
+import com.example.eventplanner.model.merchandise.PurchaseLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PurchaseLedgerRepository extends JpaRepository<PurchaseLedgerEntry, Integer> {
+    boolean existsByEventIdAndMerchandiseId(int eventId, int merchandiseId);
+
+    boolean existsByOrganizerIdAndMerchandiseId(int organizerId, int merchandiseId);
+
+    // Whether the merchandise was bought for any event the user attended
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN TRUE ELSE FALSE END FROM PurchaseLedgerEntry l " +
+            "WHERE l.merchandiseId = :merchandiseId AND l.eventId IN " +
+            "(SELECT e.id FROM User u JOIN u.attendedEvents e WHERE u.id = :userId)")
+    boolean existsForAttendee(@Param("userId") int userId, @Param("merchandiseId") int merchandiseId);
+}
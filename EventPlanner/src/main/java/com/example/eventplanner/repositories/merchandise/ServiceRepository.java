@@ -3,6 +3,10 @@ package com.example.eventplanner.repositories.merchandise;
 
 import com.example.eventplanner.model.merchandise.Service;
 import com.example.eventplanner.model.merchandise.Timeslot;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -11,14 +15,25 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
-public interface ServiceRepository extends JpaRepository<Service, Integer>, JpaSpecificationExecutor<Service> {
+public interface ServiceRepository extends JpaRepository<Service, Integer>, JpaSpecificationExecutor<Service>,
+        MerchandiseOverviewQueries {
     @Query("SELECT s FROM Service s WHERE s.id = :serviceId AND s.available = true AND s.deleted = false")
     Optional<Service> findAvailableServiceById(@Param("serviceId") int serviceId);
 
+    @Override
+    @EntityGraph("Service.overview")
+    Page<Service> findAll(Specification<Service> spec, Pageable pageable);
+
+    @EntityGraph("Service.overview")
     @Query("SELECT s FROM Service s WHERE s.category.id IN :categoryIds AND s.available = true AND s.deleted = false")
     List<Service> findAllByCategories(@Param("categoryIds") List<Integer> categoryIds);
 
     @Query("SELECT s FROM Service s JOIN s.timeslots t WHERE t = :timeslot")
     List<Service> findByTimeslotsContaining(@Param("timeslot") Timeslot timeslot);
+
+    @EntityGraph("Service.calendar")
+    @Query("SELECT s FROM Service s WHERE s.id IN " +
+            "(SELECT m.id FROM ServiceProvider sp JOIN sp.merchandise m WHERE sp.id = :serviceProviderId) ORDER BY s.id")
+    List<Service> findCalendarByServiceProviderId(@Param("serviceProviderId") int serviceProviderId);
 }
 
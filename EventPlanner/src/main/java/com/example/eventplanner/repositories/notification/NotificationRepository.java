@@ -1,7 +1,34 @@
 package com.example.eventplanner.repositories.notification;
 
+import com.example.eventplanner.dto.notification.NotificationDTO;
 import com.example.eventplanner.model.common.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Integer> {
+    // The notifications a reconnecting stream client missed, oldest first
+    @Query("SELECT new com.example.eventplanner.dto.notification.NotificationDTO(n.id, n.sequence, n.content, n.read, n.date, n.type, n.entityId) " +
+            "FROM User u JOIN u.notifications n WHERE u.id = :userId AND n.sequence > :after ORDER BY n.sequence")
+    List<NotificationDTO> findByUserAfter(@Param("userId") int userId, @Param("after") long after, Pageable pageable);
+
+    // Recipient id and notification of everything numbered after the cursor, oldest first
+    @Query("SELECT u.id, n FROM User u JOIN u.notifications n WHERE n.sequence > :after ORDER BY n.sequence")
+    List<Object[]> findSequencedAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(n.sequence), 0) FROM Notification n")
+    long findLatestSequence();
+
+    @Query("SELECT MIN(n.id) FROM Notification n WHERE n.sequence IS NULL")
+    Integer findFirstUnsequencedId();
+
+    // Numbers the committed notifications from firstId on after base, keeping their relative order. Notifications of
+    // transactions still in flight are invisible here and get numbered by a later call
+    @Modifying
+    @Query("UPDATE Notification n SET n.sequence = :base + n.id - :firstId + 1 WHERE n.sequence IS NULL AND n.id >= :firstId")
+    int assignSequences(@Param("base") long base, @Param("firstId") int firstId);
 }
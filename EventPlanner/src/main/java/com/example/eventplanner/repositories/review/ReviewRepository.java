@@ -1,11 +1,23 @@
 package com.example.eventplanner.repositories.review;
 
 import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.common.ReviewTargetType;
 import com.example.eventplanner.model.merchandise.ReviewStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
-    List<Review> findByStatusAndDeletedFalse(ReviewStatus status); // To find all pending reviews
+    boolean existsByReviewer_IdAndTargetTypeInAndTargetId(int reviewerId, Collection<ReviewTargetType> targetTypes, int targetId);
+
+    // Keyset page ordered by id, pass the last seen id to continue without an offset scan
+    @Query("SELECT r FROM Review r LEFT JOIN FETCH r.reviewer " +
+            "WHERE r.status = :status AND r.deleted = false AND r.id > :afterId ORDER BY r.id")
+    List<Review> findPageByStatus(@Param("status") ReviewStatus status,
+                                  @Param("afterId") int afterId,
+                                  Pageable pageable);
 }
\ No newline at end of file
@@ -7,10 +7,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 @Repository
 public interface ServiceProviderRepository extends JpaRepository<ServiceProvider, Integer> {
     Optional<ServiceProvider> findByUsername(String username);
     @Query("SELECT sp FROM ServiceProvider sp JOIN sp.merchandise m WHERE m.id = :merchandiseId")
     Optional<ServiceProvider> findByMerchandiseId(@Param("merchandiseId") int merchandiseId);
+
+    // merchandise id, provider for a batch of merchandise
+    @Query("SELECT m.id, sp FROM ServiceProvider sp JOIN sp.merchandise m WHERE m.id IN :merchandiseIds")
+    List<Object[]> findByMerchandiseIdIn(@Param("merchandiseIds") Collection<Integer> merchandiseIds);
+
+    // provider id, merchandise id, merchandise type
+    @Query("SELECT sp.id, m.id, TYPE(m) FROM ServiceProvider sp JOIN sp.merchandise m " +
+            "WHERE m.category.id = :categoryId ORDER BY sp.id, m.id")
+    List<Object[]> findProviderMerchandiseByCategory(@Param("categoryId") int categoryId);
 }
@@ -2,8 +2,11 @@ package com.example.eventplanner.repositories.user;
 
 import com.example.eventplanner.model.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 @Repository
@@ -11,4 +14,17 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByUsername(String username);
     List<User> findByFollowedEvents_Id(int eventId);
+
+    // Which of the given usernames belong to a registered user, one query for a whole invite list
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // ETag source of the profile reads, also part of the ETags of reads that depend on who is blocked
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Integer> findVersionById(@Param("id") int id);
+
+    // Ids of the users the given user blocked and of the users that blocked the given user
+    @Query("SELECT CASE WHEN u.id = :userId THEN b.id ELSE u.id END FROM User u JOIN u.blockedUsers b " +
+            "WHERE u.id = :userId OR b.id = :userId")
+    List<Integer> findBlockRelatedIds(@Param("userId") int userId);
 }
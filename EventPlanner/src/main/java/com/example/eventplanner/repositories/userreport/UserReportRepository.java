@@ -1,7 +1,35 @@
 package com.example.eventplanner.repositories.userreport;
 
 import com.example.eventplanner.model.user.UserReport;
+import com.example.eventplanner.model.user.UserReportStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserReportRepository extends JpaRepository<UserReport, Integer> {
+    @Query("SELECT r FROM UserReport r JOIN FETCH r.reporter JOIN FETCH r.reportedUser " +
+            "WHERE r.status = :status ORDER BY r.id")
+    List<UserReport> findPageByStatus(@Param("status") UserReportStatus status, Pageable pageable);
+
+    // status, number of reports with that status
+    @Query("SELECT r.status, COUNT(r) FROM UserReport r GROUP BY r.status")
+    List<Object[]> countByStatus();
+
+    // Moves the report only if it still has the status it was read with, 0 when someone else moderated it first
+    @Modifying
+    @Query("UPDATE UserReport r SET r.status = :status, r.approvalDate = :approvalDate " +
+            "WHERE r.id = :id AND (r.status = :previous OR (:previous IS NULL AND r.status IS NULL))")
+    int updateStatus(@Param("id") int id,
+                     @Param("previous") UserReportStatus previous,
+                     @Param("status") UserReportStatus status,
+                     @Param("approvalDate") Date approvalDate);
+
+    @Query("SELECT r.status FROM UserReport r WHERE r.id = :id")
+    Optional<UserReportStatus> findStatusById(@Param("id") int id);
 }
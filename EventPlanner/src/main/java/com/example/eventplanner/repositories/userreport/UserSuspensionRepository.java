@@ -3,9 +3,16 @@ package com.example.eventplanner.repositories.userreport;
 import com.example.eventplanner.model.user.User;
 import com.example.eventplanner.model.user.UserSuspension;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserSuspensionRepository extends JpaRepository<UserSuspension, Integer> {
-    Optional<UserSuspension> findByUserAndStartTimeBeforeAndEndTimeAfter(User user, LocalDateTime now1, LocalDateTime now2);}
+    Optional<UserSuspension> findByUserAndStartTimeBeforeAndEndTimeAfter(User user, LocalDateTime now1, LocalDateTime now2);
+
+    @Query("SELECT s FROM UserSuspension s JOIN FETCH s.user WHERE s.endTime > :now")
+    List<UserSuspension> findAllActiveAfter(@Param("now") LocalDateTime now);
+}
@@ -22,6 +22,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -56,6 +57,9 @@ public class AuthenticationService {
     private final ServiceProviderRepository serviceProviderRepository;
     private final ServiceService serviceService;
 
+    @Value("${application.front.address.set-password}")
+    private String frontSetPasswordAddress;
+
 //    public RegisterAuUserResponseRequestDTO registerAu(RegisterAuUserRequestDTO request) {
 //
 //        // check if user already exist. if exist than authenticate the user
@@ -259,9 +263,14 @@ public class AuthenticationService {
         authenticatedUser.setAddress(new Address());
         authenticatedUser.setPhoto("");
         authenticatedUser.setRole(Role.AU);
-        emailService.sendMail("system@eventplanner.com",email,"Generated Password","Dear user, your password has been automatically generated, please" +
-                " change it as soon as possible! <br><br>Password:<br>"+userPassword);
+        // The generated password only signs this request in, the user picks their own through the mailed link
+        long setPasswordTokenExpire = 24 * 60 * 60 * 1000;
+        String setPasswordToken = jwtService.generateActivationToken(authenticatedUser, setPasswordTokenExpire);
+        authenticatedUser.setActivationToken(setPasswordToken);
+        authenticatedUser.setTokenExpiration(new Date(System.currentTimeMillis() + setPasswordTokenExpire));
         userRepository.save(authenticatedUser);
+        // Queued once the user exists, so a failed registration leaves no mail behind
+        sendSetPasswordEmail(email, setPasswordToken);
         return authenticate(new LoginRequestDTO(email,userPassword));
     }
 
@@ -272,6 +281,41 @@ public class AuthenticationService {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
 
+    private void sendSetPasswordEmail(String email, String token) {
+        String setPasswordLink = frontSetPasswordAddress + "?token=" + token;
+        emailService.sendMail(
+                "system@eventplanner.com",
+                email,
+                "Set Your Password",
+                "Dear user, your account has been created. Click the link to set your password: \n\n" +
+                        "<a href='" + setPasswordLink + "'> Set password" + "</a>" +
+                        "\n\nThe link will expire in 24 hours."
+        );
+    }
+
+    public String setPassword(SetPasswordRequestDTO request) {
+        String username = jwtService.extractUsername(request.getToken());
+
+        User user = repository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Invalid or expired token"));
+
+        if (user.getActivationToken() == null || !user.getActivationToken().equals(request.getToken()) ||
+                user.getTokenExpiration().before(new Date())) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+        if (request.getNewPassword1() == null || !request.getNewPassword1().equals(request.getNewPassword2())) {
+            throw new RuntimeException("New passwords do not match");
+        }
+
+        // The link works once
+        user.setPassword(passwordEncoder.encode(request.getNewPassword1()));
+        user.setActivationToken(null);
+        user.setTokenExpiration(null);
+        repository.save(user);
+
+        return "Password set successfully!";
+    }
+
     private void sendActivationEmail(String email, String token) {
         String activationLink = "http://localhost:8080/api/v1/auth/activate?token=" + token;
         emailService.sendMail(
@@ -11,6 +11,7 @@ import com.example.eventplanner.services.email.EmailService;
 import com.example.eventplanner.services.event.EventService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -45,6 +46,8 @@ public class JwtService {
     @Value("${application.front.address.fast-register}")
     private String frontFastRegisterAddress;
 
+    private volatile SecretKey signingKey;
+
 
     private final TokenRepository tokenRepository;
     private final EventRepository eventRepository;
@@ -57,6 +60,18 @@ public class JwtService {
     }
 
 
+    // Subject of an "Authorization: Bearer" header, null when there is none or it does not verify
+    public String extractBearerUsername(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return extractUsername(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public boolean isValid(String token, UserDetails user) {
         String username = extractUsername(token);
 
@@ -130,7 +145,6 @@ public class JwtService {
 
     public InviteResponseDTO inviteToEvent(int eventId, String userEmail) {
         Optional<User> user = userRepository.findByUsername(userEmail);
-        String token = generateEventToken(eventId, userEmail);
         Optional<Event> eventOptional = eventRepository.findById(eventId);
 
         if (!eventOptional.isPresent()) {
@@ -138,6 +152,7 @@ public class JwtService {
         }
 
         Event event = eventOptional.get();
+        String token = generateEventToken(event, userEmail);
         String emailBody = eventService.buildEventEmailBody(event, token, user.isPresent(),frontLoginAddress,frontFastRegisterAddress);
         String subject = "Invitation to " + event.getTitle();
 
@@ -146,26 +161,36 @@ public class JwtService {
     }
 
     public String generateEventToken(int eventId, String userEmail) {
-        long expireTime = accessTokenExpire;
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event not found"));
-        String token = Jwts
+        return generateEventToken(event, userEmail);
+    }
+
+    // For callers that already hold the event, bulk invitations mint thousands of these
+    public String generateEventToken(Event event, String userEmail) {
+        long expireTime = accessTokenExpire;
+        long now = System.currentTimeMillis();
+        return Jwts
                 .builder()
                 .subject(event.getTitle())
                 .claim("id", event.getId())
                 .claim("title", event.getTitle())
                 .claim("userEmail", userEmail)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expireTime))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expireTime))
                 .signWith(getSigninKey())
                 .compact();
-
-        return token;
     }
 
+    // Decoded once, the key is the same for every token
     private SecretKey getSigninKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64URL.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
     }
 
     public String generateActivationToken(User user, long activationTokenExpire) {
@@ -0,0 +1,30 @@
+package com.example.eventplanner.services.batch;
+
+import com.example.eventplanner.exceptions.BatchRequestException;
+
+import java.util.*;
+
+// Id lists of the multi-get endpoints
+public final class BatchIds {
+    public static final int MAX_IDS = 100;
+
+    private BatchIds() {
+    }
+
+    // Each id once, in the order it was first asked for
+    public static List<Integer> distinct(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() > MAX_IDS) {
+            throw new BatchRequestException("At most " + MAX_IDS + " ids can be loaded at once");
+        }
+        return distinct;
+    }
+
+    // Whatever was found, in request order, ids without a value are left out
+    public static <T> List<T> inRequestOrder(List<Integer> ids, Map<Integer, T> found) {
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+}
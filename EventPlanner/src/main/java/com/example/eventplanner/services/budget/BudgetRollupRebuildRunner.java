@@ -0,0 +1,20 @@
+package com.example.eventplanner.services.budget;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// One-shot backfill: start with --application.budget.rollup.rebuild=true to recompute every rollup from the budgets
+@Component
+@ConditionalOnProperty(name = "application.budget.rollup.rebuild", havingValue = "true")
+@RequiredArgsConstructor
+public class BudgetRollupRebuildRunner implements ApplicationRunner {
+    private final BudgetRollupService budgetRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        budgetRollupService.rebuild();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.eventplanner.services.budget;
+
+import com.example.eventplanner.dto.budget.BudgetItemCategoryDTO;
+import com.example.eventplanner.dto.budget.BudgetRollupDTO;
+import com.example.eventplanner.dto.budget.OrganizerBudgetRollupDTO;
+import com.example.eventplanner.model.event.BudgetItem;
+import com.example.eventplanner.model.event.BudgetRollup;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.repositories.budget.BudgetRollupRepository;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetRollupService {
+    private final BudgetRollupRepository budgetRollupRepository;
+    private final EventRepository eventRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    public record Delta(int organizerId, int period, int categoryId, double planned, double spent, long items) {
+    }
+
+    public OrganizerBudgetRollupDTO getOrganizerRollup(int organizerId) {
+        List<BudgetRollup> rollups = budgetRollupRepository.findByOrganizerId(organizerId);
+
+        OrganizerBudgetRollupDTO dto = new OrganizerBudgetRollupDTO();
+        dto.setOrganizerId(organizerId);
+        dto.setPlannedAmount(rollups.stream().mapToDouble(BudgetRollup::getPlannedAmount).sum());
+        dto.setSpentAmount(rollups.stream().mapToDouble(BudgetRollup::getSpentAmount).sum());
+        dto.setItemCount(rollups.stream().mapToLong(BudgetRollup::getItemCount).sum());
+        dto.setRollups(rollups.stream().map(this::mapToBudgetRollupDTO).toList());
+        return dto;
+    }
+
+    private BudgetRollupDTO mapToBudgetRollupDTO(BudgetRollup rollup) {
+        BudgetRollupDTO dto = new BudgetRollupDTO();
+        dto.setMonth(rollup.getPeriod() == 0 ? null
+                : String.format("%04d-%02d", rollup.getPeriod() / 100, rollup.getPeriod() % 100));
+
+        BudgetItemCategoryDTO categoryDTO = new BudgetItemCategoryDTO();
+        categoryDTO.setId(rollup.getCategory().getId());
+        categoryDTO.setTitle(rollup.getCategory().getTitle());
+        dto.setCategory(categoryDTO);
+
+        dto.setPlannedAmount(rollup.getPlannedAmount());
+        dto.setSpentAmount(rollup.getSpentAmount());
+        dto.setItemCount(rollup.getItemCount());
+        return dto;
+    }
+
+    public void record(Event event, Category category, double planned, double spent, long items) {
+        if (event == null || event.getOrganizer() == null || category == null) {
+            return;
+        }
+        // Applied after the budget write commits, so retried or rolled back writes never skew the totals
+        eventPublisher.publishEvent(new Delta(event.getOrganizer().getId(), toPeriod(event.getDate()),
+                category.getId(), planned, spent, items));
+    }
+
+    public void recordForBudget(int budgetId, Category category, double planned, double spent, long items) {
+        eventRepository.findByBudget_BudgetId(budgetId)
+                .ifPresent(event -> record(event, category, planned, spent, items));
+    }
+
+    public void recordItemAdded(Event event, BudgetItem item) {
+        record(event, item.getCategory(), item.getMaxAmount(), item.getAmountSpent(), 1);
+    }
+
+    public void recordEventMoved(Event event, LocalDateTime previousDate) {
+        if (event.getOrganizer() == null || event.getBudget() == null || event.getBudget().getBudgetItems() == null
+                || toPeriod(previousDate) == toPeriod(event.getDate())) {
+            return;
+        }
+        for (BudgetItem item : event.getBudget().getBudgetItems()) {
+            // Items without a category are not rolled up, there is nothing to move
+            if (item.getCategory() == null) {
+                continue;
+            }
+            eventPublisher.publishEvent(new Delta(event.getOrganizer().getId(), toPeriod(previousDate),
+                    item.getCategory().getId(), -item.getMaxAmount(), -item.getAmountSpent(), -1));
+            recordItemAdded(event, item);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void applyDelta(Delta delta) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> upsert(delta));
+            } catch (DataIntegrityViolationException e) {
+                // Another writer created the row first, it exists now so the increment succeeds
+                transactionTemplate.executeWithoutResult(status -> upsert(delta));
+            }
+        } catch (RuntimeException e) {
+            // The budget write itself already succeeded, a rebuild reconciles the rollup
+            log.warn("Could not apply budget rollup delta {}", delta, e);
+        }
+    }
+
+    private void upsert(Delta delta) {
+        int updated = budgetRollupRepository.increment(delta.organizerId(), delta.period(), delta.categoryId(),
+                delta.planned(), delta.spent(), delta.items());
+        if (updated == 0) {
+            BudgetRollup rollup = new BudgetRollup();
+            rollup.setOrganizerId(delta.organizerId());
+            rollup.setPeriod(delta.period());
+            rollup.setCategory(categoryRepository.getReferenceById(delta.categoryId()));
+            rollup.setPlannedAmount(delta.planned());
+            rollup.setSpentAmount(delta.spent());
+            rollup.setItemCount(delta.items());
+            budgetRollupRepository.saveAndFlush(rollup);
+        }
+    }
+
+    public int rebuild() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer rows = transactionTemplate.execute(status -> {
+            budgetRollupRepository.deleteAllInBatch();
+
+            List<BudgetRollup> rollups = new ArrayList<>();
+            for (Object[] row : budgetRollupRepository.aggregateBudgetItems()) {
+                BudgetRollup rollup = new BudgetRollup();
+                rollup.setOrganizerId(((Number) row[0]).intValue());
+                rollup.setCategory(categoryRepository.getReferenceById(((Number) row[1]).intValue()));
+                rollup.setPeriod(row[2] == null ? 0 : ((Number) row[2]).intValue() * 100 + ((Number) row[3]).intValue());
+                rollup.setPlannedAmount(row[4] == null ? 0 : ((Number) row[4]).doubleValue());
+                rollup.setSpentAmount(row[5] == null ? 0 : ((Number) row[5]).doubleValue());
+                rollup.setItemCount(((Number) row[6]).longValue());
+                rollups.add(rollup);
+            }
+            budgetRollupRepository.saveAll(rollups);
+            return rollups.size();
+        });
+        log.info("Rebuilt {} budget rollup rows", rows);
+        return rows == null ? 0 : rows;
+    }
+
+    private int toPeriod(LocalDateTime date) {
+        return date == null ? 0 : date.getYear() * 100 + date.getMonthValue();
+    }
+}
@@ -21,6 +21,7 @@ public class BudgetService {
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
     private final BudgetItemRepository budgetItemRepository;
+    private final BudgetRollupService budgetRollupService;
 
     public BudgetDTO getBudgetByEvent(int eventId) {
         Event event = eventRepository.findById(eventId).orElseThrow(() ->
@@ -84,6 +85,10 @@ public class BudgetService {
         return budgetItemDTO;
     }
 
+    public OrganizerBudgetRollupDTO getOrganizerRollup(int organizerId) {
+        return budgetRollupService.getOrganizerRollup(organizerId);
+    }
+
     public BudgetDTO deleteBudgetItem(int budgetId, int budgetItemId) {
         Budget budget = budgetRepository.findById(budgetId).orElseThrow(() ->
                 new BudgetException("Cannot find budget with id " + budgetId,
@@ -100,6 +105,8 @@ public class BudgetService {
             }else {
                 budget.getBudgetItems().remove(budgetItem);
                 budgetRepository.save(budget);
+                budgetRollupService.recordForBudget(budgetId, budgetItem.getCategory(),
+                        -budgetItem.getMaxAmount(), -budgetItem.getAmountSpent(), -1);
             }
         }else {
             throw new BudgetException("Cannot find budget item with id " + budgetItemId,
@@ -126,8 +133,10 @@ public class BudgetService {
                 throw new BudgetException("Cannot update budget item because it already has merchandise",
                         BudgetException.ErrorType.MERCHANDISE_EXISTS);
             }else {
+                double plannedDelta = price - budgetItem.getMaxAmount();
                 budgetItem.setMaxAmount(price);
                 budgetRepository.save(budget);
+                budgetRollupService.recordForBudget(budgetId, budgetItem.getCategory(), plannedDelta, 0, 0);
             }
         }else {
             throw new BudgetException("Cannot find budget item with id " + budgetItemId,
@@ -147,6 +156,7 @@ public class BudgetService {
         BudgetItem budgetItem = new BudgetItem();
         budgetItem.setAmountSpent(0.0);
         budgetItem.setMaxAmount(createBudgetRequestDTO.getMaxAmount());
+        budgetItem.setBudgetId(budget.getBudgetId());
         Category category = categoryRepository.findById(createBudgetRequestDTO.getCategoryId()).orElse(null);
         if(category != null) {
             budgetItem.setCategory(category);
@@ -157,6 +167,7 @@ public class BudgetService {
         BudgetItem savedBudgetItem = budgetItemRepository.save(budgetItem);
         budget.getBudgetItems().add(savedBudgetItem);
         budgetRepository.save(budget);
+        budgetRollupService.recordForBudget(budgetId, category, budgetItem.getMaxAmount(), 0, 1);
 
         return mapToBudgetDTO(budget);
     }
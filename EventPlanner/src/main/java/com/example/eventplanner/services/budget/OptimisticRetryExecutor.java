@@ -0,0 +1,58 @@
+package com.example.eventplanner.services.budget;
+
+import com.example.eventplanner.exceptions.BudgetException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a budget write when it loses an optimistic lock race on {@code Budget}/{@code BudgetItem}.
+ * The action must open its own transaction (a {@code @Transactional} service method), so every
+ * attempt reloads the budget with a fresh version.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryExecutor(@Value("${application.budget.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${application.budget.retry.backoff-ms:20}") long backoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = Math.max(0, backoffMillis);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Budget update still conflicting after {} attempts", attempt);
+                    throw new BudgetException("Budget was modified concurrently, please try again",
+                            BudgetException.ErrorType.CONCURRENT_MODIFICATION);
+                }
+                log.debug("Budget update conflict on attempt {}, retrying", attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMillis == 0) {
+            return;
+        }
+        // Linear backoff with jitter so colliding writers do not retry in lockstep
+        long delay = backoffMillis * attempt + (long) (Math.random() * backoffMillis);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BudgetException("Interrupted while retrying budget update",
+                    BudgetException.ErrorType.CONCURRENT_MODIFICATION);
+        }
+    }
+}
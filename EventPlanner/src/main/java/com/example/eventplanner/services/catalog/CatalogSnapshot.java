@@ -0,0 +1,40 @@
+package com.example.eventplanner.services.catalog;
+
+import com.example.eventplanner.dto.category.CategoryOverviewDTO;
+import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
+import com.example.eventplanner.services.conditional.ETags;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Immutable view of event types and categories together with their pre-serialized JSON. A new snapshot replaces the
+ * old one as a whole, so readers never see a half rebuilt catalog.
+ */
+public record CatalogSnapshot(long version,
+                              List<EventTypeOverviewDTO> eventTypes,
+                              List<EventTypeOverviewDTO> activeEventTypes,
+                              List<CategoryOverviewDTO> approvedCategories,
+                              List<CategoryOverviewDTO> allCategories,
+                              byte[] eventTypesJson,
+                              byte[] activeEventTypesJson,
+                              byte[] approvedCategoriesJson,
+                              byte[] allCategoriesJson) {
+
+    public String eTag() {
+        return "\"catalog-" + version + "\"";
+    }
+
+    // Serves pre-serialized JSON, or 304 when the client already holds this version
+    public ResponseEntity<byte[]> respond(byte[] json, String ifNoneMatch) {
+        if (ETags.matches(ifNoneMatch, eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.eventplanner.services.catalog;
+
+import com.example.eventplanner.dto.category.CategoryOverviewDTO;
+import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+    private final EventTypeRepository eventTypeRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Seeded from the clock so ETags handed out before a restart never match a new snapshot
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    public record CatalogChanged() {
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot.get();
+        return current != null ? current : rebuild();
+    }
+
+    // Call after any event type or category write, the snapshot is rebuilt once that write commits
+    public void markChanged() {
+        eventPublisher.publishEvent(new CatalogChanged());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChanged event) {
+        rebuild();
+    }
+
+    public synchronized CatalogSnapshot rebuild() {
+        List<EventTypeOverviewDTO> eventTypes = eventTypeRepository.findAllWithCategories().stream()
+                .sorted(Comparator.comparingInt(EventType::getId))
+                .map(this::convertToEventTypeDTO)
+                .toList();
+        List<EventTypeOverviewDTO> activeEventTypes = eventTypes.stream()
+                .filter(EventTypeOverviewDTO::isActive)
+                .toList();
+        List<CategoryOverviewDTO> approvedCategories = categoryRepository.findAllApprovedCategories().stream()
+                .map(this::convertToApprovalAwareCategoryDTO)
+                .toList();
+        List<CategoryOverviewDTO> allCategories = categoryRepository.findAll().stream()
+                .map(this::convertToCategoryDTO)
+                .toList();
+
+        CatalogSnapshot rebuilt = new CatalogSnapshot(versions.incrementAndGet(),
+                eventTypes, activeEventTypes, approvedCategories, allCategories,
+                serialize(eventTypes), serialize(activeEventTypes),
+                serialize(approvedCategories), serialize(new AllCategoriesView(allCategories)));
+        snapshot.set(rebuilt);
+        log.debug("Rebuilt catalog snapshot version {}", rebuilt.version());
+        return rebuilt;
+    }
+
+    // Same shape as GetAllCategoriesDTO
+    private record AllCategoriesView(List<CategoryOverviewDTO> categories) {
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", e);
+        }
+    }
+
+    private EventTypeOverviewDTO convertToEventTypeDTO(EventType eventType) {
+        EventTypeOverviewDTO dto = new EventTypeOverviewDTO();
+        dto.setId(eventType.getId());
+        dto.setTitle(eventType.getTitle());
+        dto.setDescription(eventType.getDescription());
+        dto.setActive(eventType.isActive());
+        dto.setRecommendedCategories(
+                eventType.getCategories()
+                        .stream()
+                        .map(this::convertToCategoryDTO)
+                        .toList());
+        return dto;
+    }
+
+    private CategoryOverviewDTO convertToCategoryDTO(Category category) {
+        CategoryOverviewDTO categoryDTO = new CategoryOverviewDTO();
+        categoryDTO.setId(category.getId());
+        categoryDTO.setTitle(category.getTitle());
+        categoryDTO.setDescription(category.getDescription());
+        return categoryDTO;
+    }
+
+    // The category endpoints also expose the approval flag
+    private CategoryOverviewDTO convertToApprovalAwareCategoryDTO(Category category) {
+        CategoryOverviewDTO categoryDTO = convertToCategoryDTO(category);
+        categoryDTO.setPending(category.isPending());
+        return categoryDTO;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.eventplanner.services.category;
 
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
+import com.example.eventplanner.dto.category.CategoryReplaceResultDTO;
 import com.example.eventplanner.dto.category.CategoryRequestDTO;
 import com.example.eventplanner.exceptions.CategoryException;
 import com.example.eventplanner.model.common.NotificationType;
@@ -10,32 +11,41 @@ import com.example.eventplanner.model.event.EventType;
 import com.example.eventplanner.model.merchandise.Merchandise;
 import com.example.eventplanner.model.merchandise.MerchandiseState;
 import com.example.eventplanner.model.merchandise.Product;
-import com.example.eventplanner.model.user.ServiceProvider;
 import com.example.eventplanner.repositories.budget.BudgetItemRepository;
 import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.eventType.EventTypeRepository;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.user.ServiceProviderRepository;
-import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import com.example.eventplanner.services.changelog.ChangeLogRecorder;
+import com.example.eventplanner.services.category.ProviderNotificationDispatcher.ProviderNotice;
+import com.example.eventplanner.services.category.ProviderNotificationDispatcher.ProvidersNotified;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final MerchandiseRepository merchandiseRepository;
     private final EventTypeRepository eventTypeRepository;
     private final BudgetItemRepository budgetItemRepository;
     private final ServiceProviderRepository serviceProviderRepository;
-    private final NotificationService notificationService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLogRecorder changeLogRecorder;
 
     public List<CategoryOverviewDTO> getAllApprovedCategories() {
-        List<Category> allCategories = categoryRepository.findAllApprovedCategories();
-        return allCategories.stream().map(this::mapToCategoryOverviewDTO).toList();
+        return catalogSnapshotService.current().approvedCategories();
     }
 
     private CategoryOverviewDTO mapToCategoryOverviewDTO(Category category) {
@@ -58,12 +68,21 @@ public class CategoryService {
         category.setDescription(request.getDescription());
         category.setPending(request.isPending());
         Category savedCategory = categoryRepository.save(category);
+        catalogSnapshotService.markChanged();
         return mapToCategoryOverviewDTO(savedCategory);
     }
 
+    @Transactional
     public CategoryOverviewDTO approveCategory(int categoryId) {
-        Category category = categoryRepository.findById(categoryId).orElseThrow(() ->
-                new CategoryException("Category with id: " + categoryId + " not found", CategoryException.ErrorType.CATEGORY_NOT_FOUND));
+        if(!categoryRepository.existsById(categoryId)) {
+            throw new CategoryException("Category with id: " + categoryId + " not found", CategoryException.ErrorType.CATEGORY_NOT_FOUND);
+        }
+        // runs before any entity is loaded, the bulk update clears the persistence context
+        changeLogRecorder.recordMerchandiseOfCategory(categoryId);
+        int approved = merchandiseRepository.updateStateByCategory(categoryId, MerchandiseState.PENDING, MerchandiseState.APPROVED);
+        log.info("Approved {} pending merchandise of category {}", approved, categoryId);
+
+        Category category = categoryRepository.getReferenceById(categoryId);
         category.setPending(false);
         //event type with id 1 is option 'all' and it has all categories connected to it
         EventType eventType = eventTypeRepository.findById(1).orElseThrow(() ->
@@ -73,53 +92,62 @@ public class CategoryService {
         eventType.setCategories(allCategories);
         eventTypeRepository.save(eventType);
 
-        List<Merchandise> merchandise = merchandiseRepository.findMerchandiseByCategory(categoryId);
-        if(!merchandise.isEmpty()) {
-            for(Merchandise merc : merchandise){
-                if(merc.getState() == MerchandiseState.PENDING) {
-                    merc.setState(MerchandiseState.APPROVED);
-                    merc.setAvailable(true);
-                    merchandiseRepository.save(merc);
-                }
-            }
-        }
-
         Category savedCategory = categoryRepository.save(category);
+        catalogSnapshotService.markChanged();
         return mapToCategoryOverviewDTO(savedCategory);
     }
 
-    public void replaceCategory(int categoryId, int replacedCategoryId) {
+    @Transactional
+    public CategoryReplaceResultDTO replaceCategory(int categoryId, int replacedCategoryId) {
         Category category = categoryRepository.findById(categoryId).orElseThrow(() ->
                 new CategoryException("Category with id: " + categoryId + " not found", CategoryException.ErrorType.CATEGORY_NOT_FOUND));
         boolean categoryFound = categoryRepository.existsById(replacedCategoryId);
         if(!categoryFound) {
             throw new CategoryException("Category with id: " + replacedCategoryId + " not found", CategoryException.ErrorType.CATEGORY_NOT_FOUND);
         }
-        List<Merchandise> merchandises = merchandiseRepository.findMerchandiseByCategory(replacedCategoryId);
-        if(!merchandises.isEmpty()) {
-            for(Merchandise merc : merchandises) {
-                merc.setCategory(category);
-                merc.setState(MerchandiseState.APPROVED);
-                merc.setAvailable(true);
-                merchandiseRepository.save(merc);
-                notifyServiceProvider(merc, "Admin has updated Category from one of your Merchandises");
-                categoryRepository.deleteById(replacedCategoryId);
-            }
-        } else {
+        // providers have to be collected while their merchandise still points at the replaced category
+        List<ProviderNotice> notices = collectProviderNotices(replacedCategoryId);
+        changeLogRecorder.recordMerchandiseOfCategory(replacedCategoryId);
+        int updated = merchandiseRepository.moveToCategory(replacedCategoryId, category, MerchandiseState.APPROVED);
+        if(updated == 0) {
             throw new CategoryException("No merchandise associated with category: " + replacedCategoryId, CategoryException.ErrorType.MERCHANDISE_NOT_FOUND);
         }
+        categoryRepository.deleteById(replacedCategoryId);
+        eventPublisher.publishEvent(new ProvidersNotified(notices));
+        catalogSnapshotService.markChanged();
+        log.info("Moved {} merchandise from category {} to {}, notifying {} providers",
+                updated, replacedCategoryId, categoryId, notices.size());
+
+        CategoryReplaceResultDTO result = new CategoryReplaceResultDTO();
+        result.setCategoryId(categoryId);
+        result.setReplacedCategoryId(replacedCategoryId);
+        result.setUpdatedMerchandise(updated);
+        result.setNotifiedProviders(notices.size());
+        return result;
     }
 
-    private void notifyServiceProvider(Merchandise merc, String message) {
-        Optional<ServiceProvider> optionalServiceProvider = serviceProviderRepository.findByMerchandiseId(merc.getId());
-        if(optionalServiceProvider.isPresent()) {
-            ServiceProvider serviceProvider = optionalServiceProvider.get();
-            if(merc instanceof Product) {
-                notificationService.sendNotificationToUser(serviceProvider, message, NotificationType.PRODUCT, merc.getId());
-            }else {
-                notificationService.sendNotificationToUser(serviceProvider, message, NotificationType.SERVICE, merc.getId());
-            }
+    // One notice per provider, however many of their merchandise the change touched
+    private List<ProviderNotice> collectProviderNotices(int categoryId) {
+        Map<Integer, List<Object[]>> byProvider = new LinkedHashMap<>();
+        for (Object[] row : serviceProviderRepository.findProviderMerchandiseByCategory(categoryId)) {
+            byProvider.computeIfAbsent(((Number) row[0]).intValue(), key -> new ArrayList<>()).add(row);
         }
+        List<ProviderNotice> notices = new ArrayList<>();
+        byProvider.forEach((providerId, rows) -> {
+            Object[] first = rows.get(0);
+            NotificationType type = isProduct(first[2]) ? NotificationType.PRODUCT : NotificationType.SERVICE;
+            String message = rows.size() == 1
+                    ? "Admin has updated Category from one of your Merchandises"
+                    : "Admin has updated Category from " + rows.size() + " of your Merchandises";
+            notices.add(new ProviderNotice(providerId, message, type, ((Number) first[1]).intValue()));
+        });
+        return notices;
+    }
+
+    private boolean isProduct(Object type) {
+        return type instanceof Class<?> entityClass
+                ? Product.class.isAssignableFrom(entityClass)
+                : Product.class.getSimpleName().equals(String.valueOf(type));
     }
 
     public CategoryOverviewDTO updateCategory(int categoryId, CategoryRequestDTO request) {
@@ -128,15 +156,10 @@ public class CategoryService {
         category.setTitle(request.getTitle());
         category.setDescription(request.getDescription());
         category.setPending(false);
-        
-        List<Merchandise> merchandise = merchandiseRepository.findMerchandiseByCategory(categoryId);
-        if(!merchandise.isEmpty()) {
-            for(Merchandise merc : merchandise){
-                notifyServiceProvider(merc, "Admin has updated Category from one of your Merchandises");
-            }
-        }
 
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new ProvidersNotified(collectProviderNotices(categoryId)));
+        catalogSnapshotService.markChanged();
         return mapToCategoryOverviewDTO(savedCategory);
     }
 
@@ -154,7 +177,12 @@ public class CategoryService {
         List<Merchandise> merchandise = merchandiseRepository.findMerchandiseByCategory(categoryId);
         if(merchandise.isEmpty() && budgetItems.isEmpty()) {
             categoryRepository.deleteById(categoryId);
+            catalogSnapshotService.markChanged();
         }else {
+            if(!eventTypes.isEmpty()) {
+                // the category was already unlinked from its event types
+                catalogSnapshotService.markChanged();
+            }
             throw new CategoryException("Category with id: " + categoryId + " is already in use", CategoryException.ErrorType.CATEGORY_IN_USE);
         }
     }
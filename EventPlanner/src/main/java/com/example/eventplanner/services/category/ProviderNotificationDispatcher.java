@@ -0,0 +1,64 @@
+package com.example.eventplanner.services.category;
+
+import com.example.eventplanner.model.common.NotificationType;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.repositories.user.ServiceProviderRepository;
+import com.example.eventplanner.services.notification.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends one notification per service provider once a bulk category change has committed. Runs off the request
+ * thread so large categories do not hold the admin's request open.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderNotificationDispatcher {
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+
+    public record ProviderNotice(int providerId, String message, NotificationType type, int entityId) {
+    }
+
+    public record ProvidersNotified(List<ProviderNotice> notices) {
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void dispatch(ProvidersNotified event) {
+        if (event.notices().isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            // One transaction so the notification inserts are flushed together as JDBC batches
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Integer, ServiceProvider> providers = serviceProviderRepository.findAllById(
+                                event.notices().stream().map(ProviderNotice::providerId).toList()).stream()
+                        .collect(Collectors.toMap(ServiceProvider::getId, Function.identity()));
+                for (ProviderNotice notice : event.notices()) {
+                    ServiceProvider provider = providers.get(notice.providerId());
+                    if (provider != null) {
+                        notificationService.sendNotificationToUser(provider, notice.message(),
+                                notice.type(), notice.entityId());
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // The category change is already committed, only the notices are lost
+            log.warn("Could not notify {} service providers", event.notices().size(), e);
+        }
+    }
+}
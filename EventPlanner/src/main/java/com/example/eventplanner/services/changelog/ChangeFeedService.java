@@ -0,0 +1,63 @@
+package com.example.eventplanner.services.changelog;
+
+import com.example.eventplanner.dto.changelog.ChangeDTO;
+import com.example.eventplanner.dto.changelog.ChangeFeedDTO;
+import com.example.eventplanner.repositories.changelog.ChangeLogRepository;
+import com.example.eventplanner.services.clock.Clock;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Delta sync: a client keeps the cursor of the last change it applied and asks only for what came after it. The
+ * cursor is the commit-ordered sequence from ChangeLogSequencer, so nothing can still turn up below a cursor that
+ * was already handed out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final Clock clock;
+
+    @Value("${application.change-log.retention-days:30}")
+    private int retentionDays;
+
+    public ChangeFeedDTO getChanges(int userId, long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // Read first and bounds the page, entries numbered while the page is read are left for the next call
+        long latest = changeLogRepository.findLatestSequence();
+        Long oldest = changeLogRepository.findOldestSequence();
+        if (oldest != null && after < oldest - 1) {
+            // Part of what the client missed has been pruned, it has to start over from the lists
+            return new ChangeFeedDTO(List.of(), latest, false, true);
+        }
+
+        List<ChangeDTO> changes = changeLogRepository.findFeed(userId, after, latest, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+            return new ChangeFeedDTO(changes, changes.get(pageSize - 1).getSequence(), true, false);
+        }
+        // Everything up to latest has been looked at, skip past other users' changes so the next sync starts later
+        return new ChangeFeedDTO(changes, Math.max(after, latest), false, false);
+    }
+
+    @Scheduled(fixedDelayString = "${application.change-log.prune-ms:3600000}")
+    @Transactional
+    public void prune() {
+        int pruned = changeLogRepository.deleteOlderThan(clock.nowAsLocalDateTime().minusDays(retentionDays));
+        if (pruned > 0) {
+            log.info("Pruned {} change log entries older than {} days", pruned, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.eventplanner.services.changelog;
+
+import com.example.eventplanner.model.common.ChangeLogEntry.EntityType;
+import com.example.eventplanner.model.common.ChangeLogEntry.Operation;
+import com.example.eventplanner.model.common.Notification;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.changelog.ChangeLogRepository;
+import com.example.eventplanner.services.clock.Clock;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appends a change log row for every create, update and delete of the synced entities. Changes are collected per
+ * session while the transaction runs, folded to one row per entity, and written in one JDBC batch right before the
+ * commit, so they commit or roll back together with the change itself. Soft deletes are logged as deletes. Events and
+ * merchandise added to or removed from a user's favorites or followed events are logged as creates and deletes for
+ * that user alone, read off the difference between the list and its loaded snapshot. The entries become visible to
+ * the feed once ChangeLogSequencer has numbered them after the commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogRecorder implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PreCollectionUpdateEventListener {
+    private static final String INSERT =
+            "insert into change_log (entity_type, entity_id, user_id, operation, created_at) values (?, ?, ?, ?, ?)";
+    private static final Map<String, EntityType> USER_LISTS = Map.of(
+            User.class.getName() + ".favoriteEvents", EntityType.FAVORITE_EVENT,
+            User.class.getName() + ".followedEvents", EntityType.FOLLOWED_EVENT,
+            User.class.getName() + ".favoriteMerchandises", EntityType.FAVORITE_MERCHANDISE);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ChangeLogRepository changeLogRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    private final Map<SharedSessionContractImplementor, Map<Key, Operation>> pending = new ConcurrentHashMap<>();
+
+    private record Key(EntityType type, int id, Integer userId) {
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        Objects.requireNonNull(registry).appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), Operation.CREATED);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(),
+                isSoftDeleted(event.getEntity()) ? Operation.DELETED : Operation.UPDATED);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), Operation.DELETED);
+    }
+
+    // Before the update runs, while the snapshot still holds what the list was loaded with
+    @Override
+    public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+        PersistentCollection<?> collection = event.getCollection();
+        EntityType type = USER_LISTS.get(collection.getRole());
+        if (type == null || !(collection.getStoredSnapshot() instanceof Collection<?> snapshot)) {
+            return;
+        }
+        int userId = ((Number) event.getAffectedOwnerIdOrNull()).intValue();
+        Set<Integer> before = idsOf(snapshot);
+        Set<Integer> after = idsOf((Collection<?>) collection);
+        for (Integer id : after) {
+            if (!before.contains(id)) {
+                record(event.getSession(), new Key(type, id, userId), Operation.CREATED);
+            }
+        }
+        for (Integer id : before) {
+            if (!after.contains(id)) {
+                record(event.getSession(), new Key(type, id, userId), Operation.DELETED);
+            }
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // Bulk updates bypass the listeners, callers log the merchandise of the category before moving it
+    public void recordMerchandiseOfCategory(int categoryId) {
+        changeLogRepository.insertMerchandiseOfCategory(categoryId, clock.nowAsLocalDateTime());
+        eventPublisher.publishEvent(new ChangeLogSequencer.ChangesRecorded());
+    }
+
+    private void record(EventSource session, Object entity, Object id, Operation operation) {
+        EntityType type = typeOf(entity);
+        if (type != null) {
+            record(session, new Key(type, ((Number) id).intValue(), null), operation);
+        }
+    }
+
+    private void record(EventSource session, Key key, Operation operation) {
+        Map<Key, Operation> changes = pending.computeIfAbsent(session, unused -> {
+            session.getActionQueue().registerProcess(this::flush);
+            session.getActionQueue().registerProcess((success, completed) -> pending.remove(completed));
+            eventPublisher.publishEvent(new ChangeLogSequencer.ChangesRecorded());
+            return new LinkedHashMap<>();
+        });
+        // A delete wins over everything, a create over the updates that follow it
+        changes.merge(key, operation, (previous, next) ->
+                next == Operation.DELETED || previous != Operation.CREATED ? next : previous);
+    }
+
+    private void flush(SharedSessionContractImplementor session) {
+        Map<Key, Operation> changes = pending.get(session);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(clock.nowAsLocalDateTime());
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Map.Entry<Key, Operation> change : changes.entrySet()) {
+                    statement.setString(1, change.getKey().type().name());
+                    statement.setInt(2, change.getKey().id());
+                    statement.setObject(3, change.getKey().userId(), Types.INTEGER);
+                    statement.setString(4, change.getValue().name());
+                    statement.setTimestamp(5, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        changes.clear();
+    }
+
+    private Set<Integer> idsOf(Collection<?> entities) {
+        PersistenceUnitUtil persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        Set<Integer> ids = new HashSet<>();
+        for (Object entity : entities) {
+            ids.add(((Number) persistenceUnitUtil.getIdentifier(entity)).intValue());
+        }
+        return ids;
+    }
+
+    private static EntityType typeOf(Object entity) {
+        if (entity instanceof Event) {
+            return EntityType.EVENT;
+        }
+        if (entity instanceof Merchandise) {
+            return EntityType.MERCHANDISE;
+        }
+        if (entity instanceof Review) {
+            return EntityType.REVIEW;
+        }
+        if (entity instanceof Notification) {
+            return EntityType.NOTIFICATION;
+        }
+        return null;
+    }
+
+    private static boolean isSoftDeleted(Object entity) {
+        return entity instanceof Merchandise merchandise && merchandise.isDeleted()
+                || entity instanceof Review review && review.isDeleted();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.eventplanner.services.changelog;
+
+import com.example.eventplanner.repositories.changelog.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Numbers change log entries in the order they commit. Entry ids are handed out when the row is inserted, so a
+ * transaction that inserts first can commit after one that inserted later, and a cursor built on ids would skip it.
+ * Sequences are assigned only to committed entries, one run at a time, each run above everything numbered before,
+ * so an entry that shows up late still lands after every cursor already handed out. Runs after every commit that
+ * logged changes and on a slow sweep that picks up anything a crash left unnumbered.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeLogSequencer {
+    private final ChangeLogRepository changeLogRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public record ChangesRecorded() {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChangesRecorded(ChangesRecorded event) {
+        sequence();
+    }
+
+    // Returns the number of entries numbered
+    @Scheduled(fixedDelayString = "${application.change-log.sequence-ms:5000}")
+    public synchronized int sequence() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also called after a commit, while the finished transaction is still bound to the thread
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Integer numbered = transactionTemplate.execute(status -> {
+            Long firstId = changeLogRepository.findFirstUnsequencedId();
+            if (firstId == null) {
+                return 0;
+            }
+            return changeLogRepository.assignSequences(changeLogRepository.findLatestSequence(), firstId);
+        });
+        if (numbered != null && numbered > 0) {
+            log.debug("Numbered {} change log entries", numbered);
+        }
+        return numbered == null ? 0 : numbered;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.eventplanner.services.conditional;
+
+import com.example.eventplanner.dto.common.FieldSet;
+import com.example.eventplanner.dto.conditional.ConditionalGetStatsDTO;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for the heavily polled detail reads. The ETag is built from the version columns of the entities a
+ * response depends on, read with a single-column query, so a client that already holds the current version gets a
+ * 304 before any entity is loaded or mapped. The viewer's own version is part of the ETag of reads that hide blocked
+ * users, blocking someone changes what they see. Reads that embed an event type or category also carry the catalog
+ * snapshot version, those rows have no version of their own.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConditionalGetService {
+    private final EventRepository eventRepository;
+    private final MerchandiseRepository merchandiseRepository;
+    private final UserRepository userRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final Map<Resource, Counters> counters = new EnumMap<>(Resource.class);
+
+    {
+        for (Resource resource : Resource.values()) {
+            counters.put(resource, new Counters());
+        }
+    }
+
+    @Getter
+    public enum Resource {
+        EVENT_DETAILS("event"),
+        EVENT_AGENDA("agenda"),
+        MERCHANDISE_DETAILS("merchandise"),
+        SERVICE_PROVIDER("sp");
+
+        private final String prefix;
+
+        Resource(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+    }
+
+    public Optional<String> eventDetailsETag(int eventId, int userId) {
+        return eventVersions(eventId).map(versions -> eTag(Resource.EVENT_DETAILS, eventId,
+                versions[0], versions[1], viewerVersion(userId), catalogVersion()));
+    }
+
+    public Optional<String> agendaETag(int eventId) {
+        return eventVersions(eventId).map(versions -> eTag(Resource.EVENT_AGENDA, eventId, versions[0]));
+    }
+
+    // A trimmed response is a different representation, so the requested fields are part of its ETag
+    public Optional<String> merchandiseDetailsETag(int merchandiseId, int userId, FieldSet fields) {
+        return merchandiseRepository.findVersionById(merchandiseId)
+                .map(version -> withFields(eTag(Resource.MERCHANDISE_DETAILS, merchandiseId, version, viewerVersion(userId),
+                        catalogVersion()), fields));
+    }
+
+    public Optional<String> serviceProviderETag(int userId) {
+        return userRepository.findVersionById(userId)
+                .map(version -> eTag(Resource.SERVICE_PROVIDER, userId, version));
+    }
+
+    /**
+     * 304 when the client's copy carries the current ETag, otherwise the body with the ETag. The version is read
+     * before the body, so a write in between leaves the client with a newer body under an older ETag, which only
+     * costs one more full response. Without an ETag the entity does not exist and the body supplier fails as usual.
+     */
+    public <T> ResponseEntity<T> respond(Resource resource, Optional<String> eTag, String ifNoneMatch, Supplier<T> body) {
+        Counters resourceCounters = counters.get(resource);
+        resourceCounters.requests.incrementAndGet();
+        if (eTag.isPresent() && ETags.matches(ifNoneMatch, eTag.get())) {
+            resourceCounters.notModified.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+        }
+        T value = body.get();
+        return eTag.map(tag -> ResponseEntity.ok().eTag(tag).body(value)).orElseGet(() -> ResponseEntity.ok(value));
+    }
+
+    public List<ConditionalGetStatsDTO> getStats() {
+        return Arrays.stream(Resource.values()).map(resource -> {
+            Counters resourceCounters = counters.get(resource);
+            long requests = resourceCounters.requests.get();
+            long notModified = resourceCounters.notModified.get();
+            return new ConditionalGetStatsDTO(resource.name(), requests, notModified,
+                    requests == 0 ? 0 : (double) notModified / requests);
+        }).toList();
+    }
+
+    // event version, organizer version (0 without an organizer)
+    private Optional<int[]> eventVersions(int eventId) {
+        return eventRepository.findVersions(eventId).stream().findFirst()
+                .map(row -> new int[]{((Number) row[0]).intValue(), row[1] == null ? 0 : ((Number) row[1]).intValue()});
+    }
+
+    // Unknown or anonymous viewers share one stamp
+    private int viewerVersion(int userId) {
+        return userRepository.findVersionById(userId).orElse(-1);
+    }
+
+    // Bumped by every event type and category write
+    private long catalogVersion() {
+        return catalogSnapshotService.current().version();
+    }
+
+    private static String withFields(String eTag, FieldSet fields) {
+        String key = fields.key();
+        return key.isEmpty() ? eTag : eTag.substring(0, eTag.length() - 1) + '~' + key + '"';
+    }
+
+    private static String eTag(Resource resource, int id, long... versions) {
+        StringBuilder eTag = new StringBuilder("\"").append(resource.getPrefix()).append('-').append(id);
+        for (long version : versions) {
+            eTag.append('-').append(version);
+        }
+        return eTag.append('"').toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.eventplanner.services.conditional;
+
+// If-None-Match handling shared by the conditional reads
+public final class ETags {
+    private ETags() {
+    }
+
+    // If-None-Match holds * or a list of ETags, compared weakly as RFC 9110 asks for
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(stripWeak(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
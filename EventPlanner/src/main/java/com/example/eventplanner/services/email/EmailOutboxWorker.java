@@ -0,0 +1,253 @@
+package com.example.eventplanner.services.email;
+
+import com.example.eventplanner.dto.email.EmailOutboxStatsDTO;
+import com.example.eventplanner.model.common.EmailOutboxMessage;
+import com.example.eventplanner.repositories.email.EmailOutboxRepository;
+import com.example.eventplanner.services.clock.Clock;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the email outbox. One dispatcher thread claims due messages and hands them in batches to a pool of
+ * senders, each batch going out over a single SMTP connection. Failed messages are retried with exponential
+ * backoff until they run out of attempts. Wakes up after every commit that queued mail, when a retry comes due and
+ * on a slow sweep that picks up mail queued by other instances or left behind by a crash. Sent and failed messages
+ * are purged once they are older than the retention period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxWorker {
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+    private final Clock clock;
+
+    @Value("${application.email.outbox.workers:4}")
+    private int workers;
+    @Value("${application.email.outbox.batch-size:20}")
+    private int batchSize;
+    @Value("${application.email.outbox.lease-ms:60000}")
+    private long leaseMillis;
+    @Value("${application.email.outbox.retry-base-ms:5000}")
+    private long retryBaseMillis;
+    @Value("${application.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${application.email.outbox.sweep-ms:60000}")
+    private long sweepMillis;
+    @Value("${application.email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private ExecutorService dispatcher;
+    private ExecutorService senders;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // Epoch millis, polls between them don't touch the database
+    private final AtomicLong nextRetryAt = new AtomicLong(Long.MAX_VALUE);
+    private volatile long lastSweepAt;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendMillis = new AtomicLong();
+    private final AtomicLong maxBatchSendMillis = new AtomicLong();
+    private final AtomicLong deliveryMillis = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newSingleThreadExecutor(namedThreads("email-outbox-dispatcher"));
+        senders = Executors.newFixedThreadPool(workers, namedThreads("email-outbox-sender"));
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailService.EmailQueued event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${application.email.outbox.poll-ms:1000}")
+    public void poll() {
+        long now = clock.now().toEpochMilli();
+        if (now >= nextRetryAt.get() || now - lastSweepAt >= sweepMillis) {
+            wakeUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.email.outbox.purge-ms:3600000}")
+    public int purge() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer purged = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteFinishedBefore(clock.nowAsLocalDateTime().minusDays(retentionDays)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} sent or failed emails older than {} days", purged, retentionDays);
+        }
+        return purged == null ? 0 : purged;
+    }
+
+    // A burst of commits folds into one pending drain
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> {
+                    wakeUpPending.set(false);
+                    drain();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    // Sends everything that is due, returns the number of messages sent
+    public int drain() {
+        drainLock.lock();
+        try {
+            lastSweepAt = clock.now().toEpochMilli();
+            nextRetryAt.set(Long.MAX_VALUE);
+            int sentNow = 0;
+            while (true) {
+                List<EmailOutboxMessage> claimed = claim();
+                if (claimed.isEmpty()) {
+                    return sentNow;
+                }
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int from = 0; from < claimed.size(); from += batchSize) {
+                    List<EmailOutboxMessage> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+                    results.add(senders.submit(() -> send(batch)));
+                }
+                for (Future<Integer> result : results) {
+                    sentNow += result.get();
+                }
+                if (claimed.size() < batchSize * workers) {
+                    return sentNow;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException | RuntimeException e) {
+            // Claimed messages become due again once their lease runs out
+            log.warn("Email outbox drain failed", e);
+            return 0;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public EmailOutboxStatsDTO getStats() {
+        LocalDateTime oldestPending = emailOutboxRepository.findOldestPendingCreatedAt();
+        long sentTotal = sent.get();
+        long batchTotal = batches.get();
+        return new EmailOutboxStatsDTO(
+                emailOutboxRepository.countByStatus(EmailOutboxMessage.Status.PENDING),
+                emailOutboxRepository.countByStatus(EmailOutboxMessage.Status.FAILED),
+                oldestPending == null ? 0 : Duration.between(oldestPending, clock.nowAsLocalDateTime()).toMillis(),
+                sentTotal,
+                failedAttempts.get(),
+                batchTotal,
+                sentTotal + failedAttempts.get() == 0 ? 0 : (double) sendMillis.get() / (sentTotal + failedAttempts.get()),
+                maxBatchSendMillis.get(),
+                sentTotal == 0 ? 0 : (double) deliveryMillis.get() / sentTotal);
+    }
+
+    // Pushes due messages past their lease, a concurrent claim of the same rows fails on their version
+    private List<EmailOutboxMessage> claim() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = clock.nowAsLocalDateTime();
+                List<EmailOutboxMessage> due = emailOutboxRepository.findDue(now, PageRequest.of(0, batchSize * workers));
+                due.forEach(message -> message.setNextAttemptAt(now.plus(Duration.ofMillis(leaseMillis))));
+                return due;
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Email outbox claim lost to another worker", e);
+            return List.of();
+        }
+    }
+
+    private int send(List<EmailOutboxMessage> batch) {
+        long start = System.nanoTime();
+        Map<Long, String> failures = emailService.deliver(batch);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        batches.incrementAndGet();
+        sendMillis.addAndGet(elapsed * batch.size());
+        maxBatchSendMillis.accumulateAndGet(elapsed, Math::max);
+
+        LocalDateTime now = clock.nowAsLocalDateTime();
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutboxMessage> failed = new ArrayList<>();
+        for (EmailOutboxMessage message : batch) {
+            String failure = failures.get(message.getId());
+            if (failure == null) {
+                sentIds.add(message.getId());
+                deliveryMillis.addAndGet(Duration.between(message.getCreatedAt(), now).toMillis());
+            } else {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError(failure);
+                if (message.getAttempts() >= maxAttempts) {
+                    message.setStatus(EmailOutboxMessage.Status.FAILED);
+                    log.warn("Giving up on email {} to {}: {}", message.getId(), message.getRecipient(), failure);
+                } else {
+                    Duration backoff = backoff(message.getAttempts());
+                    message.setNextAttemptAt(now.plus(backoff));
+                    long retryAt = clock.now().toEpochMilli() + backoff.toMillis();
+                    nextRetryAt.accumulateAndGet(retryAt, Math::min);
+                }
+                failed.add(message);
+            }
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailOutboxRepository.markSent(sentIds, now);
+            }
+            emailOutboxRepository.saveAll(failed);
+        });
+        sent.addAndGet(sentIds.size());
+        failedAttempts.addAndGet(failed.size());
+        return sentIds.size();
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = retryBaseMillis << Math.min(attempts - 1, 20);
+        return millis > MAX_BACKOFF.toMillis() ? MAX_BACKOFF : Duration.ofMillis(millis);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,38 +1,101 @@
 package com.example.eventplanner.services.email;
 
 
+import com.example.eventplanner.model.common.EmailOutboxMessage;
+import com.example.eventplanner.repositories.email.EmailOutboxRepository;
+import com.example.eventplanner.services.clock.Clock;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import java.io.File;
+
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+
+    public record EmailQueued() {
+    }
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository emailOutboxRepository,
+                        ApplicationEventPublisher eventPublisher, Clock clock) {
         this.mailSender = mailSender;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
     }
 
+    // Writes the mail to the outbox in the caller's transaction, the outbox worker sends it after the commit
+    @Transactional
     public void sendMail(String sender, String recipient, String subject, String body) {
+        LocalDateTime now = clock.nowAsLocalDateTime();
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setSender(sender);
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setStatus(EmailOutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(now);
+        message.setCreatedAt(now);
+        emailOutboxRepository.save(message);
+        eventPublisher.publishEvent(new EmailQueued());
+    }
+
+    // Sends the batch over one SMTP connection, returns the failure reason of every message that was not sent
+    public Map<Long, String> deliver(List<EmailOutboxMessage> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        for (EmailOutboxMessage outboxMessage : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+                helper.setFrom(outboxMessage.getSender());
+                helper.setTo(outboxMessage.getRecipient());
+                helper.setSubject(outboxMessage.getSubject());
+                helper.setText(outboxMessage.getBody(), true); // true enables HTML content
+                ids.put(message, outboxMessage.getId());
+            } catch (MessagingException e) {
+                failures.put(outboxMessage.getId(), describe(e));
+            }
+        }
+        if (ids.isEmpty()) {
+            return failures;
+        }
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(sender);
-            helper.setTo(recipient);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true enables HTML content
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            // Log the error or handle it as needed
-            throw new RuntimeException("Failed to send email", e);
+            mailSender.send(ids.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Lists the rejected messages, or all of them when the server could not be reached
+            e.getFailedMessages().forEach((message, cause) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, describe(cause));
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, describe(e)));
+            }
+        } catch (MailException e) {
+            ids.values().forEach(id -> failures.put(id, describe(e)));
         }
+        return failures;
+    }
+
+    private static String describe(Exception e) {
+        String reason = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return reason.length() > 1000 ? reason.substring(0, 1000) : reason;
     }
 }
@@ -0,0 +1,116 @@
+package com.example.eventplanner.services.email.template;
+
+import java.util.*;
+
+/**
+ * HTML template parsed once into literal segments and named {@code {{slot}}} placeholders. Rendering appends the
+ * literals and the HTML escaped slot values into a per thread buffer, so a render costs one pass over the output.
+ * Immutable and thread safe.
+ */
+public final class EmailTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // Buffers that grew past this are not kept for the next render
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String name;
+    // literals[i] is followed by the slot slotOrder[i], the last literal by nothing
+    private final String[] literals;
+    private final int[] slotOrder;
+    private final String[] slotNames;
+    private final int literalLength;
+
+    private EmailTemplate(String name, String[] literals, int[] slotOrder, String[] slotNames) {
+        this.name = name;
+        this.literals = literals;
+        this.slotOrder = slotOrder;
+        this.slotNames = slotNames;
+        this.literalLength = Arrays.stream(literals).mapToInt(String::length).sum();
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slotOrder = new ArrayList<>();
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot at " + open + " in email template " + name);
+            }
+            String slot = source.substring(open + OPEN.length(), close).trim();
+            if (slot.isEmpty() || !slot.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '_')) {
+                throw new IllegalArgumentException("Invalid slot '" + slot + "' in email template " + name);
+            }
+            literals.add(source.substring(position, open));
+            slotOrder.add(slots.computeIfAbsent(slot, key -> slots.size()));
+            position = close + CLOSE.length();
+        }
+        return new EmailTemplate(name, literals.toArray(String[]::new),
+                slotOrder.stream().mapToInt(Integer::intValue).toArray(), slots.keySet().toArray(String[]::new));
+    }
+
+    public Set<String> getSlotNames() {
+        return new LinkedHashSet<>(List.of(slotNames));
+    }
+
+    // Every slot needs a value, null renders as nothing
+    public String render(Map<String, ?> values) {
+        String[] escaped = new String[slotNames.length];
+        int length = literalLength;
+        for (int i = 0; i < slotNames.length; i++) {
+            if (!values.containsKey(slotNames[i])) {
+                throw new IllegalArgumentException("No value for slot '" + slotNames[i] + "' of email template " + name);
+            }
+            Object value = values.get(slotNames[i]);
+            escaped[i] = value == null ? "" : escapeHtml(value.toString());
+        }
+        for (int slot : slotOrder) {
+            length += escaped[slot].length();
+        }
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(length);
+        for (int i = 0; i < slotOrder.length; i++) {
+            out.append(literals[i]).append(escaped[slotOrder[i]]);
+        }
+        out.append(literals[literals.length - 1]);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    // Returns the value itself when there is nothing to escape
+    static String escapeHtml(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+                }
+                escaped.append(replacement);
+            } else if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
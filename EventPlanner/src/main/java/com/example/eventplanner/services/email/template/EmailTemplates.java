@@ -0,0 +1,37 @@
+package com.example.eventplanner.services.email.template;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Email templates under templates/email on the classpath, each compiled on first use and kept
+@Component
+public class EmailTemplates {
+    public static final String EVENT_INVITATION = "event-invitation";
+    public static final String RESERVATION_CONFIRMATION = "reservation-confirmation";
+
+    private final Map<String, EmailTemplate> templates = new ConcurrentHashMap<>();
+
+    public String render(String name, Map<String, ?> values) {
+        return get(name).render(values);
+    }
+
+    public EmailTemplate get(String name) {
+        return templates.computeIfAbsent(name, EmailTemplates::load);
+    }
+
+    private static EmailTemplate load(String name) {
+        ClassPathResource resource = new ClassPathResource("templates/email/" + name + ".html");
+        try (InputStream in = resource.getInputStream()) {
+            return EmailTemplate.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Email template " + name + " could not be read", e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.eventplanner.services.event;
+
+import com.example.eventplanner.dto.event.BulkInviteJobDTO;
+import com.example.eventplanner.exceptions.EventException;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.JwtService;
+import com.example.eventplanner.services.clock.Clock;
+import com.example.eventplanner.services.email.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Invites a whole guest list to an event as a background job. The event is loaded once, every chunk of addresses
+ * resolves its registered users with one query, and the mails go to the outbox in the chunk's transaction. Only the
+ * event's organizer can start one. Jobs report their progress until an hour after they finish, and at most
+ * MAX_JOBS are tracked at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkInviteService {
+    public static final int MAX_INVITES = 10_000;
+    private static final int CHUNK_SIZE = 500;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+    public static final int MAX_JOBS = 1000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final EventService eventService;
+    private final JwtService jwtService;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final Clock clock;
+
+    @Value("${application.front.address.login}")
+    private String frontLoginAddress;
+
+    @Value("${application.front.address.fast-register}")
+    private String frontFastRegisterAddress;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public record BulkInviteRequested(String jobId) {
+    }
+
+    private static final class Job {
+        private final String id;
+        private final int eventId;
+        private final List<String> emails;
+        private final int skipped;
+        private final LocalDateTime startedAt;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger existingUsers = new AtomicInteger();
+        private volatile Status status = Status.QUEUED;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, int eventId, List<String> emails, int skipped, LocalDateTime startedAt) {
+            this.id = id;
+            this.eventId = eventId;
+            this.emails = emails;
+            this.skipped = skipped;
+            this.startedAt = startedAt;
+        }
+    }
+
+    public BulkInviteJobDTO invite(int eventId, String username, List<String> emails) {
+        eventService.checkOrganizer(eventId, username);
+        if (emails == null || emails.isEmpty() || emails.size() > MAX_INVITES) {
+            throw new EventException("Invite between 1 and " + MAX_INVITES + " addresses",
+                    EventException.ErrorType.INVALID_INVITE_LIST);
+        }
+        // Repeated addresses are invited once, in the spelling they first appear in
+        Map<String, String> unique = new LinkedHashMap<>();
+        for (String email : emails) {
+            String trimmed = email == null ? "" : email.trim();
+            if (EMAIL.matcher(trimmed).matches()) {
+                unique.putIfAbsent(trimmed.toLowerCase(Locale.ROOT), trimmed);
+            }
+        }
+        if (unique.isEmpty()) {
+            throw new EventException("No valid email address to invite", EventException.ErrorType.INVALID_INVITE_LIST);
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), eventId, List.copyOf(unique.values()),
+                emails.size() - unique.size(), clock.nowAsLocalDateTime());
+        track(job);
+        eventPublisher.publishEvent(new BulkInviteRequested(job.id));
+        return toDTO(job);
+    }
+
+    public BulkInviteJobDTO getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new EventException("Invite job not found", EventException.ErrorType.INVITE_JOB_NOT_FOUND);
+        }
+        return toDTO(job);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void process(BulkInviteRequested request) {
+        Job job = jobs.get(request.jobId());
+        if (job == null) {
+            return;
+        }
+        job.status = Status.RUNNING;
+        try {
+            Event event = eventRepository.findById(job.eventId).orElseThrow(() ->
+                    new EventException("Event not found", EventException.ErrorType.EVENT_NOT_FOUND));
+            String subject = "Invitation to " + event.getTitle();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            for (int from = 0; from < job.emails.size(); from += CHUNK_SIZE) {
+                List<String> chunk = job.emails.subList(from, Math.min(from + CHUNK_SIZE, job.emails.size()));
+                // A chunk's mails are queued together or not at all
+                int existing = transactionTemplate.execute(status -> {
+                    Set<String> registered = new HashSet<>(userRepository.findExistingUsernames(chunk));
+                    for (String email : chunk) {
+                        String token = jwtService.generateEventToken(event, email);
+                        String body = eventService.buildEventEmailBody(event, token, registered.contains(email),
+                                frontLoginAddress, frontFastRegisterAddress);
+                        emailService.sendMail("system@eventplanner.com", email, subject, body);
+                    }
+                    return registered.size();
+                });
+                job.existingUsers.addAndGet(existing);
+                job.processed.addAndGet(chunk.size());
+            }
+            job.status = Status.COMPLETED;
+        } catch (RuntimeException e) {
+            log.warn("Invite job {} for event {} stopped after {} addresses", job.id, job.eventId, job.processed.get(), e);
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = clock.nowAsLocalDateTime();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.invite.job-sweep-ms:600000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = clock.nowAsLocalDateTime().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    // When full, the longest finished job gives way, with every tracked job still running the new one is refused
+    private synchronized void track(Job job) {
+        removeExpiredJobs();
+        if (jobs.size() >= MAX_JOBS) {
+            jobs.values().stream()
+                    .filter(tracked -> tracked.finishedAt != null)
+                    .min(Comparator.comparing(tracked -> tracked.finishedAt))
+                    .ifPresent(oldest -> jobs.remove(oldest.id));
+        }
+        if (jobs.size() >= MAX_JOBS) {
+            throw new EventException("Too many invite jobs running, try again later",
+                    EventException.ErrorType.TOO_MANY_INVITE_JOBS);
+        }
+        jobs.put(job.id, job);
+    }
+
+    private static BulkInviteJobDTO toDTO(Job job) {
+        return new BulkInviteJobDTO(job.id, job.eventId, job.status.name(), job.emails.size(), job.processed.get(),
+                job.existingUsers.get(), job.skipped, job.error, job.startedAt, job.finishedAt);
+    }
+}
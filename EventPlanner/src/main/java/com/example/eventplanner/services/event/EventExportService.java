@@ -0,0 +1,196 @@
+package com.example.eventplanner.services.event;
+
+import com.example.eventplanner.dto.event.BudgetLineExportDTO;
+import com.example.eventplanner.dto.event.ParticipantExportDTO;
+import com.example.eventplanner.dto.event.ReviewExportDTO;
+import com.example.eventplanner.exceptions.EventException;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes an event's participants, approved reviews or budget lines straight to an output stream as CSV or NDJSON.
+ * Rows come from a forward-only database cursor and go out as they are read, so memory stays flat however large the
+ * event is. Only the event's organizer can export it.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventExportService {
+    private static final int FLUSH_EVERY = 1000;
+
+    private final EventRepository eventRepository;
+    private final EventService eventService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Getter
+    public enum Section {
+        PARTICIPANTS("participants"),
+        REVIEWS("reviews"),
+        BUDGET("budget");
+
+        private final String path;
+
+        Section(String path) {
+            this.path = path;
+        }
+
+        public static Section from(String path) {
+            for (Section section : values()) {
+                if (section.path.equalsIgnoreCase(path)) {
+                    return section;
+                }
+            }
+            throw new EventException("Unknown export " + path, EventException.ErrorType.INVALID_EXPORT);
+        }
+    }
+
+    @Getter
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Format from(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new EventException("Unknown export format " + name, EventException.ErrorType.INVALID_EXPORT);
+            }
+        }
+    }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    private static final List<Column<ParticipantExportDTO>> PARTICIPANT_COLUMNS = List.of(
+            new Column<>("id", ParticipantExportDTO::getId),
+            new Column<>("email", ParticipantExportDTO::getEmail),
+            new Column<>("firstName", ParticipantExportDTO::getFirstName),
+            new Column<>("lastName", ParticipantExportDTO::getLastName),
+            new Column<>("role", ParticipantExportDTO::getRole));
+
+    private static final List<Column<ReviewExportDTO>> REVIEW_COLUMNS = List.of(
+            new Column<>("id", ReviewExportDTO::getId),
+            new Column<>("rating", ReviewExportDTO::getRating),
+            new Column<>("comment", ReviewExportDTO::getComment),
+            new Column<>("reviewer", ReviewExportDTO::getReviewer),
+            new Column<>("createdAt", ReviewExportDTO::getCreatedAt));
+
+    private static final List<Column<BudgetLineExportDTO>> BUDGET_COLUMNS = List.of(
+            new Column<>("id", BudgetLineExportDTO::getId),
+            new Column<>("category", BudgetLineExportDTO::getCategory),
+            new Column<>("merchandise", BudgetLineExportDTO::getMerchandise),
+            new Column<>("maxAmount", BudgetLineExportDTO::getMaxAmount),
+            new Column<>("amountSpent", BudgetLineExportDTO::getAmountSpent));
+
+    // Checked before the response starts, once rows are going out the status can no longer change
+    public void checkEvent(int eventId, String username) {
+        eventService.checkOrganizer(eventId, username);
+    }
+
+    // Returns the number of rows written
+    public long export(int eventId, Section section, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            long rows = transactionTemplate.execute(status -> switch (section) {
+                case PARTICIPANTS -> write(eventRepository.streamParticipants(eventId), PARTICIPANT_COLUMNS, format, writer);
+                case REVIEWS -> write(eventRepository.streamReviews(eventId, ReviewStatus.APPROVED), REVIEW_COLUMNS, format, writer);
+                case BUDGET -> write(eventRepository.streamBudgetLines(eventId), BUDGET_COLUMNS, format, writer);
+            });
+            writer.flush();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> long write(Stream<T> rows, List<Column<T>> columns, Format format, Writer writer) {
+        try (rows) {
+            JsonGenerator json = null;
+            if (format == Format.CSV) {
+                writeCsvLine(writer, columns, Column::name);
+            } else {
+                json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null);
+                // Its flush only hands the row over to the writer, which flushes on its own schedule
+                json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            }
+            long count = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                if (json == null) {
+                    writeCsvLine(writer, columns, column -> column.value().apply(row));
+                } else {
+                    json.writeObject(row);
+                    json.flush();
+                    writer.write('\n');
+                }
+                // Pushes rows to the client as they come instead of when the buffer happens to fill
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> void writeCsvLine(Writer writer, List<Column<T>> columns, Function<Column<T>, Object> field)
+            throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = field.apply(columns.get(i));
+            if (value instanceof String text) {
+                writer.write(escapeCsv(neutralizeFormula(text)));
+            } else if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Text a spreadsheet would run as a formula is prefixed with a quote, numbers keep their sign
+    private static String neutralizeFormula(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    // RFC 4180, fields with a separator, quote or line break are quoted and their quotes doubled
+    private static String escapeCsv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
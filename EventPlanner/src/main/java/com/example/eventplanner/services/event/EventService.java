@@ -3,6 +3,7 @@ package com.example.eventplanner.services.event;
 import com.example.eventplanner.dto.event.EventOverviewDTO;
 import com.example.eventplanner.dto.filter.EventFiltersDTO;
 import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.event.*;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.merchandise.product.GetProductByIdResponseDTO;
@@ -27,19 +28,30 @@ import com.example.eventplanner.model.user.User;
 import com.example.eventplanner.repositories.budget.BudgetItemRepository;
 import com.example.eventplanner.repositories.budget.BudgetRepository;
 import com.example.eventplanner.repositories.event.ActivityRepository;
+import com.example.eventplanner.repositories.event.EventOverviewQueries;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.eventType.EventTypeRepository;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.user.EventOrganizerRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.batch.BatchIds;
+import com.example.eventplanner.services.budget.BudgetRollupService;
+import com.example.eventplanner.services.email.template.EmailTemplates;
 import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.search.AutocompleteIndex;
+import com.example.eventplanner.services.search.SearchCountCache;
+import com.example.eventplanner.services.search.SearchResultCache;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
@@ -50,11 +62,20 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
+    private static final DateTimeFormatter INVITATION_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a");
+
     private final EventRepository eventRepository;
     private final EventOrganizerRepository eventOrganizerRepository;
     private final EventTypeRepository eventTypeRepository;
@@ -64,6 +85,11 @@ public class EventService {
     private final NotificationService notificationService;
     private final BudgetRepository budgetRepository;
     private final BudgetItemRepository budgetItemRepository;
+    private final BudgetRollupService budgetRollupService;
+    private final SearchCountCache searchCountCache;
+    private final SearchResultCache searchResultCache;
+    private final AutocompleteIndex autocompleteIndex;
+    private final EmailTemplates emailTemplates;
 
     public Page<EventOverviewDTO> getTop(int userId, Pageable pageable) {
         // Fetch user details
@@ -179,11 +205,31 @@ public class EventService {
     }
 
     public CreatedEventOverviewDTO getById(int id) {
-        return mapToCreatedEventOverviewDTO(eventRepository.findById(id).orElseThrow(() -> new EventException("Event not found!", EventException.ErrorType.EVENT_NOT_FOUND)), eventRepository.findById(id).orElseThrow(() -> new EventException("Event not found!", EventException.ErrorType.EVENT_NOT_FOUND)).getType(), eventRepository.findById(id).orElseThrow(() -> new EventException("Event not found!", EventException.ErrorType.EVENT_NOT_FOUND)).getMerchandise());
+        return getById(id, FieldSet.ALL);
+    }
+
+    public CreatedEventOverviewDTO getById(int id, FieldSet fields) {
+        Event event = eventRepository.findById(id).orElseThrow(() -> new EventException("Event not found!", EventException.ErrorType.EVENT_NOT_FOUND));
+        // The merchandise collection is only loaded when products or services are asked for
+        List<Merchandise> merchandise = fields.includesAny("products", "services") ? event.getMerchandise() : List.of();
+        return mapToCreatedEventOverviewDTO(event, event.getType(), merchandise);
     }
 
     public Page<EventOverviewDTO> getByEo(int id, Pageable pageable) {
-        return eventRepository.findByOrganizerId(id, pageable).map(this::convertToOverviewDTO);
+        Specification<Event> spec = (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("organizer").get("id"), id);
+        return eventRepository.findOverviews(spec, pageable).map(this::convertToOverviewDTO);
+    }
+
+    // For actions only the organizer may take, username is the subject of the caller's access token
+    public void checkOrganizer(int eventId, String username) {
+        Optional<String> organizer = eventRepository.findOrganizerUsername(eventId);
+        if (organizer.isEmpty() && !eventRepository.existsById(eventId)) {
+            throw new EventException("Event not found", EventException.ErrorType.EVENT_NOT_FOUND);
+        }
+        if (username == null || organizer.isEmpty() || !organizer.get().equals(username)) {
+            throw new EventException("Only the event's organizer can do this", EventException.ErrorType.NOT_EVENT_ORGANIZER);
+        }
     }
 
     public EventReportDTO getEventReport(int id){
@@ -245,22 +291,78 @@ public class EventService {
     }
 
     public Page<EventOverviewDTO> search(int userId, EventFiltersDTO eventFiltersDTO, String search, Pageable pageable) {
-        // Fetch user details
         User currentUser = fetchUserDetails(userId);
+
+        // The shared page leaves block lists out, they are checked against its organizers afterwards
+        List<Object> key = SearchCountCache.key("event", eventFiltersDTO.getStartDate(), eventFiltersDTO.getEndDate(),
+                eventFiltersDTO.getType(), eventFiltersDTO.getCity(), autocompleteIndex.searchTerms(search),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        SearchResultCache.Lookup lookup = searchResultCache.lookup(SearchResultCache.Domain.EVENTS, key);
+        SearchResultCache.CachedPage cached = lookup.page();
+        List<EventOverviewQueries.Row> rows = null;
+        if (cached == null) {
+            Page<EventOverviewQueries.Row> shared = eventRepository.findOverviews(
+                    createSearchSpecification(null, eventFiltersDTO, search), pageable);
+            cached = SearchResultCache.CachedPage.of(shared, EventOverviewQueries.Row::id,
+                    EventOverviewQueries.Row::organizerId);
+            searchResultCache.store(lookup, cached);
+            rows = shared.getContent();
+        }
+
+        Set<Integer> excludedOrganizers = excludedOrganizerIds(currentUser);
+        if (!cached.isExactFor(excludedOrganizers, pageable.getPageNumber())) {
+            Specification<Event> spec = createSearchSpecification(currentUser, eventFiltersDTO, search);
+            return eventRepository.findOverviews(spec, pageable).map(this::convertToOverviewDTO);
+        }
+
+        // Fetch the overview columns of the cached events, no entities are loaded
+        if (rows == null) {
+            rows = eventRepository.findOverviewsByIds(cached.ids());
+        }
+        long total = excludedOrganizers.isEmpty() ? cached.total() : countSearch(currentUser, eventFiltersDTO, search);
+        return new PageImpl<>(rows.stream().map(this::convertToOverviewDTO).toList(), pageable, total);
+    }
+
+    // Organizers the viewer blocked and, for authenticated users, organizers that blocked the viewer
+    private Set<Integer> excludedOrganizerIds(User currentUser) {
+        if (currentUser == null || currentUser instanceof EventOrganizer) {
+            return Set.of();
+        }
+        if (currentUser instanceof AuthenticatedUser) {
+            return new HashSet<>(userRepository.findBlockRelatedIds(currentUser.getId()));
+        }
+        Set<Integer> excluded = new HashSet<>();
+        currentUser.getBlockedUsers().forEach(blocked -> excluded.add(blocked.getId()));
+        return excluded;
+    }
+
+    public Slice<EventOverviewDTO> searchSlice(int userId, EventFiltersDTO eventFiltersDTO, String search, Pageable pageable) {
+        Specification<Event> spec = createSearchSpecification(fetchUserDetails(userId), eventFiltersDTO, search);
+        return eventRepository.findOverviewSlice(spec, pageable).map(this::convertToOverviewDTO);
+    }
+
+    public long countSearch(int userId, EventFiltersDTO eventFiltersDTO, String search) {
+        return countSearch(fetchUserDetails(userId), eventFiltersDTO, search);
+    }
+
+    private long countSearch(User currentUser, EventFiltersDTO eventFiltersDTO, String search) {
+        // Blocking applies to everyone but organizers, so their counts are kept per user
+        Integer viewer = currentUser == null || currentUser instanceof EventOrganizer ? null : currentUser.getId();
+        List<Object> key = SearchCountCache.key("event", eventFiltersDTO.getStartDate(), eventFiltersDTO.getEndDate(),
+                eventFiltersDTO.getType(), eventFiltersDTO.getCity(), autocompleteIndex.searchTerms(search), viewer);
+        return searchCountCache.get(key, () ->
+                eventRepository.countOverviews(createSearchSpecification(currentUser, eventFiltersDTO, search)));
+    }
+
+    private Specification<Event> createSearchSpecification(User currentUser, EventFiltersDTO eventFiltersDTO, String search) {
         boolean isAuthenticatedUser = currentUser instanceof AuthenticatedUser;
         List<User> blockedUsers = currentUser != null ? currentUser.getBlockedUsers() : List.of();
 
         // Create a specification for filtering
-        Specification<Event> spec = createSpecification(eventFiltersDTO, search)
+        return createSpecification(eventFiltersDTO, search)
                 .and(excludePrivateEvents())
                 .and(excludeBlockedOrganizers(currentUser,blockedUsers)) // Exclude events by blocked organizers
                 .and(excludeEventsFromBlockingOrganizers(currentUser, isAuthenticatedUser)); // Exclude events where the organizer blocks the user
-
-        // Fetch paginated events with the composed specification
-        Page<Event> pagedEvents = eventRepository.findAll(spec, pageable);
-
-        // Convert to DTOs
-        return pagedEvents.map(this::convertToOverviewDTO);
     }
 
     private Specification<Event> excludePrivateEvents(){
@@ -366,15 +468,21 @@ public class EventService {
 
     private Specification<Event> addGlobalSearch(Specification<Event> spec, String search) {
         if (StringUtils.hasText(search)) {
+            // The search itself and its typo corrections, any of them matching any field
+            List<String> searchPatterns = autocompleteIndex.expandSearch(search).stream()
+                    .map(term -> "%" + term + "%")
+                    .toList();
             return spec.and((root, query, criteriaBuilder) -> {
-                String searchPattern = "%" + search.toLowerCase() + "%";
-                return criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("city")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("type").get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("street")), searchPattern)
+                List<Expression<String>> fields = List.of(
+                        criteriaBuilder.lower(root.get("title")),
+                        criteriaBuilder.lower(root.get("description")),
+                        criteriaBuilder.lower(root.get("address").get("city")),
+                        criteriaBuilder.lower(root.get("type").get("title")),
+                        criteriaBuilder.lower(root.get("address").get("street"))
                 );
+                return criteriaBuilder.or(searchPatterns.stream()
+                        .flatMap(searchPattern -> fields.stream().map(field -> criteriaBuilder.like(field, searchPattern)))
+                        .toArray(Predicate[]::new));
             });
         }
         return spec;
@@ -402,7 +510,29 @@ public class EventService {
             throw new BlockedMerchandiseException("Event with id " + eventId + " is blocked");
         if(isAuthenticated && !isOrganizerNotBlockingUser(currentUser, event))
             throw new BlockedMerchandiseException("Event with id " + eventId + " is blocked");
+        return convertToDetailsDTO(event);
+    }
 
+    // Details of many events at once, leaving out missing ones and those hidden by a block either way
+    public List<EventDetailsDTO> getDetailsByIds(int userId, List<Integer> eventIds) {
+        List<Integer> requested = BatchIds.distinct(eventIds);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        User currentUser = fetchUserDetails(userId);
+        // Organizers only hide their events from authenticated users, as on the details page
+        Set<Integer> hiddenOrganizerIds = currentUser == null ? Set.of()
+                : currentUser instanceof AuthenticatedUser ? new HashSet<>(userRepository.findBlockRelatedIds(userId))
+                : currentUser.getBlockedUsers().stream().map(User::getId).collect(Collectors.toSet());
+
+        Map<Integer, EventDetailsDTO> details = eventRepository.findDetailsByIdIn(requested).stream()
+                .filter(event -> event.getOrganizer() == null || !hiddenOrganizerIds.contains(event.getOrganizer().getId()))
+                .map(this::convertToDetailsDTO)
+                .collect(Collectors.toMap(EventDetailsDTO::getId, Function.identity()));
+        return BatchIds.inRequestOrder(requested, details);
+    }
+
+    private EventDetailsDTO convertToDetailsDTO(Event event) {
         EventDetailsDTO dto = new EventDetailsDTO();
         dto.setId(event.getId());
         dto.setEventType(convertToOverviewDTO(event.getType()));
@@ -496,6 +626,7 @@ public class EventService {
 
         eventOrganizer.getOrganizingEvents().add(savedEvent);
         eventOrganizerRepository.save(eventOrganizer);
+        savedBudgetItems.forEach(item -> budgetRollupService.recordItemAdded(event, item));
         return mapToCreatedEventOverviewDTO(savedEvent, eventType, merchandise);
     }
 
@@ -579,6 +710,18 @@ public class EventService {
         return dto;
     }
 
+    private EventOverviewDTO convertToOverviewDTO(EventOverviewQueries.Row row) {
+        EventOverviewDTO dto = new EventOverviewDTO();
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setDate(row.date());
+        dto.setAddress(row.address());
+        dto.setType(row.type());
+        dto.setPublic(row.isPublic());
+        return dto;
+    }
+
     public CreatedEventOverviewDTO updateEvent(int eventId, UpdateEventDTO dto) {
         // Fetch the existing event
         Event event = eventRepository.findById(eventId)
@@ -588,6 +731,7 @@ public class EventService {
         event.setDescription(dto.getDescription());
         event.setMaxParticipants(dto.getMaxParticipants());
         event.setPublic(dto.isPublic());
+        LocalDateTime previousDate = event.getDate();
         event.setDate(dto.getDate());
         Address address = new Address();
         address.setCity(dto.getAddress().getCity());
@@ -612,6 +756,7 @@ public class EventService {
         event.setMerchandise(merchandise);
 
         Event savedEvent = eventRepository.save(event);
+        budgetRollupService.recordEventMoved(savedEvent, previousDate);
         notificationService.notifyUsersEventChanged(eventId);
 
         return mapToCreatedEventOverviewDTO(savedEvent, eventType, merchandise);
@@ -682,6 +827,7 @@ public class EventService {
         return mapToActivityOverviewDTO(activityRepository.findById(eventId).orElseThrow(() -> new EventException("Activity not found", EventException.ErrorType.ACTIVITY_NOT_FOUND)));
     }
 
+    @Transactional
     public ActivityOverviewDTO updateActivity(int activityId, CreateActivityDTO dto) {
         Activity activity = activityRepository.findById(activityId).orElseThrow(() -> new RuntimeException("Activity not found"));
 
@@ -691,6 +837,8 @@ public class EventService {
         activity.setEndTime(dto.getEndTime());
         activity.setAddress(mapToAddress(dto.getAddress()));
         activity = activityRepository.save(activity);
+        // The agenda ETag is the event's version
+        eventRepository.incrementVersionByActivity(activityId);
 
         return mapToActivityOverviewDTO(activity);
     }
@@ -749,61 +897,20 @@ public class EventService {
     public String buildEventEmailBody(Event event, String token, boolean isExistingUser,String frontLoginAddress,String frontFastRegisterAddress) {
         String applicationLink = isExistingUser ? frontLoginAddress : frontFastRegisterAddress;
 
-        return String.format("""
-        <html>
-        <body style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; padding: 20px;">
-            <div style="background-color: #f8f9fa; padding: 20px; border-radius: 5px;">
-                <h1 style="color: #333;">You're Invited!</h1>
-                <h2 style="color: #666;">%s</h2>
-                
-                <div style="margin: 20px 0;">
-                    <p style="color: #444;">%s</p>
-                    
-                    <h3 style="color: #555;">Event Details:</h3>
-                    <ul style="list-style: none; padding: 0;">
-                        <li>📅 <strong>Date:</strong> %s</li>
-                        <li>📍 <strong>Location:</strong> %s</li>
-                        <li>👥 <strong>Maximum Participants:</strong> %d</li>
-                        <li>🎯 <strong>Type:</strong> %s</li>
-                    </ul>
-                </div>
-                
-                <div style="text-align: center; margin: 30px 0;">
-                    <a href="%s?inviteToken=%s" 
-                       style="background-color: #007bff; 
-                              color: white; 
-                              padding: 12px 24px; 
-                              text-decoration: none; 
-                              border-radius: 5px; 
-                              display: inline-block;">
-                        %s
-                    </a>
-                </div>
-                
-                <p style="color: #666; font-size: 0.9em;">
-                    This is an automated invitation. Please do not reply to this email.
-                </p>
-            </div>
-        </body>
-        </html>
-        """,
-                event.getTitle(),
-                event.getDescription(),
-                event.getDate().format(DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a")),
-                formatAddress(event.getAddress()),
-                event.getMaxParticipants(),
-                event.getType().getTitle(),
-                applicationLink,
-                token,
-                isExistingUser ? "Join Event" : "Register & Join Event"
-        );
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", event.getTitle());
+        values.put("description", event.getDescription());
+        values.put("date", event.getDate().format(INVITATION_DATE_FORMAT));
+        values.put("location", formatAddress(event.getAddress()));
+        values.put("maxParticipants", event.getMaxParticipants());
+        values.put("type", event.getType().getTitle());
+        values.put("applicationLink", applicationLink);
+        values.put("token", token);
+        values.put("action", isExistingUser ? "Join Event" : "Register & Join Event");
+        return emailTemplates.render(EmailTemplates.EVENT_INVITATION, values);
     }
 
     private String formatAddress(Address address) {
-        return String.format("%s, %s, %s",
-                address.getStreet(),
-                address.getCity(),
-                address.getNumber()
-        );
+        return address.getStreet() + ", " + address.getCity() + ", " + address.getNumber();
     }
 }
@@ -10,6 +10,7 @@ import com.example.eventplanner.model.event.EventType;
 import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,15 +24,14 @@ import java.util.List;
 public class EventTypeService {
     private final EventTypeRepository eventTypeRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     public List<EventTypeOverviewDTO> getAll() {
-        return eventTypeRepository.findAll().stream()
-                .map(this::convertToOverviewDTO).toList();
+        return catalogSnapshotService.current().eventTypes();
     }
 
     public List<EventTypeOverviewDTO> getAllActive() {
-        return eventTypeRepository.findAll().stream().filter(eventType -> eventType.isActive())
-                .map(this::convertToOverviewDTO).toList();
+        return catalogSnapshotService.current().activeEventTypes();
     }
 
     public Page<EventTypeOverviewDTO> getAll(Pageable pageable) {
@@ -52,6 +52,7 @@ public class EventTypeService {
         eventType.setCategories(categoryRepository.findAllById(dto.getRecommendedCategoryIds()));
 
         EventType savedEventType = eventTypeRepository.save(eventType);
+        catalogSnapshotService.markChanged();
         return convertToOverviewDTO(savedEventType);
     }
 
@@ -64,6 +65,7 @@ public class EventTypeService {
         eventType.setCategories(categoryRepository.findAllById(dto.getRecommendedCategoryIds()));
 
         EventType updatedEventType = eventTypeRepository.save(eventType);
+        catalogSnapshotService.markChanged();
         return convertToOverviewDTO(updatedEventType);
     }
 
@@ -74,6 +76,7 @@ public class EventTypeService {
         eventType.setActive(!eventType.isActive());
 
         EventType updatedEventType = eventTypeRepository.save(eventType);
+        catalogSnapshotService.markChanged();
         return convertToOverviewDTO(updatedEventType);
     }
 
@@ -0,0 +1,247 @@
+package com.example.eventplanner.services.merchandise;
+
+import com.example.eventplanner.dto.budget.BudgetItemCategoryDTO;
+import com.example.eventplanner.dto.merchandise.plan.BudgetPlanDTO;
+import com.example.eventplanner.dto.merchandise.plan.BudgetPlanItemDTO;
+import com.example.eventplanner.exceptions.EventException;
+import com.example.eventplanner.model.event.BudgetItem;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Suggests the best rated merchandise for every open budget item of an event. Each open item takes at most one
+ * merchandise of its category priced within the item's remaining amount, a merchandise is used at most once and,
+ * when the event has a max budget, the plan also fits what is left of it.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetPlannerService {
+    // Breaks rating ties in favour of plans that fill more budget items
+    private static final double FILL_BONUS = 1e-3;
+    private static final double EPSILON = 1e-9;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final EventRepository eventRepository;
+    private final MerchandiseRepository merchandiseRepository;
+
+    @Value("${application.planner.time-budget-ms:200}")
+    private long timeBudgetMillis;
+
+    private record Candidate(int merchandiseId, String title, String type, double price, double rating) {
+        double score() {
+            return rating + FILL_BONUS;
+        }
+    }
+
+    private record Slot(BudgetItem budgetItem, double remainingAmount, List<Candidate> options) {
+        double bestScore() {
+            return options.isEmpty() ? 0 : options.get(0).score();
+        }
+    }
+
+    @Transactional
+    public BudgetPlanDTO planForEvent(int eventId) {
+        Event event = eventRepository.findById(eventId).orElseThrow(() ->
+                new EventException("Event not found", EventException.ErrorType.EVENT_NOT_FOUND));
+
+        List<BudgetItem> budgetItems = event.getBudget() != null && event.getBudget().getBudgetItems() != null
+                ? event.getBudget().getBudgetItems()
+                : List.of();
+        List<BudgetItem> openItems = budgetItems.stream()
+                .filter(item -> item.getMerchandise() == null && item.getCategory() != null)
+                .filter(item -> item.getMaxAmount() - item.getAmountSpent() > 0)
+                .toList();
+
+        double spent = budgetItems.stream().mapToDouble(BudgetItem::getAmountSpent).sum();
+        double budgetLeft = event.getMaxBudget() > 0 ? event.getMaxBudget() - spent : Double.POSITIVE_INFINITY;
+
+        Set<Integer> categoryIds = new HashSet<>();
+        openItems.forEach(item -> categoryIds.add(item.getCategory().getId()));
+        Map<Integer, List<Candidate>> priceIndex = categoryIds.isEmpty()
+                ? Map.of()
+                : buildPriceIndex(merchandiseRepository.findPlanningCandidates(categoryIds));
+
+        Map<Integer, Long> slotsPerCategory = new HashMap<>();
+        openItems.forEach(item -> slotsPerCategory.merge(item.getCategory().getId(), 1L, Long::sum));
+
+        List<Slot> slots = new ArrayList<>();
+        for (BudgetItem item : openItems) {
+            double remaining = item.getMaxAmount() - item.getAmountSpent();
+            List<Candidate> options = affordableOptions(
+                    priceIndex.getOrDefault(item.getCategory().getId(), List.of()),
+                    Math.min(remaining, budgetLeft),
+                    slotsPerCategory.get(item.getCategory().getId()));
+            slots.add(new Slot(item, remaining, options));
+        }
+        // Deciding the most valuable items first tightens the bound early
+        slots.sort(Comparator.comparingDouble(Slot::bestScore).reversed());
+
+        Search search = new Search(slots, budgetLeft,
+                timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE);
+        search.run(0, 0, 0);
+
+        return mapToBudgetPlanDTO(eventId, slots, search);
+    }
+
+    // Every plannable merchandise per category, cheapest first
+    private Map<Integer, List<Candidate>> buildPriceIndex(List<Object[]> rows) {
+        Map<Integer, List<Candidate>> index = new HashMap<>();
+        for (Object[] row : rows) {
+            String type = row[3] instanceof Class<?> entityClass ? entityClass.getSimpleName() : String.valueOf(row[3]);
+            Candidate candidate = new Candidate(
+                    ((Number) row[0]).intValue(),
+                    (String) row[2],
+                    type,
+                    ((Number) row[4]).doubleValue(),
+                    row[5] == null ? 0 : ((Number) row[5]).doubleValue());
+            index.computeIfAbsent(((Number) row[1]).intValue(), key -> new ArrayList<>()).add(candidate);
+        }
+        index.values().forEach(candidates -> candidates.sort(Comparator.comparingDouble(Candidate::price)
+                .thenComparing(Comparator.comparingDouble(Candidate::rating).reversed())));
+        return index;
+    }
+
+    // Affordable prefix of the price index without candidates that are beaten by enough cheaper ones,
+    // best rated first. With several open items in a category a candidate is only dropped once as many
+    // cheaper, at least as well rated candidates exist as there are items competing for them.
+    private List<Candidate> affordableOptions(List<Candidate> byPrice, double cap, long competingSlots) {
+        int end = affordablePrefixEnd(byPrice, cap);
+        PriorityQueue<Double> bestCheaperRatings = new PriorityQueue<>();
+        List<Candidate> options = new ArrayList<>();
+        for (int i = 0; i < end; i++) {
+            Candidate candidate = byPrice.get(i);
+            if (bestCheaperRatings.size() < competingSlots || candidate.rating() > bestCheaperRatings.peek()) {
+                options.add(candidate);
+            }
+            bestCheaperRatings.add(candidate.rating());
+            if (bestCheaperRatings.size() > competingSlots) {
+                bestCheaperRatings.poll();
+            }
+        }
+        options.sort(Comparator.comparingDouble(Candidate::rating).reversed()
+                .thenComparingDouble(Candidate::price));
+        return options;
+    }
+
+    private int affordablePrefixEnd(List<Candidate> byPrice, double cap) {
+        int low = 0;
+        int high = byPrice.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byPrice.get(mid).price() <= cap + EPSILON) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Depth first branch and bound over the open items, stops at the deadline with the best plan found so far
+    private static final class Search {
+        private final List<Slot> slots;
+        private final double budgetLeft;
+        private final long deadline;
+        private final double[] remainingBound;
+        private final Candidate[] current;
+        private final Candidate[] best;
+        private final Set<Integer> usedMerchandise = new HashSet<>();
+        private double bestScore = -1;
+        private double bestPrice;
+        private long nodes;
+        private boolean timedOut;
+
+        private Search(List<Slot> slots, double budgetLeft, long deadline) {
+            this.slots = slots;
+            this.budgetLeft = budgetLeft;
+            this.deadline = deadline;
+            this.current = new Candidate[slots.size()];
+            this.best = new Candidate[slots.size()];
+            this.remainingBound = new double[slots.size() + 1];
+            for (int i = slots.size() - 1; i >= 0; i--) {
+                remainingBound[i] = remainingBound[i + 1] + slots.get(i).bestScore();
+            }
+        }
+
+        private void run(int depth, double score, double price) {
+            if (timedOut) {
+                return;
+            }
+            if (++nodes % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+                return;
+            }
+            if (depth == slots.size()) {
+                if (score > bestScore + EPSILON || (Math.abs(score - bestScore) <= EPSILON && price < bestPrice)) {
+                    bestScore = score;
+                    bestPrice = price;
+                    System.arraycopy(current, 0, best, 0, current.length);
+                }
+                return;
+            }
+            if (score + remainingBound[depth] <= bestScore + EPSILON) {
+                return;
+            }
+
+            for (Candidate candidate : slots.get(depth).options()) {
+                if (price + candidate.price() > budgetLeft + EPSILON || !usedMerchandise.add(candidate.merchandiseId())) {
+                    continue;
+                }
+                current[depth] = candidate;
+                run(depth + 1, score + candidate.score(), price + candidate.price());
+                usedMerchandise.remove(candidate.merchandiseId());
+                current[depth] = null;
+                if (timedOut) {
+                    return;
+                }
+            }
+            run(depth + 1, score, price);
+        }
+    }
+
+    private BudgetPlanDTO mapToBudgetPlanDTO(int eventId, List<Slot> slots, Search search) {
+        List<BudgetPlanItemDTO> items = new ArrayList<>();
+        double totalPrice = 0;
+        double totalRating = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Candidate candidate = search.best[i];
+            if (candidate == null) {
+                continue;
+            }
+            Slot slot = slots.get(i);
+            BudgetPlanItemDTO item = new BudgetPlanItemDTO();
+            item.setBudgetItemId(slot.budgetItem().getId());
+
+            BudgetItemCategoryDTO categoryDTO = new BudgetItemCategoryDTO();
+            categoryDTO.setId(slot.budgetItem().getCategory().getId());
+            categoryDTO.setTitle(slot.budgetItem().getCategory().getTitle());
+            item.setCategory(categoryDTO);
+
+            item.setRemainingAmount(slot.remainingAmount());
+            item.setMerchandiseId(candidate.merchandiseId());
+            item.setTitle(candidate.title());
+            item.setType(candidate.type());
+            item.setPrice(candidate.price());
+            item.setRating(candidate.rating());
+            items.add(item);
+
+            totalPrice += candidate.price();
+            totalRating += candidate.rating();
+        }
+
+        BudgetPlanDTO dto = new BudgetPlanDTO();
+        dto.setEventId(eventId);
+        dto.setItems(items);
+        dto.setTotalPrice(totalPrice);
+        dto.setTotalRating(totalRating);
+        dto.setOptimal(!search.timedOut);
+        return dto;
+    }
+}
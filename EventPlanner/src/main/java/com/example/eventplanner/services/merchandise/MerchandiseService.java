@@ -3,6 +3,7 @@ package com.example.eventplanner.services.merchandise;
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
 import com.example.eventplanner.dto.category.GetAllCategoriesDTO;
 import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseDetailDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
@@ -10,14 +11,14 @@ import com.example.eventplanner.dto.merchandise.MerchandisePhotoDTO;
 import com.example.eventplanner.dto.merchandise.review.DetailsReviewOverviewDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewOverviewDTO;
 import com.example.eventplanner.exceptions.BlockedMerchandiseException;
-import com.example.eventplanner.model.event.Category;
 import com.example.eventplanner.model.event.EventType;
 import com.example.eventplanner.model.merchandise.Merchandise;
 import com.example.eventplanner.model.merchandise.MerchandisePhoto;
 import com.example.eventplanner.model.common.Review;
 import com.example.eventplanner.model.merchandise.ReviewStatus;
 import com.example.eventplanner.model.user.ServiceProvider;
-import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.services.batch.BatchIds;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.user.ServiceProviderRepository;
 import com.example.eventplanner.model.user.User;
@@ -25,16 +26,16 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MerchandiseService {
     private final MerchandiseRepository merchandiseRepository;
     private final ServiceProviderRepository serviceProviderRepository;
-    private final CategoryRepository categoryRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
     private final com.example.eventplanner.repositories.user.UserRepository userRepository;
 
     public List<MerchandiseOverviewDTO> getTop(int userId) {
@@ -125,32 +126,62 @@ public class MerchandiseService {
 
     public GetAllCategoriesDTO getAllCategories(){
         GetAllCategoriesDTO allCategoriesDTO = new GetAllCategoriesDTO();
-        allCategoriesDTO.setCategories(categoryRepository.findAll().stream().map(this::convertToCategoryOverviewDTO).toList());
+        allCategoriesDTO.setCategories(catalogSnapshotService.current().allCategories());
         return allCategoriesDTO;
     }
 
-    private CategoryOverviewDTO convertToCategoryOverviewDTO(Category category) {
-        CategoryOverviewDTO categoryDTO = new CategoryOverviewDTO();
-        categoryDTO.setId(category.getId());
-        categoryDTO.setTitle(category.getTitle());
-        categoryDTO.setDescription(category.getDescription());
-        return categoryDTO;
+    public MerchandiseDetailDTO getMerchandiseById(int userId,int id) {
+        return getMerchandiseById(userId, id, FieldSet.ALL);
     }
 
-    public MerchandiseDetailDTO getMerchandiseById(int userId,int id) {
+    public MerchandiseDetailDTO getMerchandiseById(int userId, int id, FieldSet fields) {
         User currentUser = fetchUserDetails(userId);
 
         // User-specific details
         List<User> blockedUsers = currentUser != null ? currentUser.getBlockedUsers() : List.of();
-        Merchandise merchandise = merchandiseRepository.findById(id).orElseThrow(() ->
-                new RuntimeException("Merchandise with id " + id + " not found")
-        );
-        if(blockedUsers.contains(serviceProviderRepository.findByMerchandiseId(merchandise.getId()).get()))
+        // Reviews and their reviewers are only joined in when they or the rating are asked for
+        Merchandise merchandise = (needsReviews(fields) ? merchandiseRepository.findDetailsById(id) : merchandiseRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Merchandise with id " + id + " not found"));
+        ServiceProvider sp = serviceProviderRepository.findByMerchandiseId(merchandise.getId()).orElse(null);
+        if(sp != null && blockedUsers.contains(sp))
             throw new BlockedMerchandiseException("Merchandise with id " + id + " is blocked");
-        return mapToMerchandiseDetails(merchandise);
+        return mapToMerchandiseDetails(merchandise, sp, fields);
+    }
+
+    // Details of many items at once, leaving out missing ones and those of providers the user blocked
+    public List<MerchandiseDetailDTO> getMerchandiseByIds(int userId, List<Integer> ids, FieldSet fields) {
+        List<Integer> requested = BatchIds.distinct(ids);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        User currentUser = fetchUserDetails(userId);
+        Set<Integer> blockedIds = currentUser != null
+                ? currentUser.getBlockedUsers().stream().map(User::getId).collect(Collectors.toSet())
+                : Set.of();
+
+        Map<Integer, ServiceProvider> providers = new HashMap<>();
+        for (Object[] row : serviceProviderRepository.findByMerchandiseIdIn(requested)) {
+            providers.putIfAbsent((Integer) row[0], (ServiceProvider) row[1]);
+        }
+        List<Merchandise> merchandise = needsReviews(fields)
+                ? merchandiseRepository.findDetailsByIdIn(requested)
+                : merchandiseRepository.findAllById(requested);
+        Map<Integer, MerchandiseDetailDTO> details = merchandise.stream()
+                .filter(item -> {
+                    ServiceProvider sp = providers.get(item.getId());
+                    return sp == null || !blockedIds.contains(sp.getId());
+                })
+                .map(item -> mapToMerchandiseDetails(item, providers.get(item.getId()), fields))
+                .collect(Collectors.toMap(MerchandiseDetailDTO::getId, Function.identity()));
+        return BatchIds.inRequestOrder(requested, details);
     }
 
-    private MerchandiseDetailDTO mapToMerchandiseDetails(Merchandise merchandise) {
+    private static boolean needsReviews(FieldSet fields) {
+        return fields.includesAny("reviews", "rating");
+    }
+
+    // Collections that were not asked for stay uninitialized
+    private MerchandiseDetailDTO mapToMerchandiseDetails(Merchandise merchandise, ServiceProvider sp, FieldSet fields) {
         MerchandiseDetailDTO merchandiseDetails = new MerchandiseDetailDTO();
         merchandiseDetails.setId(merchandise.getId());
         merchandiseDetails.setTitle(merchandise.getTitle());
@@ -164,10 +195,14 @@ public class MerchandiseService {
         merchandiseDetails.setMaxDuration(merchandise.getMaxDuration());
         merchandiseDetails.setReservationDeadline(merchandise.getReservationDeadline());
         merchandiseDetails.setCancellationDeadline(merchandise.getCancellationDeadline());
-        merchandiseDetails.setMerchandisePhotos(merchandise.getPhotos().stream().map(this::mapToMerchandisePhotoDTO).toList());
+        if (fields.includes("merchandisePhotos")) {
+            merchandiseDetails.setMerchandisePhotos(merchandise.getPhotos().stream().map(this::mapToMerchandisePhotoDTO).toList());
+        }
 
-        List<Review> approvedReviews = merchandise.getReviews().stream().filter(review -> review.getStatus() == ReviewStatus.APPROVED).toList();
-        merchandiseDetails.setReviews(approvedReviews.stream().map(this::mapToMerchandiseReviewDTO).toList());
+        if (fields.includes("reviews")) {
+            List<Review> approvedReviews = merchandise.getReviews().stream().filter(review -> review.getStatus() == ReviewStatus.APPROVED).toList();
+            merchandiseDetails.setReviews(approvedReviews.stream().map(this::mapToMerchandiseReviewDTO).toList());
+        }
 
         merchandiseDetails.setType(merchandise.getClass().getSimpleName());
 
@@ -179,19 +214,22 @@ public class MerchandiseService {
         addressDTO.setLatitude(merchandise.getAddress().getLatitude());
         merchandiseDetails.setAddress(addressDTO);
 
-        CategoryOverviewDTO categoryOverviewDTO = new CategoryOverviewDTO();
-        categoryOverviewDTO.setId(merchandise.getCategory().getId());
-        categoryOverviewDTO.setTitle(merchandise.getCategory().getTitle());
-        categoryOverviewDTO.setDescription(merchandise.getCategory().getDescription());
-        categoryOverviewDTO.setPending(merchandise.getCategory().isPending());
-        merchandiseDetails.setCategory(categoryOverviewDTO);
+        if (fields.includes("category")) {
+            CategoryOverviewDTO categoryOverviewDTO = new CategoryOverviewDTO();
+            categoryOverviewDTO.setId(merchandise.getCategory().getId());
+            categoryOverviewDTO.setTitle(merchandise.getCategory().getTitle());
+            categoryOverviewDTO.setDescription(merchandise.getCategory().getDescription());
+            categoryOverviewDTO.setPending(merchandise.getCategory().isPending());
+            merchandiseDetails.setCategory(categoryOverviewDTO);
+        }
 
-        merchandiseDetails.setEventTypes(merchandise.getEventTypes().stream().map(this::mapToEventTypeOverviewDTO).toList());
-        merchandiseDetails.setRating(merchandise.getRating());
+        if (fields.includes("eventTypes")) {
+            merchandiseDetails.setEventTypes(merchandise.getEventTypes().stream().map(this::mapToEventTypeOverviewDTO).toList());
+        }
+        if (fields.includes("rating")) {
+            merchandiseDetails.setRating(merchandise.getRating());
+        }
 
-        ServiceProvider sp = serviceProviderRepository.findByMerchandiseId(merchandise.getId()).orElse(
-                sp = null
-        );
         if(sp != null) {
             merchandiseDetails.setServiceProviderId(sp.getId());
         } else {
@@ -244,12 +282,8 @@ public class MerchandiseService {
 
 
     public List<MerchandiseOverviewDTO> getMerchandiseByCategory(int categoryId, double maxPrice) {
-        List<Merchandise> merchandises = merchandiseRepository.findMerchandiseByCategory(categoryId);
-        List<Merchandise> filteredMerchandise = merchandises.stream()
-                .filter(merchandise ->
-                        (merchandise.getPrice() - (merchandise.getPrice()*merchandise.getDiscount())/100) < maxPrice &&
-                         merchandise.isAvailable() && !merchandise.isDeleted() && merchandise.isVisible())
+        return merchandiseRepository.findAvailableByCategoryBelowPrice(categoryId, maxPrice).stream()
+                .map(this::convertToOverviewDTO)
                 .toList();
-        return filteredMerchandise.stream().map(this::convertToOverviewDTO).toList();
     }
 }
@@ -1,6 +1,7 @@
 package com.example.eventplanner.services.merchandise;
 
 import com.example.eventplanner.dto.category.CategoryOverviewDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.eventType.EventTypeOverviewDTO;
 import com.example.eventplanner.dto.filter.ProductFiltersDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
@@ -17,11 +18,19 @@ import com.example.eventplanner.repositories.budget.BudgetItemRepository;
 import com.example.eventplanner.repositories.budget.BudgetRepository;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.services.budget.BudgetRollupService;
+import com.example.eventplanner.services.search.AutocompleteIndex;
+import com.example.eventplanner.services.search.SearchCountCache;
+import com.example.eventplanner.services.search.SearchResultCache;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -40,6 +49,7 @@ import com.example.eventplanner.model.user.ServiceProvider;
 import com.example.eventplanner.model.user.User;
 import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseOverviewQueries;
 import com.example.eventplanner.repositories.merchandise.MerchandisePhotoRepository;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.merchandise.ProductRepository;
@@ -53,8 +63,10 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -70,22 +82,89 @@ public class ProductService {
     private final EventRepository eventRepository;
     private final BudgetItemRepository budgetItemRepository;
     private final BudgetRepository budgetRepository;
+    private final BudgetRollupService budgetRollupService;
+    private final PurchaseLedgerService purchaseLedgerService;
+    private final SearchCountCache searchCountCache;
+    private final SearchResultCache searchResultCache;
+    private final AutocompleteIndex autocompleteIndex;
 
     public Page<MerchandiseOverviewDTO> search(int userId, ProductFiltersDTO productFiltersDTO, String search, Pageable pageable) {
-        // Fetch user details
+        return search(userId, productFiltersDTO, search, pageable, FieldSet.ALL);
+    }
+
+    public Page<MerchandiseOverviewDTO> search(int userId, ProductFiltersDTO productFiltersDTO, String search, Pageable pageable,
+                                               FieldSet fields) {
         User currentUser = fetchUserDetails(userId);
+
+        // The shared page leaves block lists out, they are checked against its providers afterwards
+        List<Object> key = SearchCountCache.key("product", productFiltersDTO.getPriceMin(), productFiltersDTO.getPriceMax(),
+                productFiltersDTO.getCategory(), productFiltersDTO.getDurationMin(), productFiltersDTO.getDurationMax(),
+                productFiltersDTO.getCity(), autocompleteIndex.searchTerms(search), pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        SearchResultCache.Lookup lookup = searchResultCache.lookup(SearchResultCache.Domain.MERCHANDISE, key);
+        SearchResultCache.CachedPage cached = lookup.page();
+        List<MerchandiseOverviewQueries.Row> rows = null;
+        if (cached == null) {
+            Page<MerchandiseOverviewQueries.Row> shared = productRepository.findOverviews(Product.class,
+                    createSearchSpecification(null, productFiltersDTO, search), pageable, fields);
+            cached = SearchResultCache.CachedPage.of(shared, MerchandiseOverviewQueries.Row::id,
+                    MerchandiseOverviewQueries.Row::providerId);
+            searchResultCache.store(lookup, cached);
+            rows = shared.getContent();
+        }
+
+        List<Integer> blockedProviders = blockedProviderIds(currentUser);
+        if (!cached.isExactFor(new HashSet<>(blockedProviders), pageable.getPageNumber())) {
+            Specification<Product> spec = createSearchSpecification(currentUser, productFiltersDTO, search);
+            return productRepository.findOverviews(Product.class, spec, pageable, fields)
+                    .map(this::convertToOverviewDTO);
+        }
+
+        // Fetch the overview columns of the cached products, no entities are loaded
+        if (rows == null) {
+            rows = productRepository.findOverviewsByIds(Product.class, cached.ids(), fields);
+        }
+        long total = blockedProviders.isEmpty() ? cached.total() : countSearch(currentUser, productFiltersDTO, search);
+        return new PageImpl<>(rows.stream().map(this::convertToOverviewDTO).toList(), pageable, total);
+    }
+
+    public Slice<MerchandiseOverviewDTO> searchSlice(int userId, ProductFiltersDTO productFiltersDTO, String search, Pageable pageable,
+                                                     FieldSet fields) {
+        Specification<Product> spec = createSearchSpecification(fetchUserDetails(userId), productFiltersDTO, search);
+        return productRepository.findOverviewSlice(Product.class, spec, pageable, fields)
+                .map(this::convertToOverviewDTO);
+    }
+
+    public long countSearch(int userId, ProductFiltersDTO productFiltersDTO, String search) {
+        return countSearch(fetchUserDetails(userId), productFiltersDTO, search);
+    }
+
+    private long countSearch(User currentUser, ProductFiltersDTO productFiltersDTO, String search) {
+        List<Object> key = SearchCountCache.key("product", productFiltersDTO.getPriceMin(), productFiltersDTO.getPriceMax(),
+                productFiltersDTO.getCategory(), productFiltersDTO.getDurationMin(), productFiltersDTO.getDurationMax(),
+                productFiltersDTO.getCity(), autocompleteIndex.searchTerms(search), blockedProviderIds(currentUser));
+        return searchCountCache.get(key, () ->
+                productRepository.countOverviews(Product.class, createSearchSpecification(currentUser, productFiltersDTO, search)));
+    }
+
+    private Specification<Product> createSearchSpecification(User currentUser, ProductFiltersDTO productFiltersDTO, String search) {
         List<User> blockedUsers = currentUser != null ? currentUser.getBlockedUsers().stream().filter(u->u instanceof ServiceProvider).toList() : List.of();
 
         // Create a specification for filtering
-        Specification<Product> spec = createSpecification(productFiltersDTO, search)
+        return createSpecification(productFiltersDTO, search)
                 .and(excludeInvisible())
                 .and(excludeBlockedProviders(currentUser, blockedUsers)); // Exclude products by blocked providers
+    }
 
-        // Fetch paginated products with the composed specification
-        Page<Product> pagedProducts = productRepository.findAll(spec, pageable);
-
-        // Convert the results to DTOs
-        return pagedProducts.map(this::convertToOverviewDTO);
+    // Blocked providers only narrow the results of event organizers, everyone else shares the same counts
+    private List<Integer> blockedProviderIds(User currentUser) {
+        if (!(currentUser instanceof EventOrganizer)) {
+            return List.of();
+        }
+        return currentUser.getBlockedUsers().stream()
+                .filter(u -> u instanceof ServiceProvider)
+                .map(User::getId)
+                .sorted()
+                .toList();
     }
 
     private Specification<Product> excludeInvisible(){
@@ -120,12 +199,19 @@ public class ProductService {
         return userRepository.findById(userId).orElse(null);
     }
 
-    public List<MerchandiseOverviewDTO> getAll(){
-        return productRepository.findAll().stream().map(this::convertToOverviewDTO).toList();
+    // Both read off an open cursor, consume them inside a transaction and close them
+    public Stream<MerchandiseOverviewDTO> streamAll(){
+        return productRepository.streamOverviews(Product.class, null, Sort.unsorted())
+                .map(this::convertToOverviewDTO);
     }
 
-    public List<MerchandiseOverviewDTO> getAllByCategories(List<Integer> categories){
-        return productRepository.findAllByCategories(categories).stream().map(this::convertToOverviewDTO).toList();
+    public Stream<MerchandiseOverviewDTO> streamAllByCategories(List<Integer> categories){
+        Specification<Product> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                root.get("category").get("id").in(categories),
+                criteriaBuilder.isTrue(root.get("available")),
+                criteriaBuilder.isFalse(root.get("deleted")));
+        return productRepository.streamOverviews(Product.class, spec, Sort.unsorted())
+                .map(this::convertToOverviewDTO);
     }
 
     public ProductOverviewDTO getById(int id){
@@ -171,7 +257,7 @@ public class ProductService {
         if (StringUtils.hasText(productFiltersDTO.getCategory())) {
             return spec.and((root, query, criteriaBuilder) ->
                     criteriaBuilder.equal(
-                            criteriaBuilder.lower(root.get("category")),
+                            criteriaBuilder.lower(root.get("category").get("title")),
                             productFiltersDTO.getCategory().toLowerCase()
                     )
             );
@@ -193,36 +279,44 @@ public class ProductService {
 
     private Specification<Product> addGlobalSearch(Specification<Product> spec, String search) {
         if (StringUtils.hasText(search)) {
+            // The search itself and its typo corrections, any of them matching any field
+            List<String> searchPatterns = autocompleteIndex.expandSearch(search).stream()
+                    .map(term -> "%" + term + "%")
+                    .toList();
             return spec.and((root, query, criteriaBuilder) -> {
-                String searchPattern = "%" + search.toLowerCase() + "%";
-                return criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("category").get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("city")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("street")), searchPattern)
+                List<Expression<String>> fields = List.of(
+                        criteriaBuilder.lower(root.get("title")),
+                        criteriaBuilder.lower(root.get("description")),
+                        criteriaBuilder.lower(root.get("category").get("title")),
+                        criteriaBuilder.lower(root.get("address").get("city")),
+                        criteriaBuilder.lower(root.get("address").get("street"))
                 );
+                return criteriaBuilder.or(searchPatterns.stream()
+                        .flatMap(searchPattern -> fields.stream().map(field -> criteriaBuilder.like(field, searchPattern)))
+                        .toArray(Predicate[]::new));
             });
         }
         return spec;
     }
 
-    private MerchandiseOverviewDTO convertToOverviewDTO(Product product) {
+    private MerchandiseOverviewDTO convertToOverviewDTO(MerchandiseOverviewQueries.Row row) {
         MerchandiseOverviewDTO dto = new MerchandiseOverviewDTO();
-        dto.setId(product.getId());
-        dto.setTitle(product.getTitle());
-        dto.setDescription(product.getDescription());
-        dto.setAddress(product.getAddress());
-        dto.setCategory(product.getCategory().getTitle());
-        if(product.getPhotos() != null && !product.getPhotos().isEmpty()) {
-            dto.setPhotos(product.getPhotos().stream().map(this::mapToMerchandisePhotoDTO).toList());
-        }
-        else{
-            dto.setPhotos(new ArrayList<>());
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setAddress(row.address());
+        dto.setCategory(row.categoryTitle());
+        List<MerchandisePhotoDTO> photos = new ArrayList<>();
+        if (row.photoId() != null) {
+            MerchandisePhotoDTO photoDTO = new MerchandisePhotoDTO();
+            photoDTO.setId(row.photoId());
+            photoDTO.setPhoto(row.photo());
+            photos.add(photoDTO);
         }
-        dto.setRating(product.getRating());
-        dto.setType(product.getClass().getSimpleName());
-        dto.setPrice(product.getPrice());
+        dto.setPhotos(photos);
+        dto.setRating(row.rating() != null ? row.rating() : 0.0);
+        dto.setType(Product.class.getSimpleName());
+        dto.setPrice(row.price());
         return dto;
     }
 
@@ -500,7 +594,8 @@ public class ProductService {
         return true;
     }
 
-    public BuyProductResponseDTO buyProduct(int productId, int eventId) throws Exception {
+    @Transactional
+    public BuyProductResponseDTO buyProduct(int productId, int eventId) {
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventException("Event not found", EventException.ErrorType.EVENT_NOT_FOUND));
         Product product = productRepository.findById(productId).orElseThrow(() -> new ProductException("Product not found", ProductException.ErrorType.NOT_FOUND));
 
@@ -508,7 +603,19 @@ public class ProductService {
             throw new ProductException("Product is already bought!", ProductException.ErrorType.PRODUCT_BOUGHT);
         }
 
-        BudgetItem existingBudgetItem = event.getBudget()
+        try {
+            addToBudget(product, event);
+            purchaseLedgerService.recordPurchase(event, product);
+        } catch (DataIntegrityViolationException e) {
+            // Unique (budget, merchandise) index caught a purchase committed after our check
+            throw new ProductException("Product is already bought!", ProductException.ErrorType.PRODUCT_BOUGHT);
+        }
+        return new BuyProductResponseDTO();
+    }
+
+    private void addToBudget(Product product, Event event) {
+        Budget budget = event.getBudget();
+        BudgetItem existingBudgetItem = budget
                                             .getBudgetItems()
                                             .stream()
                                             .filter(item ->
@@ -524,6 +631,8 @@ public class ProductService {
 
             existingBudgetItem.setMerchandise(product);
             existingBudgetItem.setAmountSpent(totalPrice);
+            existingBudgetItem.setBudgetId(budget.getBudgetId());
+            budgetRollupService.record(event, existingBudgetItem.getCategory(), 0, totalPrice, 0);
         }
         else {
             BudgetItem budgetItem = new BudgetItem();
@@ -531,12 +640,14 @@ public class ProductService {
             budgetItem.setCategory(product.getCategory());
             budgetItem.setMaxAmount(0);
             budgetItem.setAmountSpent(product.getPrice() - (product.getPrice() * product.getDiscount())/100);
+            budgetItem.setBudgetId(budget.getBudgetId());
             BudgetItem savedBudgetItem = budgetItemRepository.save(budgetItem);
-            event.getBudget().getBudgetItems().add(savedBudgetItem);
+            budget.getBudgetItems().add(savedBudgetItem);
+            budgetRollupService.recordItemAdded(event, budgetItem);
         }
 
-        budgetRepository.save(event.getBudget());
-        return new BuyProductResponseDTO();
+        // Flush here so a lost version race surfaces inside this transaction and can be retried
+        budgetRepository.saveAndFlush(budget);
     }
 
     private boolean isProductAlreadyBought(int productId, Event event) {
@@ -0,0 +1,37 @@
+package com.example.eventplanner.services.merchandise;
+
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import com.example.eventplanner.model.merchandise.PurchaseLedgerEntry;
+import com.example.eventplanner.repositories.merchandise.PurchaseLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class PurchaseLedgerService {
+    private final PurchaseLedgerRepository purchaseLedgerRepository;
+
+    // Called inside the purchase transaction, so the entry commits or rolls back together with the budget item
+    public void recordPurchase(Event event, Merchandise merchandise) {
+        if (purchaseLedgerRepository.existsByEventIdAndMerchandiseId(event.getId(), merchandise.getId())) {
+            return;
+        }
+        PurchaseLedgerEntry entry = new PurchaseLedgerEntry();
+        entry.setEventId(event.getId());
+        entry.setOrganizerId(event.getOrganizer() != null ? event.getOrganizer().getId() : null);
+        entry.setMerchandiseId(merchandise.getId());
+        entry.setPurchasedAt(LocalDateTime.now());
+        purchaseLedgerRepository.save(entry);
+    }
+
+    public boolean hasOrganizerBought(int organizerId, int merchandiseId) {
+        return purchaseLedgerRepository.existsByOrganizerIdAndMerchandiseId(organizerId, merchandiseId);
+    }
+
+    public boolean hasAttendedEventWith(int userId, int merchandiseId) {
+        return purchaseLedgerRepository.existsForAttendee(userId, merchandiseId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.eventplanner.services.merchandise;
 
 import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.common.FieldSet;
 import com.example.eventplanner.dto.filter.ProductFiltersDTO;
 import com.example.eventplanner.dto.filter.ServiceFiltersDTO;
 import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
@@ -16,6 +17,7 @@ import com.example.eventplanner.exceptions.ServiceReservationException;
 import com.example.eventplanner.exceptions.UserAuthenticationException;
 import com.example.eventplanner.model.common.Address;
 import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.event.Budget;
 import com.example.eventplanner.model.event.BudgetItem;
 import com.example.eventplanner.model.event.Category;
 import com.example.eventplanner.model.event.Event;
@@ -29,23 +31,36 @@ import com.example.eventplanner.repositories.budget.BudgetRepository;
 import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseOverviewQueries;
 import com.example.eventplanner.repositories.merchandise.MerchandisePhotoRepository;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.merchandise.ServiceRepository;
 import com.example.eventplanner.repositories.merchandise.TimeslotRepository;
 import com.example.eventplanner.repositories.user.ServiceProviderRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.budget.BudgetRollupService;
 import com.example.eventplanner.services.clock.ReservationNotificationScheduler;
 import com.example.eventplanner.services.email.EmailService;
+import com.example.eventplanner.services.email.template.EmailTemplates;
 import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.search.AutocompleteIndex;
+import com.example.eventplanner.services.search.SearchCountCache;
+import com.example.eventplanner.services.search.SearchResultCache;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -54,9 +69,13 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -74,22 +93,90 @@ public class ServiceService {
     private final BudgetItemRepository budgetItemRepository;
     private final BudgetRepository budgetRepository;
     private final ReservationNotificationScheduler reservationNotificationScheduler;
+    private final BudgetRollupService budgetRollupService;
+    private final PurchaseLedgerService purchaseLedgerService;
+    private final SearchCountCache searchCountCache;
+    private final SearchResultCache searchResultCache;
+    private final AutocompleteIndex autocompleteIndex;
+    private final EmailTemplates emailTemplates;
 
     public Page<MerchandiseOverviewDTO> search(int userId, ServiceFiltersDTO serviceFiltersDTO, String search, Pageable pageable) {
-        // Fetch user details
+        return search(userId, serviceFiltersDTO, search, pageable, FieldSet.ALL);
+    }
+
+    public Page<MerchandiseOverviewDTO> search(int userId, ServiceFiltersDTO serviceFiltersDTO, String search, Pageable pageable,
+                                               FieldSet fields) {
         User currentUser = fetchUserDetails(userId);
+
+        // The shared page leaves block lists out, they are checked against its providers afterwards
+        List<Object> key = SearchCountCache.key("service", serviceFiltersDTO.getPriceMin(), serviceFiltersDTO.getPriceMax(),
+                serviceFiltersDTO.getCategory(), serviceFiltersDTO.getDurationMin(), serviceFiltersDTO.getDurationMax(),
+                serviceFiltersDTO.getCity(), autocompleteIndex.searchTerms(search), pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        SearchResultCache.Lookup lookup = searchResultCache.lookup(SearchResultCache.Domain.MERCHANDISE, key);
+        SearchResultCache.CachedPage cached = lookup.page();
+        List<MerchandiseOverviewQueries.Row> rows = null;
+        if (cached == null) {
+            Page<MerchandiseOverviewQueries.Row> shared = serviceRepository.findOverviews(com.example.eventplanner.model.merchandise.Service.class,
+                    createSearchSpecification(null, serviceFiltersDTO, search), pageable, fields);
+            cached = SearchResultCache.CachedPage.of(shared, MerchandiseOverviewQueries.Row::id,
+                    MerchandiseOverviewQueries.Row::providerId);
+            searchResultCache.store(lookup, cached);
+            rows = shared.getContent();
+        }
+
+        List<Integer> blockedProviders = blockedProviderIds(currentUser);
+        if (!cached.isExactFor(new HashSet<>(blockedProviders), pageable.getPageNumber())) {
+            Specification<com.example.eventplanner.model.merchandise.Service> spec = createSearchSpecification(currentUser, serviceFiltersDTO, search);
+            return serviceRepository.findOverviews(com.example.eventplanner.model.merchandise.Service.class, spec, pageable, fields)
+                    .map(this::convertToOverviewDTO);
+        }
+
+        // Fetch the overview columns of the cached services, no entities are loaded
+        if (rows == null) {
+            rows = serviceRepository.findOverviewsByIds(com.example.eventplanner.model.merchandise.Service.class, cached.ids(), fields);
+        }
+        long total = blockedProviders.isEmpty() ? cached.total() : countSearch(currentUser, serviceFiltersDTO, search);
+        return new PageImpl<>(rows.stream().map(this::convertToOverviewDTO).toList(), pageable, total);
+    }
+
+    public Slice<MerchandiseOverviewDTO> searchSlice(int userId, ServiceFiltersDTO serviceFiltersDTO, String search, Pageable pageable,
+                                                     FieldSet fields) {
+        Specification<com.example.eventplanner.model.merchandise.Service> spec = createSearchSpecification(fetchUserDetails(userId), serviceFiltersDTO, search);
+        return serviceRepository.findOverviewSlice(com.example.eventplanner.model.merchandise.Service.class, spec, pageable, fields)
+                .map(this::convertToOverviewDTO);
+    }
+
+    public long countSearch(int userId, ServiceFiltersDTO serviceFiltersDTO, String search) {
+        return countSearch(fetchUserDetails(userId), serviceFiltersDTO, search);
+    }
+
+    private long countSearch(User currentUser, ServiceFiltersDTO serviceFiltersDTO, String search) {
+        List<Object> key = SearchCountCache.key("service", serviceFiltersDTO.getPriceMin(), serviceFiltersDTO.getPriceMax(),
+                serviceFiltersDTO.getCategory(), serviceFiltersDTO.getDurationMin(), serviceFiltersDTO.getDurationMax(),
+                serviceFiltersDTO.getCity(), autocompleteIndex.searchTerms(search), blockedProviderIds(currentUser));
+        return searchCountCache.get(key, () ->
+                serviceRepository.countOverviews(com.example.eventplanner.model.merchandise.Service.class, createSearchSpecification(currentUser, serviceFiltersDTO, search)));
+    }
+
+    private Specification<com.example.eventplanner.model.merchandise.Service> createSearchSpecification(User currentUser, ServiceFiltersDTO serviceFiltersDTO, String search) {
         List<User> blockedUsers = currentUser != null ? currentUser.getBlockedUsers().stream().filter(u->u instanceof ServiceProvider).toList() : List.of();
 
         // Create a specification for filtering
-        Specification<com.example.eventplanner.model.merchandise.Service> spec = createSpecification(serviceFiltersDTO, search)
+        return createSpecification(serviceFiltersDTO, search)
                 .and(excludeInvisible())
                 .and(excludeBlockedProviders(currentUser, blockedUsers)); // Exclude services by blocked providers
+    }
 
-        // Fetch paginated services with the composed specification
-        Page<com.example.eventplanner.model.merchandise.Service> pagedServices = serviceRepository.findAll(spec, pageable);
-
-        // Convert the results to DTOs
-        return pagedServices.map(this::convertToOverviewDTO);
+    // Blocked providers only narrow the results of event organizers, everyone else shares the same counts
+    private List<Integer> blockedProviderIds(User currentUser) {
+        if (!(currentUser instanceof EventOrganizer)) {
+            return List.of();
+        }
+        return currentUser.getBlockedUsers().stream()
+                .filter(u -> u instanceof ServiceProvider)
+                .map(User::getId)
+                .sorted()
+                .toList();
     }
     private Specification<com.example.eventplanner.model.merchandise.Service> excludeInvisible(){
         return (root, query, criteriaBuilder) -> {
@@ -101,25 +188,22 @@ public class ServiceService {
         List<CalendarTimeSlotDTO> calendarTimeSlotDTOs = new ArrayList<>();
 
         // Retrieve the service provider by ID
-        ServiceProvider serviceProvider = serviceProviderRepository.findById(spId)
-                .orElseThrow(() -> new RuntimeException("ServiceProvider not found"));
-
-        // For each service offered by the service provider, retrieve the associated timeslots
-        for (Merchandise merchandise : serviceProvider.getMerchandise()) {
-            if (merchandise instanceof com.example.eventplanner.model.merchandise.Service) {
-                com.example.eventplanner.model.merchandise.Service service = (com.example.eventplanner.model.merchandise.Service) merchandise;
-
-                // Retrieve all timeslots for the service
-                for (Timeslot timeslot : service.getTimeslots()) {
-                    CalendarTimeSlotDTO calendarTimeSlotDTO = new CalendarTimeSlotDTO();
-                    calendarTimeSlotDTO.setService(service.getTitle());
-                    calendarTimeSlotDTO.setId(timeslot.getId());
-                    calendarTimeSlotDTO.setStartTime(timeslot.getStartTime());
-                    calendarTimeSlotDTO.setEndTime(timeslot.getEndTime());
-
-                    // Add the DTO to the list
-                    calendarTimeSlotDTOs.add(calendarTimeSlotDTO);
-                }
+        if (!serviceProviderRepository.existsById(spId)) {
+            throw new RuntimeException("ServiceProvider not found");
+        }
+
+        // Services of the provider with their timeslots, loaded in one query
+        for (com.example.eventplanner.model.merchandise.Service service : serviceRepository.findCalendarByServiceProviderId(spId)) {
+            // Retrieve all timeslots for the service
+            for (Timeslot timeslot : service.getTimeslots()) {
+                CalendarTimeSlotDTO calendarTimeSlotDTO = new CalendarTimeSlotDTO();
+                calendarTimeSlotDTO.setService(service.getTitle());
+                calendarTimeSlotDTO.setId(timeslot.getId());
+                calendarTimeSlotDTO.setStartTime(timeslot.getStartTime());
+                calendarTimeSlotDTO.setEndTime(timeslot.getEndTime());
+
+                // Add the DTO to the list
+                calendarTimeSlotDTOs.add(calendarTimeSlotDTO);
             }
         }
 
@@ -187,12 +271,19 @@ public class ServiceService {
         });
     }
 
-    public List<ServiceOverviewDTO> getAll(){
-        return serviceRepository.findAll().stream().map(this::convertToServiceOverviewDTO).toList();
+    // Both read off an open cursor, consume them inside a transaction and close them
+    public Stream<ServiceOverviewDTO> streamAll(){
+        return serviceRepository.streamOverviews(com.example.eventplanner.model.merchandise.Service.class, null, Sort.unsorted())
+                .map(this::convertToServiceOverviewDTO);
     }
 
-    public List<ServiceOverviewDTO> getAllByCategories(List<Integer> categories){
-        return serviceRepository.findAllByCategories(categories).stream().map(this::convertToServiceOverviewDTO).toList();
+    public Stream<ServiceOverviewDTO> streamAllByCategories(List<Integer> categories){
+        Specification<com.example.eventplanner.model.merchandise.Service> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                root.get("category").get("id").in(categories),
+                criteriaBuilder.isTrue(root.get("available")),
+                criteriaBuilder.isFalse(root.get("deleted")));
+        return serviceRepository.streamOverviews(com.example.eventplanner.model.merchandise.Service.class, spec, Sort.unsorted())
+                .map(this::convertToServiceOverviewDTO);
     }
 
 
@@ -202,7 +293,7 @@ public class ServiceService {
         if (StringUtils.hasText(ServiceFiltersDTO.getCategory())) {
             return spec.and((root, query, criteriaBuilder) ->
                     criteriaBuilder.equal(
-                            criteriaBuilder.lower(root.get("category")),
+                            criteriaBuilder.lower(root.get("category").get("title")),
                             ServiceFiltersDTO.getCategory().toLowerCase()
                     )
             );
@@ -224,52 +315,67 @@ public class ServiceService {
 
     private Specification<com.example.eventplanner.model.merchandise.Service> addGlobalSearch(Specification<com.example.eventplanner.model.merchandise.Service> spec, String search) {
         if (StringUtils.hasText(search)) {
+            // The search itself and its typo corrections, any of them matching any field
+            List<String> searchPatterns = autocompleteIndex.expandSearch(search).stream()
+                    .map(term -> "%" + term + "%")
+                    .toList();
             return spec.and((root, query, criteriaBuilder) -> {
-                String searchPattern = "%" + search.toLowerCase() + "%";
-                return criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("category").get("title")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("city")), searchPattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("address").get("street")), searchPattern)
+                List<Expression<String>> fields = List.of(
+                        criteriaBuilder.lower(root.get("title")),
+                        criteriaBuilder.lower(root.get("description")),
+                        criteriaBuilder.lower(root.get("category").get("title")),
+                        criteriaBuilder.lower(root.get("address").get("city")),
+                        criteriaBuilder.lower(root.get("address").get("street"))
                 );
+                return criteriaBuilder.or(searchPatterns.stream()
+                        .flatMap(searchPattern -> fields.stream().map(field -> criteriaBuilder.like(field, searchPattern)))
+                        .toArray(Predicate[]::new));
             });
         }
         return spec;
     }
 
-    private MerchandiseOverviewDTO convertToOverviewDTO(com.example.eventplanner.model.merchandise.Service service) {
+    private MerchandiseOverviewDTO convertToOverviewDTO(MerchandiseOverviewQueries.Row row) {
         MerchandiseOverviewDTO dto = new MerchandiseOverviewDTO();
-        dto.setId(service.getId());
-        dto.setTitle(service.getTitle());
-        dto.setDescription(service.getDescription());
-        dto.setAddress(service.getAddress());
-        dto.setCategory(service.getCategory().getTitle());
-        if(service.getPhotos() != null && !service.getPhotos().isEmpty()) {
-            dto.setPhotos(service.getPhotos().stream().map(this::mapToMerchandisePhotoDTO).toList());
-        }
-        else{
-            dto.setPhotos(new ArrayList<>());
-        }
-        dto.setRating(service.getRating());
-        dto.setType(service.getClass().getSimpleName());
-        dto.setPrice(service.getPrice());
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setAddress(row.address());
+        dto.setCategory(row.categoryTitle());
+        dto.setPhotos(firstPhoto(row));
+        dto.setRating(row.rating() != null ? row.rating() : 0.0);
+        dto.setType(com.example.eventplanner.model.merchandise.Service.class.getSimpleName());
+        dto.setPrice(row.price());
         return dto;
     }
 
-    private ServiceOverviewDTO convertToServiceOverviewDTO(com.example.eventplanner.model.merchandise.Service service) {
+    private ServiceOverviewDTO convertToServiceOverviewDTO(MerchandiseOverviewQueries.Row row) {
         ServiceOverviewDTO dto = new ServiceOverviewDTO();
-        dto.setId(service.getId());
-        dto.setTitle(service.getTitle());
-        dto.setDescription(service.getDescription());
-        dto.setAddress(convertToAddressDTO(service.getAddress()));
-        dto.setCategory(service.getCategory());
-        if(service.getPhotos() != null && !service.getPhotos().isEmpty())
-            dto.setMerchandisePhotos(service.getPhotos().stream().map(this::mapToMerchandisePhotoDTO).toList());
-        dto.setPrice(service.getPrice());
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setDescription(row.description());
+        dto.setAddress(row.address() != null ? convertToAddressDTO(row.address()) : new AddressDTO());
+        if (row.categoryId() != null) {
+            dto.setCategory(new Category(row.categoryId(), row.categoryTitle(), row.categoryDescription(),
+                    Boolean.TRUE.equals(row.categoryPending()), new ArrayList<>()));
+        }
+        if (row.photoId() != null)
+            dto.setMerchandisePhotos(firstPhoto(row));
+        dto.setPrice(row.price());
         return dto;
     }
 
+    private List<MerchandisePhotoDTO> firstPhoto(MerchandiseOverviewQueries.Row row) {
+        List<MerchandisePhotoDTO> photos = new ArrayList<>();
+        if (row.photoId() != null) {
+            MerchandisePhotoDTO photoDTO = new MerchandisePhotoDTO();
+            photoDTO.setId(row.photoId());
+            photoDTO.setPhoto(row.photo());
+            photos.add(photoDTO);
+        }
+        return photos;
+    }
+
     private AddressDTO convertToAddressDTO(Address address) {
         AddressDTO dto = new AddressDTO();
         dto.setCity(address.getCity());
@@ -326,6 +432,12 @@ public class ServiceService {
 
         try {
             saveToBudget(service, event);
+            purchaseLedgerService.recordPurchase(event, service);
+        } catch (ConcurrencyFailureException e) {
+            // Lost a race on the budget, let the caller retry the whole reservation
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConcurrencyFailureException("Service was added to the budget concurrently", e);
         } catch (Exception e) {
             throw new BudgetException(e.getMessage(), BudgetException.ErrorType.PRICE_ILLEGAL_VALUE);
         }
@@ -440,7 +552,16 @@ public class ServiceService {
     }
 
     private void saveToBudget(com.example.eventplanner.model.merchandise.Service service, Event event) throws Exception {
-        BudgetItem existingBudgetItem = event.getBudget()
+        Budget budget = event.getBudget();
+        boolean alreadyInBudget = budget.getBudgetItems()
+                .stream()
+                .anyMatch(item -> item.getMerchandise() != null && item.getMerchandise().getId() == service.getId());
+        if(alreadyInBudget) {
+            // Another timeslot of the same service, the budget already accounts for it
+            return;
+        }
+
+        BudgetItem existingBudgetItem = budget
                 .getBudgetItems()
                 .stream()
                 .filter(item ->
@@ -455,17 +576,22 @@ public class ServiceService {
             }
             existingBudgetItem.setMerchandise(service);
             existingBudgetItem.setAmountSpent(totalPrice);
+            existingBudgetItem.setBudgetId(budget.getBudgetId());
+            budgetRollupService.record(event, existingBudgetItem.getCategory(), 0, totalPrice, 0);
         }
         else {
             BudgetItem budgetItem = new BudgetItem();
             budgetItem.setMerchandise(service);
             budgetItem.setCategory(service.getCategory());
             budgetItem.setMaxAmount(0);
+            budgetItem.setBudgetId(budget.getBudgetId());
             BudgetItem savedBudgetItem = budgetItemRepository.save(budgetItem);
-            event.getBudget().getBudgetItems().add(savedBudgetItem);
+            budget.getBudgetItems().add(savedBudgetItem);
+            budgetRollupService.recordItemAdded(event, budgetItem);
         }
 
-        budgetRepository.save(event.getBudget());
+        // Flush before any mail goes out so a version conflict is detected while the reservation can still be retried
+        budgetRepository.saveAndFlush(budget);
     }
 
     private void sendReservationEmail(ReservationRequestDTO request, Event event, int serviceId) {
@@ -485,51 +611,21 @@ public class ServiceService {
 
         // Prepare the address string
         Address address = event.getAddress();
-        String formattedAddress = String.format("%s, %s, %s",
-                address.getStreet(), address.getCity(), address.getNumber());
+        String formattedAddress = address.getStreet() + ", " + address.getCity() + ", " + address.getNumber();
 
-        // Styled email subject using HTML
-        String emailSubject = String.format(
-                "Reservation Confirmation for: %s",
-                event.getTitle()
-        );
+        String emailSubject = "Reservation Confirmation for: " + event.getTitle();
 
-        // Styled email content using HTML
-        String emailContentTemplate =
-                "<html>" +
-                        "<body>" +
-                        "  <h2 style='color: #4CAF50;'>Dear %s,</h2>" +
-                        "  <p>We are pleased to inform you that the reservation for the event " +
-                        "     <strong>\"%s\"</strong> has been successfully processed.</p>" +
-                        "  <h3>Event Details:</h3>" +
-                        "  <ul>" +
-                        "    <li><strong>Title:</strong> %s</li>" +
-                        "    <li><strong>Date:</strong> %s</li>" +
-                        "    <li><strong>Location:</strong> %s</li>" +
-                        "  </ul>" +
-                        "  <p>Thank you for using our services.</p>" +
-                        "  <p>Best regards,<br><strong>Event Planner Team</strong></p>" +
-                        "</body>" +
-                        "</html>";
-
-        // Prepare email content for both recipients
-        String emailContentForServiceProvider = String.format(
-                emailContentTemplate,
-                serviceProvider.get().getName(),
-                event.getTitle(),
-                event.getTitle(),
-                event.getDate().toString(),
-                formattedAddress
-        );
+        // Same values for both recipients apart from the greeting
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", event.getTitle());
+        values.put("date", event.getDate());
+        values.put("location", formattedAddress);
 
-        String emailContentForOrganizer = String.format(
-                emailContentTemplate,
-                eventOrganizer.get().getName(),
-                event.getTitle(),
-                event.getTitle(),
-                event.getDate().toString(),
-                formattedAddress
-        );
+        values.put("name", serviceProvider.get().getName());
+        String emailContentForServiceProvider = emailTemplates.render(EmailTemplates.RESERVATION_CONFIRMATION, values);
+
+        values.put("name", eventOrganizer.get().getName());
+        String emailContentForOrganizer = emailTemplates.render(EmailTemplates.RESERVATION_CONFIRMATION, values);
 
         // Send email to the service provider
         emailService.sendMail(
@@ -0,0 +1,67 @@
+package com.example.eventplanner.services.notification;
+
+import com.example.eventplanner.dto.notification.NotificationDTO;
+import com.example.eventplanner.model.common.Notification;
+import com.example.eventplanner.repositories.notification.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Numbers notifications in the order they commit, the same way ChangeLogSequencer numbers change log entries. Their
+ * ids come from pooled blocks at persist time, so a notification that commits late can carry a lower id than one a
+ * client has already seen. A sequence is only assigned once the notification is committed and always lands above
+ * every sequence handed out before, so a stream cursor never passes a notification that is still to come.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationSequencer {
+    private final NotificationRepository notificationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public record Sequenced(int userId, NotificationDTO notification) {
+    }
+
+    // The notifications numbered above after, oldest first
+    public record Batch(long after, List<Sequenced> notifications) {
+    }
+
+    // Numbers what committed since the last call and returns up to limit notifications numbered above after. A
+    // negative after starts right above what was numbered before this call
+    public Batch sequence(long after, int limit) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also called after a commit, while the finished transaction is still bound to the thread
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> {
+            long latest = notificationRepository.findLatestSequence();
+            Integer firstId = notificationRepository.findFirstUnsequencedId();
+            if (firstId != null) {
+                notificationRepository.assignSequences(latest, firstId);
+            }
+            long from = after < 0 ? latest : after;
+            List<Sequenced> sequenced = new ArrayList<>();
+            for (Object[] row : notificationRepository.findSequencedAfter(from, PageRequest.of(0, limit))) {
+                sequenced.add(new Sequenced((Integer) row[0], mapToDTO((Notification) row[1])));
+            }
+            return new Batch(from, sequenced);
+        });
+    }
+
+    private NotificationDTO mapToDTO(Notification notification) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(notification.getId());
+        dto.setSequence(notification.getSequence());
+        dto.setContent(notification.getContent());
+        dto.setRead(notification.isRead());
+        dto.setDate(notification.getDate());
+        dto.setType(notification.getType());
+        dto.setEntityId(notification.getEntityId());
+        return dto;
+    }
+}
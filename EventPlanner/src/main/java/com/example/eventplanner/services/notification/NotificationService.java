@@ -17,13 +17,16 @@ import com.example.eventplanner.repositories.user.EventOrganizerRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -35,6 +38,11 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final EventOrganizerRepository eventOrganizerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Notifications keyed by the user they went to, picked up by the notification streams after commit
+    public record NotificationsSent(Map<Integer, NotificationDTO> notifications) {
+    }
 
     @Transactional
     public void sendNotificationToUser(User user, String content, NotificationType type,int entityId) {
@@ -50,12 +58,14 @@ public class NotificationService {
 
         // Add to user's notifications and save user
         user.getNotifications().add(notification);
+        NotificationDTO dto = mapToDTO(notification);
         messagingTemplate.convertAndSendToUser(
                 String.valueOf(user.getId()),
                 "/notifications",  // Will become /user/notifications
-                mapToDTO(notification)
+                dto
         );
         userRepository.save(user);
+        eventPublisher.publishEvent(new NotificationsSent(Map.of(user.getId(), dto)));
     }
 
     public List<NotificationDTO> getUnreadNotifications(int userId) {
@@ -83,6 +93,7 @@ public class NotificationService {
     private NotificationDTO mapToDTO(Notification notification) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(notification.getId());
+        dto.setSequence(notification.getSequence());
         dto.setContent(notification.getContent());
         dto.setRead(notification.isRead());
         dto.setDate(notification.getDate());
@@ -97,9 +108,38 @@ public class NotificationService {
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
         List<User> affectedUsers = userRepository.findByFollowedEvents_Id(eventId);
-        for (User user : affectedUsers) {
-            sendNotificationToUser(user, "Event: " + event.getTitle() + " has been updated", NotificationType.EVENT,eventId);
+        sendNotificationToUsers(affectedUsers, "Event: " + event.getTitle() + " has been updated", NotificationType.EVENT, eventId);
+    }
+
+    // Same notification for many users, the inserts are flushed as JDBC batches instead of one round trip per user
+    @Transactional
+    public void sendNotificationToUsers(List<? extends User> users, String content, NotificationType type, int entityId) {
+        List<Notification> notifications = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            Notification notification = new Notification();
+            notification.setContent(content);
+            notification.setRead(false);
+            notification.setDate(LocalDateTime.now());
+            notification.setType(type);
+            notification.setEntityId(entityId);
+            notifications.add(notification);
+        }
+        notifications = notificationRepository.saveAll(notifications);
+
+        Map<Integer, NotificationDTO> sent = new LinkedHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.getNotifications().add(notifications.get(i));
+            NotificationDTO dto = mapToDTO(notifications.get(i));
+            messagingTemplate.convertAndSendToUser(
+                    String.valueOf(user.getId()),
+                    "/notifications",
+                    dto
+            );
+            sent.put(user.getId(), dto);
         }
+        userRepository.saveAll(users);
+        eventPublisher.publishEvent(new NotificationsSent(sent));
     }
 
     @Transactional
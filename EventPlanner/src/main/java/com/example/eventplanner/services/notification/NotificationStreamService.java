@@ -0,0 +1,289 @@
+package com.example.eventplanner.services.notification;
+
+import com.example.eventplanner.dto.notification.NotificationDTO;
+import com.example.eventplanner.repositories.notification.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent notification streams. Every user keeps a bounded buffer of their latest notifications, so a client that
+ * reconnects with Last-Event-ID is sent only what it missed, straight from memory. Event ids are the commit-ordered
+ * sequences from NotificationSequencer, and notifications reach the buffers in that order, after every commit and on
+ * a slow poll that also brings in what other instances committed. The buffer lives in this instance,
+ * when it cannot vouch for the whole gap (the cursor predates this instance or fell out of the buffer) the gap is read
+ * once from the database and the buffer continues from there. A gap larger than the buffer asks the client to resync.
+ * Events are only queued while the stream is locked and written by a small sender pool, so a committing request never
+ * waits on a client's socket. A client whose queue fills up is disconnected and catches up when it reconnects.
+ */
+@Component
+@Slf4j
+public class NotificationStreamService {
+    private static final long RECONNECT_MILLIS = 3000;
+    private static final int PUBLISH_BATCH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationSequencer notificationSequencer;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final ExecutorService senders;
+    private final Map<Integer, UserStream> streams;
+
+    // Lowest sequence this instance publishes, sequences below it were numbered before it started
+    private final AtomicLong instanceFloor = new AtomicLong(Long.MAX_VALUE);
+    // Highest sequence held by a buffer that was evicted, a new buffer cannot vouch for anything up to it
+    private final AtomicLong evictedThrough = new AtomicLong();
+    // Highest sequence handed to the buffers, unknown until the first run, which starts above what was numbered before
+    private long published = -1;
+
+    private static final class UserStream {
+        private final TreeMap<Long, NotificationDTO> recent = new TreeMap<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // The buffer holds every notification of the user with a higher id than this, unknown until resolved
+        private long completeAfter = Long.MAX_VALUE;
+    }
+
+    // One open connection, its events are written by one sender at a time so they keep their order
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Throwable failure;
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     NotificationSequencer notificationSequencer,
+                                     @Value("${application.notifications.stream.buffer-size:50}") int bufferSize,
+                                     @Value("${application.notifications.stream.timeout-ms:1800000}") long timeoutMillis,
+                                     @Value("${application.notifications.stream.max-users:10000}") int maxUsers,
+                                     @Value("${application.notifications.stream.queue-size:100}") int queueSize,
+                                     @Value("${application.notifications.stream.senders:4}") int senders) {
+        this.notificationRepository = notificationRepository;
+        this.notificationSequencer = notificationSequencer;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        // Room for the connect hint and a replay of the whole buffer
+        this.queueSize = Math.max(queueSize, bufferSize + 2);
+        this.senders = Executors.newFixedThreadPool(senders, namedThreads("notification-stream-sender"));
+        streams = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, UserStream> eldest) {
+                if (size() <= maxUsers) {
+                    return false;
+                }
+                // Users with an open stream stay, the least recently used one without is dropped instead.
+                // The entry just added is the last one and never dropped, its caller is about to use it
+                Iterator<UserStream> iterator = values().iterator();
+                for (int remaining = size() - 1; remaining > 0; remaining--) {
+                    UserStream stream = iterator.next();
+                    if (stream.subscribers.isEmpty()) {
+                        synchronized (stream) {
+                            if (!stream.recent.isEmpty()) {
+                                evictedThrough.accumulateAndGet(stream.recent.lastKey(), Math::max);
+                            }
+                        }
+                        iterator.remove();
+                        return false;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(int userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, queueSize);
+        Long after = parseEventId(lastEventId);
+        UserStream stream = stream(userId);
+        List<NotificationDTO> gap = null;
+        if (after != null && !covers(stream, after)) {
+            // One extra row tells a gap that fits the buffer from one that does not
+            gap = notificationRepository.findByUserAfter(userId, after, PageRequest.of(0, bufferSize + 1));
+        }
+
+        synchronized (stream) {
+            // Commits the response right away and tells the client how soon to come back after a drop
+            enqueue(stream, subscriber, SseEmitter.event().reconnectTime(RECONNECT_MILLIS));
+            if (gap != null && gap.size() > bufferSize) {
+                enqueue(stream, subscriber, SseEmitter.event().name("resync").data(""));
+            } else if (after != null) {
+                if (gap != null) {
+                    stream.completeAfter = Math.min(completeAfter(stream), after);
+                    gap.forEach(notification -> stream.recent.put(notification.getSequence(), notification));
+                }
+                // Collected before trimming, the gap read from the database is sent whole
+                List<NotificationDTO> missed = new ArrayList<>(stream.recent.tailMap(after, false).values());
+                trim(stream);
+                for (NotificationDTO notification : missed) {
+                    enqueue(stream, subscriber, event(notification));
+                }
+            }
+            stream.subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> close(stream, subscriber));
+        emitter.onTimeout(() -> close(stream, subscriber));
+        emitter.onError(error -> close(stream, subscriber));
+        return emitter;
+    }
+
+    // Only committed notifications are buffered and pushed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsSent(NotificationService.NotificationsSent event) {
+        publish();
+    }
+
+    // One run at a time, so the buffers always receive sequences in increasing order
+    @Scheduled(fixedDelayString = "${application.notifications.stream.publish-ms:5000}")
+    public synchronized void publish() {
+        NotificationSequencer.Batch batch;
+        do {
+            batch = notificationSequencer.sequence(published, PUBLISH_BATCH);
+            published = batch.after();
+            // Everything numbered above the first run's cursor passes through here
+            instanceFloor.accumulateAndGet(published + 1, Math::min);
+            for (NotificationSequencer.Sequenced sequenced : batch.notifications()) {
+                NotificationDTO notification = sequenced.notification();
+                UserStream stream = stream(sequenced.userId());
+                synchronized (stream) {
+                    stream.recent.put(notification.getSequence(), notification);
+                    trim(stream);
+                    for (Subscriber subscriber : stream.subscribers) {
+                        enqueue(stream, subscriber, event(notification));
+                    }
+                }
+                published = notification.getSequence();
+            }
+        } while (batch.notifications().size() == PUBLISH_BATCH);
+    }
+
+    private UserStream stream(int userId) {
+        return streams.computeIfAbsent(userId, id -> new UserStream());
+    }
+
+    // A buffer that exists since this instance published its first notification holds all of its notifications
+    private long completeAfter(UserStream stream) {
+        long floor = instanceFloor.get();
+        if (stream.completeAfter == Long.MAX_VALUE && floor != Long.MAX_VALUE) {
+            stream.completeAfter = Math.max(floor - 1, evictedThrough.get());
+        }
+        return stream.completeAfter;
+    }
+
+    private boolean covers(UserStream stream, long after) {
+        synchronized (stream) {
+            return after >= completeAfter(stream);
+        }
+    }
+
+    private void trim(UserStream stream) {
+        while (stream.recent.size() > bufferSize) {
+            stream.completeAfter = Math.max(completeAfter(stream), stream.recent.pollFirstEntry().getKey());
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(NotificationDTO notification) {
+        return SseEmitter.event().id(String.valueOf(notification.getSequence())).name("notification").data(notification);
+    }
+
+    // Called with the stream locked, only hands the event over
+    private void enqueue(UserStream stream, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.pending.offer(event)) {
+            // Too far behind, it reconnects with its Last-Event-ID and catches up from the buffer
+            log.debug("Dropping notification stream: {} events pending", subscriber.pending.size());
+            close(stream, subscriber);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        while (!subscriber.closed && (event = subscriber.pending.poll()) != null) {
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping notification stream: {}", e.getMessage());
+                subscriber.failure = e;
+                subscriber.closed = true;
+            }
+        }
+        if (subscriber.closed) {
+            // Completed here rather than by whoever closed it, the emitter is locked while a send is blocked
+            subscriber.pending.clear();
+            if (subscriber.failure != null) {
+                subscriber.emitter.completeWithError(subscriber.failure);
+            } else {
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+        subscriber.draining.set(false);
+        // An event queued after the last poll but before the flag was cleared found a drain still running
+        if (!subscriber.pending.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private static void close(UserStream stream, Subscriber subscriber) {
+        subscriber.closed = true;
+        stream.subscribers.remove(subscriber);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.eventplanner.services.review;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseRequestDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewMerchandiseResponseDTO;
 import com.example.eventplanner.dto.merchandise.review.ReviewOverviewDTO;
+import com.example.eventplanner.dto.review.PendingReviewPageDTO;
 import com.example.eventplanner.exceptions.LeaveReviewException;
 import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.common.ReviewTargetType;
 import com.example.eventplanner.model.common.ReviewType;
 import com.example.eventplanner.model.merchandise.*;
 import com.example.eventplanner.model.event.Event;
@@ -17,32 +19,41 @@ import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.review.ReviewRepository;
 import com.example.eventplanner.repositories.user.ServiceProviderRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.merchandise.PurchaseLedgerService;
 import com.example.eventplanner.services.notification.NotificationService;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
+    private static final List<ReviewTargetType> MERCHANDISE_TARGETS = List.of(ReviewTargetType.PRODUCT, ReviewTargetType.SERVICE);
+
     private final ReviewRepository reviewRepository;
     private final EventRepository eventRepository;
     private final MerchandiseRepository merchandiseRepository;
     private final NotificationService notificationService;
     private final ServiceProviderRepository serviceProviderRepository;
     private final UserRepository userRepository;
+    private final PurchaseLedgerService purchaseLedgerService;
 
-    public List<ReviewOverviewDTO> getAllPendingReviews() {
-        // Fetch all pending reviews
-        List<Review> pendingReviews = reviewRepository.findByStatusAndDeletedFalse(ReviewStatus.PENDING);
+    public PendingReviewPageDTO getPendingReviews(int afterId, int size) {
+        // One extra row tells whether another page exists
+        List<Review> page = reviewRepository.findPageByStatus(ReviewStatus.PENDING, afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = page.size() > size;
+        List<Review> reviews = hasNext ? page.subList(0, size) : page;
 
-        // Map each review to ReviewOverviewDTO
-        return pendingReviews.stream().map(this::mapToReviewOverviewDTO).collect(Collectors.toList());
+        Integer nextCursor = hasNext ? reviews.get(reviews.size() - 1).getId() : null;
+        return new PendingReviewPageDTO(mapToReviewOverviewDTOs(reviews), nextCursor);
     }
 
+    @Transactional
     public ReviewOverviewDTO approveReview(int reviewId) {
         // Fetch the review by ID
         Review review = reviewRepository.findById(reviewId)
@@ -51,11 +62,14 @@ public class ReviewService {
         // Update the review's status to APPROVED
         review.setStatus(ReviewStatus.APPROVED);
         reviewRepository.save(review);
+        incrementTargetVersion(review);
 
-        // Map the updated review to ReviewOverviewDTO
-        return mapToReviewOverviewDTO(review);
+        ReviewOverviewDTO reviewOverviewDTO = mapToReviewOverviewDTOs(List.of(review)).get(0);
+        notifyReviewedUser(review, reviewOverviewDTO);
+        return reviewOverviewDTO;
     }
 
+    @Transactional
     public ReviewOverviewDTO denyReview(int reviewId) {
         // Fetch the review by ID
         Review review = reviewRepository.findById(reviewId)
@@ -64,52 +78,86 @@ public class ReviewService {
         // Set the review's deleted flag to true
         review.setDeleted(true);
         reviewRepository.save(review);
+        incrementTargetVersion(review);
 
         // Map the updated review to ReviewOverviewDTO
-        return mapToReviewOverviewDTO(review);
+        return mapToReviewOverviewDTOs(List.of(review)).get(0);
     }
 
-    private ReviewOverviewDTO mapToReviewOverviewDTO(Review review) {
-        String reviewedType = null; // Determine if review is for Event, Product, or Service
-        String reviewedTitle = null;
-        int reviewedEntityId;
-
-        // Check if the review is associated with an Event
-        Event event = eventRepository.findByReviewsContaining(review);
-        int reviewedUserId;
-        if (event != null) {
-            reviewedType = "EVENT";
-            reviewedTitle = event.getTitle();
-            reviewedUserId=event.getOrganizer().getId();
-            reviewedEntityId=event.getId();
+    // Reviews are not part of their target's row, clients holding its details learn about the change from the ETag
+    private void incrementTargetVersion(Review review) {
+        if (review.getTargetType() == null || review.getTargetId() == null) {
+            return;
+        }
+        if (review.getTargetType() == ReviewTargetType.EVENT) {
+            eventRepository.incrementVersion(review.getTargetId());
         } else {
-            // If not an Event, check for Merchandise (Product/Service)
-            Merchandise merchandise = merchandiseRepository.findByReviewsContaining(review);
-            reviewedUserId=serviceProviderRepository.findByMerchandiseId(merchandise.getId()).get().getId();
-            if (merchandise instanceof Product) {
-                reviewedType = "PRODUCT";
-            } else if (merchandise instanceof com.example.eventplanner.model.merchandise.Service) {
-                reviewedType = "SERVICE";
+            merchandiseRepository.incrementVersion(review.getTargetId());
+        }
+    }
+
+    private void notifyReviewedUser(Review review, ReviewOverviewDTO reviewOverviewDTO) {
+        if (review.getTargetType() == null || review.getTargetId() == null) {
+            return;
+        }
+        int targetId = review.getTargetId();
+        Integer reviewedUserId = review.getTargetType() == ReviewTargetType.EVENT
+                ? eventRepository.findById(targetId).map(event -> event.getOrganizer().getId()).orElse(null)
+                : serviceProviderRepository.findByMerchandiseId(targetId).map(ServiceProvider::getId).orElse(null);
+        if (reviewedUserId != null) {
+            notificationService.notifyOfNewReview(reviewedUserId, reviewOverviewDTO, targetId);
+        }
+    }
+
+    // Resolves target titles with one query per target kind instead of reverse lookups per review
+    private List<ReviewOverviewDTO> mapToReviewOverviewDTOs(List<Review> reviews) {
+        Set<Integer> eventIds = new HashSet<>();
+        Set<Integer> merchandiseIds = new HashSet<>();
+        for (Review review : reviews) {
+            if (review.getTargetType() == null || review.getTargetId() == null) {
+                continue;
             }
-            if (merchandise != null) {
-                reviewedTitle = merchandise.getTitle();
+            if (review.getTargetType() == ReviewTargetType.EVENT) {
+                eventIds.add(review.getTargetId());
+            } else {
+                merchandiseIds.add(review.getTargetId());
             }
-            reviewedEntityId=merchandise.getId();
-        }
-        ReviewOverviewDTO reviewOverviewDTO=new ReviewOverviewDTO(
-                review.getId(),
-                review.getComment(),
-                review.getRating(),
-                review.getStatus(),
-                reviewedType,
-                reviewedTitle,
-                review.getReviewer() != null ? review.getReviewer().getUsername() : null,
-                review.getCreatedAt()
-        );
-        // Map to ReviewOverviewDTO
-        if(reviewOverviewDTO.getStatus()==ReviewStatus.APPROVED)
-            notificationService.notifyOfNewReview(reviewedUserId, reviewOverviewDTO,reviewedEntityId);
-        return reviewOverviewDTO;
+        }
+        Map<Integer, String> eventTitles = eventIds.isEmpty()
+                ? Map.of()
+                : toTitleMap(eventRepository.findTitlesByIdIn(eventIds));
+        Map<Integer, String> merchandiseTitles = merchandiseIds.isEmpty()
+                ? Map.of()
+                : toTitleMap(merchandiseRepository.findTitlesByIdIn(merchandiseIds));
+
+        List<ReviewOverviewDTO> dtos = new ArrayList<>();
+        for (Review review : reviews) {
+            String reviewedTitle = null;
+            if (review.getTargetId() != null) {
+                reviewedTitle = review.getTargetType() == ReviewTargetType.EVENT
+                        ? eventTitles.get(review.getTargetId())
+                        : merchandiseTitles.get(review.getTargetId());
+            }
+            dtos.add(new ReviewOverviewDTO(
+                    review.getId(),
+                    review.getComment(),
+                    review.getRating(),
+                    review.getStatus(),
+                    review.getTargetType() != null ? review.getTargetType().name() : null,
+                    reviewedTitle,
+                    review.getReviewer() != null ? review.getReviewer().getUsername() : null,
+                    review.getCreatedAt()
+            ));
+        }
+        return dtos;
+    }
+
+    private Map<Integer, String> toTitleMap(List<Object[]> rows) {
+        Map<Integer, String> titles = new HashMap<>();
+        for (Object[] row : rows) {
+            titles.put(((Number) row[0]).intValue(), (String) row[1]);
+        }
+        return titles;
     }
 
     public ReviewMerchandiseResponseDTO leaveMerchandiseReview(int id, ReviewMerchandiseRequestDTO request) {
@@ -123,27 +171,33 @@ public class ReviewService {
         review.setStatus(ReviewStatus.PENDING);
         review.setDeleted(false);
         review.setCreatedAt(LocalDateTime.now());
-        Review savedReview = reviewRepository.save(review);
+        Review savedReview;
 
         if(request.getType().equals("merchandise")) {
             Merchandise reviewedMerchandise = merchandiseRepository.findById(id).orElseThrow(
                     () -> new LeaveReviewException("Merchandise not found", LeaveReviewException.ErrorType.MERCHANDISE_NOT_FOUND)
             );
 
-            if(reviewedMerchandise.getReviews().stream().anyMatch(review1 -> review1.getReviewer().getId() == reviewer.getId())) {
+            if(reviewRepository.existsByReviewer_IdAndTargetTypeInAndTargetId(reviewer.getId(), MERCHANDISE_TARGETS, id)) {
                 throw new LeaveReviewException("User already left review", LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS);
             }
-            reviewedMerchandise.getReviews().add(review);
+            review.setTargetType(reviewedMerchandise instanceof Product ? ReviewTargetType.PRODUCT : ReviewTargetType.SERVICE);
+            review.setTargetId(reviewedMerchandise.getId());
+            savedReview = saveReview(review);
+            reviewedMerchandise.getReviews().add(savedReview);
             merchandiseRepository.save(reviewedMerchandise);
         }else if(request.getType().equals("event")) {
             Event reviewedEvent = eventRepository.findById(id).orElseThrow(
                     () -> new LeaveReviewException("Event not found", LeaveReviewException.ErrorType.EVENT_NOT_FOUND)
             );
 
-            if(reviewedEvent.getReviews().stream().anyMatch(review1 -> review1.getReviewer().getId() == reviewer.getId())) {
+            if(reviewRepository.existsByReviewer_IdAndTargetTypeInAndTargetId(reviewer.getId(), List.of(ReviewTargetType.EVENT), id)) {
                 throw new LeaveReviewException("User already left review", LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS);
             }
-            reviewedEvent.getReviews().add(review);
+            review.setTargetType(ReviewTargetType.EVENT);
+            review.setTargetId(reviewedEvent.getId());
+            savedReview = saveReview(review);
+            reviewedEvent.getReviews().add(savedReview);
             eventRepository.save(reviewedEvent);
         }else {
             throw new LeaveReviewException("Unsupported type", LeaveReviewException.ErrorType.UNSUPORTED_TYPE);
@@ -152,6 +206,15 @@ public class ReviewService {
         return mapToReviewResponseDTO(savedReview);
     }
 
+    private Review saveReview(Review review) {
+        try {
+            return reviewRepository.save(review);
+        } catch (DataIntegrityViolationException e) {
+            // Unique (reviewer, target) index caught a review saved after our check
+            throw new LeaveReviewException("User already left review", LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS);
+        }
+    }
+
     public ReviewMerchandiseResponseDTO mapToReviewResponseDTO(Review review) {
         ReviewMerchandiseResponseDTO responseDTO = new ReviewMerchandiseResponseDTO();
         responseDTO.setId(review.getId());
@@ -168,15 +231,15 @@ public class ReviewService {
                 () -> new LeaveReviewException("User not found", LeaveReviewException.ErrorType.USER_NOT_FOUND)
         );
         if(reviewType == ReviewType.MERCHANDISE_REVIEW) {
+            checkIfMerchandiseReviewExists(user, id);
             //event organizer can leave review for merchandise he bought for his event or event he attended
-            if(user instanceof EventOrganizer eo) {
-                checkIfMerchandiseReviewExists(user, id);
-                return findMatchInOrganizedEvents(eo, id) || findMatchInAttendedEventsMerchandise(user, id);
+            if(user instanceof EventOrganizer) {
+                return purchaseLedgerService.hasOrganizerBought(user.getId(), id)
+                        || purchaseLedgerService.hasAttendedEventWith(user.getId(), id);
             }
             //all other users can leave review for merchandise if only they attended event that included merchandise
             else {
-                checkIfMerchandiseReviewExists(user, id);
-                return findMatchInAttendedEventsMerchandise(user, id);
+                return purchaseLedgerService.hasAttendedEventWith(user.getId(), id);
             }
         }
         //if it is review for event
@@ -189,43 +252,21 @@ public class ReviewService {
             throw new LeaveReviewException("Unsupported review type", LeaveReviewException.ErrorType.UNSUPORTED_TYPE);
         }
     }
-    //checking if eo bought merchandise for any of his organized events
-    private boolean findMatchInOrganizedEvents(EventOrganizer eo, int merchandiseId) {
-        return eo.getOrganizingEvents().stream().anyMatch(
-                event -> event.getBudget()
-                        .getBudgetItems()
-                        .stream()
-                        .anyMatch(budgetItem ->
-                                budgetItem.getMerchandise() != null && budgetItem.getMerchandise().getId() == merchandiseId)
-        );
-    }
-    //checking if user attended any event that included selected merchandise
-    private boolean findMatchInAttendedEventsMerchandise(User user, int merchandiseId) {
-        return user.getAttendedEvents().stream().anyMatch(
-                event -> event.getBudget()
-                        .getBudgetItems()
-                        .stream()
-                        .anyMatch(budgetItem ->
-                                budgetItem.getMerchandise() != null && budgetItem.getMerchandise().getId() == merchandiseId)
-        );
-    }
     //checking if user already left review for merchandise
     private void checkIfMerchandiseReviewExists(User user, int merchandiseId) {
-        //checking if user already left review
-        Merchandise reviewedMerchandise = merchandiseRepository.findById(merchandiseId).orElseThrow(
-                () -> new LeaveReviewException("Merchandise not found", LeaveReviewException.ErrorType.MERCHANDISE_NOT_FOUND)
-        );
-        if(reviewedMerchandise.getReviews().stream().anyMatch(review1 -> review1.getReviewer().getId() == user.getId())) {
+        if(!merchandiseRepository.existsById(merchandiseId)) {
+            throw new LeaveReviewException("Merchandise not found", LeaveReviewException.ErrorType.MERCHANDISE_NOT_FOUND);
+        }
+        if(reviewRepository.existsByReviewer_IdAndTargetTypeInAndTargetId(user.getId(), MERCHANDISE_TARGETS, merchandiseId)) {
             throw new LeaveReviewException("User already left review", LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS);
         }
     }
     //checking if user already left review for event
     private void checkIfEventReviewExists(User user, int eventId) {
-        Event reviewedEvent = eventRepository.findById(eventId).orElseThrow(
-                () -> new LeaveReviewException("Event not found", LeaveReviewException.ErrorType.EVENT_NOT_FOUND)
-        );
-
-        if(reviewedEvent.getReviews().stream().anyMatch(review1 -> review1.getReviewer().getId() == user.getId())) {
+        if(!eventRepository.existsById(eventId)) {
+            throw new LeaveReviewException("Event not found", LeaveReviewException.ErrorType.EVENT_NOT_FOUND);
+        }
+        if(reviewRepository.existsByReviewer_IdAndTargetTypeInAndTargetId(user.getId(), List.of(ReviewTargetType.EVENT), eventId)) {
             throw new LeaveReviewException("User already left review", LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS);
         }
     }
@@ -233,4 +274,4 @@ public class ReviewService {
     private boolean findMatchInAttendedEvents(User user, int eventId) {
         return user.getAttendedEvents().stream().anyMatch(event -> event != null && event.getId() == eventId);
     }
-}
\ No newline at end of file
+}
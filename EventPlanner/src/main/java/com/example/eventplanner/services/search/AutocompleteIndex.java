@@ -0,0 +1,361 @@
+package com.example.eventplanner.services.search;
+
+import com.example.eventplanner.dto.search.AutocompleteSuggestionDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead completions over public event titles, listed merchandise titles, their cities, active event types and
+ * approved categories. A term weighs as much as the number of entities carrying it. Loaded on first use, afterwards
+ * every committed write replaces what its entity contributes. The words of those terms are also the vocabulary
+ * searches are corrected against when they contain a word no term knows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AutocompleteIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+    // Besides the whole term, completions also start at its first few words
+    private static final int MAX_WORD_STARTS = 6;
+    // Corrections added to a search, and the shortest word worth correcting
+    public static final int MAX_EXPANSIONS = 5;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    public enum Kind { EVENT, SERVICE, PRODUCT, CITY, EVENT_TYPE, CATEGORY }
+
+    private final EventRepository eventRepository;
+    private final MerchandiseRepository merchandiseRepository;
+    private final EventTypeRepository eventTypeRepository;
+    private final CategoryRepository categoryRepository;
+
+    private static final class Term {
+        private final Kind kind;
+        private final String text;
+        private final List<String> keys;
+        private int weight;
+
+        private Term(Kind kind, String text, List<String> keys) {
+            this.kind = kind;
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    private record TermKey(Kind kind, String normalized) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CompletionTrie<Term> trie = new CompletionTrie<>(MAX_SUGGESTIONS,
+            Comparator.<Term>comparingInt(term -> term.weight).reversed()
+                    .thenComparingInt(term -> term.text.length())
+                    .thenComparing(term -> term.text));
+    private final Map<TermKey, Term> terms = new HashMap<>();
+    // Terms each entity currently adds to, keyed like "Event:12"
+    private final Map<String, List<TermKey>> contributions = new HashMap<>();
+    // Words of the indexed terms by their folded spelling, each spelling with the number of terms using it
+    private final Map<String, Map<String, Integer>> words = new HashMap<>();
+    private final BkTree vocabulary = new BkTree();
+    private volatile boolean loaded;
+
+    public List<AutocompleteSuggestionDTO> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return trie.complete(normalized, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))).stream()
+                    .map(term -> new AutocompleteSuggestionDTO(term.text, term.kind.name(), term.weight))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // What a search actually matches, cache keys use it so a vocabulary change never serves an older expansion
+    public List<String> searchTerms(String search) {
+        return StringUtils.hasText(search) ? expandSearch(search) : List.of();
+    }
+
+    /**
+     * The lower cased search followed by at most {@link #MAX_EXPANSIONS} variants where one unknown word is swapped
+     * for a vocabulary word at most one edit away, or two for words of seven letters and more.
+     */
+    public List<String> expandSearch(String search) {
+        String lowerCase = search.toLowerCase();
+        List<String> expanded = new ArrayList<>();
+        expanded.add(lowerCase);
+        String[] searchWords = lowerCase.trim().split("\\s+");
+        if (Arrays.stream(searchWords).noneMatch(word -> word.length() >= MIN_FUZZY_LENGTH)) {
+            return expanded;
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            record Correction(int position, String word, int distance, int uses) {
+            }
+            List<Correction> corrections = new ArrayList<>();
+            for (int i = 0; i < searchWords.length; i++) {
+                String folded = fold(searchWords[i]);
+                Map<String, Integer> known = words.get(folded);
+                // Known words and beginnings of terms are not typos
+                if (folded.length() < MIN_FUZZY_LENGTH || (known != null && known.containsKey(searchWords[i]))
+                        || !trie.complete(normalize(searchWords[i]), 1).isEmpty()) {
+                    continue;
+                }
+                int maxDistance = folded.length() >= 7 ? 2 : 1;
+                for (BkTree.Match match : vocabulary.search(folded, maxDistance)) {
+                    Map<String, Integer> spellings = words.get(match.word());
+                    if (spellings == null) {
+                        continue;
+                    }
+                    for (Map.Entry<String, Integer> spelling : spellings.entrySet()) {
+                        corrections.add(new Correction(i, spelling.getKey(), match.distance(), spelling.getValue()));
+                    }
+                }
+            }
+            corrections.sort(Comparator.comparingInt(Correction::distance)
+                    .thenComparing(Comparator.comparingInt(Correction::uses).reversed())
+                    .thenComparing(Correction::word));
+            for (Correction correction : corrections) {
+                if (expanded.size() > MAX_EXPANSIONS) {
+                    break;
+                }
+                String[] corrected = searchWords.clone();
+                corrected[correction.position()] = correction.word();
+                String variant = String.join(" ", corrected);
+                if (!expanded.contains(variant)) {
+                    expanded.add(variant);
+                }
+            }
+            return expanded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void entityChanged(Object entity) {
+        String source = sourceOf(entity);
+        if (source == null) {
+            return;
+        }
+        Map<TermKey, String> current = contributedTerms(entity);
+        lock.writeLock().lock();
+        try {
+            // Until the first load every change is picked up by the load itself
+            if (loaded) {
+                replace(source, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void entityDeleted(Object entity) {
+        String source = sourceOf(entity);
+        if (source == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                replace(source, Map.of());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            // event id, title, city
+            for (Object[] row : eventRepository.findAutocompleteTerms()) {
+                Map<TermKey, String> current = new LinkedHashMap<>();
+                addTerm(current, Kind.EVENT, (String) row[1]);
+                addTerm(current, Kind.CITY, (String) row[2]);
+                replace("Event:" + row[0], current);
+            }
+            // merchandise id, type, title, city
+            for (Object[] row : merchandiseRepository.findAutocompleteTerms()) {
+                String type = row[1] instanceof Class<?> entityClass ? entityClass.getSimpleName() : String.valueOf(row[1]);
+                Map<TermKey, String> current = new LinkedHashMap<>();
+                addTerm(current, Product.class.getSimpleName().equals(type) ? Kind.PRODUCT : Kind.SERVICE, (String) row[2]);
+                addTerm(current, Kind.CITY, (String) row[3]);
+                replace("Merchandise:" + row[0], current);
+            }
+            eventTypeRepository.findAll().forEach(eventType -> replace("EventType:" + eventType.getId(),
+                    contributedTerms(eventType)));
+            categoryRepository.findAllApprovedCategories().forEach(category -> replace("Category:" + category.getId(),
+                    contributedTerms(category)));
+            loaded = true;
+            log.info("Loaded {} autocomplete terms", terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(String source, Map<TermKey, String> current) {
+        List<TermKey> previous = contributions.getOrDefault(source, List.of());
+        for (TermKey key : previous) {
+            if (!current.containsKey(key)) {
+                adjust(key, null, -1);
+            }
+        }
+        for (Map.Entry<TermKey, String> entry : current.entrySet()) {
+            if (!previous.contains(entry.getKey())) {
+                adjust(entry.getKey(), entry.getValue(), 1);
+            }
+        }
+        if (current.isEmpty()) {
+            contributions.remove(source);
+        } else {
+            contributions.put(source, List.copyOf(current.keySet()));
+        }
+    }
+
+    private void adjust(TermKey key, String text, int delta) {
+        Term term = terms.get(key);
+        if (term == null) {
+            if (delta < 0) {
+                return;
+            }
+            term = new Term(key.kind(), text, keysOf(key.normalized()));
+            terms.put(key, term);
+        }
+        term.weight += delta;
+        if (term.weight <= 0) {
+            terms.remove(key);
+            for (String trieKey : term.keys) {
+                trie.remove(trieKey, term);
+            }
+            countWords(term.text, -1);
+        } else if (term.weight == 1 && delta > 0) {
+            for (String trieKey : term.keys) {
+                trie.add(trieKey, term);
+            }
+            countWords(term.text, 1);
+        } else {
+            for (String trieKey : term.keys) {
+                trie.refresh(trieKey);
+            }
+        }
+    }
+
+    private void countWords(String text, int delta) {
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            String folded = fold(word);
+            if (folded.length() < 2) {
+                continue;
+            }
+            Map<String, Integer> spellings = words.get(folded);
+            if (delta > 0) {
+                if (spellings == null) {
+                    spellings = new HashMap<>();
+                    words.put(folded, spellings);
+                    vocabulary.add(folded);
+                }
+                spellings.merge(word, delta, Integer::sum);
+            } else if (spellings != null) {
+                spellings.computeIfPresent(word, (spelling, uses) -> uses + delta > 0 ? uses + delta : null);
+                if (spellings.isEmpty()) {
+                    words.remove(folded);
+                }
+            }
+        }
+        // Removed words stay in the tree until they make up half of it
+        if (vocabulary.size() > 2 * words.size() + 64) {
+            vocabulary.clear();
+            words.keySet().forEach(vocabulary::add);
+        }
+    }
+
+    private Map<TermKey, String> contributedTerms(Object entity) {
+        Map<TermKey, String> current = new LinkedHashMap<>();
+        if (entity instanceof Event event && event.isPublic()) {
+            addTerm(current, Kind.EVENT, event.getTitle());
+            addTerm(current, Kind.CITY, cityOf(event.getAddress()));
+        } else if (entity instanceof Merchandise merchandise && merchandise.isVisible() && !merchandise.isDeleted()) {
+            addTerm(current, merchandise instanceof Product ? Kind.PRODUCT : Kind.SERVICE, merchandise.getTitle());
+            addTerm(current, Kind.CITY, cityOf(merchandise.getAddress()));
+        } else if (entity instanceof EventType eventType && eventType.isActive()) {
+            addTerm(current, Kind.EVENT_TYPE, eventType.getTitle());
+        } else if (entity instanceof Category category && !category.isPending()) {
+            addTerm(current, Kind.CATEGORY, category.getTitle());
+        }
+        return current;
+    }
+
+    private static String sourceOf(Object entity) {
+        if (entity instanceof Event event) {
+            return "Event:" + event.getId();
+        } else if (entity instanceof Merchandise merchandise) {
+            return "Merchandise:" + merchandise.getId();
+        } else if (entity instanceof EventType eventType) {
+            return "EventType:" + eventType.getId();
+        } else if (entity instanceof Category category) {
+            return "Category:" + category.getId();
+        }
+        return null;
+    }
+
+    private static void addTerm(Map<TermKey, String> current, Kind kind, String text) {
+        String normalized = normalize(text);
+        if (!normalized.isEmpty()) {
+            current.putIfAbsent(new TermKey(kind, normalized), text.trim());
+        }
+    }
+
+    private static String cityOf(Address address) {
+        return address != null ? address.getCity() : null;
+    }
+
+    private static List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        int start = normalized.indexOf(' ');
+        while (start >= 0 && keys.size() < MAX_WORD_STARTS) {
+            keys.add(normalized.substring(start + 1));
+            start = normalized.indexOf(' ', start + 1);
+        }
+        return keys;
+    }
+
+    // Lower case without accents and with single spaces, so "Niš" completes "nis"
+    static String normalize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    // Spelling typos are measured on, so "fotograf" is two edits from "photographer" and "dorđe" matches "djordje"
+    static String fold(String word) {
+        return normalize(word).replace("đ", "dj").replace("ph", "f");
+    }
+}
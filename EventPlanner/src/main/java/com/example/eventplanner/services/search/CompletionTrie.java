@@ -0,0 +1,161 @@
+package com.example.eventplanner.services.search;
+
+import java.util.*;
+
+/**
+ * Radix trie where every node keeps the best values below it, so a completion is one walk down the prefix.
+ * Not thread safe, callers guard it. Values are ranked by the given order, call {@link #refresh(String)} for
+ * every key of a value whose rank changed.
+ */
+public class CompletionTrie<T> {
+    private final int topSize;
+    private final Comparator<T> order;
+    private final Node<T> root = new Node<>("");
+
+    private static final class Node<T> {
+        private String label;
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final Set<T> values = new HashSet<>();
+        private List<T> top = List.of();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    public CompletionTrie(int topSize, Comparator<T> order) {
+        this.topSize = topSize;
+        this.order = order;
+    }
+
+    public void add(String key, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                path.push(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                Node<T> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            path.push(child);
+            node = child;
+            i += common;
+        }
+        node.values.add(value);
+        refresh(path);
+    }
+
+    public void remove(String key, T value) {
+        Deque<Node<T>> path = find(key);
+        if (path == null || !path.peek().values.remove(value)) {
+            return;
+        }
+        prune(path);
+        refresh(path);
+    }
+
+    public void refresh(String key) {
+        Deque<Node<T>> path = find(key);
+        if (path != null) {
+            refresh(path);
+        }
+    }
+
+    public List<T> complete(String prefix, int limit) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node<T> child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // The prefix ends on or inside this edge
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            i += common;
+        }
+        return node.top.size() > limit ? node.top.subList(0, limit) : node.top;
+    }
+
+    // Root first on the returned stack's bottom, the node of the key on top
+    private Deque<Node<T>> find(String key) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<T> child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            path.push(child);
+            node = child;
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    // Drops the emptied leaf and merges a remaining single child into its parent edge
+    private void prune(Deque<Node<T>> path) {
+        Iterator<Node<T>> nodes = path.iterator();
+        Node<T> node = nodes.next();
+        if (node == root || !node.values.isEmpty() || !node.children.isEmpty()) {
+            mergeSingleChild(node);
+            return;
+        }
+        Node<T> parent = nodes.next();
+        parent.children.remove(node.label.charAt(0));
+        path.pop();
+        mergeSingleChild(parent);
+    }
+
+    private void mergeSingleChild(Node<T> node) {
+        if (node == root || !node.values.isEmpty() || node.children.size() != 1) {
+            return;
+        }
+        Node<T> child = node.children.values().iterator().next();
+        node.label = node.label + child.label;
+        node.children.clear();
+        node.children.putAll(child.children);
+        node.values.addAll(child.values);
+        node.top = child.top;
+    }
+
+    private void refresh(Deque<Node<T>> path) {
+        for (Node<T> node : path) {
+            List<T> candidates = new ArrayList<>(node.values);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream().distinct().sorted(order).limit(topSize).toList();
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.eventplanner.services.search;
+
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import com.example.eventplanner.services.clock.Clock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Search totals memoized per normalized filter for a short time, so paging clients do not count on every request
+@Component
+@RequiredArgsConstructor
+public class SearchCountCache {
+    private static final int MAX_ENTRIES = 1000;
+
+    private final Clock clock;
+
+    @Value("${application.search.count-ttl-ms:30000}")
+    private long ttlMillis;
+
+    private record Entry(long count, long expiresAt) {
+    }
+
+    private final Map<List<Object>, Entry> counts = new ConcurrentHashMap<>();
+
+    public long get(List<Object> key, LongSupplier counter) {
+        long now = clock.now().toEpochMilli();
+        Entry entry = counts.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.count();
+        }
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.values().removeIf(expired -> expired.expiresAt() <= now);
+        }
+        long count = counter.getAsLong();
+        if (counts.size() < MAX_ENTRIES) {
+            counts.put(key, new Entry(count, now + ttlMillis));
+        }
+        return count;
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    // Category approvals and replacements move merchandise with bulk updates no entity listener sees, and category and
+    // event type titles are filters, so totals are counted again after any catalog write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogSnapshotService.CatalogChanged event) {
+        clear();
+    }
+
+    // Filter values that select the same rows map to the same key
+    public static List<Object> key(Object... parts) {
+        return Arrays.stream(parts).map(SearchCountCache::normalize).toList();
+    }
+
+    private static Object normalize(Object part) {
+        if (part == null) {
+            return "";
+        }
+        if (part instanceof String text) {
+            return StringUtils.hasText(text) ? text.toLowerCase() : "";
+        }
+        return part;
+    }
+}
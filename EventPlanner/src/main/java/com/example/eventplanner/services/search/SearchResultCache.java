@@ -0,0 +1,112 @@
+package com.example.eventplanner.services.search;
+
+import com.example.eventplanner.dto.search.SearchCacheStatsDTO;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Search result pages shared by every viewer, keyed by the normalized filter and page. Only ids and their owners are
+ * kept. An entry is valid for the write generation it was loaded in, any committed event or merchandise write moves
+ * its domain to the next generation.
+ */
+@Component
+public class SearchResultCache {
+    public enum Domain { EVENTS, MERCHANDISE }
+
+    public record CachedPage(List<Integer> ids, List<Integer> ownerIds, long total) {
+        public static <T> CachedPage of(Page<T> page, Function<T, Integer> id, Function<T, Integer> owner) {
+            List<Integer> ids = new ArrayList<>();
+            List<Integer> ownerIds = new ArrayList<>();
+            for (T row : page.getContent()) {
+                ids.add(id.apply(row));
+                ownerIds.add(owner.apply(row));
+            }
+            return new CachedPage(List.copyOf(ids), Collections.unmodifiableList(ownerIds), page.getTotalElements());
+        }
+
+        // With a block list the shared page is only exact as a first page without blocked owners,
+        // any later page is shifted by the rows dropped from the pages before it
+        public boolean isExactFor(Set<Integer> excludedOwners, int pageNumber) {
+            if (excludedOwners.isEmpty()) {
+                return true;
+            }
+            return pageNumber == 0
+                    && ownerIds.stream().noneMatch(owner -> owner != null && excludedOwners.contains(owner));
+        }
+    }
+
+    // The generation is read before the page is loaded, so a write that commits meanwhile leaves the stored page stale
+    public record Lookup(List<Object> key, Domain domain, long generation, CachedPage page) {
+    }
+
+    private record Entry(CachedPage page, long generation) {
+    }
+
+    private final Map<Domain, AtomicLong> generations = new EnumMap<>(Domain.class);
+    private final Map<List<Object>, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SearchResultCache(@Value("${application.search.result-cache-size:500}") int capacity) {
+        for (Domain domain : Domain.values()) {
+            generations.put(domain, new AtomicLong());
+        }
+        entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public Lookup lookup(Domain domain, List<Object> key) {
+        List<Object> domainKey = List.of(domain, key);
+        long generation = generations.get(domain).get();
+        Entry entry = entries.get(domainKey);
+        if (entry != null && entry.generation() == generation) {
+            hits.incrementAndGet();
+            return new Lookup(domainKey, domain, generation, entry.page());
+        }
+        if (entry != null && entries.remove(domainKey, entry)) {
+            evictions.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        return new Lookup(domainKey, domain, generation, null);
+    }
+
+    public void store(Lookup lookup, CachedPage page) {
+        if (generations.get(lookup.domain()).get() == lookup.generation()) {
+            entries.put(lookup.key(), new Entry(page, lookup.generation()));
+        }
+    }
+
+    public void invalidate(Domain domain) {
+        generations.get(domain).incrementAndGet();
+    }
+
+    // Category and event type titles are search filters, and category approvals and replacements move merchandise with
+    // bulk updates that fire no entity events, so catalog writes invalidate both domains
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogSnapshotService.CatalogChanged event) {
+        for (Domain domain : Domain.values()) {
+            invalidate(domain);
+        }
+    }
+
+    public SearchCacheStatsDTO getStats() {
+        return new SearchCacheStatsDTO(hits.get(), misses.get(), evictions.get(), entries.size(),
+                generations.get(Domain.EVENTS).get(), generations.get(Domain.MERCHANDISE).get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.eventplanner.services.search;
+
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Merchandise;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+// Keeps the search result cache and the autocomplete index in step with committed event, merchandise and catalog writes
+@Component
+@RequiredArgsConstructor
+public class SearchWriteListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final SearchResultCache searchResultCache;
+    private final SearchCountCache searchCountCache;
+    private final AutocompleteIndex autocompleteIndex;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+        autocompleteIndex.entityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+        autocompleteIndex.entityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity());
+        autocompleteIndex.entityDeleted(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return Event.class.isAssignableFrom(entityClass) || Merchandise.class.isAssignableFrom(entityClass)
+                || Category.class.isAssignableFrom(entityClass)
+                || com.example.eventplanner.model.event.EventType.class.isAssignableFrom(entityClass);
+    }
+
+    // A failed commit changed nothing, the cached pages are still valid
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void invalidate(Object entity) {
+        if (entity instanceof Event) {
+            searchResultCache.invalidate(SearchResultCache.Domain.EVENTS);
+        } else if (entity instanceof Merchandise) {
+            searchResultCache.invalidate(SearchResultCache.Domain.MERCHANDISE);
+        } else if (entity instanceof Category || entity instanceof com.example.eventplanner.model.event.EventType) {
+            // Also for catalog writes that skip CatalogSnapshotService.markChanged
+            for (SearchResultCache.Domain domain : SearchResultCache.Domain.values()) {
+                searchResultCache.invalidate(domain);
+            }
+            searchCountCache.clear();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.eventplanner.services.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a database backed stream out as one JSON array, element by element. The stream is opened and drained in a
+ * read-only transaction, so the whole list never sits in memory and the first elements reach the client while the
+ * rest are still being read.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonArrayStreamer {
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public <T> StreamingResponseBody body(Supplier<Stream<T>> items) {
+        return out -> write(items, out);
+    }
+
+    // Returns the number of elements written
+    public <T> long write(Supplier<Stream<T>> items, OutputStream out) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            return transactionTemplate.execute(status -> {
+                try (Stream<T> stream = items.get(); JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                    // The servlet closes its own stream
+                    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    json.writeStartArray();
+                    long count = 0;
+                    for (T item : (Iterable<T>) stream::iterator) {
+                        json.writeObject(item);
+                        // The first element goes out right away, the rest in chunks
+                        if (++count % FLUSH_EVERY == 1) {
+                            json.flush();
+                        }
+                    }
+                    json.writeEndArray();
+                    json.flush();
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.example.eventplanner.model.user.*;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.message.MessageRepository;
 import com.example.eventplanner.repositories.user.*;
+import com.example.eventplanner.services.batch.BatchIds;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,6 +18,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -301,6 +303,18 @@ public class UserService {
         return blocker.getBlockedUsers().stream().map(this::convertToUserOverviewDTO).collect(Collectors.toList());
     }
 
+    // Many users in one query, in request order, unknown ids are left out
+    public List<UserOverviewDTO> getUsersByIds(List<Integer> ids) {
+        List<Integer> requested = BatchIds.distinct(ids);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, UserOverviewDTO> users = userRepository.findAllById(requested).stream()
+                .map(this::convertToUserOverviewDTO)
+                .collect(Collectors.toMap(UserOverviewDTO::getId, Function.identity()));
+        return BatchIds.inRequestOrder(requested, users);
+    }
+
     public UserOverviewDTO getMessagedChatUser(int id) {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new RuntimeException("user not found with id: " + id)
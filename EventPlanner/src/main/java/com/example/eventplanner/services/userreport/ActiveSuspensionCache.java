@@ -0,0 +1,61 @@
+package com.example.eventplanner.services.userreport;
+
+import com.example.eventplanner.dto.user.UserSuspensionDTO;
+import com.example.eventplanner.repositories.userreport.UserSuspensionRepository;
+import com.example.eventplanner.services.clock.Clock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Active suspensions by user id so login never queries user_suspension, entries drop out once their end time passes
+@Component
+@RequiredArgsConstructor
+public class ActiveSuspensionCache {
+    private final UserSuspensionRepository userSuspensionRepository;
+    private final Clock clock;
+
+    private final Map<Integer, UserSuspensionDTO> suspensions = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public UserSuspensionDTO get(int userId) {
+        ensureLoaded();
+        UserSuspensionDTO suspension = suspensions.get(userId);
+        if (suspension == null) {
+            return null;
+        }
+        LocalDateTime now = clock.nowAsLocalDateTime();
+        if (!suspension.getEndTime().isAfter(now)) {
+            suspensions.remove(userId, suspension);
+            return null;
+        }
+        return suspension.getStartTime().isBefore(now) ? suspension : null;
+    }
+
+    public void put(UserSuspensionDTO suspension) {
+        ensureLoaded();
+        suspensions.put(suspension.getUserId(), suspension);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            userSuspensionRepository.findAllActiveAfter(clock.nowAsLocalDateTime()).forEach(suspension ->
+                    suspensions.put(suspension.getUser().getId(), new UserSuspensionDTO(
+                            suspension.getId(),
+                            suspension.getUser().getId(),
+                            suspension.getStartTime(),
+                            suspension.getEndTime(),
+                            suspension.getReason()
+                    )));
+            loaded = true;
+        }
+    }
+}
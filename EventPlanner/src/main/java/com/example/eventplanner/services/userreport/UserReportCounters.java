@@ -0,0 +1,67 @@
+package com.example.eventplanner.services.userreport;
+
+import com.example.eventplanner.dto.user.UserReportCountsDTO;
+import com.example.eventplanner.model.user.UserReportStatus;
+import com.example.eventplanner.repositories.userreport.UserReportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Report counts per status for the admin badges, seeded from the database once and then kept up to date in memory
+@Component
+@RequiredArgsConstructor
+public class UserReportCounters {
+    private final UserReportRepository userReportRepository;
+
+    private final Map<UserReportStatus, AtomicLong> counts = new EnumMap<>(UserReportStatus.class);
+    private volatile boolean loaded;
+
+    public long get(UserReportStatus status) {
+        ensureLoaded();
+        return counts.get(status).get();
+    }
+
+    public UserReportCountsDTO snapshot() {
+        return new UserReportCountsDTO(get(UserReportStatus.PENDING), get(UserReportStatus.APPROVED),
+                get(UserReportStatus.DENIED));
+    }
+
+    public void reportCreated() {
+        ensureLoaded();
+        counts.get(UserReportStatus.PENDING).incrementAndGet();
+    }
+
+    public void statusChanged(UserReportStatus from, UserReportStatus to) {
+        if (from == to) {
+            return;
+        }
+        ensureLoaded();
+        if (from != null) {
+            counts.get(from).decrementAndGet();
+        }
+        counts.get(to).incrementAndGet();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (UserReportStatus status : UserReportStatus.values()) {
+                counts.put(status, new AtomicLong());
+            }
+            for (Object[] row : userReportRepository.countByStatus()) {
+                if (row[0] != null) {
+                    counts.get((UserReportStatus) row[0]).set(((Number) row[1]).longValue());
+                }
+            }
+            loaded = true;
+        }
+    }
+}
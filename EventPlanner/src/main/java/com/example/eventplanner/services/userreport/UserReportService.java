@@ -1,5 +1,6 @@
 package com.example.eventplanner.services.userreport;
 
+import com.example.eventplanner.dto.user.UserReportCountsDTO;
 import com.example.eventplanner.dto.user.UserReportDTO;
 import com.example.eventplanner.dto.user.UserReportOverviewDTO;
 import com.example.eventplanner.dto.user.UserReportResponseDTO;
@@ -11,7 +12,12 @@ import com.example.eventplanner.model.user.UserSuspension;
 import com.example.eventplanner.repositories.userreport.UserReportRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
 import com.example.eventplanner.repositories.userreport.UserSuspensionRepository;
+import com.example.eventplanner.services.clock.Clock;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +25,6 @@ import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +34,9 @@ public class UserReportService {
     private final UserRepository userRepository;
     private final UserSuspensionRepository userSuspensionRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UserReportCounters userReportCounters;
+    private final ActiveSuspensionCache activeSuspensionCache;
+    private final Clock clock;
 
     public UserReportResponseDTO createReport(UserReportDTO userReportDTO) {
         // Fetch the reporter and reported user from UserRepository
@@ -48,6 +56,7 @@ public class UserReportService {
 
         // Save the report to the database
         UserReport savedReport = userReportRepository.save(userReport);
+        userReportCounters.reportCreated();
 
         // Map the saved UserReport entity to UserReportResponseDTO
         UserReportResponseDTO responseDTO = new UserReportResponseDTO();
@@ -62,15 +71,11 @@ public class UserReportService {
         return responseDTO;
     }
 
-    public List<UserReportOverviewDTO> getAllPendingReports() {
-        // Fetch all user reports with status "PENDING" from the database
-        List<UserReport> pendingReports = userReportRepository.findAll()
+    public Page<UserReportOverviewDTO> getPendingReports(Pageable pageable) {
+        // Indexed on status, the live counter stands in for a count query
+        List<UserReportOverviewDTO> pendingReports = userReportRepository
+                .findPageByStatus(UserReportStatus.PENDING, pageable)
                 .stream()
-                .filter(report -> report.getStatus() == UserReportStatus.PENDING)
-                .toList();
-
-        // Map each UserReport entity to UserReportOverviewDTO
-        return pendingReports.stream()
                 .map(report -> new UserReportOverviewDTO(
                         report.getId(),
                         report.getReportedUser().getId(),
@@ -82,75 +87,76 @@ public class UserReportService {
                         report.getReason(),
                         report.getStatus()
                 ))
-                .collect(Collectors.toList());
+                .toList();
+        return new PageImpl<>(pendingReports, pageable, userReportCounters.get(UserReportStatus.PENDING));
     }
 
+    public UserReportCountsDTO getReportCounts() {
+        return userReportCounters.snapshot();
+    }
 
+
+    @Transactional
     public UserSuspensionDTO approveReportAndSuspendUser(int reportId) {
         // Fetch the report by ID
         UserReport userReport = userReportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("User report not found with ID: " + reportId));
 
         // Approve the report and set the approval date
-        userReport.setStatus(UserReportStatus.APPROVED);
-        userReport.setApprovalDate(new Date()); // Use the current date
-        userReportRepository.save(userReport); // Save the updated report
+        changeStatus(userReport, UserReportStatus.APPROVED);
+        LocalDateTime now = clock.nowAsLocalDateTime();
 
         // Fetch the reported user
         User reportedUser = userReport.getReportedUser();
 
         // Check if the user already has an active suspension
         Optional<UserSuspension> existingSuspension = userSuspensionRepository.findByUserAndStartTimeBeforeAndEndTimeAfter(
-                reportedUser, LocalDateTime.now(), LocalDateTime.now()
+                reportedUser, now, now
         );
 
         UserSuspension suspension;
         if (existingSuspension.isPresent()) {
             // If an active suspension exists, renew it to last for another 3 days
             suspension = existingSuspension.get();
-            suspension.setEndTime(LocalDateTime.now().plusDays(3)); // Extend suspension by 3 days
+            suspension.setEndTime(now.plusDays(3)); // Extend suspension by 3 days
             userSuspensionRepository.save(suspension);
         } else {
             // Otherwise, create a new suspension for 3 days
             suspension = new UserSuspension();
             suspension.setUser(reportedUser);
-            suspension.setStartTime(LocalDateTime.now());
-            suspension.setEndTime(LocalDateTime.now().plusDays(3)); // Lasts for 3 days
+            suspension.setStartTime(now);
+            suspension.setEndTime(now.plusDays(3)); // Lasts for 3 days
             suspension.setReason(userReport.getReason()); // Reason from the report
             userSuspensionRepository.save(suspension);
         }
 
-        messagingTemplate.convertAndSendToUser(
-                String.valueOf(suspension.getUser().getId()),
-                "/suspensions",
-                new UserSuspensionDTO(
-                        suspension.getId(),
-                        suspension.getUser().getId(),
-                        suspension.getStartTime(),
-                        suspension.getEndTime(),
-                        suspension.getReason()
-                )
-        );
-
         // Map the UserSuspension entity to UserSuspensionDTO
-        return new UserSuspensionDTO(
+        UserSuspensionDTO suspensionDTO = new UserSuspensionDTO(
                 suspension.getId(),
                 suspension.getUser().getId(),
                 suspension.getStartTime(),
                 suspension.getEndTime(),
                 suspension.getReason()
         );
+        activeSuspensionCache.put(suspensionDTO);
+
+        messagingTemplate.convertAndSendToUser(
+                String.valueOf(suspension.getUser().getId()),
+                "/suspensions",
+                suspensionDTO
+        );
+
+        return suspensionDTO;
     }
 
+    @Transactional
     public UserReportResponseDTO denyReport(int reportId) {
         // Fetch the report by ID
         UserReport userReport = userReportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("User report not found with ID: " + reportId));
 
-        // Set the report status to debied
-        userReport.setStatus(UserReportStatus.DENIED);
-        userReport.setApprovalDate(new Date()); // Use the current date for the rejection date
-        userReportRepository.save(userReport); // Save the updated report
+        // Set the report status to denied
+        changeStatus(userReport, UserReportStatus.DENIED);
 
         // Map the denied report to a response DTO
         return new UserReportResponseDTO(
@@ -158,27 +164,27 @@ public class UserReportService {
                 userReport.getReporter().getId(),
                 userReport.getReportedUser().getId(),
                 userReport.getReason(),
-                userReport.getStatus()
+                UserReportStatus.DENIED
         );
     }
 
     public UserSuspensionDTO getSuspension(User user) {
-        Optional<UserSuspension> existingSuspension = userSuspensionRepository.findByUserAndStartTimeBeforeAndEndTimeAfter(
-                user, LocalDateTime.now(), LocalDateTime.now()
-        );
-        if (existingSuspension.isEmpty()) {
-            return null;
-        }
-
-        UserSuspension suspension = existingSuspension.get();
+        return activeSuspensionCache.get(user.getId());
+    }
 
-        return new UserSuspensionDTO(
-                suspension.getId(),
-                suspension.getUser().getId(),
-                suspension.getStartTime(),
-                suspension.getEndTime(),
-                suspension.getReason()
-        );
+    // Conditional update so two moderators handling the same report move the counters once, the last one wins
+    private void changeStatus(UserReport userReport, UserReportStatus status) {
+        UserReportStatus previousStatus = userReport.getStatus();
+        Date approvalDate = Date.from(clock.now());
+        while (previousStatus != status) {
+            if (userReportRepository.updateStatus(userReport.getId(), previousStatus, status, approvalDate) > 0) {
+                userReportCounters.statusChanged(previousStatus, status);
+                break;
+            }
+            // Moderated in the meantime, move it on from the status that was committed
+            previousStatus = userReportRepository.findStatusById(userReport.getId())
+                    .orElseThrow(() -> new RuntimeException("User report not found with ID: " + userReport.getId()));
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -9,9 +9,7 @@ INSERT INTO public."user" (active, id, latitude, longitude, number, role, token_
 INSERT INTO public."user" (active, id, latitude, longitude, number, role, token_expiration, user_type, activation_token, authorities, city, company, description, name, password, phone_number, photo, street, surname, username) VALUES (true, 33, 1, 1, 1, 3, null, 'Administrator', null, 'ahahah', 'Denver', null, null, 'Admin', '$2b$12$AKNIH3jXWwaS/Cuxa9/PoO0FPnkK9tZhsdbxI.k0cqlAJr.x.b9kG', '817281791879', 'dinja.jpg', 'asd', '', 'admin@gmail.com');
 
 
-UPDATE public.id_generator
-SET next_val = 300
-WHERE sequence_name = 'user';
+-- user ids allocated by the application start at 300, see User
 
 -- Insert Event Types
 INSERT INTO event_type (title, description, is_active) VALUES
@@ -2015,9 +2013,7 @@ INSERT INTO merchandise_reviews (merchandise_id, review_id) VALUES
 -- from merchandise
 -- where id between 6 and 15;
 
-UPDATE public.id_generator
-SET next_val = 200
-WHERE sequence_name = 'merchandise';
+-- merchandise ids allocated by the application start at 200, see Merchandise
 
 -- Insert time slots for one service
 INSERT INTO public.time_slots (end_time, id, start_time)
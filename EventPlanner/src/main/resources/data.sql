@@ -9,9 +9,7 @@ INSERT INTO public."user" (active, id, latitude, longitude, number, role, token_
 INSERT INTO public."user" (active, id, latitude, longitude, number, role, token_expiration, user_type, activation_token, authorities, city, company, description, name, password, phone_number, photo, street, surname, username) VALUES (true, 33, 1, 1, 1, 3, null, 'Administrator', null, 'ahahah', 'Denver', null, null, 'Admin', '$2b$12$AKNIH3jXWwaS/Cuxa9/PoO0FPnkK9tZhsdbxI.k0cqlAJr.x.b9kG', '817281791879', 'dinja.jpg', 'asd', '', 'admin@gmail.com');
 
 
-UPDATE public.id_generator
-SET next_val = 300
-WHERE sequence_name = 'user';
+-- user ids allocated by the application start at 300, see User
 
 -- Insert Event Types
 INSERT INTO event_type (title, description, is_active) VALUES
@@ -1193,22 +1191,22 @@ WHERE id between 1 and 6;
 INSERT INTO review (id, comment, rating, status, deleted, created_at, reviewer_id) VALUES
                                                                                        (41, 'Amazing experience! Learned so much about cutting-edge technology.', 5, 'PENDING', false, '2023-09-15 10:00:00', 1),
                                                                                        (42, 'Well-organized but I felt the sessions were too long.', 4, 'PENDING', false, '2023-09-16 11:00:00', 2),
-                                                                                       (43, 'The location was too crowded for the number of attendees.', 3, 'PENDING', false, '2023-09-17 12:00:00', 1),
-                                                                                       (44, 'Great event! Excellent speakers and engaging sessions.', 5, 'PENDING', false, '2023-09-18 13:00:00', 1);
+                                                                                       (43, 'The location was too crowded for the number of attendees.', 3, 'PENDING', false, '2023-09-17 12:00:00', 52),
+                                                                                       (44, 'Great event! Excellent speakers and engaging sessions.', 5, 'PENDING', false, '2023-09-18 13:00:00', 53);
 
 -- Reviews for "AI & Machine Learning Forum"
 INSERT INTO review (id, comment, rating, status, deleted, created_at, reviewer_id) VALUES
-                                                                                       (45, 'Fantastic forum for AI enthusiasts. Great networking opportunities.', 5, 'PENDING', false, '2023-08-10 09:00:00', 2),
+                                                                                       (45, 'Fantastic forum for AI enthusiasts. Great networking opportunities.', 5, 'PENDING', false, '2023-08-10 09:00:00', 1),
                                                                                        (46, 'Loved the hands-on workshops. Very informative.', 5, 'PENDING', false, '2023-08-11 10:00:00', 2),
-                                                                                       (47, 'Would have liked more beginner-friendly content.', 3, 'PENDING', false, '2023-08-12 11:00:00', 1),
-                                                                                       (48, 'Keynote speaker was excellent! Very inspiring.', 4, 'PENDING', false, '2023-08-13 12:00:00', 2);
+                                                                                       (47, 'Would have liked more beginner-friendly content.', 3, 'PENDING', false, '2023-08-12 11:00:00', 52),
+                                                                                       (48, 'Keynote speaker was excellent! Very inspiring.', 4, 'PENDING', false, '2023-08-13 12:00:00', 53);
 
 -- Reviews for "Startup Networking Night"
 INSERT INTO review (id, comment, rating, status, deleted, created_at, reviewer_id) VALUES
-                                                                                       (49, 'Met a lot of amazing people. Great for entrepreneurs!', 5, 'PENDING', false, '2023-07-20 14:00:00', 2),
+                                                                                       (49, 'Met a lot of amazing people. Great for entrepreneurs!', 5, 'PENDING', false, '2023-07-20 14:00:00', 1),
                                                                                        (50, 'Good opportunity, but the event seemed too short.', 4, 'PENDING', false, '2023-07-21 15:00:00', 2),
-                                                                                       (51, 'Loved the casual atmosphere, and it was easy to connect with others.', 5, 'PENDING', false, '2023-07-22 16:00:00', 1),
-                                                                                       (52, 'Food options were limited, but overall a good experience.', 3, 'PENDING', false, '2023-07-23 17:00:00', 1);
+                                                                                       (51, 'Loved the casual atmosphere, and it was easy to connect with others.', 5, 'PENDING', false, '2023-07-22 16:00:00', 52),
+                                                                                       (52, 'Food options were limited, but overall a good experience.', 3, 'PENDING', false, '2023-07-23 17:00:00', 53);
 
 -- Link Reviews to Events
 INSERT INTO event_reviews (event_id, review_id) VALUES
@@ -1232,17 +1230,17 @@ INSERT INTO event_reviews (event_id, review_id) VALUES
 
 -- Reviews for "Professional DJ Services"
 INSERT INTO review (id, comment, rating, status, deleted, created_at, reviewer_id) VALUES
-                                                                                       (53, 'The DJ played great music and kept the energy high throughout the event.', 5, 'PENDING', false, '2023-06-10 18:00:00', 2),
+                                                                                       (53, 'The DJ played great music and kept the energy high throughout the event.', 5, 'PENDING', false, '2023-06-10 18:00:00', 1),
                                                                                        (54, 'Good service but arrived slightly late.', 4, 'PENDING', false, '2023-06-11 19:00:00', 2),
-                                                                                       (55, 'Decent performance, but I expected more variety in the playlist.', 3, 'PENDING', false, '2023-06-12 20:00:00', 1),
-                                                                                       (56, 'Excellent work! My guests had a blast!', 5, 'PENDING', false, '2023-06-13 21:00:00', 2);
+                                                                                       (55, 'Decent performance, but I expected more variety in the playlist.', 3, 'PENDING', false, '2023-06-12 20:00:00', 52),
+                                                                                       (56, 'Excellent work! My guests had a blast!', 5, 'PENDING', false, '2023-06-13 21:00:00', 53);
 
 -- Reviews for "Event Photography"
 INSERT INTO review (id, comment, rating, status, deleted, created_at, reviewer_id) VALUES
                                                                                        (57, 'The photos came out beautifully, capturing every special moment.', 5, 'APPROVED', false, '2023-05-01 10:30:00', 1),
                                                                                        (58, 'Professional service, but delivery was delayed.', 4, 'APPROVED', false, '2023-05-02 11:30:00', 2),
-                                                                                       (59, 'Attention to detail was stunning. Would hire again.', 5, 'APPROVED', false, '2023-05-03 12:30:00', 1),
-                                                                                       (60, 'Good quality but a bit pricey.', 4, 'PENDING', false, '2023-05-04 13:30:00', 2);
+                                                                                       (59, 'Attention to detail was stunning. Would hire again.', 5, 'APPROVED', false, '2023-05-03 12:30:00', 52),
+                                                                                       (60, 'Good quality but a bit pricey.', 4, 'PENDING', false, '2023-05-04 13:30:00', 53);
 
 -- Link Reviews to Merchandise
 INSERT INTO merchandise_reviews (merchandise_id, review_id) VALUES
@@ -1258,6 +1256,17 @@ INSERT INTO merchandise_reviews (merchandise_id, review_id) VALUES
 (2, 59),
 (6, 60);
 
+-- Store each review's target on the review itself
+UPDATE review SET target_type = 'EVENT',
+                  target_id = (SELECT er.event_id FROM event_reviews er WHERE er.review_id = review.id)
+WHERE id IN (SELECT review_id FROM event_reviews);
+
+UPDATE review SET target_type = (SELECT CASE WHEN m.merchandise_type = 'Product' THEN 'PRODUCT' ELSE 'SERVICE' END
+                                 FROM merchandise_reviews mr JOIN merchandise m ON m.id = mr.merchandise_id
+                                 WHERE mr.review_id = review.id),
+                  target_id = (SELECT mr.merchandise_id FROM merchandise_reviews mr WHERE mr.review_id = review.id)
+WHERE id IN (SELECT review_id FROM merchandise_reviews);
+
 -- -- INSERT INTO merchandise (
 -- --     merchandise_type,
 -- --     id,
@@ -2018,9 +2027,7 @@ INSERT INTO merchandise_reviews (merchandise_id, review_id) VALUES
 -- from merchandise
 -- where id between 6 and 15;
 
-UPDATE public.id_generator
-SET next_val = 200
-WHERE sequence_name = 'merchandise';
+-- merchandise ids allocated by the application start at 200, see Merchandise
 
 -- Insert time slots for one service
 INSERT INTO public.time_slots (end_time, id, start_time)
@@ -0,0 +1,259 @@
+package com.example.eventplanner.batch;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.MerchandisePhoto;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandisePhotoRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.batch.BatchIds;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class MultiGetTest {
+    private static final int ITEMS = 10;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MerchandisePhotoRepository merchandisePhotoRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AuthenticatedUser viewer;
+    private List<Product> products;
+    private Product blockedProduct;
+    private List<Event> events;
+    private Event blockedEvent;
+    private Event blockingEvent;
+
+    @BeforeEach
+    void setUp() {
+        String marker = "batch" + System.nanoTime();
+        AuthenticatedUser reviewer = new AuthenticatedUser();
+        reviewer.setUsername(marker + "-reviewer@mail.com");
+        reviewer.setAddress(new Address());
+        reviewer = userRepository.save(reviewer);
+
+        Category category = new Category();
+        category.setTitle("Batch Category");
+        category = categoryRepository.save(category);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEMS + 1; i++) {
+            Product product = new Product();
+            product.setTitle(marker + " product " + i);
+            product.setAddress(new Address());
+            product.setCategory(category);
+            product.setVisible(true);
+            product.setAvailable(true);
+            product.setEventTypes(new ArrayList<>());
+            MerchandisePhoto photo = new MerchandisePhoto();
+            photo.setPhoto(marker + "-" + i + ".jpg");
+            product.setPhotos(new ArrayList<>(List.of(merchandisePhotoRepository.save(photo))));
+            Review review = new Review();
+            review.setReviewer(reviewer);
+            review.setRating(4);
+            review.setStatus(ReviewStatus.APPROVED);
+            product.setReviews(new ArrayList<>(List.of(reviewRepository.save(review))));
+            products.add(productRepository.save(product));
+        }
+        blockedProduct = products.remove(ITEMS);
+
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername(marker + "-provider@mail.com");
+        provider.setAddress(new Address());
+        provider.setMerchandise(new ArrayList<>(products));
+        userRepository.save(provider);
+        ServiceProvider blockedProvider = new ServiceProvider();
+        blockedProvider.setUsername(marker + "-blocked-provider@mail.com");
+        blockedProvider.setAddress(new Address());
+        blockedProvider.setMerchandise(new ArrayList<>(List.of(blockedProduct)));
+        blockedProvider = userRepository.save(blockedProvider);
+
+        EventOrganizer organizer = organizer(marker + "-organizer@mail.com");
+        EventOrganizer blockedOrganizer = organizer(marker + "-blocked-organizer@mail.com");
+        EventOrganizer blockingOrganizer = organizer(marker + "-blocking-organizer@mail.com");
+
+        viewer = new AuthenticatedUser();
+        viewer.setUsername(marker + "-viewer@mail.com");
+        viewer.setAddress(new Address());
+        viewer.setBlockedUsers(new ArrayList<>(List.of(blockedProvider, blockedOrganizer)));
+        viewer = userRepository.save(viewer);
+        blockingOrganizer.setBlockedUsers(new ArrayList<>(List.of(viewer)));
+        blockingOrganizer = userRepository.save(blockingOrganizer);
+
+        EventType type = new EventType();
+        type.setTitle("Batch Type");
+        type.setActive(true);
+        type = eventTypeRepository.save(type);
+        events = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            events.add(event(marker + " event " + i, type, organizer, reviewer));
+        }
+        blockedEvent = event(marker + " blocked event", type, blockedOrganizer, reviewer);
+        blockingEvent = event(marker + " blocking event", type, blockingOrganizer, reviewer);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseByIds-RequestOrder")
+    @Tag("success")
+    void getMerchandiseByIds_MixedIds_RequestOrderWithoutBlockedOrMissing() {
+        Product first = products.get(0);
+        Product second = products.get(1);
+
+        JsonNode body = get("/api/v1/merchandise/batch?userId=" + viewer.getId() + "&ids=" + second.getId() + ","
+                + Integer.MAX_VALUE + "," + blockedProduct.getId() + "," + first.getId() + "," + second.getId());
+
+        assertThat(ids(body)).containsExactly(second.getId(), first.getId());
+        assertThat(body.get(0).get("title").asText()).isEqualTo(second.getTitle());
+        assertThat(body.get(0).get("merchandisePhotos")).hasSize(1);
+        assertThat(body.get(0).get("reviews")).hasSize(1);
+        assertThat(body.get(0).get("serviceProviderId").asInt()).isPositive();
+    }
+
+    @Test
+    @DisplayName("getDetailsByIds-RequestOrder")
+    @Tag("success")
+    void getDetailsByIds_MixedIds_RequestOrderWithoutBlockedEitherWay() {
+        Event first = events.get(0);
+        Event second = events.get(1);
+
+        JsonNode body = get("/api/v1/events/batch?userId=" + viewer.getId() + "&ids=" + second.getId() + ","
+                + blockedEvent.getId() + "," + blockingEvent.getId() + "," + first.getId());
+
+        assertThat(ids(body)).containsExactly(second.getId(), first.getId());
+        assertThat(body.get(0).get("reviews")).hasSize(1);
+        assertThat(body.get(0).get("organizer").get("email").asText()).endsWith("-organizer@mail.com");
+    }
+
+    @Test
+    @DisplayName("getUsersByIds-RequestOrder")
+    @Tag("success")
+    void getUsersByIds_MixedIds_RequestOrderWithoutMissing() {
+        JsonNode body = get("/api/v1/users/batch?ids=" + viewer.getId() + "," + Integer.MAX_VALUE + ","
+                + events.get(0).getOrganizer().getId());
+
+        assertThat(ids(body)).containsExactly(viewer.getId(), events.get(0).getOrganizer().getId());
+        assertThat(body.get(0).get("email").asText()).isEqualTo(viewer.getUsername());
+    }
+
+    @Test
+    @DisplayName("batch-TooManyIds")
+    @Tag("error")
+    void batch_MoreThanMaxIds_BadRequest() {
+        String ids = IntStream.rangeClosed(1, BatchIds.MAX_IDS + 1).mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        assertThat(restTemplate.getForEntity("/api/v1/users/batch?ids=" + ids, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(restTemplate.getForEntity("/api/v1/merchandise/batch?userId=" + viewer.getId() + "&ids=" + ids,
+                String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("batch-StatementBudget")
+    @Tag("budget")
+    void batch_TenItems_CostAboutAsMuchAsOne() {
+        String merchandiseIds = products.stream().map(product -> String.valueOf(product.getId()))
+                .collect(Collectors.joining(","));
+        String eventIds = events.stream().map(event -> String.valueOf(event.getId())).collect(Collectors.joining(","));
+
+        // One item alone takes up to 8 statements, see the fetch plan budgets
+        assertWithinBudget("/api/v1/merchandise/batch?userId=" + viewer.getId() + "&ids=" + merchandiseIds, 8);
+        assertWithinBudget("/api/v1/events/batch?userId=" + viewer.getId() + "&ids=" + eventIds, 4);
+    }
+
+    private void assertWithinBudget(String url, long budget) {
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        AtomicReference<ResponseEntity<JsonNode>> response = new AtomicReference<>();
+        long statements = statementCounter.count(() -> response.set(restTemplate.getForEntity(url, JsonNode.class)));
+
+        assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.get().getBody()).hasSize(ITEMS);
+        assertThat(statements).as("statements for %s", url).isLessThanOrEqualTo(budget);
+    }
+
+    private JsonNode get(String url) {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(url, JsonNode.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static List<Integer> ids(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false).map(node -> node.get("id").asInt()).toList();
+    }
+
+    private EventOrganizer organizer(String username) {
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername(username);
+        organizer.setAddress(new Address());
+        return userRepository.save(organizer);
+    }
+
+    private Event event(String title, EventType type, EventOrganizer organizer, User reviewer) {
+        Review review = new Review();
+        review.setReviewer(reviewer);
+        review.setRating(5);
+        review.setStatus(ReviewStatus.APPROVED);
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDate(LocalDateTime.now().plusDays(14));
+        event.setAddress(new Address());
+        event.setType(type);
+        event.setOrganizer(organizer);
+        event.setReviews(new ArrayList<>(List.of(reviewRepository.save(review))));
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.eventplanner.budget;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Budget;
+import com.example.eventplanner.model.event.BudgetItem;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.repositories.budget.BudgetItemRepository;
+import com.example.eventplanner.repositories.budget.BudgetRepository;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"application.budget.retry.max-attempts=30", "application.budget.retry.backoff-ms=5"})
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class BudgetConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BudgetItemRepository budgetItemRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Event event;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setTitle("Decoration");
+        category.setDescription("Decoration Description");
+        category.setPending(false);
+        category = categoryRepository.save(category);
+
+        BudgetItem budgetItem = new BudgetItem();
+        budgetItem.setCategory(category);
+        budgetItem.setMaxAmount(100000);
+        budgetItem.setAmountSpent(0);
+        budgetItem = budgetItemRepository.save(budgetItem);
+
+        Budget budget = new Budget();
+        budget.setBudgetItems(new ArrayList<>());
+        budget.getBudgetItems().add(budgetItem);
+
+        event = new Event();
+        event.setTitle("Concurrent Event");
+        event.setAddress(new Address());
+        event.setBudget(budget);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    @DisplayName("Parallel purchases of the same product claim exactly one budget item")
+    @Tag("concurrency")
+    void buyProduct_SameProductInParallel_BoughtOnce() throws Exception {
+        Product product = createProduct("Balloons", 100);
+
+        List<HttpStatusCode> statuses = buyInParallel(List.of(product, product, product, product,
+                product, product, product, product));
+
+        assertThat(statuses).filteredOn(HttpStatusCode::is2xxSuccessful).hasSize(1);
+        assertThat(statuses).filteredOn(HttpStatusCode::is4xxClientError).hasSize(THREADS - 1);
+        assertThat(budgetItemsOf(event.getId()))
+                .filteredOn(item -> item.getMerchandise() != null && item.getMerchandise().getId() == product.getId())
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Parallel purchases of different products in one category never lose an update")
+    @Tag("concurrency")
+    void buyProduct_DifferentProductsInParallel_AllRecorded() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            products.add(createProduct("Product " + i, 100 + i));
+        }
+
+        List<HttpStatusCode> statuses = buyInParallel(products);
+
+        assertThat(statuses).allMatch(HttpStatusCode::is2xxSuccessful);
+
+        List<BudgetItem> items = budgetItemsOf(event.getId());
+        assertThat(items).hasSize(THREADS);
+        for (Product product : products) {
+            assertThat(items)
+                    .filteredOn(item -> item.getMerchandise() != null && item.getMerchandise().getId() == product.getId())
+                    .hasSize(1);
+        }
+        // The single pre-planned item was claimed once, the rest became unplanned items
+        assertThat(items).filteredOn(item -> item.getMaxAmount() > 0).hasSize(1);
+        double expectedSpent = products.stream().mapToDouble(Product::getPrice).sum();
+        assertThat(items.stream().mapToDouble(BudgetItem::getAmountSpent).sum()).isEqualTo(expectedSpent);
+    }
+
+    private Product createProduct(String title, double price) {
+        Product product = new Product();
+        product.setTitle(title);
+        product.setDescription(title + " Description");
+        product.setPrice(price);
+        product.setCategory(category);
+        product.setAddress(new Address());
+        return productRepository.save(product);
+    }
+
+    private List<HttpStatusCode> buyInParallel(List<Product> products) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<HttpStatusCode>> futures = new ArrayList<>();
+            for (Product product : products) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    return buy(product.getId()).getStatusCode();
+                }));
+            }
+            startGate.countDown();
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> future : futures) {
+                statuses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ResponseEntity<String> buy(int productId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.postForEntity(
+                "/api/v1/products/buy/{productId}",
+                new HttpEntity<>(event.getId(), headers),
+                String.class,
+                productId
+        );
+    }
+
+    private List<BudgetItem> budgetItemsOf(int eventId) {
+        return transactionTemplate.execute(status -> {
+            Budget budget = eventRepository.findById(eventId).orElseThrow().getBudget();
+            List<BudgetItem> items = new ArrayList<>(budget.getBudgetItems());
+            items.forEach(item -> {
+                if (item.getMerchandise() != null) {
+                    item.getMerchandise().getId();
+                }
+            });
+            return items;
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.eventplanner.budget;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.budget.BudgetRollupDTO;
+import com.example.eventplanner.dto.budget.CreateBudgetRequestDTO;
+import com.example.eventplanner.dto.budget.OrganizerBudgetRollupDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Budget;
+import com.example.eventplanner.model.event.BudgetItem;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.repositories.budget.BudgetItemRepository;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.user.EventOrganizerRepository;
+import com.example.eventplanner.services.budget.BudgetRollupService;
+import com.example.eventplanner.services.budget.BudgetService;
+import com.example.eventplanner.services.merchandise.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class BudgetRollupTest {
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private BudgetRollupService budgetRollupService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventOrganizerRepository eventOrganizerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private BudgetItemRepository budgetItemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private EventOrganizer organizer;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        organizer = new EventOrganizer();
+        organizer.setUsername("rollup" + System.nanoTime() + "@mail.com");
+        organizer.setAddress(new Address());
+        organizer = eventOrganizerRepository.save(organizer);
+
+        category = new Category();
+        category.setTitle("Catering");
+        category.setDescription("Catering Description");
+        category.setPending(false);
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    @DisplayName("Budget writes keep the organizer rollup in sync with a full rebuild")
+    void budgetWrites_IncrementalRollup_MatchesRebuild() {
+        Event march = createEvent(LocalDateTime.of(2025, 3, 10, 18, 0));
+        Event april = createEvent(LocalDateTime.of(2025, 4, 2, 12, 0));
+
+        // Budget item writes run inside a request scoped session in production
+        transactionTemplate.executeWithoutResult(status -> {
+            budgetService.createBudgetItem(march.getBudget().getBudgetId(), request(500));
+            budgetService.createBudgetItem(april.getBudget().getBudgetId(), request(300));
+        });
+        productService.buyProduct(createProduct(200).getId(), march.getId());
+        productService.buyProduct(createProduct(150).getId(), april.getId());
+
+        OrganizerBudgetRollupDTO incremental = budgetService.getOrganizerRollup(organizer.getId());
+        assertThat(incremental.getPlannedAmount()).isEqualTo(800);
+        assertThat(incremental.getSpentAmount()).isEqualTo(350);
+        assertThat(incremental.getItemCount()).isEqualTo(2);
+        assertThat(incremental.getRollups()).extracting(BudgetRollupDTO::getMonth)
+                .containsExactly("2025-03", "2025-04");
+
+        budgetRollupService.rebuild();
+
+        OrganizerBudgetRollupDTO rebuilt = budgetService.getOrganizerRollup(organizer.getId());
+        assertThat(rebuilt).isEqualTo(incremental);
+    }
+
+    @Test
+    @DisplayName("Moving an event with an uncategorized budget item moves only the categorized totals")
+    void recordEventMoved_ItemWithoutCategory_Skipped() {
+        Event event = createEvent(LocalDateTime.of(2025, 3, 10, 18, 0));
+        transactionTemplate.executeWithoutResult(status -> {
+            budgetService.createBudgetItem(event.getBudget().getBudgetId(), request(500));
+            BudgetItem uncategorized = new BudgetItem();
+            uncategorized.setBudgetId(event.getBudget().getBudgetId());
+            uncategorized.setMaxAmount(100);
+            Event loaded = eventRepository.findById(event.getId()).orElseThrow();
+            loaded.getBudget().getBudgetItems().add(budgetItemRepository.save(uncategorized));
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Event loaded = eventRepository.findById(event.getId()).orElseThrow();
+            LocalDateTime previousDate = loaded.getDate();
+            loaded.setDate(LocalDateTime.of(2025, 5, 20, 18, 0));
+            budgetRollupService.recordEventMoved(eventRepository.save(loaded), previousDate);
+        });
+
+        OrganizerBudgetRollupDTO rollup = budgetService.getOrganizerRollup(organizer.getId());
+        // The March row stays behind emptied
+        assertThat(rollup.getRollups()).filteredOn(month -> month.getItemCount() > 0)
+                .extracting(BudgetRollupDTO::getMonth).containsExactly("2025-05");
+        assertThat(rollup.getPlannedAmount()).isEqualTo(500);
+        assertThat(rollup.getItemCount()).isEqualTo(1);
+
+        budgetRollupService.rebuild();
+        assertThat(budgetService.getOrganizerRollup(organizer.getId()).getRollups())
+                .extracting(BudgetRollupDTO::getMonth).containsExactly("2025-05");
+    }
+
+    private Event createEvent(LocalDateTime date) {
+        Budget budget = new Budget();
+        budget.setBudgetItems(new ArrayList<>());
+
+        Event event = new Event();
+        event.setTitle("Rollup Event");
+        event.setAddress(new Address());
+        event.setDate(date);
+        event.setOrganizer(organizer);
+        event.setBudget(budget);
+        return eventRepository.save(event);
+    }
+
+    private CreateBudgetRequestDTO request(double maxAmount) {
+        CreateBudgetRequestDTO request = new CreateBudgetRequestDTO();
+        request.setCategoryId(category.getId());
+        request.setMaxAmount(maxAmount);
+        return request;
+    }
+
+    private Product createProduct(double price) {
+        Product product = new Product();
+        product.setTitle("Menu " + price);
+        product.setDescription("Menu Description");
+        product.setPrice(price);
+        product.setCategory(category);
+        product.setAddress(new Address());
+        product.setAvailable(true);
+        return productRepository.save(product);
+    }
+}
@@ -15,6 +15,7 @@ import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.event.EventRepository;
 import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.services.budget.BudgetService;
+import com.example.eventplanner.services.budget.BudgetRollupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
@@ -46,6 +47,9 @@ public class BudgetServiceTest {
     @Mock
     private MerchandiseRepository merchandiseRepository;
 
+    @Mock
+    private BudgetRollupService budgetRollupService;
+
     @InjectMocks
     private BudgetService budgetService;
 
@@ -0,0 +1,145 @@
+package com.example.eventplanner.catalog;
+
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.services.catalog.CatalogSnapshot;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotServiceTest {
+
+    @Mock
+    private EventTypeRepository eventTypeRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        catalogSnapshotService = new CatalogSnapshotService(eventTypeRepository, categoryRepository,
+                new ObjectMapper(), eventPublisher);
+
+    }
+
+    private void stubCatalog() {
+        Category catering = category(1, "Catering", false);
+        Category music = category(2, "Music", true);
+
+        EventType wedding = eventType(2, "Wedding", true, List.of(catering));
+        EventType party = eventType(1, "Party", false, List.of(catering, music));
+        when(eventTypeRepository.findAllWithCategories()).thenReturn(List.of(wedding, party));
+        when(categoryRepository.findAllApprovedCategories()).thenReturn(List.of(catering));
+        when(categoryRepository.findAll()).thenReturn(List.of(catering, music));
+    }
+
+    @Test
+    @DisplayName("current-ReusedUntilRebuild")
+    @Tag("success")
+    void current_ReusesSnapshot_UntilRebuild() {
+        stubCatalog();
+        CatalogSnapshot first = catalogSnapshotService.current();
+        assertSame(first, catalogSnapshotService.current());
+        verify(eventTypeRepository, times(1)).findAllWithCategories();
+
+        assertEquals(List.of(1, 2), first.eventTypes().stream().map(dto -> dto.getId()).toList());
+        assertEquals(1, first.activeEventTypes().size());
+        assertEquals("Wedding", first.activeEventTypes().get(0).getTitle());
+        assertEquals(1, first.approvedCategories().size());
+        assertEquals(2, first.allCategories().size());
+
+        catalogSnapshotService.onCatalogChanged(new CatalogSnapshotService.CatalogChanged());
+
+        CatalogSnapshot second = catalogSnapshotService.current();
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        assertNotEquals(first.eTag(), second.eTag());
+    }
+
+    @Test
+    @DisplayName("respond-NotModifiedForCurrentETag")
+    @Tag("success")
+    void respond_ServesJson_AndNotModifiedForCurrentETag() throws Exception {
+        stubCatalog();
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(snapshot.approvedCategories())),
+                objectMapper.readTree(snapshot.approvedCategoriesJson()));
+        assertTrue(new String(snapshot.allCategoriesJson(), StandardCharsets.UTF_8).startsWith("{\"categories\":["));
+
+        ResponseEntity<byte[]> fresh = snapshot.respond(snapshot.eventTypesJson(), null);
+        assertEquals(HttpStatus.OK, fresh.getStatusCode());
+        assertEquals(snapshot.eTag(), fresh.getHeaders().getETag());
+        assertArrayEquals(snapshot.eventTypesJson(), fresh.getBody());
+
+        ResponseEntity<byte[]> cached = snapshot.respond(snapshot.eventTypesJson(), snapshot.eTag());
+        assertEquals(HttpStatus.NOT_MODIFIED, cached.getStatusCode());
+        assertNull(cached.getBody());
+    }
+
+    @Test
+    @DisplayName("respond-IfNoneMatchListWeakAndWildcard")
+    @Tag("success")
+    void respond_ListWeakOrWildcard_NotModified() {
+        stubCatalog();
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        byte[] json = snapshot.eventTypesJson();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, snapshot.respond(json, "\"catalog-old\", " + snapshot.eTag()).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, snapshot.respond(json, "W/" + snapshot.eTag()).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, snapshot.respond(json, "*").getStatusCode());
+        assertEquals(HttpStatus.OK, snapshot.respond(json, "\"catalog-old\", W/\"catalog-older\"").getStatusCode());
+    }
+
+    @Test
+    @DisplayName("markChanged-PublishesEvent")
+    @Tag("success")
+    void markChanged_PublishesEvent() {
+        catalogSnapshotService.markChanged();
+
+        verify(eventPublisher).publishEvent(any(CatalogSnapshotService.CatalogChanged.class));
+        verifyNoInteractions(eventTypeRepository);
+    }
+
+    private Category category(int id, String title, boolean pending) {
+        Category category = new Category();
+        category.setId(id);
+        category.setTitle(title);
+        category.setDescription(title + " Description");
+        category.setPending(pending);
+        return category;
+    }
+
+    private EventType eventType(int id, String title, boolean active, List<Category> categories) {
+        EventType eventType = new EventType();
+        eventType.setId(id);
+        eventType.setTitle(title);
+        eventType.setDescription(title + " Description");
+        eventType.setActive(active);
+        eventType.setCategories(categories);
+        return eventType;
+    }
+}
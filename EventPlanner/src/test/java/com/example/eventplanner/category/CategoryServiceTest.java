@@ -0,0 +1,116 @@
+package com.example.eventplanner.category;
+
+import com.example.eventplanner.dto.category.CategoryReplaceResultDTO;
+import com.example.eventplanner.exceptions.CategoryException;
+import com.example.eventplanner.model.common.NotificationType;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.merchandise.MerchandiseState;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.Service;
+import com.example.eventplanner.repositories.budget.BudgetItemRepository;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import com.example.eventplanner.repositories.user.ServiceProviderRepository;
+import com.example.eventplanner.services.catalog.CatalogSnapshotService;
+import com.example.eventplanner.services.category.CategoryService;
+import com.example.eventplanner.services.changelog.ChangeLogRecorder;
+import com.example.eventplanner.services.category.ProviderNotificationDispatcher.ProviderNotice;
+import com.example.eventplanner.services.category.ProviderNotificationDispatcher.ProvidersNotified;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private MerchandiseRepository merchandiseRepository;
+    @Mock
+    private EventTypeRepository eventTypeRepository;
+    @Mock
+    private BudgetItemRepository budgetItemRepository;
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ChangeLogRecorder changeLogRecorder;
+
+    @InjectMocks
+    private CategoryService categoryService;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setId(1);
+        category.setTitle("Catering");
+    }
+
+    @Test
+    @DisplayName("replaceCategory-SetBasedUpdateAndOneNoticePerProvider")
+    @Tag("success")
+    void replaceCategory_SetBasedUpdate_OneNoticePerProvider() {
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsById(2)).thenReturn(true);
+        when(serviceProviderRepository.findProviderMerchandiseByCategory(2)).thenReturn(List.of(
+                new Object[]{7, 10, Product.class},
+                new Object[]{7, 11, Service.class},
+                new Object[]{8, 12, Service.class}));
+        when(merchandiseRepository.moveToCategory(2, category, MerchandiseState.APPROVED)).thenReturn(3);
+
+        CategoryReplaceResultDTO result = categoryService.replaceCategory(1, 2);
+
+        assertEquals(3, result.getUpdatedMerchandise());
+        assertEquals(2, result.getNotifiedProviders());
+        verify(categoryRepository, times(1)).deleteById(2);
+        verify(merchandiseRepository, never()).save(any());
+        verify(merchandiseRepository, never()).findMerchandiseByCategory(anyInt());
+
+        ArgumentCaptor<ProvidersNotified> captor = ArgumentCaptor.forClass(ProvidersNotified.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        List<ProviderNotice> notices = captor.getValue().notices();
+        assertEquals(new ProviderNotice(7, "Admin has updated Category from 2 of your Merchandises",
+                NotificationType.PRODUCT, 10), notices.get(0));
+        assertEquals(new ProviderNotice(8, "Admin has updated Category from one of your Merchandises",
+                NotificationType.SERVICE, 12), notices.get(1));
+    }
+
+    @Test
+    @DisplayName("replaceCategory-NoMerchandise")
+    @Tag("error")
+    void replaceCategory_NoMerchandise_ThrowsWithoutDelete() {
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsById(2)).thenReturn(true);
+        when(serviceProviderRepository.findProviderMerchandiseByCategory(2)).thenReturn(List.of());
+        when(merchandiseRepository.moveToCategory(2, category, MerchandiseState.APPROVED)).thenReturn(0);
+
+        CategoryException exception = assertThrows(CategoryException.class,
+                () -> categoryService.replaceCategory(1, 2));
+
+        assertEquals(CategoryException.ErrorType.MERCHANDISE_NOT_FOUND, exception.getErrorType());
+        verify(categoryRepository, never()).deleteById(anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+}
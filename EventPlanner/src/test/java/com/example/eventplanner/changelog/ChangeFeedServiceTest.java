@@ -0,0 +1,46 @@
+package com.example.eventplanner.changelog;
+
+import com.example.eventplanner.dto.changelog.ChangeFeedDTO;
+import com.example.eventplanner.repositories.changelog.ChangeLogRepository;
+import com.example.eventplanner.services.changelog.ChangeFeedService;
+import com.example.eventplanner.services.clock.Clock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeFeedServiceTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    @DisplayName("getChanges-NumberedWhileReading")
+    @Tag("success")
+    void getChanges_EntriesNumberedAfterLatestRead_CursorStaysBelowThem() {
+        // The sequencer numbers 11 right after the feed read its bound
+        when(changeLogRepository.findLatestSequence()).thenReturn(10L, 11L);
+        when(changeLogRepository.findOldestSequence()).thenReturn(1L);
+        when(changeLogRepository.findFeed(eq(7), eq(5L), eq(10L), any())).thenReturn(List.of());
+
+        ChangeFeedDTO feed = changeFeedService.getChanges(7, 5, 100);
+
+        assertEquals(10, feed.getNextCursor());
+        assertFalse(feed.isHasMore());
+        verify(changeLogRepository, times(1)).findLatestSequence();
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.eventplanner.changelog;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.changelog.ChangeDTO;
+import com.example.eventplanner.dto.changelog.ChangeFeedDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.ChangeLogEntry;
+import com.example.eventplanner.model.common.ChangeLogEntry.EntityType;
+import com.example.eventplanner.model.common.ChangeLogEntry.Operation;
+import com.example.eventplanner.model.common.Notification;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.changelog.ChangeLogRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.notification.NotificationRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.changelog.ChangeFeedService;
+import com.example.eventplanner.services.changelog.ChangeLogSequencer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class ChangeFeedTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private ChangeLogSequencer changeLogSequencer;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String marker;
+    private EventOrganizer organizer;
+    private ServiceProvider provider;
+    private AuthenticatedUser stranger;
+    private Product product;
+    private long cursor;
+
+    @BeforeEach
+    void setUp() {
+        marker = "changes" + System.nanoTime();
+        product = new Product();
+        product.setTitle(marker + " product");
+        product.setAddress(new Address());
+        product = productRepository.save(product);
+
+        organizer = new EventOrganizer();
+        organizer.setUsername(marker + "-organizer@mail.com");
+        organizer.setAddress(new Address());
+        organizer = userRepository.save(organizer);
+        provider = new ServiceProvider();
+        provider.setUsername(marker + "-provider@mail.com");
+        provider.setAddress(new Address());
+        provider.setMerchandise(new ArrayList<>(List.of(product)));
+        provider = userRepository.save(provider);
+        stranger = new AuthenticatedUser();
+        stranger.setUsername(marker + "-stranger@mail.com");
+        stranger.setAddress(new Address());
+        stranger = userRepository.save(stranger);
+
+        cursor = changeLogRepository.findLatestSequence();
+    }
+
+    @Test
+    @DisplayName("getChanges-CreateThenUpdate")
+    @Tag("success")
+    void getChanges_EventCreatedThenUpdated_BothInOrder() {
+        Event event = event(marker + " event");
+        event.setTitle(marker + " renamed");
+        eventRepository.save(event);
+
+        ChangeFeedDTO feed = feed(organizer, cursor, 100);
+
+        assertThat(feed.getChanges()).extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(EntityType.EVENT, event.getId(), Operation.CREATED),
+                        tuple(EntityType.EVENT, event.getId(), Operation.UPDATED));
+        assertThat(feed.isHasMore()).isFalse();
+        assertThat(feed.getNextCursor()).isEqualTo(feed.getChanges().get(1).getSequence());
+        assertThat(feed(organizer, feed.getNextCursor(), 100).getChanges()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getChanges-OneEntryPerTransaction")
+    @Tag("success")
+    void getChanges_CreatedAndUpdatedInOneTransaction_OnlyCreated() {
+        int eventId = new TransactionTemplate(transactionManager).execute(status -> {
+            Event event = event(marker + " event");
+            event.setTitle(marker + " renamed");
+            eventRepository.saveAndFlush(event);
+            return event.getId();
+        });
+
+        assertThat(feed(organizer, cursor, 100).getChanges())
+                .extracting(ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(eventId, Operation.CREATED));
+    }
+
+    @Test
+    @DisplayName("getChanges-SoftDelete")
+    @Tag("success")
+    void getChanges_MerchandiseSoftDeleted_ReportedAsDeleted() {
+        product.setDeleted(true);
+        productRepository.save(product);
+
+        assertThat(feed(provider, cursor, 100).getChanges())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(EntityType.MERCHANDISE, product.getId(), Operation.DELETED));
+    }
+
+    @Test
+    @DisplayName("getChanges-OnlyOwnChanges")
+    @Tag("success")
+    void getChanges_OtherUsersChanges_NotIncludedButSkipped() {
+        event(marker + " event");
+        product.setTitle(marker + " renamed");
+        productRepository.save(product);
+
+        ChangeFeedDTO feed = feed(stranger, cursor, 100);
+
+        assertThat(feed.getChanges()).isEmpty();
+        assertThat(feed.getNextCursor()).isGreaterThan(cursor);
+    }
+
+    @Test
+    @DisplayName("getChanges-FavoritesAndFollows")
+    @Tag("success")
+    void getChanges_FavoritedAndFollowed_OnlyForThatUser() {
+        Event event = event(marker + " event");
+        cursor = changeLogRepository.findLatestSequence();
+
+        post("/api/v1/events/" + event.getId() + "/add-to-favorites/" + stranger.getId());
+        post("/api/v1/merchandise/" + product.getId() + "/add-to-favorites/" + stranger.getId());
+        post("/api/v1/users/follow-event?userId=" + stranger.getId() + "&eventId=" + event.getId());
+
+        assertThat(feed(stranger, cursor, 100).getChanges())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(
+                        tuple(EntityType.FAVORITE_EVENT, event.getId(), Operation.CREATED),
+                        tuple(EntityType.FAVORITE_MERCHANDISE, product.getId(), Operation.CREATED),
+                        tuple(EntityType.FOLLOWED_EVENT, event.getId(), Operation.CREATED));
+        assertThat(feed(organizer, cursor, 100).getChanges()).isEmpty();
+        assertThat(feed(provider, cursor, 100).getChanges()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getChanges-Unfavorite")
+    @Tag("success")
+    void getChanges_FavoriteToggledOff_ReportedAsDeleted() {
+        Event event = event(marker + " event");
+        post("/api/v1/events/" + event.getId() + "/add-to-favorites/" + stranger.getId());
+        post("/api/v1/merchandise/" + product.getId() + "/add-to-favorites/" + stranger.getId());
+        cursor = changeLogRepository.findLatestSequence();
+
+        post("/api/v1/events/" + event.getId() + "/add-to-favorites/" + stranger.getId());
+        post("/api/v1/merchandise/" + product.getId() + "/add-to-favorites/" + stranger.getId());
+
+        assertThat(feed(stranger, cursor, 100).getChanges())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(
+                        tuple(EntityType.FAVORITE_EVENT, event.getId(), Operation.DELETED),
+                        tuple(EntityType.FAVORITE_MERCHANDISE, product.getId(), Operation.DELETED));
+    }
+
+    @Test
+    @DisplayName("getChanges-Paging")
+    @Tag("success")
+    void getChanges_MoreThanLimit_PagesThroughCursor() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findById(stranger.getId()).orElseThrow();
+            List<Notification> notifications = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Notification notification = new Notification();
+                notification.setContent(marker + " " + i);
+                notifications.add(notification);
+            }
+            user.setNotifications(new ArrayList<>(notificationRepository.saveAll(notifications)));
+        });
+
+        List<ChangeDTO> changes = new ArrayList<>();
+        ChangeFeedDTO page = feed(stranger, cursor, 2);
+        changes.addAll(page.getChanges());
+        int pages = 1;
+        while (page.isHasMore()) {
+            page = feed(stranger, page.getNextCursor(), 2);
+            changes.addAll(page.getChanges());
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(changes).hasSize(5).allSatisfy(change -> {
+            assertThat(change.getEntityType()).isEqualTo(EntityType.NOTIFICATION);
+            assertThat(change.getOperation()).isEqualTo(Operation.CREATED);
+        });
+        assertThat(changes).extracting(ChangeDTO::getSequence).isSorted();
+    }
+
+    @Test
+    @DisplayName("getChanges-LateCommit")
+    @Tag("success")
+    void getChanges_LowerIdCommitsLast_StillAfterCursor() throws Exception {
+        Event event = event(marker + " event");
+        long afterCreate = feed(organizer, cursor, 100).getNextCursor();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // An entry that got its id first but commits after the one below
+        Thread slowTransaction = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeLogRepository.saveAndFlush(new ChangeLogEntry(0, null, EntityType.EVENT, event.getId(), null, Operation.UPDATED,
+                    LocalDateTime.now()));
+            inserted.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        slowTransaction.start();
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+        Event other = event(marker + " other");
+
+        ChangeFeedDTO beforeLateCommit = feed(organizer, afterCreate, 100);
+        release.countDown();
+        slowTransaction.join();
+        changeLogSequencer.sequence();
+
+        assertThat(beforeLateCommit.getChanges()).extracting(ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(other.getId(), Operation.CREATED));
+        assertThat(feed(organizer, beforeLateCommit.getNextCursor(), 100).getChanges())
+                .extracting(ChangeDTO::getEntityId, ChangeDTO::getOperation)
+                .containsExactly(tuple(event.getId(), Operation.UPDATED));
+    }
+
+    @Test
+    @DisplayName("prune-OldEntries")
+    @Tag("success")
+    void prune_EntriesPastRetention_Removed() {
+        ChangeLogEntry old = changeLogRepository.save(new ChangeLogEntry(0, null, EntityType.EVENT, 1, null, Operation.UPDATED,
+                LocalDateTime.now().minusDays(365)));
+        Event event = event(marker + " event");
+
+        changeFeedService.prune();
+
+        assertThat(changeLogRepository.findById(old.getId())).isEmpty();
+        assertThat(feed(organizer, cursor, 100).getChanges()).extracting(ChangeDTO::getEntityId)
+                .containsExactly(event.getId());
+    }
+
+    private Event event(String title) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDate(LocalDateTime.now().plusDays(7));
+        event.setAddress(new Address());
+        event.setOrganizer(organizer);
+        return eventRepository.save(event);
+    }
+
+    private void post(String url) {
+        assertThat(restTemplate.postForEntity(url, null, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private ChangeFeedDTO feed(User user, long after, int limit) {
+        ResponseEntity<ChangeFeedDTO> response = restTemplate.getForEntity(
+                "/api/v1/changes?userId=" + user.getId() + "&after=" + after + "&limit=" + limit, ChangeFeedDTO.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().isResyncRequired()).isFalse();
+        return response.getBody();
+    }
+}
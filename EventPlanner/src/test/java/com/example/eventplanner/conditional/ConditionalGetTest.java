@@ -0,0 +1,336 @@
+package com.example.eventplanner.conditional;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.category.CategoryRequestDTO;
+import com.example.eventplanner.dto.common.AddressDTO;
+import com.example.eventplanner.dto.event.CreateActivityDTO;
+import com.example.eventplanner.dto.eventType.UpdateEventTypeDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.common.ReviewTargetType;
+import com.example.eventplanner.model.event.Activity;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.BusinessPhoto;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.ActivityRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.BusinessPhotoRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.category.CategoryService;
+import com.example.eventplanner.services.eventType.EventTypeService;
+import com.example.eventplanner.services.review.ReviewService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class ConditionalGetTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private EventTypeService eventTypeService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private ActivityRepository activityRepository;
+    @Autowired
+    private BusinessPhotoRepository businessPhotoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AuthenticatedUser viewer;
+    private EventOrganizer organizer;
+    private ServiceProvider provider;
+    private Product product;
+    private Review pendingReview;
+    private Event event;
+    private Activity activity;
+
+    @BeforeEach
+    void setUp() {
+        String marker = "etag" + System.nanoTime();
+        viewer = new AuthenticatedUser();
+        viewer.setUsername(marker + "-viewer@mail.com");
+        viewer.setAddress(new Address());
+        viewer.setBlockedUsers(new ArrayList<>());
+        viewer = userRepository.save(viewer);
+
+        Category category = new Category();
+        category.setTitle("ETag Category");
+        pendingReview = new Review();
+        pendingReview.setReviewer(viewer);
+        pendingReview.setRating(5);
+        pendingReview.setStatus(ReviewStatus.PENDING);
+        pendingReview.setTargetType(ReviewTargetType.PRODUCT);
+        pendingReview = reviewRepository.save(pendingReview);
+        product = new Product();
+        product.setTitle(marker + " product");
+        product.setAddress(new Address());
+        product.setCategory(categoryRepository.save(category));
+        product.setVisible(true);
+        product.setAvailable(true);
+        product.setPhotos(new ArrayList<>());
+        product.setEventTypes(new ArrayList<>());
+        product.setReviews(new ArrayList<>(List.of(pendingReview)));
+        product = productRepository.save(product);
+        pendingReview.setTargetId(product.getId());
+        pendingReview = reviewRepository.save(pendingReview);
+
+        provider = new ServiceProvider();
+        provider.setUsername(marker + "-provider@mail.com");
+        provider.setAddress(new Address());
+        provider.setCompany("Etag Ltd");
+        provider.setPhotos(new ArrayList<>());
+        provider.setMerchandise(new ArrayList<>(List.of(product)));
+        provider = userRepository.save(provider);
+
+        organizer = new EventOrganizer();
+        organizer.setUsername(marker + "-organizer@mail.com");
+        organizer.setAddress(new Address());
+        organizer = userRepository.save(organizer);
+        EventType type = new EventType();
+        type.setTitle("ETag Type");
+        type.setActive(true);
+        activity = new Activity();
+        activity.setTitle("Opening");
+        activity.setStartTime(LocalTime.of(18, 0));
+        activity.setEndTime(LocalTime.of(19, 0));
+        activity.setAddress(new Address());
+        activity = activityRepository.save(activity);
+        event = new Event();
+        event.setTitle(marker + " event");
+        event.setDate(LocalDateTime.now().plusDays(10));
+        event.setAddress(new Address());
+        event.setType(eventTypeRepository.save(type));
+        event.setOrganizer(organizer);
+        event.setReviews(new ArrayList<>());
+        event.setActivities(new ArrayList<>(List.of(activity)));
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-NotModified")
+    @Tag("success")
+    void getMerchandiseById_CurrentETag_NotModifiedUntilReviewApproved() {
+        String url = "/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId();
+        ResponseEntity<JsonNode> first = get(url, null);
+        String eTag = first.getHeaders().getETag();
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).startsWith("\"merchandise-" + product.getId() + "-");
+        assertThat(first.getBody().get("reviews")).isEmpty();
+        assertThat(get(url, eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(get(url, "\"other\", W/" + eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        // Approval only touches the review row, the merchandise version is bumped for it
+        reviewService.approveReview(pendingReview.getId());
+        ResponseEntity<JsonNode> afterApproval = get(url, eTag);
+
+        assertThat(afterApproval.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterApproval.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(afterApproval.getBody().get("reviews")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-FieldsInETag")
+    @Tag("success")
+    void getMerchandiseById_DifferentFields_DifferentETag() {
+        String url = "/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId();
+        String full = get(url, null).getHeaders().getETag();
+        String trimmed = get(url + "&fields=title", null).getHeaders().getETag();
+
+        assertThat(trimmed).isNotEqualTo(full);
+        assertThat(get(url + "&fields=title", full).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get(url + "&fields=title", trimmed).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("getDetails-ViewerBlockChangesETag")
+    @Tag("success")
+    void getDetails_ViewerBlocksOrganizer_ETagNoLongerMatches() {
+        String url = "/api/v1/events/" + event.getId() + "/details?userId=" + viewer.getId();
+        String eTag = get(url, null).getHeaders().getETag();
+        assertThat(get(url, eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.findById(viewer.getId()).orElseThrow().getBlockedUsers().add(organizer));
+
+        assertThat(get(url, eTag).getStatusCode()).isNotEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("getDetails-CatalogEditChangesETag")
+    @Tag("success")
+    void getDetails_EventTypeOrCategoryEdited_ETagNoLongerMatches() {
+        String eventUrl = "/api/v1/events/" + event.getId() + "/details?userId=" + viewer.getId();
+        String merchandiseUrl = "/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId();
+        String eventETag = get(eventUrl, null).getHeaders().getETag();
+        String merchandiseETag = get(merchandiseUrl, null).getHeaders().getETag();
+        assertThat(get(eventUrl, eventETag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        // Neither edit touches the event or the product row
+        UpdateEventTypeDTO typeUpdate = new UpdateEventTypeDTO();
+        typeUpdate.setDescription("Renamed in the catalog");
+        typeUpdate.setActive(true);
+        typeUpdate.setRecommendedCategoryIds(List.of());
+        eventTypeService.update(event.getType().getId(), typeUpdate);
+
+        ResponseEntity<JsonNode> eventChanged = get(eventUrl, eventETag);
+        assertThat(eventChanged.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eventChanged.getHeaders().getETag()).isNotEqualTo(eventETag);
+        assertThat(eventChanged.getBody().get("eventType").get("description").asText()).isEqualTo("Renamed in the catalog");
+
+        CategoryRequestDTO categoryUpdate = new CategoryRequestDTO();
+        categoryUpdate.setTitle("ETag Category renamed");
+        categoryService.updateCategory(product.getCategory().getId(), categoryUpdate);
+
+        ResponseEntity<JsonNode> merchandiseChanged = get(merchandiseUrl, merchandiseETag);
+        assertThat(merchandiseChanged.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(merchandiseChanged.getHeaders().getETag()).isNotEqualTo(merchandiseETag);
+        assertThat(merchandiseChanged.getBody().get("category").get("title").asText()).isEqualTo("ETag Category renamed");
+    }
+
+    @Test
+    @DisplayName("getAgenda-ActivityEditChangesETag")
+    @Tag("success")
+    void getAgenda_ActivityEdited_ETagNoLongerMatches() {
+        String url = "/api/v1/events/" + event.getId() + "/agenda";
+        String eTag = get(url, null).getHeaders().getETag();
+        assertThat(get(url, eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        CreateActivityDTO update = new CreateActivityDTO();
+        update.setTitle("Opening speech");
+        update.setStartTime(LocalTime.of(18, 0));
+        update.setEndTime(LocalTime.of(18, 30));
+        update.setAddress(new AddressDTO());
+        restTemplate.put("/api/v1/events/agenda/" + activity.getId(), update);
+
+        ResponseEntity<JsonNode> changed = get(url, eTag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getBody().get(0).get("title").asText()).isEqualTo("Opening speech");
+    }
+
+    @Test
+    @DisplayName("getSpById-PhotoChangesETag")
+    @Tag("success")
+    void getSpById_PhotoAdded_ETagNoLongerMatches() {
+        String url = "/api/v1/users/sp/" + provider.getId();
+        String eTag = get(url, null).getHeaders().getETag();
+        assertThat(get(url, eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        BusinessPhoto photo = new BusinessPhoto();
+        photo.setPhoto("logo.png");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                ((ServiceProvider) userRepository.findById(provider.getId()).orElseThrow()).getPhotos()
+                        .add(businessPhotoRepository.save(photo)));
+
+        ResponseEntity<JsonNode> changed = get(url, eTag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getBody().get("photos")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("getDetails-MissingEvent")
+    @Tag("error")
+    void getDetails_MissingEvent_NoETagUsualError() {
+        ResponseEntity<JsonNode> response = get("/api/v1/events/" + Integer.MAX_VALUE + "/agenda", "*");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    @DisplayName("getStats-NotModifiedRatio")
+    @Tag("success")
+    void getStats_AfterRevalidation_CountsNotModified() {
+        String url = "/api/v1/users/sp/" + provider.getId();
+        long before = stats("SERVICE_PROVIDER").get("notModified").asLong();
+        String eTag = get(url, null).getHeaders().getETag();
+        get(url, eTag);
+
+        JsonNode stats = stats("SERVICE_PROVIDER");
+        assertThat(stats.get("notModified").asLong()).isEqualTo(before + 1);
+        assertThat(stats.get("notModifiedRatio").asDouble()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-NotModifiedBudget")
+    @Tag("budget")
+    void getMerchandiseById_NotModified_OnlyVersionQueries() {
+        String url = "/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId();
+        String eTag = get(url, null).getHeaders().getETag();
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        AtomicReference<ResponseEntity<JsonNode>> response = new AtomicReference<>();
+
+        long statements = statementCounter.count(() -> response.set(get(url, eTag)));
+
+        assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        // The merchandise version and the viewer's version, nothing is loaded
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private ResponseEntity<JsonNode> get(String url, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+    }
+
+    private JsonNode stats(String resource) {
+        for (JsonNode stats : restTemplate.getForObject("/api/v1/conditional-get/stats", JsonNode.class)) {
+            if (stats.get("resource").asText().equals(resource)) {
+                return stats;
+            }
+        }
+        throw new AssertionError("No stats for " + resource);
+    }
+}
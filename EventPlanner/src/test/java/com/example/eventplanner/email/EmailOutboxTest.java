@@ -0,0 +1,204 @@
+package com.example.eventplanner.email;
+
+import com.example.eventplanner.config.FakeSmtpServer;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.email.EmailOutboxStatsDTO;
+import com.example.eventplanner.dto.user.auth.LoginRequestDTO;
+import com.example.eventplanner.dto.user.auth.SetPasswordRequestDTO;
+import com.example.eventplanner.model.common.EmailOutboxMessage;
+import com.example.eventplanner.repositories.email.EmailOutboxRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.AuthenticationService;
+import com.example.eventplanner.services.email.EmailOutboxWorker;
+import com.example.eventplanner.services.email.EmailService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Polling is pushed out of the way, the tests drain the outbox themselves
+@SpringBootTest(properties = {"application.email.outbox.poll-ms=3600000", "application.email.outbox.retry-base-ms=60000"})
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class EmailOutboxTest {
+    private static final FakeSmtpServer SMTP_SERVER;
+
+    static {
+        try {
+            SMTP_SERVER = new FakeSmtpServer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", SMTP_SERVER::getPort);
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        SMTP_SERVER.close();
+    }
+
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        marker = "m" + System.nanoTime();
+    }
+
+    @Test
+    @DisplayName("drain-OneConnectionPerBatch")
+    @Tag("success")
+    void drain_CommittedMails_SentInOneBatch() {
+        int connectionsBefore = SMTP_SERVER.getConnections();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                emailService.sendMail("system@eventplanner.com", marker + i + "@example.com", "Subject " + marker, "<b>Body</b>");
+            }
+        });
+
+        emailOutboxWorker.drain();
+
+        assertThat(SMTP_SERVER.getReceived()).filteredOn(mail -> mail.recipient().startsWith(marker)).hasSize(5);
+        assertThat(SMTP_SERVER.getConnections() - connectionsBefore).isEqualTo(1);
+        assertThat(outboxOf(marker)).allSatisfy(message -> {
+            assertThat(message.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getSentAt()).isNotNull();
+            assertThat(message.getBody()).isNull();
+        });
+        EmailOutboxStatsDTO stats = emailOutboxWorker.getStats();
+        assertThat(stats.getSent()).isGreaterThanOrEqualTo(5);
+        assertThat(stats.getBatches()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("sendMail-RolledBack")
+    @Tag("success")
+    void sendMail_RolledBackTransaction_LeavesNoMail() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendMail("system@eventplanner.com", marker + "@example.com", "Subject", "Body");
+            throw new IllegalStateException("Business change failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        emailOutboxWorker.drain();
+
+        assertThat(outboxOf(marker)).isEmpty();
+        assertThat(SMTP_SERVER.getReceived()).noneMatch(mail -> mail.recipient().startsWith(marker));
+    }
+
+    @Test
+    @DisplayName("drain-RejectedRecipient")
+    @Tag("error")
+    void drain_RejectedRecipient_RetriedWithBackoff() {
+        String rejected = marker + "-rejected@example.com";
+        SMTP_SERVER.reject(rejected);
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendMail("system@eventplanner.com", rejected, "Subject", "Body");
+            emailService.sendMail("system@eventplanner.com", marker + "-ok@example.com", "Subject", "Body");
+        });
+
+        emailOutboxWorker.drain();
+
+        EmailOutboxMessage failed = outboxOf(marker + "-rejected").get(0);
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+        assertThat(outboxOf(marker + "-ok").get(0).getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+
+        // Once the backoff has passed and the server takes the recipient again
+        SMTP_SERVER.accept(rejected);
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(failed);
+        emailOutboxWorker.drain();
+
+        EmailOutboxMessage retried = outboxOf(marker + "-rejected").get(0);
+        assertThat(retried.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+        assertThat(retried.getAttempts()).isEqualTo(2);
+        assertThat(SMTP_SERVER.getReceived()).filteredOn(mail -> mail.recipient().equals(rejected)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("purge-FinishedOlderThanRetention")
+    @Tag("success")
+    void purge_OldSentAndFailed_DeletedPendingKept() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        outboxMessage(marker + "-sent@example.com", EmailOutboxMessage.Status.SENT, old);
+        outboxMessage(marker + "-failed@example.com", EmailOutboxMessage.Status.FAILED, old);
+        outboxMessage(marker + "-pending@example.com", EmailOutboxMessage.Status.PENDING, old);
+        outboxMessage(marker + "-recent@example.com", EmailOutboxMessage.Status.SENT, LocalDateTime.now());
+
+        assertThat(emailOutboxWorker.purge()).isGreaterThanOrEqualTo(2);
+
+        assertThat(outboxOf(marker)).extracting(EmailOutboxMessage::getRecipient)
+                .containsExactlyInAnyOrder(marker + "-pending@example.com", marker + "-recent@example.com");
+    }
+
+    @Test
+    @DisplayName("fastRegister-MailsSetPasswordLink")
+    @Tag("success")
+    void fastRegister_QueuedMail_CarriesLinkNotPassword() {
+        String email = marker + "-fast@example.com";
+        // Read before the commit, the mail is sent and its body dropped right after
+        String token = transactionTemplate.execute(status -> {
+            authenticationService.fastRegister(email);
+            String activationToken = userRepository.findByUsername(email).orElseThrow().getActivationToken();
+            assertThat(outboxOf(email).get(0).getBody()).contains("?token=" + activationToken).doesNotContain("Password:");
+            return activationToken;
+        });
+
+        authenticationService.setPassword(new SetPasswordRequestDTO(token, "chosen-1", "chosen-1"));
+
+        assertThat(authenticationService.authenticate(new LoginRequestDTO(email, "chosen-1")).getAccessToken()).isNotBlank();
+        // The link works once
+        assertThatThrownBy(() -> authenticationService.setPassword(new SetPasswordRequestDTO(token, "again-2", "again-2")))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private void outboxMessage(String recipient, EmailOutboxMessage.Status status, LocalDateTime createdAt) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(recipient);
+        message.setStatus(status);
+        message.setCreatedAt(createdAt);
+        // Far in the future, so a drain running alongside leaves the pending one alone
+        message.setNextAttemptAt(LocalDateTime.now().plusDays(1));
+        emailOutboxRepository.save(message);
+    }
+
+    private List<EmailOutboxMessage> outboxOf(String recipientPrefix) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(message -> message.getRecipient().startsWith(recipientPrefix))
+                .toList();
+    }
+}
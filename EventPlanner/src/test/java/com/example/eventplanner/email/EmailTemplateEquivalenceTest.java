@@ -0,0 +1,114 @@
+package com.example.eventplanner.email;
+
+import com.example.eventplanner.services.email.template.EmailTemplate;
+import com.example.eventplanner.services.email.template.EmailTemplates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The precompiled invitation template renders the same body as the String.format one it replaced
+public class EmailTemplateEquivalenceTest {
+    private static final int INVITATIONS = 100;
+    private static final String LOCATION = "Bulevar oslobodjenja, Novi Sad, 12";
+
+    private static final String FORMAT_BODY = """
+        <html>
+        <body style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; padding: 20px;">
+            <div style="background-color: #f8f9fa; padding: 20px; border-radius: 5px;">
+                <h1 style="color: #333;">You're Invited!</h1>
+                <h2 style="color: #666;">%s</h2>
+
+                <div style="margin: 20px 0;">
+                    <p style="color: #444;">%s</p>
+
+                    <h3 style="color: #555;">Event Details:</h3>
+                    <ul style="list-style: none; padding: 0;">
+                        <li>📅 <strong>Date:</strong> %s</li>
+                        <li>📍 <strong>Location:</strong> %s</li>
+                        <li>👥 <strong>Maximum Participants:</strong> %d</li>
+                        <li>🎯 <strong>Type:</strong> %s</li>
+                    </ul>
+                </div>
+
+                <div style="text-align: center; margin: 30px 0;">
+                    <a href="%s?inviteToken=%s"
+                       style="background-color: #007bff;
+                              color: white;
+                              padding: 12px 24px;
+                              text-decoration: none;
+                              border-radius: 5px;
+                              display: inline-block;">
+                        %s
+                    </a>
+                </div>
+
+                <p style="color: #666; font-size: 0.9em;">
+                    This is an automated invitation. Please do not reply to this email.
+                </p>
+            </div>
+        </body>
+        </html>
+        """;
+
+    private final LocalDateTime date = LocalDateTime.of(2026, 6, 12, 18, 30);
+    private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a");
+
+    @Test
+    @DisplayName("render-InvitationMatchesFormat")
+    @Tag("success")
+    void render_Invitation_SameBodyAsStringFormat() {
+        EmailTemplate template = new EmailTemplates().get(EmailTemplates.EVENT_INVITATION);
+        for (int i = 0; i < INVITATIONS; i++) {
+            assertThat(renderCompiled(template, "Summer Gala " + i, LOCATION, "token" + i))
+                    .isEqualTo(renderFormat("Summer Gala " + i, LOCATION, "token" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("render-InvitationEscaped")
+    @Tag("success")
+    void render_MarkupInTitleAndLocation_Escaped() {
+        EmailTemplate template = new EmailTemplates().get(EmailTemplates.EVENT_INVITATION);
+
+        String rendered = renderCompiled(template, "Rock & Roll <Night>", "\"Club\" Kafana & Bar", "token");
+
+        // The format body pasted values as they were, so it is fed the escaped ones
+        assertThat(rendered).isEqualTo(renderFormat("Rock &amp; Roll &lt;Night&gt;", "&quot;Club&quot; Kafana &amp; Bar", "token"));
+        assertThat(rendered).doesNotContain("<Night>", "\"Club\"", "Rock & Roll");
+    }
+
+    // As the invitation was built before, including the formatter made per call
+    private String renderFormat(String title, String location, String token) {
+        return String.format(FORMAT_BODY,
+                title,
+                "An evening of music and food",
+                date.format(DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a")),
+                location,
+                150,
+                "Gala",
+                "http://localhost:4200",
+                token,
+                "Join Event");
+    }
+
+    private String renderCompiled(EmailTemplate template, String title, String location, String token) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", title);
+        values.put("description", "An evening of music and food");
+        values.put("date", date.format(dateFormat));
+        values.put("location", location);
+        values.put("maxParticipants", 150);
+        values.put("type", "Gala");
+        values.put("applicationLink", "http://localhost:4200");
+        values.put("token", token);
+        values.put("action", "Join Event");
+        return template.render(values);
+    }
+}
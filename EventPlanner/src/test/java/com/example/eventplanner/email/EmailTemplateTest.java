@@ -0,0 +1,76 @@
+package com.example.eventplanner.email;
+
+import com.example.eventplanner.services.email.template.EmailTemplate;
+import com.example.eventplanner.services.email.template.EmailTemplates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmailTemplateTest {
+
+    @Test
+    @DisplayName("render-Slots")
+    @Tag("success")
+    void render_RepeatedAndEscapedSlots_FillsEveryOccurrence() {
+        EmailTemplate template = EmailTemplate.compile("test", "<h1>{{title}}</h1><p>{{ title }} by {{name}}</p>");
+
+        String rendered = template.render(Map.of("title", "Tom & Jerry's <Show>", "name", "\"Ana\""));
+
+        assertThat(template.getSlotNames()).containsExactly("title", "name");
+        assertThat(rendered).isEqualTo("<h1>Tom &amp; Jerry&#39;s &lt;Show&gt;</h1>"
+                + "<p>Tom &amp; Jerry&#39;s &lt;Show&gt; by &quot;Ana&quot;</p>");
+    }
+
+    @Test
+    @DisplayName("render-NullAndNumbers")
+    @Tag("success")
+    void render_NullAndNumberValues_RenderAsText() {
+        EmailTemplate template = EmailTemplate.compile("test", "{{count}} guests{{note}}");
+        Map<String, Object> values = new HashMap<>();
+        values.put("count", 40);
+        values.put("note", null);
+
+        assertThat(template.render(values)).isEqualTo("40 guests");
+        assertThat(EmailTemplate.compile("plain", "no slots").render(Map.of())).isEqualTo("no slots");
+    }
+
+    @Test
+    @DisplayName("render-MissingValue")
+    @Tag("error")
+    void render_MissingValue_Throws() {
+        EmailTemplate template = EmailTemplate.compile("test", "Dear {{name}}");
+
+        assertThatThrownBy(() -> template.render(Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("name");
+    }
+
+    @Test
+    @DisplayName("compile-InvalidSlot")
+    @Tag("error")
+    void compile_UnclosedOrInvalidSlot_Throws() {
+        assertThatThrownBy(() -> EmailTemplate.compile("test", "Dear {{name"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmailTemplate.compile("test", "Dear {{first name}}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("get-BundledTemplates")
+    @Tag("success")
+    void get_BundledTemplates_Compile() {
+        EmailTemplates templates = new EmailTemplates();
+
+        assertThat(templates.get(EmailTemplates.EVENT_INVITATION).getSlotNames()).containsExactly(
+                "title", "description", "date", "location", "maxParticipants", "type", "applicationLink", "token", "action");
+        assertThat(templates.get(EmailTemplates.RESERVATION_CONFIRMATION).getSlotNames())
+                .containsExactly("name", "title", "date", "location");
+        assertThat(templates.get(EmailTemplates.EVENT_INVITATION)).isSameAs(templates.get(EmailTemplates.EVENT_INVITATION));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.eventplanner.event;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.event.BulkInviteJobDTO;
+import com.example.eventplanner.exceptions.EventException;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.EmailOutboxMessage;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.repositories.email.EmailOutboxRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.email.EmailOutboxWorker;
+import com.example.eventplanner.services.event.BulkInviteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class BulkInviteServiceTest {
+    private static final int GUESTS = 1200;
+
+    @Autowired
+    private BulkInviteService bulkInviteService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    // Nothing drains the outbox, sent mails would lose the bodies asserted on below
+    @MockBean
+    private EmailOutboxWorker emailOutboxWorker;
+
+    private String marker;
+    private Event event;
+    private String organizerUsername;
+
+    @BeforeEach
+    void setUp() {
+        marker = "invite" + System.nanoTime();
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername(marker + "-organizer@mail.com");
+        organizer.setAddress(new Address());
+        organizerUsername = userRepository.save(organizer).getUsername();
+        EventType type = new EventType();
+        type.setTitle("Gala");
+        type.setActive(true);
+        Address address = new Address();
+        address.setCity("Novi Sad");
+        address.setStreet("Bulevar");
+        address.setNumber("1");
+        event = new Event();
+        event.setTitle("Gala " + marker);
+        event.setDescription("Dinner & dance");
+        event.setDate(LocalDateTime.now().plusDays(30));
+        event.setAddress(address);
+        event.setType(eventTypeRepository.save(type));
+        event.setOrganizer(organizer);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    @DisplayName("invite-GuestList")
+    @Tag("success")
+    void invite_GuestList_QueuesOneMailPerAddress() throws InterruptedException {
+        AuthenticatedUser registered = new AuthenticatedUser();
+        registered.setUsername(marker + "-0@mail.com");
+        registered.setAddress(new Address());
+        userRepository.save(registered);
+
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            emails.add(marker + "-" + i + "@mail.com");
+        }
+        // Left out: a repeat in another case, a blank entry and a malformed address
+        emails.add(marker.toUpperCase() + "-1@MAIL.COM");
+        emails.add(" ");
+        emails.add("not-an-address");
+
+        BulkInviteJobDTO started = bulkInviteService.invite(event.getId(), organizerUsername, emails);
+        BulkInviteJobDTO finished = awaitFinished(started.getJobId());
+
+        assertThat(started.getTotal()).isEqualTo(GUESTS);
+        assertThat(started.getSkipped()).isEqualTo(3);
+        assertThat(finished.getStatus()).isEqualTo(BulkInviteService.Status.COMPLETED.name());
+        assertThat(finished.getProcessed()).isEqualTo(GUESTS);
+        assertThat(finished.getExistingUsers()).isEqualTo(1);
+        assertThat(finished.getFinishedAt()).isNotNull();
+
+        List<EmailOutboxMessage> queued = emailOutboxRepository.findAll().stream()
+                .filter(message -> message.getRecipient().startsWith(marker))
+                .toList();
+        assertThat(queued).hasSize(GUESTS);
+        assertThat(queued).filteredOn(message -> message.getRecipient().equals(marker + "-0@mail.com"))
+                .singleElement()
+                .satisfies(message -> {
+                    assertThat(message.getSubject()).isEqualTo("Invitation to Gala " + marker);
+                    assertThat(message.getBody()).contains("Dinner &amp; dance", "Join Event", "inviteToken=");
+                });
+        assertThat(queued).filteredOn(message -> message.getRecipient().equals(marker + "-1@mail.com"))
+                .singleElement()
+                .satisfies(message -> assertThat(message.getBody()).contains("Register &amp; Join Event"));
+    }
+
+    @Test
+    @DisplayName("invite-InvalidRequests")
+    @Tag("error")
+    void invite_UnknownEventOrNoAddresses_Throws() {
+        assertThatThrownBy(() -> bulkInviteService.invite(Integer.MAX_VALUE, organizerUsername, List.of("a@mail.com")))
+                .isInstanceOf(EventException.class)
+                .extracting("errorType").isEqualTo(EventException.ErrorType.EVENT_NOT_FOUND);
+        assertThatThrownBy(() -> bulkInviteService.invite(event.getId(), organizerUsername, List.of("nope", "")))
+                .isInstanceOf(EventException.class)
+                .extracting("errorType").isEqualTo(EventException.ErrorType.INVALID_INVITE_LIST);
+        assertThatThrownBy(() -> bulkInviteService.getJob("missing"))
+                .isInstanceOf(EventException.class)
+                .extracting("errorType").isEqualTo(EventException.ErrorType.INVITE_JOB_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("invite-NotOrganizer")
+    @Tag("error")
+    void invite_OtherUserOrAnonymous_Forbidden() {
+        assertThatThrownBy(() -> bulkInviteService.invite(event.getId(), marker + "-other@mail.com", List.of("a@mail.com")))
+                .isInstanceOf(EventException.class)
+                .extracting("errorType").isEqualTo(EventException.ErrorType.NOT_EVENT_ORGANIZER);
+        assertThatThrownBy(() -> bulkInviteService.invite(event.getId(), null, List.of("a@mail.com")))
+                .isInstanceOf(EventException.class)
+                .extracting("errorType").isEqualTo(EventException.ErrorType.NOT_EVENT_ORGANIZER);
+    }
+
+    private BulkInviteJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        BulkInviteJobDTO job = bulkInviteService.getJob(jobId);
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = bulkInviteService.getJob(jobId);
+        }
+        return job;
+    }
+}
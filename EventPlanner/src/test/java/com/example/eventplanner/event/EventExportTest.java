@@ -0,0 +1,245 @@
+package com.example.eventplanner.event;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.common.ReviewTargetType;
+import com.example.eventplanner.model.event.*;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.budget.BudgetItemRepository;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.JwtService;
+import com.example.eventplanner.services.event.EventExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class EventExportTest {
+    private static final int PARTICIPANTS = 1200;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EventExportService eventExportService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private BudgetItemRepository budgetItemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtService jwtService;
+
+    private Event event;
+    private String organizerToken;
+    private String otherUserToken;
+
+    @BeforeEach
+    void setUp() {
+        String marker = "export" + System.nanoTime();
+        List<User> participants = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            AuthenticatedUser user = new AuthenticatedUser();
+            user.setUsername(marker + "-" + i + "@mail.com");
+            user.setName(i == 0 ? "Ana, \"Anči\"" : i == 1 ? "=1+2" : "Guest");
+            user.setSurname("No " + i);
+            user.setAddress(new Address());
+            participants.add(user);
+        }
+        participants = userRepository.saveAll(participants);
+
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Review review = new Review();
+            review.setComment("Review " + i);
+            review.setRating(i + 1);
+            review.setStatus(i == 3 ? ReviewStatus.PENDING : ReviewStatus.APPROVED);
+            review.setReviewer(participants.get(i));
+            review.setCreatedAt(LocalDateTime.of(2026, 5, 1, 20, 0));
+            review.setTargetType(ReviewTargetType.EVENT);
+            reviews.add(review);
+        }
+
+        Category category = new Category();
+        category.setTitle("Catering");
+        category = categoryRepository.save(category);
+        List<BudgetItem> budgetItems = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            BudgetItem item = new BudgetItem();
+            item.setCategory(category);
+            item.setMaxAmount(1000 * (i + 1));
+            item.setAmountSpent(250);
+            budgetItems.add(item);
+        }
+        Budget budget = new Budget();
+        budget.setBudgetItems(budgetItemRepository.saveAll(budgetItems));
+
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername(marker + "-organizer@mail.com");
+        organizer.setAddress(new Address());
+        organizerToken = jwtService.generateAccessToken(userRepository.save(organizer));
+        otherUserToken = jwtService.generateAccessToken(participants.get(0));
+
+        EventType type = new EventType();
+        type.setTitle("Festival");
+        type.setActive(true);
+        event = new Event();
+        event.setTitle("Festival " + marker);
+        event.setDate(LocalDateTime.now().plusDays(30));
+        event.setAddress(new Address());
+        event.setType(eventTypeRepository.save(type));
+        event.setParticipants(participants);
+        event.setReviews(reviewRepository.saveAll(reviews));
+        event.setBudget(budget);
+        event.setOrganizer(organizer);
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    @DisplayName("exportEvent-ParticipantsCsv")
+    @Tag("success")
+    void exportEvent_ParticipantsCsv_OneLinePerParticipant() {
+        ResponseEntity<String> response = get(
+                "/api/v1/events/" + event.getId() + "/export/participants", organizerToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .contains("event-" + event.getId() + "-participants.csv");
+        String[] lines = response.getBody().split("\r\n");
+        assertThat(lines).hasSize(PARTICIPANTS + 1);
+        assertThat(lines[0]).isEqualTo("id,email,firstName,lastName,role");
+        // Commas and quotes are quoted, formulas are defused, the rest goes out as is
+        assertThat(lines[1]).contains(",\"Ana, \"\"Anči\"\"\",No 0,");
+        assertThat(lines[2]).contains(",'=1+2,No 1,");
+        assertThat(lines[PARTICIPANTS]).contains(",Guest,No " + (PARTICIPANTS - 1) + ",");
+    }
+
+    @Test
+    @DisplayName("exportEvent-ReviewsNdjson")
+    @Tag("success")
+    void exportEvent_ReviewsNdjson_ApprovedOnly() throws IOException {
+        ResponseEntity<String> response = get(
+                "/api/v1/events/" + event.getId() + "/export/reviews?format=ndjson", organizerToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        String[] lines = response.getBody().split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("comment").asText()).isEqualTo("Review 0");
+        assertThat(first.get("rating").asInt()).isEqualTo(1);
+        assertThat(first.get("reviewer").asText()).endsWith("-0@mail.com");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2026-05-01T20:00:00");
+    }
+
+    @Test
+    @DisplayName("exportEvent-BudgetCsv")
+    @Tag("success")
+    void exportEvent_BudgetCsv_OneLinePerItem() {
+        ResponseEntity<String> response = get(
+                "/api/v1/events/" + event.getId() + "/export/budget?format=csv", organizerToken);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().split("\r\n")).hasSize(3)
+                .contains("id,category,merchandise,maxAmount,amountSpent")
+                .anySatisfy(line -> assertThat(line).endsWith(",Catering,,2000.0,250.0"));
+    }
+
+    @Test
+    @DisplayName("exportEvent-InvalidRequests")
+    @Tag("error")
+    void exportEvent_UnknownSectionFormatOrEvent_Rejected() {
+        assertThat(get("/api/v1/events/" + event.getId() + "/export/photos", organizerToken)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(get("/api/v1/events/" + event.getId() + "/export/reviews?format=xml", organizerToken)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(get("/api/v1/events/" + Integer.MAX_VALUE + "/export/reviews", organizerToken)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("exportEvent-NotOrganizer")
+    @Tag("error")
+    void exportEvent_OtherUserOrAnonymous_Forbidden() {
+        String url = "/api/v1/events/" + event.getId() + "/export/participants";
+        assertThat(get(url, otherUserToken).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(get(url, null).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        // Turned away by the token filter before it gets to the check
+        assertThat(get(url, "not-a-token").getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("export-SingleCursor")
+    @Tag("budget")
+    void export_Participants_ReadsThroughOneQuery() {
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] rows = new long[1];
+
+        long statements = statementCounter.count(() -> {
+            try {
+                rows[0] = eventExportService.export(event.getId(), EventExportService.Section.PARTICIPANTS,
+                        EventExportService.Format.NDJSON, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(rows[0]).isEqualTo(PARTICIPANTS);
+        assertThat(out.toString().lines()).hasSize(PARTICIPANTS);
+    }
+
+    private ResponseEntity<String> get(String url, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -19,6 +19,7 @@ import com.example.eventplanner.repositories.user.EventOrganizerRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
 import com.example.eventplanner.services.event.EventService;
 import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.budget.BudgetRollupService;
 import org.hibernate.sql.Update;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -69,6 +70,9 @@ class EventServiceTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Mock
+    private BudgetRollupService budgetRollupService;
+
     @InjectMocks
     private EventService eventService;
 
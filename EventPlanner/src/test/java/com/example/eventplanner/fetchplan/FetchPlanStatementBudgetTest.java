@@ -0,0 +1,247 @@
+package com.example.eventplanner.fetchplan;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.MerchandisePhoto;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.merchandise.Service;
+import com.example.eventplanner.model.merchandise.Timeslot;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandisePhotoRepository;
+import com.example.eventplanner.repositories.merchandise.ServiceRepository;
+import com.example.eventplanner.repositories.merchandise.TimeslotRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every endpoint gets a fixed statement budget that does not grow with the number of rows it returns
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class FetchPlanStatementBudgetTest {
+    private static final int ROWS = 20;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private MerchandisePhotoRepository merchandisePhotoRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private TimeslotRepository timeslotRepository;
+    @Autowired
+    private ServiceRepository serviceRepository;
+    @Autowired
+    private EventRepository eventRepository;
+
+    private StatementCounter statementCounter;
+    private AuthenticatedUser viewer;
+    private ServiceProvider provider;
+    private Service detailed;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory);
+
+        viewer = new AuthenticatedUser();
+        viewer.setUsername("viewer" + System.nanoTime() + "@mail.com");
+        viewer.setAddress(new Address());
+        viewer = userRepository.save(viewer);
+
+        List<AuthenticatedUser> reviewers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            AuthenticatedUser reviewer = new AuthenticatedUser();
+            reviewer.setUsername("reviewer" + System.nanoTime() + "-" + i + "@mail.com");
+            reviewer.setAddress(new Address());
+            reviewers.add(userRepository.save(reviewer));
+        }
+
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername("organizer" + System.nanoTime() + "@mail.com");
+        organizer.setAddress(new Address());
+        organizer = userRepository.save(organizer);
+
+        Category category = new Category();
+        category.setTitle("Fetch Plan Category");
+        category.setDescription("Fetch Plan Category");
+        category = categoryRepository.save(category);
+
+        List<EventType> eventTypes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            EventType eventType = new EventType();
+            eventType.setTitle("Fetch Plan Type " + i);
+            eventType.setActive(true);
+            eventType.setCategories(new ArrayList<>(List.of(category)));
+            eventTypes.add(eventTypeRepository.save(eventType));
+        }
+
+        List<Event> events = new ArrayList<>();
+        List<Service> services = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Event event = new Event();
+            event.setTitle("Fetch Plan Event " + i);
+            event.setAddress(new Address());
+            event.setDate(LocalDateTime.now().plusDays(30 + i));
+            event.setPublic(true);
+            EventType eventType = new EventType();
+            eventType.setTitle("Fetch Plan Event Type " + i);
+            eventType.setActive(true);
+            eventType.setCategories(new ArrayList<>());
+            event.setType(eventTypeRepository.save(eventType));
+            event.setOrganizer(organizer);
+            events.add(eventRepository.save(event));
+
+            Service service = new Service();
+            service.setTitle("Fetch Plan Service " + i);
+            service.setAddress(new Address());
+            service.setCategory(category);
+            service.setVisible(true);
+            service.setAvailable(true);
+            service.setPrice(100 + i);
+            service.setEventTypes(new ArrayList<>(eventTypes));
+            service.setPhotos(new ArrayList<>(List.of(photo(i, 0), photo(i, 1))));
+            List<Review> reviews = new ArrayList<>();
+            for (AuthenticatedUser reviewer : reviewers) {
+                Review review = new Review();
+                review.setReviewer(reviewer);
+                review.setRating(4);
+                review.setComment("Fine");
+                review.setStatus(ReviewStatus.APPROVED);
+                reviews.add(reviewRepository.save(review));
+            }
+            service.setReviews(reviews);
+            Timeslot timeslot = new Timeslot(LocalDateTime.now().plusDays(30 + i),
+                    LocalDateTime.now().plusDays(30 + i).plusHours(2), events.get(i));
+            service.setTimeslots(new ArrayList<>(List.of(timeslotRepository.save(timeslot))));
+            services.add(serviceRepository.save(service));
+        }
+        detailed = services.get(0);
+
+        provider = new ServiceProvider();
+        provider.setUsername("provider" + System.nanoTime() + "@mail.com");
+        provider.setAddress(new Address());
+        provider.setMerchandise(new ArrayList<>(services));
+        provider = userRepository.save(provider);
+    }
+
+    @Test
+    @DisplayName("serviceSearch-StatementBudget")
+    @Tag("budget")
+    void serviceSearch_StaysWithinStatementBudget() {
+        assertWithinBudget("/api/v1/services/search?userId=" + viewer.getId() + "&size=" + ROWS, 4);
+    }
+
+    @Test
+    @DisplayName("serviceSearch-ProjectedOverview")
+    @Tag("success")
+    void serviceSearch_ProjectsRatingAndFirstPhoto() {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/v1/services/search?userId=" + viewer.getId() + "&size=" + ROWS + "&sort=id,desc", JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        // The newest services are the ones set up for this test, the detailed one was saved first
+        JsonNode first = response.getBody().get("content").get(ROWS - 1);
+        assertThat(first.get("id").asInt()).isEqualTo(detailed.getId());
+        assertThat(first.get("category").asText()).isEqualTo("Fetch Plan Category");
+        assertThat(first.get("type").asText()).isEqualTo("Service");
+        assertThat(first.get("rating").asDouble()).isEqualTo(4.0);
+        assertThat(first.get("photos")).hasSize(1);
+        assertThat(first.get("photos").get(0).get("photo").asText()).isEqualTo("fetch-plan-0-0.jpg");
+    }
+
+    @Test
+    @DisplayName("serviceSearch-SliceSkipsCount")
+    @Tag("budget")
+    void serviceSearchSlice_SkipsCountQuery() {
+        assertWithinBudget("/api/v1/services/search?userId=" + viewer.getId() + "&size=" + ROWS + "&slice=true", 3);
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/v1/services/search?userId=" + viewer.getId() + "&size=5&slice=true", JsonNode.class);
+        assertThat(response.getBody().get("content")).hasSize(5);
+        assertThat(response.getBody().get("last").asBoolean()).isFalse();
+        assertThat(response.getBody().has("totalElements")).isFalse();
+    }
+
+    @Test
+    @DisplayName("serviceSearchCount-Memoized")
+    @Tag("budget")
+    void serviceSearchCount_SecondCallHitsCache() {
+        String url = "/api/v1/services/search/count?userId=" + viewer.getId() + "&search=Fetch Plan Service";
+        Long total = restTemplate.getForObject(url, Long.class);
+        assertThat(total).isGreaterThanOrEqualTo(ROWS);
+
+        assertWithinBudget(url.replace("Fetch Plan Service", "fetch plan service"), 2);
+    }
+
+    @Test
+    @DisplayName("eventSearch-StatementBudget")
+    @Tag("budget")
+    void eventSearch_StaysWithinStatementBudget() {
+        assertWithinBudget("/api/v1/events/search?userId=" + viewer.getId() + "&size=" + ROWS, 4);
+    }
+
+    @Test
+    @DisplayName("merchandiseDetails-StatementBudget")
+    @Tag("budget")
+    void merchandiseDetails_StaysWithinStatementBudget() {
+        assertWithinBudget("/api/v1/merchandise/" + detailed.getId() + "?userId=" + viewer.getId(), 8);
+    }
+
+    @Test
+    @DisplayName("timeslotCalendar-StatementBudget")
+    @Tag("budget")
+    void timeslotCalendar_StaysWithinStatementBudget() {
+        assertWithinBudget("/api/v1/services/timeslots/" + provider.getId(), 4);
+    }
+
+    private void assertWithinBudget(String url, long budget) {
+        AtomicReference<ResponseEntity<String>> response = new AtomicReference<>();
+        long statements = statementCounter.count(() -> response.set(restTemplate.getForEntity(url, String.class)));
+
+        assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statements).as("statements for %s", url).isLessThanOrEqualTo(budget);
+    }
+
+    private MerchandisePhoto photo(int service, int index) {
+        MerchandisePhoto photo = new MerchandisePhoto();
+        photo.setPhoto("fetch-plan-" + service + "-" + index + ".jpg");
+        return merchandisePhotoRepository.save(photo);
+    }
+}
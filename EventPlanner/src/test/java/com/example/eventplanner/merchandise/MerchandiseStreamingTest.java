@@ -0,0 +1,164 @@
+package com.example.eventplanner.merchandise;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.category.GetAllByCategoriesDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.Service;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.merchandise.ServiceRepository;
+import com.example.eventplanner.services.merchandise.ProductService;
+import com.example.eventplanner.services.streaming.JsonArrayStreamer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class MerchandiseStreamingTest {
+    private static final int PRODUCTS = 600;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ServiceRepository serviceRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String marker;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        marker = "stream" + System.nanoTime();
+        category = new Category();
+        category.setTitle("Category " + marker);
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setTitle(marker + " product " + i);
+            product.setAddress(new Address());
+            product.setCategory(category);
+            product.setVisible(true);
+            product.setAvailable(true);
+            product.setPrice(10 + i);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+
+        Service service = new Service();
+        service.setTitle(marker + " service");
+        service.setAddress(new Address());
+        service.setCategory(category);
+        service.setAvailable(true);
+        serviceRepository.save(service);
+    }
+
+    @Test
+    @DisplayName("getAll-StreamedArray")
+    @Tag("success")
+    void getAll_Products_StreamedAsOneArray() {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/api/v1/products", JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(response.getBody().isArray()).isTrue();
+        List<JsonNode> ours = ofMarker(response.getBody());
+        assertThat(ours).hasSize(PRODUCTS);
+        assertThat(ours.get(0).get("category").asText()).isEqualTo("Category " + marker);
+        assertThat(ours.get(0).get("type").asText()).isEqualTo("Product");
+    }
+
+    @Test
+    @DisplayName("getAllByCategories-StreamedArray")
+    @Tag("success")
+    void getAllByCategories_ProductsAndServices_OnlyThatCategory() {
+        GetAllByCategoriesDTO request = new GetAllByCategoriesDTO();
+        request.setCategories(List.of(category.getId()));
+
+        JsonNode products = restTemplate.postForObject("/api/v1/products/get-by-categories", request, JsonNode.class);
+        JsonNode services = restTemplate.postForObject("/api/v1/services/get-by-categories", request, JsonNode.class);
+
+        assertThat(products).hasSize(PRODUCTS);
+        assertThat(services).hasSize(1);
+        assertThat(services.get(0).get("title").asText()).isEqualTo(marker + " service");
+
+        request.setCategories(List.of(Integer.MAX_VALUE));
+        assertThat(restTemplate.postForObject("/api/v1/products/get-by-categories", request, JsonNode.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("write-SingleCursor")
+    @Tag("budget")
+    void write_AllProducts_ReadsThroughOneQuery() throws IOException {
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] written = new long[1];
+
+        long statements = statementCounter.count(() -> {
+            try {
+                written[0] = jsonArrayStreamer.write(() -> productService.streamAllByCategories(List.of(category.getId())), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(written[0]).isEqualTo(PRODUCTS);
+        assertThat(objectMapper.readTree(out.toByteArray())).hasSize(PRODUCTS);
+    }
+
+    @Test
+    @DisplayName("write-Empty")
+    @Tag("success")
+    void write_EmptyStream_WritesEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(jsonArrayStreamer.write(Stream::empty, out)).isZero();
+        assertThat(out.toString()).isEqualTo("[]");
+    }
+
+    private List<JsonNode> ofMarker(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false)
+                .filter(node -> node.get("title").asText().startsWith(marker))
+                .toList();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.eventplanner.merchandise;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.MerchandisePhoto;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandisePhotoRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class SparseFieldsTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MerchandisePhotoRepository merchandisePhotoRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String marker;
+    private AuthenticatedUser viewer;
+    private Product product;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        marker = "fields" + System.nanoTime();
+        viewer = new AuthenticatedUser();
+        viewer.setUsername(marker + "@mail.com");
+        viewer.setAddress(new Address());
+        viewer = userRepository.save(viewer);
+
+        Category category = new Category();
+        category.setTitle("Fields Category");
+        category = categoryRepository.save(category);
+
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Review review = new Review();
+            review.setReviewer(viewer);
+            review.setRating(3 + i % 3);
+            review.setStatus(ReviewStatus.APPROVED);
+            reviews.add(review);
+        }
+        MerchandisePhoto photo = new MerchandisePhoto();
+        photo.setPhoto(marker + ".jpg");
+        product = new Product();
+        product.setTitle(marker + " product");
+        product.setDescription("Long description that nobody asked for");
+        product.setPrice(120);
+        product.setAddress(new Address());
+        product.setCategory(category);
+        product.setVisible(true);
+        product.setAvailable(true);
+        product.setEventTypes(new ArrayList<>());
+        product.setPhotos(new ArrayList<>(List.of(merchandisePhotoRepository.save(photo))));
+        product.setReviews(reviewRepository.saveAll(reviews));
+        product = productRepository.save(product);
+
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername(marker + "-organizer@mail.com");
+        organizer.setAddress(new Address());
+        EventType type = new EventType();
+        type.setTitle("Fields Type");
+        type.setActive(true);
+        event = new Event();
+        event.setTitle(marker + " event");
+        event.setDescription("Event description");
+        event.setDate(LocalDateTime.now().plusDays(7));
+        event.setAddress(new Address());
+        event.setType(eventTypeRepository.save(type));
+        event.setOrganizer(userRepository.save(organizer));
+        event.setMerchandise(new ArrayList<>(List.of(product)));
+        event = eventRepository.save(event);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-OnlyRequestedFields")
+    @Tag("success")
+    void getMerchandiseById_TitleAndPrice_OnlyThoseAndId() {
+        JsonNode body = get("/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId() + "&fields=title,price,nope");
+
+        assertThat(fieldNames(body)).containsExactlyInAnyOrder("id", "title", "price");
+        assertThat(body.get("title").asText()).isEqualTo(product.getTitle());
+        assertThat(body.get("price").asDouble()).isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-AllFieldsByDefault")
+    @Tag("success")
+    void getMerchandiseById_NoFields_EverythingIncluded() {
+        JsonNode body = get("/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId());
+
+        assertThat(fieldNames(body)).contains("id", "title", "description", "category", "merchandisePhotos",
+                "reviews", "rating", "eventTypes");
+        assertThat(body.get("reviews")).hasSize(3);
+        assertThat(body.get("merchandisePhotos")).hasSize(1);
+        assertThat(body.get("rating").asDouble()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("searchProducts-OnlyRequestedFields")
+    @Tag("success")
+    void searchProducts_TitleOnly_ContentTrimmedPageKept() {
+        JsonNode body = get("/api/v1/products/search?userId=" + viewer.getId() + "&search=" + marker + "&fields=title,rating");
+
+        assertThat(body.get("content")).hasSize(1);
+        JsonNode overview = body.get("content").get(0);
+        assertThat(fieldNames(overview)).containsExactlyInAnyOrder("id", "title", "rating");
+        assertThat(overview.get("rating").asDouble()).isEqualTo(4.0);
+        // Only the overview DTOs are trimmed, the page around them keeps its totals
+        assertThat(body.has("totalElements")).isTrue();
+    }
+
+    @Test
+    @DisplayName("getEventById-OnlyRequestedFields")
+    @Tag("success")
+    void getEventById_TitleOnly_NoMerchandise() {
+        JsonNode trimmed = get("/api/v1/events/" + event.getId() + "?fields=title");
+        JsonNode full = get("/api/v1/events/" + event.getId());
+
+        assertThat(fieldNames(trimmed)).containsExactlyInAnyOrder("id", "title");
+        assertThat(full.get("products")).hasSize(1);
+        assertThat(full.get("description").asText()).isEqualTo("Event description");
+    }
+
+    @Test
+    @DisplayName("getMerchandiseById-FewerStatements")
+    @Tag("budget")
+    void getMerchandiseById_ScalarFields_SkipsAssociations() {
+        String url = "/api/v1/merchandise/" + product.getId() + "?userId=" + viewer.getId();
+
+        long full = statements(url);
+        long trimmed = statements(url + "&fields=title,price");
+
+        assertThat(trimmed).as("statements with fields=title,price").isLessThan(full);
+    }
+
+    private long statements(String url) {
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        AtomicReference<ResponseEntity<JsonNode>> response = new AtomicReference<>();
+        long statements = statementCounter.count(() -> response.set(restTemplate.getForEntity(url, JsonNode.class)));
+        assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        return statements;
+    }
+
+    private JsonNode get(String url) {
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(url, JsonNode.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
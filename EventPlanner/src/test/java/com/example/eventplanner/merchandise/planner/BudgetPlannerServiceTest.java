@@ -0,0 +1,160 @@
+package com.example.eventplanner.merchandise.planner;
+
+import com.example.eventplanner.dto.merchandise.plan.BudgetPlanDTO;
+import com.example.eventplanner.dto.merchandise.plan.BudgetPlanItemDTO;
+import com.example.eventplanner.exceptions.EventException;
+import com.example.eventplanner.model.event.Budget;
+import com.example.eventplanner.model.event.BudgetItem;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.model.merchandise.Service;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import com.example.eventplanner.services.merchandise.BudgetPlannerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BudgetPlannerServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private MerchandiseRepository merchandiseRepository;
+
+    @InjectMocks
+    private BudgetPlannerService budgetPlannerService;
+
+    private Event event;
+    private Budget budget;
+    private Category catering;
+    private Category music;
+
+    @BeforeEach
+    void setUp() {
+        catering = new Category();
+        catering.setId(1);
+        catering.setTitle("Catering");
+
+        music = new Category();
+        music.setId(2);
+        music.setTitle("Music");
+
+        budget = new Budget();
+        budget.setBudgetId(1);
+        budget.setBudgetItems(new ArrayList<>());
+
+        event = new Event();
+        event.setId(1);
+        event.setBudget(budget);
+        lenient().when(eventRepository.findById(1)).thenReturn(Optional.of(event));
+    }
+
+    @Test
+    @DisplayName("planForEvent-BestRatedWithinCategoryCap")
+    @Tag("success")
+    void planForEvent_CategoryCap_PicksBestRatedAffordable() {
+        addBudgetItem(1, catering, 1000, 0);
+        when(merchandiseRepository.findPlanningCandidates(anyCollection())).thenReturn(List.of(
+                candidate(10, catering, 800, 4),
+                candidate(11, catering, 1200, 5),
+                candidate(12, catering, 500, 3)
+        ));
+
+        BudgetPlanDTO plan = budgetPlannerService.planForEvent(1);
+
+        assertEquals(1, plan.getItems().size());
+        assertEquals(10, plan.getItems().get(0).getMerchandiseId());
+        assertEquals(800, plan.getTotalPrice());
+        assertTrue(plan.isOptimal());
+    }
+
+    @Test
+    @DisplayName("planForEvent-MaxBudgetTradeOff")
+    @Tag("success")
+    void planForEvent_EventMaxBudget_FindsBestCombination() {
+        event.setMaxBudget(1200);
+        addBudgetItem(1, catering, 1000, 0);
+        addBudgetItem(2, music, 1000, 0);
+        when(merchandiseRepository.findPlanningCandidates(anyCollection())).thenReturn(List.of(
+                candidate(10, catering, 800, 5),
+                candidate(11, catering, 300, 3),
+                candidate(20, music, 700, 4.5),
+                candidate(21, music, 350, 2)
+        ));
+
+        BudgetPlanDTO plan = budgetPlannerService.planForEvent(1);
+
+        // Taking the best caterer first only leaves room for the weakest band
+        assertEquals(List.of(11, 20), plan.getItems().stream().map(BudgetPlanItemDTO::getMerchandiseId).sorted().toList());
+        assertEquals(1000, plan.getTotalPrice());
+        assertEquals(7.5, plan.getTotalRating());
+    }
+
+    @Test
+    @DisplayName("planForEvent-SameCategoryItemsGetDifferentMerchandise")
+    @Tag("success")
+    void planForEvent_TwoItemsInCategory_DoesNotReuseMerchandise() {
+        addBudgetItem(1, catering, 1000, 0);
+        addBudgetItem(2, catering, 1000, 0);
+        when(merchandiseRepository.findPlanningCandidates(anyCollection())).thenReturn(List.of(
+                candidate(10, catering, 300, 5),
+                candidate(11, catering, 900, 4)
+        ));
+
+        BudgetPlanDTO plan = budgetPlannerService.planForEvent(1);
+
+        assertEquals(List.of(10, 11), plan.getItems().stream().map(BudgetPlanItemDTO::getMerchandiseId).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("planForEvent-SkipsBoughtItems")
+    @Tag("success")
+    void planForEvent_ItemAlreadyBought_NotPlanned() {
+        BudgetItem bought = addBudgetItem(1, catering, 1000, 800);
+        bought.setMerchandise(new Product());
+
+        BudgetPlanDTO plan = budgetPlannerService.planForEvent(1);
+
+        assertTrue(plan.getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("planForEvent-InvalidEventId")
+    @Tag("not-found")
+    void planForEvent_InvalidEventId_ThrowsException() {
+        EventException exception = assertThrows(EventException.class, () -> budgetPlannerService.planForEvent(99));
+
+        assertEquals(EventException.ErrorType.EVENT_NOT_FOUND, exception.getErrorType());
+    }
+
+    private BudgetItem addBudgetItem(int id, Category category, double maxAmount, double amountSpent) {
+        BudgetItem budgetItem = new BudgetItem();
+        budgetItem.setId(id);
+        budgetItem.setCategory(category);
+        budgetItem.setMaxAmount(maxAmount);
+        budgetItem.setAmountSpent(amountSpent);
+        budget.getBudgetItems().add(budgetItem);
+        return budgetItem;
+    }
+
+    private Object[] candidate(int id, Category category, double price, double rating) {
+        return new Object[]{id, category.getId(), "Merchandise " + id, Service.class, price, rating};
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.eventplanner.merchandise.reserveservice;
 
 import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Review;
 import com.example.eventplanner.model.event.Budget;
 import com.example.eventplanner.model.event.Category;
 import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
 import com.example.eventplanner.model.merchandise.Service;
 import com.example.eventplanner.model.merchandise.Timeslot;
 import com.example.eventplanner.repositories.category.CategoryRepository;
 import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
 import com.example.eventplanner.repositories.merchandise.ServiceRepository;
 import com.example.eventplanner.repositories.merchandise.TimeslotRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +22,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +49,10 @@ class ServiceRepositoryTest {
     private Event event;
     @Autowired
     private EventRepository eventRepository;
+    @Autowired
+    private MerchandiseRepository merchandiseRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
 
     @BeforeEach
     void setUp() {
@@ -234,5 +243,27 @@ class ServiceRepositoryTest {
         assertTrue(found.isEmpty());
     }
 
+    // Tests for findPlanningCandidates
+    @Test
+    void findPlanningCandidates_PendingAndDeletedReviews_NotAveraged() {
+        service1.setVisible(true);
+        service1.setReviews(new ArrayList<>(List.of(
+                review(4, ReviewStatus.APPROVED, false),
+                review(1, ReviewStatus.PENDING, false),
+                review(1, ReviewStatus.APPROVED, true))));
+        serviceRepository.save(service1);
+
+        List<Object[]> found = merchandiseRepository.findPlanningCandidates(Collections.singletonList(category1.getId()));
 
-}
\ No newline at end of file
+        assertEquals(1, found.size());
+        assertEquals(4.0, ((Number) found.get(0)[5]).doubleValue());
+    }
+
+    private Review review(int rating, ReviewStatus status, boolean deleted) {
+        Review review = new Review();
+        review.setRating(rating);
+        review.setStatus(status);
+        review.setDeleted(deleted);
+        return reviewRepository.save(review);
+    }
+}
@@ -22,8 +22,11 @@ import com.example.eventplanner.repositories.user.ServiceProviderRepository;
 import com.example.eventplanner.repositories.user.UserRepository;
 import com.example.eventplanner.services.clock.ReservationNotificationScheduler;
 import com.example.eventplanner.services.email.EmailService;
+import com.example.eventplanner.services.email.template.EmailTemplates;
 import com.example.eventplanner.services.merchandise.ServiceService;
 import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.budget.BudgetRollupService;
+import com.example.eventplanner.services.merchandise.PurchaseLedgerService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -65,6 +69,13 @@ class ServiceReservationServiceTest {
     @Mock
     private ReservationNotificationScheduler reservationNotificationScheduler;
 
+    @Mock
+    private BudgetRollupService budgetRollupService;
+    @Mock
+    private PurchaseLedgerService purchaseLedgerService;
+    @Spy
+    private EmailTemplates emailTemplates = new EmailTemplates();
+
     @InjectMocks
     private ServiceService reservationService;
 
@@ -0,0 +1,84 @@
+package com.example.eventplanner.notification;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.NotificationType;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.notification.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statements of the notification fan-out, one round trip per user against pooled ids with JDBC batching
+@SpringBootTest
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class NotificationInsertBenchmarkTest {
+    private static final int USERS = 500;
+
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private List<Integer> userIds;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            AuthenticatedUser user = new AuthenticatedUser();
+            user.setUsername("bench" + System.nanoTime() + "-" + i + "@mail.com");
+            user.setAddress(new Address());
+            user.setNotifications(new ArrayList<>());
+            users.add(user);
+        }
+        userIds = userRepository.saveAll(users).stream().map(User::getId).toList();
+        // Enabled on the shared context instead of through properties, a second context would reset the schema
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("sendNotificationToUsers-BatchedInserts")
+    @Tag("benchmark")
+    void sendNotificationToUsers_BatchesInserts() {
+        statistics.clear();
+        for (Integer userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> notificationService.sendNotificationToUser(
+                    userRepository.findById(userId).orElseThrow(), "Per user", NotificationType.EVENT, 1));
+        }
+        long perUserStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> notificationService.sendNotificationToUsers(
+                userRepository.findAllById(userIds), "Batched", NotificationType.EVENT, 1));
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        // select, notification insert and join table insert per user versus a handful of batches
+        assertThat(perUserStatements).isGreaterThanOrEqualTo(USERS * 3L);
+        assertThat(batchedStatements).isLessThan(USERS / 10);
+        statistics.setStatisticsEnabled(false);
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.eventplanner.notification;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.notification.NotificationDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.common.Notification;
+import com.example.eventplanner.model.common.NotificationType;
+import com.example.eventplanner.model.user.AuthenticatedUser;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.notification.NotificationRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.notification.NotificationStreamService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own context, the small buffer and user limit make the database fallback reachable, the single sender can be held up
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "application.notifications.stream.buffer-size=5",
+        "application.notifications.stream.max-users=3",
+        "application.notifications.stream.queue-size=8",
+        "application.notifications.stream.senders=1"})
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class NotificationStreamTest {
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    @Autowired
+    private NotificationRepository notificationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private record SseEvent(String id, String name, String data) {
+    }
+
+    @Test
+    @DisplayName("stream-LiveNotification")
+    @Tag("success")
+    void stream_NotificationSentWhileConnected_Pushed() throws Exception {
+        User user = user();
+
+        List<SseEvent> events = events(user, null, 1, () -> send(user, "Live one"));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).name()).isEqualTo("notification");
+        assertThat(events.get(0).id()).isEqualTo(String.valueOf(ids(user).get(0)));
+        assertThat(events.get(0).data()).contains("Live one");
+    }
+
+    @Test
+    @DisplayName("stream-ReplayFromMemory")
+    @Tag("budget")
+    void stream_ReconnectWithLastEventId_OnlyGapWithoutStatements() {
+        User user = user();
+        for (int i = 0; i < 3; i++) {
+            send(user, "Missed " + i);
+        }
+        List<Long> ids = ids(user);
+
+        AtomicReference<List<SseEvent>> events = new AtomicReference<>();
+        long statements = new StatementCounter(entityManagerFactory)
+                .count(() -> events.set(events(user, String.valueOf(ids.get(0)), 2, () -> { })));
+
+        assertThat(events.get()).extracting(SseEvent::id)
+                .containsExactly(String.valueOf(ids.get(1)), String.valueOf(ids.get(2)));
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    @DisplayName("stream-ReplayFromDatabase")
+    @Tag("success")
+    void stream_BufferEvicted_GapReadOnceThenFromMemory() {
+        User user = user();
+        send(user, "First");
+        send(user, "Second");
+        List<Long> ids = ids(user);
+        // Enough other users to push this one out of the buffers
+        for (int i = 0; i < 5; i++) {
+            send(user(), "Other " + i);
+        }
+
+        StatementCounter statementCounter = new StatementCounter(entityManagerFactory);
+        AtomicReference<List<SseEvent>> first = new AtomicReference<>();
+        long firstStatements = statementCounter.count(() -> first.set(events(user, String.valueOf(ids.get(0)), 1, () -> { })));
+        AtomicReference<List<SseEvent>> second = new AtomicReference<>();
+        long secondStatements = statementCounter.count(() -> second.set(events(user, String.valueOf(ids.get(0)), 1, () -> { })));
+
+        assertThat(first.get()).extracting(SseEvent::id).containsExactly(String.valueOf(ids.get(1)));
+        assertThat(second.get()).extracting(SseEvent::id).containsExactly(String.valueOf(ids.get(1)));
+        assertThat(firstStatements).isPositive();
+        assertThat(secondStatements).isZero();
+    }
+
+    @Test
+    @DisplayName("stream-LateCommit")
+    @Tag("success")
+    void stream_LowerIdCommitsLast_ReplayedAfterLaterCursor() throws Exception {
+        User user = user();
+        CountDownLatch persisted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // Takes its id, then attaches it to the user after the other one committed
+        Thread late = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            Notification notification = new Notification();
+            notification.setContent("Late");
+            notification.setType(NotificationType.EVENT);
+            notification = notificationRepository.save(notification);
+            persisted.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            User recipient = userRepository.findById(user.getId()).orElseThrow();
+            recipient.getNotifications().add(notification);
+            userRepository.save(recipient);
+        }));
+        late.start();
+        assertThat(persisted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        send(user, "Early");
+        List<Long> seen = ids(user);
+        commit.countDown();
+        late.join(10_000);
+        notificationStreamService.publish();
+
+        List<NotificationDTO> notifications = notificationRepository.findByUserAfter(user.getId(), 0, PageRequest.of(0, 100));
+        assertThat(notifications).extracting(NotificationDTO::getContent).containsExactly("Early", "Late");
+        // The late one took its id first
+        assertThat(notifications.get(1).getId()).isLessThan(notifications.get(0).getId());
+        assertThat(seen).hasSize(1);
+        List<SseEvent> events = events(user, String.valueOf(seen.get(0)), 1, () -> { });
+        assertThat(events).extracting(SseEvent::id).containsExactly(String.valueOf(notifications.get(1).getSequence()));
+        assertThat(events.get(0).data()).contains("Late");
+    }
+
+    @Test
+    @DisplayName("stream-GapTooLarge")
+    @Tag("success")
+    void stream_GapLargerThanBuffer_Resync() {
+        User user = user();
+        for (int i = 0; i < 8; i++) {
+            send(user, "Burst " + i);
+        }
+
+        List<SseEvent> events = events(user, String.valueOf(ids(user).get(0)), 1, () -> { });
+
+        assertThat(events).extracting(SseEvent::name).containsExactly("resync");
+    }
+
+    @Test
+    @DisplayName("stream-SlowClient")
+    @Tag("error")
+    void stream_SenderStalledPastQueue_CommitsGoThroughAndStreamDropped() throws Exception {
+        User user = user();
+        CountDownLatch stalled = new CountDownLatch(1);
+        ExecutorService senders = (ExecutorService) ReflectionTestUtils.getField(notificationStreamService, "senders");
+
+        List<SseEvent> events = events(user, null, 1, () -> {
+            // Occupies the only sender, the commits below may queue events but never write them
+            senders.execute(() -> {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            for (int i = 0; i < 9; i++) {
+                send(user, "Queued " + i);
+            }
+            stalled.countDown();
+        });
+
+        assertThat(ids(user)).hasSize(9);
+        // The queue overflowed on the ninth, the stream was closed without the stale events
+        assertThat(events).isEmpty();
+    }
+
+    private User user() {
+        AuthenticatedUser user = new AuthenticatedUser();
+        user.setUsername("stream" + System.nanoTime() + "@mail.com");
+        user.setAddress(new Address());
+        user.setNotifications(new ArrayList<>());
+        return userRepository.save(user);
+    }
+
+    private void send(User user, String content) {
+        transactionTemplate.executeWithoutResult(status -> notificationService.sendNotificationToUser(
+                userRepository.findById(user.getId()).orElseThrow(), content, NotificationType.EVENT, 1));
+    }
+
+    // Stream cursors of the user's notifications in commit order
+    private List<Long> ids(User user) {
+        return notificationRepository.findByUserAfter(user.getId(), 0, PageRequest.of(0, 100)).stream()
+                .map(NotificationDTO::getSequence).toList();
+    }
+
+    // Connects, runs the action and reads until the expected number of events arrived
+    private List<SseEvent> events(User user, String lastEventId, int expected, Runnable whileConnected) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/notifications/stream/" + user.getId()))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        try {
+            HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+            assertThat(response.statusCode()).isEqualTo(200);
+            try (Stream<String> lines = response.body()) {
+                whileConnected.run();
+                return CompletableFuture.supplyAsync(() -> read(lines.iterator(), expected)).get(10, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<SseEvent> read(Iterator<String> lines, int expected) {
+        List<SseEvent> events = new ArrayList<>();
+        String id = null;
+        String name = null;
+        StringBuilder data = new StringBuilder();
+        while (events.size() < expected && lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                // The retry hint sent on connect carries no event
+                if (name != null) {
+                    events.add(new SseEvent(id, name, data.toString()));
+                }
+                id = null;
+                name = null;
+                data.setLength(0);
+            } else if (line.startsWith("id:")) {
+                id = line.substring(3);
+            } else if (line.startsWith("event:")) {
+                name = line.substring(6);
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.eventplanner.review;
+
+import com.example.eventplanner.dto.merchandise.review.ReviewOverviewDTO;
+import com.example.eventplanner.dto.review.PendingReviewPageDTO;
+import com.example.eventplanner.exceptions.LeaveReviewException;
+import com.example.eventplanner.model.common.Review;
+import com.example.eventplanner.model.common.ReviewTargetType;
+import com.example.eventplanner.model.common.ReviewType;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.merchandise.ReviewStatus;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.merchandise.MerchandiseRepository;
+import com.example.eventplanner.repositories.review.ReviewRepository;
+import com.example.eventplanner.repositories.user.ServiceProviderRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.notification.NotificationService;
+import com.example.eventplanner.services.review.ReviewService;
+import com.example.eventplanner.services.merchandise.PurchaseLedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private MerchandiseRepository merchandiseRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private ServiceProviderRepository serviceProviderRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PurchaseLedgerService purchaseLedgerService;
+
+    @InjectMocks
+    private ReviewService reviewService;
+
+    @Test
+    @DisplayName("getPendingReviews-BatchedTargetLookups")
+    @Tag("success")
+    void getPendingReviews_MixedTargets_OneQueryPerTargetKind() {
+        when(reviewRepository.findPageByStatus(ReviewStatus.PENDING, 0, PageRequest.of(0, 3))).thenReturn(List.of(
+                review(1, ReviewTargetType.EVENT, 10),
+                review(2, ReviewTargetType.SERVICE, 20),
+                review(3, ReviewTargetType.PRODUCT, 21)
+        ));
+        when(eventRepository.findTitlesByIdIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10, "Summit"}));
+        when(merchandiseRepository.findTitlesByIdIn(anyCollection())).thenReturn(List.of(
+                new Object[]{20, "DJ"}, new Object[]{21, "Balloons"}));
+
+        PendingReviewPageDTO page = reviewService.getPendingReviews(0, 2);
+
+        assertEquals(2, page.getReviews().size());
+        assertEquals(2, page.getNextCursor());
+        assertEquals("Summit", page.getReviews().get(0).getReviewedTitle());
+        assertEquals("EVENT", page.getReviews().get(0).getReviewedType());
+        assertEquals("DJ", page.getReviews().get(1).getReviewedTitle());
+        verify(eventRepository, times(1)).findTitlesByIdIn(anyCollection());
+        verify(merchandiseRepository, times(1)).findTitlesByIdIn(anyCollection());
+        verify(eventRepository, never()).findByReviewsContaining(any());
+        verify(merchandiseRepository, never()).findByReviewsContaining(any());
+        verifyNoInteractions(serviceProviderRepository, notificationService);
+    }
+
+    @Test
+    @DisplayName("getPendingReviews-LastPage")
+    @Tag("success")
+    void getPendingReviews_LastPage_NoCursor() {
+        when(reviewRepository.findPageByStatus(ReviewStatus.PENDING, 5, PageRequest.of(0, 3)))
+                .thenReturn(List.of(review(6, ReviewTargetType.EVENT, 10)));
+        when(eventRepository.findTitlesByIdIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10, "Summit"}));
+
+        PendingReviewPageDTO page = reviewService.getPendingReviews(5, 2);
+
+        assertEquals(1, page.getReviews().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("approveReview-NotifiesOrganizer")
+    @Tag("success")
+    void approveReview_EventReview_NotifiesOrganizer() {
+        Review review = review(1, ReviewTargetType.EVENT, 10);
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setId(7);
+        Event event = new Event();
+        event.setId(10);
+        event.setOrganizer(organizer);
+        when(reviewRepository.findById(1)).thenReturn(Optional.of(review));
+        when(eventRepository.findTitlesByIdIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10, "Summit"}));
+        when(eventRepository.findById(10)).thenReturn(Optional.of(event));
+
+        ReviewOverviewDTO result = reviewService.approveReview(1);
+
+        assertEquals(ReviewStatus.APPROVED, result.getStatus());
+        verify(notificationService).notifyOfNewReview(eq(7), eq(result), eq(10));
+        verify(eventRepository).incrementVersion(10);
+    }
+
+    @Test
+    @DisplayName("denyReview-NoNotification")
+    @Tag("success")
+    void denyReview_ValidReview_DoesNotNotify() {
+        Review review = review(1, ReviewTargetType.SERVICE, 20);
+        when(reviewRepository.findById(1)).thenReturn(Optional.of(review));
+        when(merchandiseRepository.findTitlesByIdIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{20, "DJ"}));
+
+        reviewService.denyReview(1);
+
+        assertTrue(review.isDeleted());
+        verifyNoInteractions(notificationService);
+        verify(merchandiseRepository).incrementVersion(20);
+    }
+
+    @Test
+    @DisplayName("isEligibleForReview-OrganizerBoughtMerchandise")
+    @Tag("success")
+    void isEligibleForReview_OrganizerBoughtMerchandise_ProbesLedger() {
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setId(7);
+        when(userRepository.findById(7)).thenReturn(Optional.of(organizer));
+        when(merchandiseRepository.existsById(20)).thenReturn(true);
+        when(purchaseLedgerService.hasOrganizerBought(7, 20)).thenReturn(true);
+
+        assertTrue(reviewService.isEligibleForReview(7, 20, ReviewType.MERCHANDISE_REVIEW));
+        verify(merchandiseRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    @DisplayName("isEligibleForReview-AlreadyReviewed")
+    @Tag("conflict")
+    void isEligibleForReview_AlreadyReviewed_ThrowsException() {
+        User user = new User();
+        user.setId(8);
+        when(userRepository.findById(8)).thenReturn(Optional.of(user));
+        when(merchandiseRepository.existsById(20)).thenReturn(true);
+        when(reviewRepository.existsByReviewer_IdAndTargetTypeInAndTargetId(eq(8), anyCollection(), eq(20))).thenReturn(true);
+
+        LeaveReviewException exception = assertThrows(LeaveReviewException.class,
+                () -> reviewService.isEligibleForReview(8, 20, ReviewType.MERCHANDISE_REVIEW));
+
+        assertEquals(LeaveReviewException.ErrorType.REVIEW_ALREADY_EXISTS, exception.getErrorType());
+        verifyNoInteractions(purchaseLedgerService);
+    }
+
+    private Review review(int id, ReviewTargetType targetType, int targetId) {
+        User reviewer = new User();
+        reviewer.setUsername("reviewer@mail.com");
+
+        Review review = new Review();
+        review.setId(id);
+        review.setComment("Comment " + id);
+        review.setRating(4);
+        review.setStatus(ReviewStatus.PENDING);
+        review.setReviewer(reviewer);
+        review.setTargetType(targetType);
+        review.setTargetId(targetId);
+        return review;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.eventplanner.search;
+
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.event.EventOverviewDTO;
+import com.example.eventplanner.dto.filter.EventFiltersDTO;
+import com.example.eventplanner.dto.filter.ProductFiltersDTO;
+import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
+import com.example.eventplanner.dto.search.AutocompleteSuggestionDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.Event;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.Product;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.event.EventRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.ProductRepository;
+import com.example.eventplanner.services.event.EventService;
+import com.example.eventplanner.services.merchandise.ProductService;
+import com.example.eventplanner.services.search.AutocompleteIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class AutocompleteIndexTest {
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+
+    private String marker;
+    private String city;
+
+    @BeforeEach
+    void setUp() {
+        // Loads the index before the writes below, so they go through the incremental path
+        autocompleteIndex.complete("a", 1);
+        marker = "Zq" + System.nanoTime();
+        city = "Niš Yq" + System.nanoTime();
+    }
+
+    @Test
+    @DisplayName("complete-AfterWrites")
+    @Tag("success")
+    void complete_CommittedWrites_AreSuggested() {
+        Event event = createEvent(marker + " Gala", city, true);
+        createProduct(marker + " Cake", city);
+
+        List<AutocompleteSuggestionDTO> suggestions = autocompleteIndex.complete(marker.toLowerCase(), 10);
+
+        assertThat(suggestions).extracting(AutocompleteSuggestionDTO::getText)
+                .containsExactlyInAnyOrder(marker + " Gala", marker + " Cake");
+        // Both entities are in the same city, matched without the accent
+        assertThat(autocompleteIndex.complete("nis yq", 10)).filteredOn(suggestion -> suggestion.getText().equals(city))
+                .singleElement()
+                .satisfies(city -> {
+                    assertThat(city.getKind()).isEqualTo("CITY");
+                    assertThat(city.getWeight()).isEqualTo(2);
+                });
+        // Titles also complete from their later words
+        assertThat(autocompleteIndex.complete("gala", 10)).extracting(AutocompleteSuggestionDTO::getText)
+                .contains(marker + " Gala");
+
+        event.setTitle(marker + " Ball");
+        eventRepository.save(event);
+
+        assertThat(autocompleteIndex.complete(marker, 10)).extracting(AutocompleteSuggestionDTO::getText)
+                .containsExactlyInAnyOrder(marker + " Ball", marker + " Cake");
+    }
+
+    @Test
+    @DisplayName("complete-HiddenEntities")
+    @Tag("success")
+    void complete_PrivateEventAndDeletedProduct_AreNotSuggested() {
+        createEvent(marker + " Private", "Kragujevac", false);
+        Product product = createProduct(marker + " Gone", "Kragujevac");
+        product.setDeleted(true);
+        productRepository.save(product);
+
+        assertThat(autocompleteIndex.complete(marker, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("expandSearch-Typos")
+    @Tag("success")
+    void expandSearch_MisspelledWord_AddsVocabularyCorrections() {
+        createProduct(marker + " Photographer", city);
+        createEvent(marker + " Gala", "Kvrzograd", true);
+
+        assertThat(autocompleteIndex.expandSearch("Fotografer")).startsWith("fotografer").contains("photographer");
+        assertThat(autocompleteIndex.expandSearch("kvrzogard")).contains("kvrzograd");
+        // Known words, beginnings of terms and short words are searched as they are
+        assertThat(autocompleteIndex.expandSearch("photographer")).containsExactly("photographer");
+        assertThat(autocompleteIndex.expandSearch("kvrzog")).containsExactly("kvrzog");
+        assertThat(autocompleteIndex.expandSearch("fto")).containsExactly("fto");
+        assertThat(autocompleteIndex.expandSearch("a b c d e f g")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("search-Typo")
+    @Tag("success")
+    void search_MisspelledTitle_FindsProduct() {
+        Category category = new Category();
+        category.setTitle(marker + " Media");
+        Product product = createProduct(marker + " Photographer", city);
+        // The global search joins the category
+        product.setCategory(categoryRepository.save(category));
+        productRepository.save(product);
+        ProductFiltersDTO filters = new ProductFiltersDTO(null, null, null, null, null, city);
+
+        List<MerchandiseOverviewDTO> found = productService.search(0, filters, "fotografer", PageRequest.of(0, 10))
+                .getContent();
+
+        assertThat(found).extracting(MerchandiseOverviewDTO::getId).containsExactly(product.getId());
+    }
+
+    @Test
+    @DisplayName("search-VocabularyChangedByOtherDomain")
+    @Tag("success")
+    void search_MerchandiseAddsCorrection_CachedEventSearchNotReused() {
+        String word = "kwo" + letters(System.nanoTime());
+        String typo = word.substring(0, word.length() - 1) + (word.endsWith("z") ? "y" : "z");
+        Event event = createEvent(marker + " Gala", city, true);
+        EventType type = new EventType();
+        type.setTitle("Gala");
+        type.setActive(true);
+        // Descriptions are searched but not indexed, only the product below teaches the vocabulary the word
+        event.setType(eventTypeRepository.save(type));
+        event.setDescription("Rentals " + word);
+        eventRepository.save(event);
+        EventFiltersDTO filters = new EventFiltersDTO(null, null, null, city);
+
+        assertThat(eventService.search(0, filters, typo, PageRequest.of(0, 10)).getContent()).isEmpty();
+        createProduct(word, "Elsewhere " + marker);
+
+        assertThat(eventService.search(0, filters, typo, PageRequest.of(0, 10)).getContent())
+                .extracting(EventOverviewDTO::getId).containsExactly(event.getId());
+        assertThat(eventService.countSearch(0, filters, typo)).isEqualTo(1);
+    }
+
+    private static String letters(long value) {
+        StringBuilder letters = new StringBuilder();
+        for (char digit : Long.toString(value).toCharArray()) {
+            letters.append((char) ('a' + digit - '0'));
+        }
+        return letters.toString();
+    }
+
+    private Event createEvent(String title, String city, boolean isPublic) {
+        Address address = new Address();
+        address.setCity(city);
+        Event event = new Event();
+        event.setTitle(title);
+        event.setAddress(address);
+        event.setDate(LocalDateTime.now().plusDays(10));
+        event.setPublic(isPublic);
+        return eventRepository.save(event);
+    }
+
+    private Product createProduct(String title, String city) {
+        Address address = new Address();
+        address.setCity(city);
+        Product product = new Product();
+        product.setTitle(title);
+        product.setAddress(address);
+        product.setVisible(true);
+        product.setAvailable(true);
+        return productRepository.save(product);
+    }
+}
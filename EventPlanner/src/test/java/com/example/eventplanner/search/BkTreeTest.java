@@ -0,0 +1,52 @@
+package com.example.eventplanner.search;
+
+import com.example.eventplanner.services.search.BkTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BkTreeTest {
+    private BkTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BkTree();
+        List.of("belgrade", "beograd", "berlin", "bern", "novi", "sad", "wedding", "catering").forEach(tree::add);
+    }
+
+    @Test
+    @DisplayName("search-WithinDistance")
+    @Tag("success")
+    void search_Typo_ReturnsWordsWithinDistanceClosestFirst() {
+        assertThat(tree.search("beogard", 2)).extracting(BkTree.Match::word).containsExactly("beograd");
+        assertThat(tree.search("belgrad", 2)).containsExactly(
+                new BkTree.Match("belgrade", 1),
+                new BkTree.Match("beograd", 1));
+        assertThat(tree.search("berm", 1)).extracting(BkTree.Match::word).containsExactly("bern");
+        assertThat(tree.search("weding", 1)).extracting(BkTree.Match::word).containsExactly("wedding");
+    }
+
+    @Test
+    @DisplayName("search-NothingClose")
+    @Tag("success")
+    void search_FarWord_ReturnsNothing() {
+        assertThat(tree.search("zzzz", 2)).isEmpty();
+        assertThat(tree.search("bern", 0)).extracting(BkTree.Match::word).containsExactly("bern");
+    }
+
+    @Test
+    @DisplayName("add-Duplicate")
+    @Tag("success")
+    void add_SameWordTwice_KeptOnce() {
+        tree.add("bern");
+
+        assertThat(tree.size()).isEqualTo(8);
+        tree.clear();
+        assertThat(tree.search("bern", 2)).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.eventplanner.search;
+
+import com.example.eventplanner.services.search.CompletionTrie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompletionTrieTest {
+    private final Map<String, Integer> weights = new HashMap<>();
+    private CompletionTrie<String> trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CompletionTrie<>(3, Comparator.<String>comparingInt(weights::get).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        add("belgrade", 5);
+        add("berlin", 3);
+        add("bern", 1);
+        add("novi sad", 4);
+        add("beograd", 2);
+    }
+
+    @Test
+    @DisplayName("complete-RankedByWeight")
+    @Tag("success")
+    void complete_Prefix_ReturnsBestRankedFirst() {
+        assertThat(trie.complete("be", 10)).containsExactly("belgrade", "berlin", "beograd");
+        assertThat(trie.complete("ber", 10)).containsExactly("berlin", "bern");
+        assertThat(trie.complete("b", 1)).containsExactly("belgrade");
+    }
+
+    @Test
+    @DisplayName("complete-InsideEdge")
+    @Tag("success")
+    void complete_PrefixEndingInsideEdge_ReturnsCompletions() {
+        assertThat(trie.complete("nov", 10)).containsExactly("novi sad");
+        assertThat(trie.complete("novi sad", 10)).containsExactly("novi sad");
+    }
+
+    @Test
+    @DisplayName("complete-NoMatch")
+    @Tag("error")
+    void complete_UnknownPrefix_ReturnsEmpty() {
+        assertThat(trie.complete("bx", 10)).isEmpty();
+        assertThat(trie.complete("novi sadx", 10)).isEmpty();
+        assertThat(trie.complete("x", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("remove-PromotesNext")
+    @Tag("success")
+    void remove_Value_NextBestMovesUp() {
+        trie.remove("belgrade", "belgrade");
+
+        assertThat(trie.complete("be", 10)).containsExactly("berlin", "beograd", "bern");
+        assertThat(trie.complete("bel", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refresh-WeightChange")
+    @Tag("success")
+    void refresh_ChangedWeight_Reorders() {
+        weights.put("bern", 10);
+        trie.refresh("bern");
+
+        assertThat(trie.complete("be", 10)).containsExactly("bern", "belgrade", "berlin");
+    }
+
+    @Test
+    @DisplayName("add-SharedKey")
+    @Tag("success")
+    void add_SecondValueUnderSameKey_BothComplete() {
+        weights.put("sad", 1);
+        trie.add("sad", "sad");
+        trie.add("sad", "novi sad");
+
+        assertThat(trie.complete("sa", 10)).containsExactly("novi sad", "sad");
+    }
+
+    private void add(String value, int weight) {
+        weights.put(value, weight);
+        trie.add(value, value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.eventplanner.search;
+
+import com.example.eventplanner.services.clock.Clock;
+import com.example.eventplanner.services.search.SearchCountCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchCountCacheTest {
+    @Mock
+    private Clock clock;
+
+    private SearchCountCache searchCountCache;
+    private final AtomicInteger counted = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        searchCountCache = new SearchCountCache(clock);
+        ReflectionTestUtils.setField(searchCountCache, "ttlMillis", 30_000L);
+    }
+
+    @Test
+    @DisplayName("get-SameNormalizedFilter")
+    @Tag("success")
+    void get_SameNormalizedFilter_CountsOnce() {
+        when(clock.now()).thenReturn(Instant.ofEpochMilli(1_000));
+
+        long first = searchCountCache.get(SearchCountCache.key("service", "Novi Sad", null, List.of(3)), this::count);
+        long second = searchCountCache.get(SearchCountCache.key("service", "novi sad", "", List.of(3)), this::count);
+
+        assertEquals(7, first);
+        assertEquals(7, second);
+        assertEquals(1, counted.get());
+    }
+
+    @Test
+    @DisplayName("get-DifferentFilter")
+    @Tag("success")
+    void get_DifferentFilter_CountsAgain() {
+        when(clock.now()).thenReturn(Instant.ofEpochMilli(1_000));
+
+        searchCountCache.get(SearchCountCache.key("service", "novi sad", List.of()), this::count);
+        searchCountCache.get(SearchCountCache.key("service", "novi sad", List.of(3)), this::count);
+        searchCountCache.get(SearchCountCache.key("product", "novi sad", List.of()), this::count);
+
+        assertEquals(3, counted.get());
+    }
+
+    @Test
+    @DisplayName("get-Expired")
+    @Tag("success")
+    void get_AfterTtl_CountsAgain() {
+        when(clock.now()).thenReturn(Instant.ofEpochMilli(1_000), Instant.ofEpochMilli(30_999),
+                Instant.ofEpochMilli(31_000));
+
+        List<Object> key = SearchCountCache.key("event", "belgrade");
+        searchCountCache.get(key, this::count);
+        searchCountCache.get(key, this::count);
+        assertEquals(1, counted.get());
+
+        searchCountCache.get(key, this::count);
+        assertEquals(2, counted.get());
+    }
+
+    private long count() {
+        counted.incrementAndGet();
+        return 7;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.eventplanner.search;
+
+import com.example.eventplanner.config.StatementCounter;
+import com.example.eventplanner.config.TestSecurityConfig;
+import com.example.eventplanner.dto.filter.ServiceFiltersDTO;
+import com.example.eventplanner.dto.merchandise.MerchandiseOverviewDTO;
+import com.example.eventplanner.dto.search.SearchCacheStatsDTO;
+import com.example.eventplanner.model.common.Address;
+import com.example.eventplanner.model.event.Category;
+import com.example.eventplanner.model.event.EventType;
+import com.example.eventplanner.model.merchandise.MerchandiseState;
+import com.example.eventplanner.model.merchandise.Service;
+import com.example.eventplanner.model.user.EventOrganizer;
+import com.example.eventplanner.model.user.ServiceProvider;
+import com.example.eventplanner.repositories.category.CategoryRepository;
+import com.example.eventplanner.repositories.eventType.EventTypeRepository;
+import com.example.eventplanner.repositories.merchandise.ServiceRepository;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.services.category.CategoryService;
+import com.example.eventplanner.services.merchandise.ServiceService;
+import com.example.eventplanner.services.search.SearchResultCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("jpatest")
+@Import(TestSecurityConfig.class)
+public class SearchResultCacheTest {
+    private static final int ANONYMOUS = 0;
+
+    @Autowired
+    private ServiceService serviceService;
+    @Autowired
+    private SearchResultCache searchResultCache;
+    @Autowired
+    private ServiceRepository serviceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventTypeRepository eventTypeRepository;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String city;
+    private ServiceProvider blockedProvider;
+    private List<Service> keptServices;
+
+    @BeforeEach
+    void setUp() {
+        city = "Cache City " + System.nanoTime();
+        keptServices = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            keptServices.add(createService("Kept " + i));
+        }
+        createProvider(keptServices);
+        blockedProvider = createProvider(List.of(createService("Blocked 0"), createService("Blocked 1")));
+    }
+
+    @Test
+    @DisplayName("search-RepeatedFilter")
+    @Tag("success")
+    void search_RepeatedFilter_ServedFromCache() {
+        Page<MerchandiseOverviewDTO> first = search(ANONYMOUS);
+        SearchCacheStatsDTO before = searchResultCache.getStats();
+
+        AtomicReference<Page<MerchandiseOverviewDTO>> second = new AtomicReference<>();
+        long statements = new StatementCounter(entityManagerFactory).count(() -> second.set(search(ANONYMOUS)));
+
+        assertThat(second.get().getContent()).isEqualTo(first.getContent());
+        assertThat(second.get().getTotalElements()).isEqualTo(5);
+        assertThat(searchResultCache.getStats().getHits()).isEqualTo(before.getHits() + 1);
+        // Viewer lookup and the cached rows by id, no page or count query
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("search-AfterMerchandiseWrite")
+    @Tag("success")
+    void search_AfterMerchandiseWrite_ReloadsPage() {
+        search(ANONYMOUS);
+        long generation = searchResultCache.getStats().getMerchandiseGeneration();
+
+        Service renamed = keptServices.get(0);
+        renamed.setTitle("Renamed");
+        serviceRepository.save(renamed);
+
+        assertThat(searchResultCache.getStats().getMerchandiseGeneration()).isGreaterThan(generation);
+        assertThat(search(ANONYMOUS).getContent()).extracting(MerchandiseOverviewDTO::getTitle).contains("Renamed");
+    }
+
+    @Test
+    @DisplayName("search-OrganizerWithBlockList")
+    @Tag("success")
+    void search_OrganizerBlockingProvider_GetsExactPage() {
+        search(ANONYMOUS);
+
+        EventOrganizer organizer = new EventOrganizer();
+        organizer.setUsername("blocking" + System.nanoTime() + "@mail.com");
+        organizer.setAddress(new Address());
+        organizer.setBlockedUsers(new ArrayList<>(List.of(blockedProvider)));
+        int organizerId = userRepository.save(organizer).getId();
+
+        Page<MerchandiseOverviewDTO> page = transactionTemplate.execute(status -> search(organizerId));
+
+        assertThat(page.getContent()).extracting(MerchandiseOverviewDTO::getId)
+                .containsExactlyElementsOf(keptServices.stream().map(Service::getId).toList());
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("search-AfterCategoryApproved")
+    @Tag("success")
+    void search_CategoryApproved_PageAndCountReloaded() {
+        Category pending = createCategory("Pending", true);
+        Service service = keptServices.get(0);
+        service.setCategory(pending);
+        service.setState(MerchandiseState.PENDING);
+        serviceRepository.save(service);
+        if (!eventTypeRepository.existsById(1)) {
+            eventTypeRepository.save(new EventType(0, "All", "All categories", true, new ArrayList<>()));
+        }
+        search(pending.getTitle());
+        serviceService.countSearch(ANONYMOUS, filters(pending.getTitle()), null);
+        SearchCacheStatsDTO before = searchResultCache.getStats();
+
+        categoryService.approveCategory(pending.getId());
+        AtomicReference<Page<MerchandiseOverviewDTO>> page = new AtomicReference<>();
+        long statements = new StatementCounter(entityManagerFactory).count(() -> {
+            page.set(search(pending.getTitle()));
+            serviceService.countSearch(ANONYMOUS, filters(pending.getTitle()), null);
+        });
+
+        assertThat(page.get().getContent()).extracting(MerchandiseOverviewDTO::getId).containsExactly(service.getId());
+        SearchCacheStatsDTO after = searchResultCache.getStats();
+        assertThat(after.getMerchandiseGeneration()).isGreaterThan(before.getMerchandiseGeneration());
+        assertThat(after.getHits()).isEqualTo(before.getHits());
+        // Viewer lookup, page, total and the count query of countSearch
+        assertThat(statements).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("search-AfterCategoryReplaced")
+    @Tag("success")
+    void search_CategoryReplaced_MovedMerchandiseFound() {
+        Category replaced = createCategory("Replaced", false);
+        Category target = createCategory("Target", false);
+        for (Service service : keptServices) {
+            service.setCategory(replaced);
+            serviceRepository.save(service);
+        }
+        assertThat(search(target.getTitle()).getContent()).isEmpty();
+        assertThat(serviceService.countSearch(ANONYMOUS, filters(target.getTitle()), null)).isZero();
+
+        categoryService.replaceCategory(target.getId(), replaced.getId());
+
+        assertThat(search(target.getTitle()).getContent()).extracting(MerchandiseOverviewDTO::getId)
+                .containsExactlyElementsOf(keptServices.stream().map(Service::getId).toList());
+        assertThat(serviceService.countSearch(ANONYMOUS, filters(target.getTitle()), null)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("cachedPage-ExactForViewer")
+    @Tag("success")
+    void cachedPage_BlockList_OnlyExactOnCleanFirstPage() {
+        SearchResultCache.CachedPage page = new SearchResultCache.CachedPage(List.of(1, 2), List.of(10, 11), 4);
+
+        assertThat(page.isExactFor(Set.of(), 3)).isTrue();
+        assertThat(page.isExactFor(Set.of(12), 0)).isTrue();
+        assertThat(page.isExactFor(Set.of(11), 0)).isFalse();
+        assertThat(page.isExactFor(Set.of(12), 1)).isFalse();
+    }
+
+    private Page<MerchandiseOverviewDTO> search(int userId) {
+        ServiceFiltersDTO filters = new ServiceFiltersDTO(null, null, null, null, null, city);
+        return serviceService.search(userId, filters, null, PageRequest.of(0, 10, Sort.by("id")));
+    }
+
+    private Page<MerchandiseOverviewDTO> search(String category) {
+        return serviceService.search(ANONYMOUS, filters(category), null, PageRequest.of(0, 10, Sort.by("id")));
+    }
+
+    private ServiceFiltersDTO filters(String category) {
+        return new ServiceFiltersDTO(null, null, category, null, null, city);
+    }
+
+    private Category createCategory(String title, boolean pending) {
+        Category category = new Category();
+        category.setTitle(title + " " + System.nanoTime());
+        category.setPending(pending);
+        return categoryRepository.save(category);
+    }
+
+    private Service createService(String title) {
+        Address address = new Address();
+        address.setCity(city);
+        Service service = new Service();
+        service.setTitle(title);
+        service.setAddress(address);
+        service.setVisible(true);
+        service.setAvailable(true);
+        service.setPrice(100);
+        return serviceRepository.save(service);
+    }
+
+    private ServiceProvider createProvider(List<Service> services) {
+        ServiceProvider provider = new ServiceProvider();
+        provider.setUsername("cached" + System.nanoTime() + "@mail.com");
+        provider.setAddress(new Address());
+        provider.setMerchandise(new ArrayList<>(services));
+        return userRepository.save(provider);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.eventplanner.userreport;
+
+import com.example.eventplanner.model.user.UserReport;
+import com.example.eventplanner.model.user.UserReportStatus;
+import com.example.eventplanner.repositories.userreport.UserReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpatest")
+class UserReportRepositoryTest {
+    @Autowired
+    private UserReportRepository userReportRepository;
+
+    private UserReport report;
+
+    @BeforeEach
+    void setUp() {
+        report = new UserReport();
+        report.setReason("Spam");
+        report.setStatus(UserReportStatus.PENDING);
+        report = userReportRepository.save(report);
+    }
+
+    // Tests for updateStatus
+    @Test
+    void updateStatus_StatusAsRead_Updated() {
+        int updated = userReportRepository.updateStatus(report.getId(), UserReportStatus.PENDING,
+                UserReportStatus.APPROVED, new Date());
+
+        assertEquals(1, updated);
+        assertEquals(UserReportStatus.APPROVED, userReportRepository.findStatusById(report.getId()).orElseThrow());
+    }
+
+    @Test
+    void updateStatus_ModeratedMeanwhile_NotUpdated() {
+        userReportRepository.updateStatus(report.getId(), UserReportStatus.PENDING, UserReportStatus.DENIED, new Date());
+
+        int updated = userReportRepository.updateStatus(report.getId(), UserReportStatus.PENDING,
+                UserReportStatus.APPROVED, new Date());
+
+        assertEquals(0, updated);
+        assertEquals(UserReportStatus.DENIED, userReportRepository.findStatusById(report.getId()).orElseThrow());
+    }
+
+    @Test
+    void updateStatus_NoStatusYet_Updated() {
+        report.setStatus(null);
+        userReportRepository.save(report);
+
+        int updated = userReportRepository.updateStatus(report.getId(), null, UserReportStatus.DENIED, new Date());
+
+        assertEquals(1, updated);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.eventplanner.userreport;
+
+import com.example.eventplanner.dto.user.UserReportOverviewDTO;
+import com.example.eventplanner.dto.user.UserSuspensionDTO;
+import com.example.eventplanner.model.user.User;
+import com.example.eventplanner.model.user.UserReport;
+import com.example.eventplanner.model.user.UserReportStatus;
+import com.example.eventplanner.model.user.UserSuspension;
+import com.example.eventplanner.repositories.user.UserRepository;
+import com.example.eventplanner.repositories.userreport.UserReportRepository;
+import com.example.eventplanner.repositories.userreport.UserSuspensionRepository;
+import com.example.eventplanner.services.clock.Clock;
+import com.example.eventplanner.services.userreport.ActiveSuspensionCache;
+import com.example.eventplanner.services.userreport.UserReportCounters;
+import com.example.eventplanner.services.userreport.UserReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserReportServiceTest {
+
+    @Mock
+    private UserReportRepository userReportRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserSuspensionRepository userSuspensionRepository;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private Clock clock;
+
+    private UserReportService userReportService;
+
+    private User reporter;
+    private User reportedUser;
+    private final LocalDateTime now = LocalDateTime.of(2026, 6, 12, 18, 30);
+
+    @BeforeEach
+    void setUp() {
+        userReportService = new UserReportService(userReportRepository, userRepository, userSuspensionRepository,
+                messagingTemplate, new UserReportCounters(userReportRepository),
+                new ActiveSuspensionCache(userSuspensionRepository, clock), clock);
+
+        reporter = new User();
+        reporter.setId(1);
+        reporter.setUsername("reporter@mail.com");
+
+        reportedUser = new User();
+        reportedUser.setId(2);
+        reportedUser.setUsername("reported@mail.com");
+
+        lenient().when(userReportRepository.countByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{UserReportStatus.PENDING, 3L},
+                new Object[]{UserReportStatus.APPROVED, 1L}
+        ));
+        lenient().when(userSuspensionRepository.findAllActiveAfter(any())).thenReturn(List.of());
+        lenient().when(clock.nowAsLocalDateTime()).thenReturn(now);
+        lenient().when(clock.now()).thenReturn(Instant.parse("2026-06-12T16:30:00Z"));
+    }
+
+    @Test
+    @DisplayName("getPendingReports-TotalFromCounter")
+    @Tag("success")
+    void getPendingReports_FirstPage_UsesCounterForTotal() {
+        when(userReportRepository.findPageByStatus(UserReportStatus.PENDING, PageRequest.of(0, 1)))
+                .thenReturn(List.of(report(10, UserReportStatus.PENDING)));
+
+        Page<UserReportOverviewDTO> page = userReportService.getPendingReports(PageRequest.of(0, 1));
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        verify(userReportRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("approveReport-UpdatesCountersAndSuspensions")
+    @Tag("success")
+    void approveReportAndSuspendUser_PendingReport_LoginSeesSuspensionWithoutQuery() {
+        when(userReportRepository.findById(10)).thenReturn(Optional.of(report(10, UserReportStatus.PENDING)));
+        when(userReportRepository.updateStatus(eq(10), eq(UserReportStatus.PENDING), eq(UserReportStatus.APPROVED), any()))
+                .thenReturn(1);
+        when(userSuspensionRepository.findByUserAndStartTimeBeforeAndEndTimeAfter(any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(userSuspensionRepository.save(any(UserSuspension.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userReportService.approveReportAndSuspendUser(10);
+        // Starts at the clock's now, so it is active a moment later
+        when(clock.nowAsLocalDateTime()).thenReturn(now.plusMinutes(1));
+        UserSuspensionDTO suspension = userReportService.getSuspension(reportedUser);
+
+        assertNotNull(suspension);
+        assertEquals(2, userReportService.getReportCounts().getPending());
+        assertEquals(2, userReportService.getReportCounts().getApproved());
+        verify(userSuspensionRepository, times(1)).findAllActiveAfter(any());
+        verify(userSuspensionRepository, times(1)).findByUserAndStartTimeBeforeAndEndTimeAfter(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("approveReport-AlreadyApprovedCountedOnce")
+    @Tag("success")
+    void approveReportAndSuspendUser_ApprovedByAnotherModerator_CountersUnchanged() {
+        when(userReportRepository.findById(10)).thenReturn(Optional.of(report(10, UserReportStatus.PENDING)));
+        when(userReportRepository.updateStatus(eq(10), eq(UserReportStatus.PENDING), eq(UserReportStatus.APPROVED), any()))
+                .thenReturn(0);
+        when(userReportRepository.findStatusById(10)).thenReturn(Optional.of(UserReportStatus.APPROVED));
+        when(userSuspensionRepository.findByUserAndStartTimeBeforeAndEndTimeAfter(any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(userSuspensionRepository.save(any(UserSuspension.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userReportService.approveReportAndSuspendUser(10);
+
+        assertEquals(3, userReportService.getReportCounts().getPending());
+        assertEquals(1, userReportService.getReportCounts().getApproved());
+        verify(userReportRepository, times(1)).updateStatus(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("denyReport-ApprovedMeanwhileMovedFromApproved")
+    @Tag("success")
+    void denyReport_ApprovedByAnotherModerator_MovedFromCommittedStatus() {
+        when(userReportRepository.findById(10)).thenReturn(Optional.of(report(10, UserReportStatus.PENDING)));
+        when(userReportRepository.updateStatus(eq(10), eq(UserReportStatus.PENDING), eq(UserReportStatus.DENIED), any()))
+                .thenReturn(0);
+        when(userReportRepository.findStatusById(10)).thenReturn(Optional.of(UserReportStatus.APPROVED));
+        when(userReportRepository.updateStatus(eq(10), eq(UserReportStatus.APPROVED), eq(UserReportStatus.DENIED), any()))
+                .thenReturn(1);
+
+        assertEquals(UserReportStatus.DENIED, userReportService.denyReport(10).getStatus());
+
+        assertEquals(3, userReportService.getReportCounts().getPending());
+        assertEquals(0, userReportService.getReportCounts().getApproved());
+        assertEquals(1, userReportService.getReportCounts().getDenied());
+    }
+
+    @Test
+    @DisplayName("getSuspension-ExpiredEntryDropped")
+    @Tag("success")
+    void getSuspension_SuspensionEnds_ReturnsNull() {
+        UserSuspension suspension = new UserSuspension(1L, reportedUser, now.minusDays(3), now.plusMinutes(5), "Spam");
+        when(userSuspensionRepository.findAllActiveAfter(now)).thenReturn(List.of(suspension));
+
+        assertNotNull(userReportService.getSuspension(reportedUser));
+        when(clock.nowAsLocalDateTime()).thenReturn(now.plusMinutes(5));
+
+        assertNull(userReportService.getSuspension(reportedUser));
+        verify(userSuspensionRepository, never()).findByUserAndStartTimeBeforeAndEndTimeAfter(any(), any(), any());
+    }
+
+    private UserReport report(int id, UserReportStatus status) {
+        UserReport report = new UserReport();
+        report.setId(id);
+        report.setReporter(reporter);
+        report.setReportedUser(reportedUser);
+        report.setReason("Spam");
+        report.setStatus(status);
+        return report;
+    }
+}